@@ -0,0 +1,78 @@
+package dev.magicmq.itemapi.benchmarks;
+
+import dev.magicmq.itemapi.ItemAPI;
+import dev.magicmq.itemapi.WrappedItem;
+import dev.magicmq.itemapi.serialization.ItemCodec;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures encoding and decoding items in ItemAPI's binary format, compared against the Java serialization that older versions used.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CodecBenchmark {
+
+    @Param({"basic", "banner", "book", "firework", "crossbow", "shulker-box", "nbt"})
+    public String item;
+
+    private WrappedItem wrapped;
+    private byte[] encoded;
+    private byte[] serialized;
+    private String base64;
+
+    @Setup
+    public void setup() throws IOException {
+        StubServer.install();
+        wrapped = new WrappedItem(Fixtures.load(Fixtures.BUKKIT, item));
+        encoded = ItemCodec.encode(wrapped);
+        serialized = javaSerialize();
+        base64 = wrapped.toBase64String();
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return ItemCodec.encode(wrapped);
+    }
+
+    @Benchmark
+    public WrappedItem decode() throws IOException, ClassNotFoundException {
+        return ItemCodec.decode(encoded);
+    }
+
+    @Benchmark
+    public String toBase64String() throws IOException {
+        return wrapped.toBase64String();
+    }
+
+    @Benchmark
+    public WrappedItem parseBase64() throws IOException, ClassNotFoundException {
+        return ItemAPI.parseItem(base64);
+    }
+
+    @Benchmark
+    public byte[] javaSerialize() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(wrapped);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public Object javaDeserialize() throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serialized))) {
+            return in.readObject();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package dev.magicmq.itemapi.benchmarks;
+
+import dev.magicmq.itemapi.WrappedItem;
+import dev.magicmq.itemapi.config.WrappedConfigurationSection;
+import dev.magicmq.itemapi.utils.InternPool;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing a WrappedItem from a configuration section, for every type of metadata, both configuration backends and a snapshot of the Configurate backend.
+ * The lean variant also compacts each parsed item through a pool that is shared across invocations, as {@link dev.magicmq.itemapi.ItemAPI#parseItemsLean(WrappedConfigurationSection, InternPool) parseItemsLean} does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConfigParseBenchmark {
+
+    @Param({"basic", "potion", "banner", "shield", "leather-armor", "player-head", "book", "map", "firework", "firework-star",
+            "tropical-fish-bucket", "enchanted-book", "compass", "knowledge-book", "crossbow", "suspicious-stew", "spawner", "shulker-box", "axolotl-bucket", "bundle", "nbt"})
+    public String item;
+
+    @Param({Fixtures.BUKKIT, Fixtures.CONFIGURATE, Fixtures.SNAPSHOT})
+    public String backend;
+
+    private WrappedConfigurationSection section;
+    private InternPool pool;
+
+    @Setup
+    public void setup() {
+        StubServer.install();
+        section = Fixtures.load(backend, item);
+        pool = new InternPool();
+    }
+
+    @Benchmark
+    public WrappedItem parse() {
+        return new WrappedItem(section);
+    }
+
+    @Benchmark
+    public WrappedItem parseLean() {
+        return new WrappedItem(section).compact(pool);
+    }
+}
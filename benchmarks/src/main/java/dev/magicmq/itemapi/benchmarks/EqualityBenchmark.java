@@ -0,0 +1,49 @@
+package dev.magicmq.itemapi.benchmarks;
+
+import dev.magicmq.itemapi.WrappedItem;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures structural equality and content hashing of items. Two copies of each item are parsed from the same fixture, so they are equal but not the same object.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EqualityBenchmark {
+
+    @Param({"basic", "book", "firework", "crossbow", "shulker-box", "nbt"})
+    public String item;
+
+    private WrappedItem first;
+    private WrappedItem second;
+
+    @Setup
+    public void setup() {
+        StubServer.install();
+        first = new WrappedItem(Fixtures.load(Fixtures.BUKKIT, item));
+        second = new WrappedItem(Fixtures.load(Fixtures.BUKKIT, item));
+    }
+
+    @Benchmark
+    public long cachedContentHash() {
+        return first.contentHash();
+    }
+
+    @Benchmark
+    public long computeContentHash() {
+        first.getMetadata().markModified();
+        first.getNbtData().markModified();
+        first.markModified();
+        return first.contentHash();
+    }
+
+    @Benchmark
+    public boolean equalItems() {
+        return first.equals(second);
+    }
+}
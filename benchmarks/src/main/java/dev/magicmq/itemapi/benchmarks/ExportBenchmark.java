@@ -0,0 +1,71 @@
+package dev.magicmq.itemapi.benchmarks;
+
+import dev.magicmq.itemapi.WrappedItem;
+import dev.magicmq.itemapi.config.BukkitConfigSection;
+import dev.magicmq.itemapi.config.YamlItemWriter;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures exporting a large number of items to YAML with {@link YamlItemWriter}, compared against building the whole configuration tree with Bukkit's YAML API and then saving it.
+ * The items cycle through every item in items.yml. The YAML is written to a writer that discards it, so only serialization is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExportBenchmark {
+
+    private static final String[] ITEMS = {"basic", "potion", "banner", "leather-armor", "player-head", "book", "firework", "enchanted-book", "crossbow", "shulker-box", "nbt"};
+
+    @Param({"1000", "10000"})
+    public int count;
+
+    private List<WrappedItem> items;
+
+    @Setup
+    public void setup() {
+        StubServer.install();
+        List<WrappedItem> distinct = new ArrayList<>(ITEMS.length);
+        for (String item : ITEMS)
+            distinct.add(new WrappedItem(Fixtures.load(Fixtures.BUKKIT, item)));
+
+        items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++)
+            items.add(distinct.get(i % distinct.size()));
+    }
+
+    @Benchmark
+    public int stream() throws IOException {
+        return YamlItemWriter.export(items.iterator(), new DiscardingWriter());
+    }
+
+    @Benchmark
+    public int buildTree() {
+        YamlConfiguration config = new YamlConfiguration();
+        BukkitConfigSection root = new BukkitConfigSection(config, config);
+        for (int i = 0; i < items.size(); i++)
+            items.get(i).writeToSection(root.createConfigurationSection(String.valueOf(i)));
+        return config.saveToString().length();
+    }
+
+    private static class DiscardingWriter extends Writer {
+
+        @Override
+        public void write(char[] buffer, int offset, int length) {}
+
+        @Override
+        public void flush() {}
+
+        @Override
+        public void close() {}
+    }
+}
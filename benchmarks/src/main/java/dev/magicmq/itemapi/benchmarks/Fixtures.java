@@ -0,0 +1,126 @@
+package dev.magicmq.itemapi.benchmarks;
+
+import dev.magicmq.itemapi.config.BukkitConfigSection;
+import dev.magicmq.itemapi.config.ConfigurateConfigSection;
+import dev.magicmq.itemapi.config.SnapshotConfigSection;
+import dev.magicmq.itemapi.config.WrappedConfigurationSection;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.spongepowered.configurate.ConfigurationNode;
+import org.spongepowered.configurate.yaml.YamlConfigurationLoader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Collectors;
+
+/**
+ * Loads the items defined in the bundled items.yml through either configuration backend supported by ItemAPI, or as a {@link SnapshotConfigSection} of the Configurate backend.
+ */
+final class Fixtures {
+
+    /**
+     * The backend name for {@link BukkitConfigSection}.
+     */
+    static final String BUKKIT = "bukkit";
+
+    /**
+     * The backend name for {@link ConfigurateConfigSection}.
+     */
+    static final String CONFIGURATE = "configurate";
+
+    /**
+     * The backend name for a {@link SnapshotConfigSection}. Snapshots are read-only, so this backend cannot be passed to {@link #empty(String)}.
+     */
+    static final String SNAPSHOT = "snapshot";
+
+    private static final String ITEMS = readItems();
+
+    private Fixtures() {}
+
+    /**
+     * Get the configuration section of an item in items.yml.
+     * @param backend The configuration backend, one of {@link #BUKKIT}, {@link #CONFIGURATE} or {@link #SNAPSHOT}
+     * @param item The key of the item in items.yml
+     * @return The section of the item
+     * @throws IllegalArgumentException If the backend or the item is unknown
+     */
+    static WrappedConfigurationSection load(String backend, String item) {
+        WrappedConfigurationSection section;
+        switch (backend) {
+            case BUKKIT:
+                section = loadBukkit();
+                break;
+            case CONFIGURATE:
+                section = loadConfigurate();
+                break;
+            case SNAPSHOT:
+                section = SnapshotConfigSection.of(loadConfigurate());
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown configuration backend " + backend + "!");
+        }
+
+        if (!section.contains(item))
+            throw new IllegalArgumentException("Item " + item + " is not defined in items.yml!");
+        return section.getConfigurationSection(item);
+    }
+
+    /**
+     * Create an empty configuration section to which items can be written.
+     * @param backend The configuration backend, either {@link #BUKKIT} or {@link #CONFIGURATE}
+     * @return The empty section
+     * @throws IllegalArgumentException If the backend is unknown
+     */
+    static WrappedConfigurationSection empty(String backend) {
+        switch (backend) {
+            case BUKKIT:
+                YamlConfiguration config = new YamlConfiguration();
+                return new BukkitConfigSection(config, config);
+            case CONFIGURATE:
+                YamlConfigurationLoader loader = YamlConfigurationLoader.builder()
+                        .source(() -> new BufferedReader(new StringReader("")))
+                        .build();
+                return new ConfigurateConfigSection(loader, loader.createNode());
+            default:
+                throw new IllegalArgumentException("Unknown configuration backend " + backend + "!");
+        }
+    }
+
+    private static WrappedConfigurationSection loadBukkit() {
+        YamlConfiguration config = new YamlConfiguration();
+        try {
+            config.loadFromString(ITEMS);
+        } catch (InvalidConfigurationException e) {
+            throw new IllegalStateException("items.yml is not valid YAML!", e);
+        }
+        return new BukkitConfigSection(config, config);
+    }
+
+    private static WrappedConfigurationSection loadConfigurate() {
+        YamlConfigurationLoader loader = YamlConfigurationLoader.builder()
+                .source(() -> new BufferedReader(new StringReader(ITEMS)))
+                .build();
+        try {
+            ConfigurationNode root = loader.load();
+            return new ConfigurateConfigSection(loader, root);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String readItems() {
+        InputStream stream = Fixtures.class.getClassLoader().getResourceAsStream("items.yml");
+        if (stream == null)
+            throw new IllegalStateException("items.yml is missing from the benchmark jar!");
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+            return reader.lines().collect(Collectors.joining("\n"));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
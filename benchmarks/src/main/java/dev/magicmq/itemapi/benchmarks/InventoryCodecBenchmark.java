@@ -0,0 +1,73 @@
+package dev.magicmq.itemapi.benchmarks;
+
+import dev.magicmq.itemapi.WrappedItem;
+import dev.magicmq.itemapi.serialization.InventoryCodec;
+import dev.magicmq.itemapi.serialization.ItemCodec;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures encoding and decoding a player inventory with {@link InventoryCodec}, compared against encoding every slot separately with {@link ItemCodec}.
+ * The inventory has 36 slots, where every fourth slot is empty and all other slots contain a copy of the same item.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InventoryCodecBenchmark {
+
+    private static final int SLOTS = 36;
+
+    @Param({"basic", "book", "shulker-box"})
+    public String item;
+
+    private List<WrappedItem> slots;
+    private byte[] encoded;
+    private byte[][] encodedSlots;
+
+    @Setup
+    public void setup() throws IOException {
+        StubServer.install();
+        WrappedItem wrapped = new WrappedItem(Fixtures.load(Fixtures.BUKKIT, item));
+        slots = new ArrayList<>(SLOTS);
+        for (int i = 0; i < SLOTS; i++)
+            slots.add(i % 4 == 3 ? null : wrapped);
+        encoded = InventoryCodec.encode(slots);
+        encodedSlots = encodeSlots();
+    }
+
+    @Benchmark
+    public byte[] encodeInventory() {
+        return InventoryCodec.encode(slots);
+    }
+
+    @Benchmark
+    public List<WrappedItem> decodeInventory() {
+        return InventoryCodec.decodeItems(encoded);
+    }
+
+    @Benchmark
+    public byte[][] encodeSlots() {
+        byte[][] encoded = new byte[SLOTS][];
+        for (int i = 0; i < SLOTS; i++) {
+            WrappedItem slot = slots.get(i);
+            if (slot != null)
+                encoded[i] = ItemCodec.encode(slot);
+        }
+        return encoded;
+    }
+
+    @Benchmark
+    public List<WrappedItem> decodeSlots() throws IOException, ClassNotFoundException {
+        List<WrappedItem> decoded = new ArrayList<>(SLOTS);
+        for (byte[] slot : encodedSlots)
+            decoded.add(slot == null ? null : ItemCodec.decode(slot));
+        return decoded;
+    }
+}
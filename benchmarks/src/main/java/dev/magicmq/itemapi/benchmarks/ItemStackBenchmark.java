@@ -0,0 +1,140 @@
+package dev.magicmq.itemapi.benchmarks;
+
+import dev.magicmq.itemapi.CompiledItem;
+import dev.magicmq.itemapi.WrappedItem;
+import dev.magicmq.itemapi.metadata.*;
+import dev.magicmq.itemapi.utils.DamageUtil;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Measures converting between WrappedItems and ItemStacks.
+ * <b>Note:</b> Reading NBT tags from an ItemStack requires a real server, so extraction is measured per metadata type via the metadata constructors, and {@link WrappedItem#WrappedItem(ItemStack)} is only measured for an item without meta. Player heads, crossbows, shulker boxes and bundles are left out of extraction for the same reason, as they read NBT tags or nested items.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemStackBenchmark {
+
+    private static final Map<String, Function<ItemStack, Metadata>> EXTRACTORS = new HashMap<>();
+
+    static {
+        EXTRACTORS.put("basic", Metadata::new);
+        EXTRACTORS.put("potion", PotionMetadata::new);
+        EXTRACTORS.put("banner", BannerMetadata::new);
+        EXTRACTORS.put("shield", ShieldMetadata::new);
+        EXTRACTORS.put("leather-armor", LeatherArmorMetadata::new);
+        EXTRACTORS.put("book", BookMetadata::new);
+        EXTRACTORS.put("map", MapMetadata::new);
+        EXTRACTORS.put("firework", FireworkMetadata::new);
+        EXTRACTORS.put("firework-star", FireworkStarMetadata::new);
+        EXTRACTORS.put("tropical-fish-bucket", TropicalFishBucketMetadata::new);
+        EXTRACTORS.put("enchanted-book", EnchantedBookMetadata::new);
+        EXTRACTORS.put("compass", CompassMetadata::new);
+        EXTRACTORS.put("knowledge-book", KnowledgeBookMetadata::new);
+        EXTRACTORS.put("suspicious-stew", SuspiciousStewMetadata::new);
+        EXTRACTORS.put("spawner", SpawnerMetadata::new);
+        EXTRACTORS.put("axolotl-bucket", AxolotlBucketMetadata::new);
+    }
+
+    @State(Scope.Benchmark)
+    public static class BuildState {
+
+        @Param({"basic", "potion", "banner", "shield", "leather-armor", "player-head", "book", "map", "firework", "firework-star",
+                "tropical-fish-bucket", "enchanted-book", "compass", "knowledge-book", "crossbow", "suspicious-stew", "spawner", "shulker-box", "axolotl-bucket", "bundle"})
+        public String item;
+
+        WrappedItem wrapped;
+        CompiledItem compiled;
+        Material material;
+        int metadataDepth;
+
+        @Setup
+        public void setup() {
+            StubServer.install();
+            wrapped = new WrappedItem(Fixtures.load(Fixtures.BUKKIT, item));
+            compiled = wrapped.compile();
+            material = Material.matchMaterial(wrapped.getMaterial());
+            for (Class<?> type = wrapped.getMetadata().getClass(); type != Object.class; type = type.getSuperclass())
+                metadataDepth++;
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class ExtractState {
+
+        @Param({"basic", "potion", "banner", "shield", "leather-armor", "book", "map", "firework", "firework-star",
+                "tropical-fish-bucket", "enchanted-book", "compass", "knowledge-book", "suspicious-stew", "spawner", "axolotl-bucket"})
+        public String item;
+
+        ItemStack stack;
+        Function<ItemStack, Metadata> extractor;
+
+        @Setup
+        public void setup() {
+            StubServer.install();
+            stack = new WrappedItem(Fixtures.load(Fixtures.BUKKIT, item)).getAsItemStack();
+            extractor = EXTRACTORS.get(item);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class PlainState {
+
+        ItemStack stack;
+
+        @Setup
+        public void setup() {
+            StubServer.install();
+            stack = new ItemStack(Material.DIAMOND, 32);
+        }
+    }
+
+    @Benchmark
+    public ItemStack getAsItemStack(BuildState state) {
+        return state.wrapped.getAsItemStack();
+    }
+
+    /**
+     * Builds the same ItemStack as {@link #getAsItemStack(BuildState)}, but with the ItemMeta round trips of the previous applier chain, where damage and every class in the metadata hierarchy each read and set the ItemMeta. Comparing the allocation of both benchmarks shows what sharing a single ItemMeta saves.
+     */
+    @Benchmark
+    public ItemStack perApplierMetaRoundTrips(BuildState state) {
+        ItemStack item = new ItemStack(state.material, state.wrapped.getAmount());
+        item = DamageUtil.applyDamage(item, state.wrapped.getDamage());
+        for (int i = 1; i < state.metadataDepth; i++)
+            item.setItemMeta(item.getItemMeta());
+        return state.wrapped.getMetadata().applyMetadata(item);
+    }
+
+    @Benchmark
+    public ItemStack compiledItemStack(BuildState state) {
+        return state.compiled.getItemStack();
+    }
+
+    @Benchmark
+    public Metadata extractMetadata(ExtractState state) {
+        return state.extractor.apply(state.stack);
+    }
+
+    /**
+     * Extracts the same metadata as {@link #extractMetadata(ExtractState)}, but picks the metadata type through the {@link MetadataType} registry, as {@link WrappedItem#WrappedItem(ItemStack)} does.
+     */
+    @Benchmark
+    public Metadata dispatchMetadata(ExtractState state) {
+        return MetadataType.fromItem(state.stack);
+    }
+
+    @Benchmark
+    public WrappedItem wrapPlainItemStack(PlainState state) {
+        return new WrappedItem(state.stack);
+    }
+}
@@ -0,0 +1,58 @@
+package dev.magicmq.itemapi.benchmarks;
+
+import dev.magicmq.itemapi.WrappedItem;
+import dev.magicmq.itemapi.config.WrappedConfigurationSection;
+import dev.magicmq.itemapi.metrics.Metrics;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the overhead of {@link Metrics} on parsing and encoding a WrappedItem, with metrics disabled and with metrics recorded in the default registry.
+ * Compare the results of the disabled variant against {@link ConfigParseBenchmark} and {@link CodecBenchmark} to see what instrumentation costs when it is not used.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetricsBenchmark {
+
+    @Param({"basic", "book", "shulker-box", "nbt"})
+    public String item;
+
+    @Param({"false", "true"})
+    public boolean enabled;
+
+    private WrappedConfigurationSection section;
+    private WrappedItem parsed;
+
+    @Setup
+    public void setup() {
+        StubServer.install();
+        section = Fixtures.load(Fixtures.BUKKIT, item);
+        parsed = new WrappedItem(section);
+        if (enabled)
+            Metrics.enable();
+        else
+            Metrics.disable();
+    }
+
+    @TearDown
+    public void tearDown() {
+        Metrics.disable();
+        Metrics.getRegistry().reset();
+    }
+
+    @Benchmark
+    public WrappedItem parse() {
+        return new WrappedItem(section);
+    }
+
+    @Benchmark
+    public long contentHash() {
+        //Every call after the first is a hit in the content hash cache, which is where the overhead of counting is most visible
+        return parsed.contentHash();
+    }
+}
@@ -0,0 +1,72 @@
+package dev.magicmq.itemapi.benchmarks;
+
+import dev.magicmq.itemapi.config.WrappedConfigurationSection;
+import dev.magicmq.itemapi.nbt.NBTData;
+import dev.magicmq.itemapi.nbt.NBTTag;
+import dev.magicmq.itemapi.serialization.ItemDataInput;
+import dev.magicmq.itemapi.serialization.ItemDataOutput;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing, saving and encoding the NBT tags of an item.
+ * <b>Note:</b> Applying NBT tags to an ItemStack requires a real server, so only the case where an item has no NBT tags is measured, as part of {@link ItemStackBenchmark#getAsItemStack(ItemStackBenchmark.BuildState)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NBTBenchmark {
+
+    @Param({Fixtures.BUKKIT, Fixtures.CONFIGURATE})
+    public String backend;
+
+    private WrappedConfigurationSection section;
+    private NBTData nbtData;
+    private byte[] encoded;
+
+    @Setup
+    public void setup() {
+        StubServer.install();
+        section = Fixtures.load(backend, "nbt").getConfigurationSection("nbt");
+        nbtData = new NBTData(section);
+        encoded = encode();
+    }
+
+    @Benchmark
+    public NBTData parse() {
+        return new NBTData(section);
+    }
+
+    @Benchmark
+    public NBTTag lookupTopLevel() {
+        return nbtData.getNbtTag("multiplier");
+    }
+
+    @Benchmark
+    public NBTTag lookupPath() {
+        return nbtData.getNbtTagAtPath("stats.rank");
+    }
+
+    @Benchmark
+    public WrappedConfigurationSection save() {
+        WrappedConfigurationSection target = Fixtures.empty(backend);
+        nbtData.saveNbtTags(target);
+        return target;
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        ItemDataOutput out = new ItemDataOutput();
+        nbtData.writeBinary(out);
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public NBTData decode() {
+        return new NBTData(new ItemDataInput(encoded));
+    }
+}
@@ -0,0 +1,79 @@
+package dev.magicmq.itemapi.benchmarks;
+
+import org.bukkit.NamespacedKey;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.enchantments.EnchantmentTarget;
+import org.bukkit.inventory.ItemStack;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+/**
+ * A stand-in for the enchantments that CraftBukkit would normally register, so that enchantments can be looked up by key and by legacy name.
+ */
+final class StubEnchantment extends Enchantment {
+
+    private final String name;
+
+    private StubEnchantment(NamespacedKey key, String name) {
+        super(key);
+        this.name = name;
+    }
+
+    /**
+     * Register a stub for every enchantment declared in {@link Enchantment}, using the name of the constant as the legacy name.
+     */
+    static void registerAll() {
+        for (Field field : Enchantment.class.getFields()) {
+            if (!Modifier.isStatic(field.getModifiers()) || field.getType() != Enchantment.class)
+                continue;
+            try {
+                Enchantment wrapper = (Enchantment) field.get(null);
+                Enchantment.registerEnchantment(new StubEnchantment(wrapper.getKey(), field.getName()));
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Could not read enchantment " + field.getName() + "!", e);
+            }
+        }
+        Enchantment.stopAcceptingRegistrations();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public int getMaxLevel() {
+        return 5;
+    }
+
+    @Override
+    public int getStartLevel() {
+        return 1;
+    }
+
+    @Override
+    public EnchantmentTarget getItemTarget() {
+        return EnchantmentTarget.BREAKABLE;
+    }
+
+    @Override
+    public boolean isTreasure() {
+        return false;
+    }
+
+    @Override
+    public boolean isCursed() {
+        return false;
+    }
+
+    @Override
+    public boolean conflictsWith(Enchantment other) {
+        return false;
+    }
+
+    @Override
+    public boolean canEnchantItem(ItemStack item) {
+        return true;
+    }
+}
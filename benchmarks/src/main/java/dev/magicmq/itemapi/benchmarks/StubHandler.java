@@ -0,0 +1,211 @@
+package dev.magicmq.itemapi.benchmarks;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A proxy handler that implements Bukkit interfaces such as ItemMeta and BlockState by storing properties in a map.
+ * Setters store their argument under the property name, adders append to a collection under the plural property name, and getters, "is" and "has" methods read the stored value back, falling back to an empty value of the return type.
+ * This is enough for ItemAPI to build and read items, but it performs no validation like CraftBukkit would, so benchmark results measure ItemAPI itself rather than the server.
+ */
+final class StubHandler implements InvocationHandler {
+
+    private final Class<?>[] interfaces;
+    private final Map<String, Object> values;
+
+    private StubHandler(Class<?>[] interfaces, Map<String, Object> values) {
+        this.interfaces = interfaces;
+        this.values = values;
+    }
+
+    /**
+     * Create a new proxy that implements the specified interfaces.
+     * @param type The primary interface of the proxy
+     * @param extra Any additional interfaces the proxy should implement
+     * @param <T> The primary interface of the proxy
+     * @return The new proxy
+     */
+    static <T> T create(Class<T> type, Class<?>... extra) {
+        Class<?>[] interfaces = new Class<?>[extra.length + 1];
+        interfaces[0] = type;
+        System.arraycopy(extra, 0, interfaces, 1, extra.length);
+        return type.cast(create(interfaces, new HashMap<>()));
+    }
+
+    /**
+     * Set a property on a proxy that was created by this class.
+     * @param proxy The proxy
+     * @param property The name of the property, as it appears in the getter without the "get" prefix
+     * @param value The value of the property
+     */
+    static void set(Object proxy, String property, Object value) {
+        ((StubHandler) Proxy.getInvocationHandler(proxy)).values.put(property, value);
+    }
+
+    private static Object create(Class<?>[] interfaces, Map<String, Object> values) {
+        return Proxy.newProxyInstance(StubHandler.class.getClassLoader(), interfaces, new StubHandler(interfaces, values));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        String name = method.getName();
+        int argCount = args == null ? 0 : args.length;
+        Class<?> returnType = method.getReturnType();
+
+        if (method.getDeclaringClass() == Object.class) {
+            switch (name) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return "Stub" + Arrays.toString(interfaces) + values;
+            }
+        }
+
+        if (name.equals("clone") && argCount == 0)
+            return create(interfaces, copy(values));
+        if (name.equals("update"))
+            return true;
+
+        if (name.startsWith("set") && argCount == 1) {
+            values.put(name.substring(3), args[0]);
+            return defaultValue(returnType);
+        } else if (name.startsWith("set") && argCount == 2) {
+            map(name.substring(3)).put(args[0], args[1]);
+            return defaultValue(returnType);
+        } else if (name.startsWith("add") && argCount > 0) {
+            String property = name.endsWith("s") ? name.substring(3) : name.substring(3) + "s";
+            if (argCount == 1 && args[0] != null && args[0].getClass().isArray())
+                collection(property).addAll(Arrays.asList((Object[]) args[0]));
+            else if (argCount == 1 && args[0] instanceof Iterable)
+                ((Iterable<?>) args[0]).forEach(collection(property)::add);
+            else if (argCount == 1)
+                collection(property).add(args[0]);
+            else
+                map(property).put(args[0], args[1]);
+            return returnType == boolean.class ? true : defaultValue(returnType);
+        } else if (name.startsWith("get") && argCount == 0) {
+            return convert(name.substring(3), returnType);
+        } else if (name.startsWith("is") && argCount == 0) {
+            Object value = values.get(name.substring(2));
+            return value instanceof Boolean ? value : false;
+        } else if (name.startsWith("has") && argCount == 0) {
+            return !isEmpty(values.get(name.substring(3)));
+        } else if (name.startsWith("has") && argCount == 1) {
+            Object container = values.get(name.substring(3) + "s");
+            if (container instanceof Map)
+                return ((Map<?, ?>) container).containsKey(args[0]);
+            return container instanceof Collection && ((Collection<?>) container).contains(args[0]);
+        }
+
+        return defaultValue(returnType);
+    }
+
+    private Object convert(String property, Class<?> returnType) {
+        Object value = values.get(property);
+        if (value == null) {
+            if (returnType.isInterface() && returnType.getName().startsWith("org.bukkit.") && !Collection.class.isAssignableFrom(returnType) && !Map.class.isAssignableFrom(returnType)) {
+                value = create(new Class<?>[]{returnType}, new HashMap<>());
+                values.put(property, value);
+                return value;
+            }
+            return defaultValue(returnType);
+        }
+
+        if (value instanceof Map && Collection.class.isAssignableFrom(returnType))
+            value = ((Map<?, ?>) value).keySet();
+        if (value instanceof Collection) {
+            if (List.class.isAssignableFrom(returnType))
+                return new ArrayList<>((Collection<?>) value);
+            if (Set.class.isAssignableFrom(returnType))
+                return new LinkedHashSet<>((Collection<?>) value);
+        }
+        if (value instanceof Map && Map.class.isAssignableFrom(returnType))
+            return new LinkedHashMap<>((Map<?, ?>) value);
+        return value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Collection<Object> collection(String property) {
+        return (Collection<Object>) values.computeIfAbsent(property, key -> new ArrayList<>());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Object, Object> map(String property) {
+        return (Map<Object, Object>) values.computeIfAbsent(property, key -> new LinkedHashMap<>());
+    }
+
+    private static Map<String, Object> copy(Map<String, Object> values) {
+        Map<String, Object> copy = new HashMap<>(values.size());
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            Object value = entry.getValue();
+            if (value instanceof Collection)
+                value = new ArrayList<>((Collection<?>) value);
+            else if (value instanceof Map)
+                value = new LinkedHashMap<>((Map<?, ?>) value);
+            else if (value != null && Proxy.isProxyClass(value.getClass()) && Proxy.getInvocationHandler(value) instanceof StubHandler) {
+                StubHandler handler = (StubHandler) Proxy.getInvocationHandler(value);
+                value = create(handler.interfaces, copy(handler.values));
+            }
+            copy.put(entry.getKey(), value);
+        }
+        return copy;
+    }
+
+    private static boolean isEmpty(Object value) {
+        if (value == null)
+            return true;
+        if (value instanceof Collection)
+            return ((Collection<?>) value).isEmpty();
+        if (value instanceof Map)
+            return ((Map<?, ?>) value).isEmpty();
+        return false;
+    }
+
+    /**
+     * Get the value a method returns when nothing has been stored for it.
+     * @param type The return type of the method
+     * @return An empty collection, map or array, the default value of a primitive type, or null
+     */
+    static Object defaultValue(Class<?> type) {
+        if (type == void.class)
+            return null;
+        if (type == boolean.class)
+            return false;
+        if (type == int.class)
+            return 0;
+        if (type == long.class)
+            return 0L;
+        if (type == double.class)
+            return 0D;
+        if (type == float.class)
+            return 0F;
+        if (type == short.class)
+            return (short) 0;
+        if (type == byte.class)
+            return (byte) 0;
+        if (type == char.class)
+            return (char) 0;
+        if (List.class.isAssignableFrom(type) || type == Collection.class)
+            return new ArrayList<>();
+        if (Set.class.isAssignableFrom(type))
+            return new LinkedHashSet<>();
+        if (Map.class.isAssignableFrom(type))
+            return new LinkedHashMap<>();
+        if (type.isArray())
+            return Array.newInstance(type.getComponentType(), 0);
+        return null;
+    }
+}
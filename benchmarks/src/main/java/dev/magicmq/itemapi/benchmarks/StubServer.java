@@ -0,0 +1,169 @@
+package dev.magicmq.itemapi.benchmarks;
+
+import dev.magicmq.itemapi.utils.MCVersion;
+import org.bukkit.Bukkit;
+import org.bukkit.Color;
+import org.bukkit.Material;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.Server;
+import org.bukkit.World;
+import org.bukkit.block.Banner;
+import org.bukkit.block.BlockState;
+import org.bukkit.block.CreatureSpawner;
+import org.bukkit.block.ShulkerBox;
+import org.bukkit.inventory.ItemFactory;
+import org.bukkit.inventory.meta.*;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * Installs a minimal Bukkit server so that ItemAPI can build and read ItemStacks outside of a Minecraft server.
+ * Item meta and block states are backed by {@link StubHandler}, so the cost of CraftBukkit's own meta implementation is not included in benchmark results.
+ */
+final class StubServer {
+
+    private static final Logger LOGGER = Logger.getLogger("ItemAPI-Benchmarks");
+
+    private static boolean installed;
+
+    private StubServer() {}
+
+    /**
+     * Install the stub server, register stub enchantments and set ItemAPI's version to 1.19.2. This does nothing if the stub server is already installed.
+     */
+    static synchronized void install() {
+        if (installed)
+            return;
+
+        ItemFactory itemFactory = (ItemFactory) Proxy.newProxyInstance(StubServer.class.getClassLoader(), new Class<?>[]{ItemFactory.class}, (proxy, method, args) -> invokeItemFactory(method, args));
+        Server server = (Server) Proxy.newProxyInstance(StubServer.class.getClassLoader(), new Class<?>[]{Server.class}, (proxy, method, args) -> invokeServer(itemFactory, method, args));
+        Bukkit.setServer(server);
+        StubEnchantment.registerAll();
+        MCVersion.setVersion(MCVersion.v1_19_R2);
+        installed = true;
+    }
+
+    private static Object invokeServer(ItemFactory itemFactory, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "getLogger":
+                return LOGGER;
+            case "getName":
+                return "ItemAPI Benchmarks";
+            case "getVersion":
+                return "stub (MC: 1.19.2)";
+            case "getBukkitVersion":
+                return "1.19.2-R0.1-SNAPSHOT";
+            case "getItemFactory":
+                return itemFactory;
+            case "getWorld":
+                World world = StubHandler.create(World.class);
+                StubHandler.set(world, "Name", String.valueOf(args[0]));
+                return world;
+            case "getOfflinePlayer":
+                OfflinePlayer player = StubHandler.create(OfflinePlayer.class);
+                if (args[0] instanceof UUID)
+                    StubHandler.set(player, "UniqueId", args[0]);
+                else
+                    StubHandler.set(player, "Name", args[0]);
+                return player;
+            case "hashCode":
+                return 0;
+            case "equals":
+                return false;
+            case "toString":
+                return "StubServer";
+            default:
+                return StubHandler.defaultValue(method.getReturnType());
+        }
+    }
+
+    private static Object invokeItemFactory(Method method, Object[] args) {
+        switch (method.getName()) {
+            case "getItemMeta":
+                return createMeta((Material) args[0]);
+            case "isApplicable":
+                return true;
+            case "asMetaFor":
+                return args[0];
+            case "updateMaterial":
+                return args[1];
+            case "equals":
+                //ItemStack#hasItemMeta compares against null, so only an absent meta counts as empty
+                return args.length == 2 && args[0] == args[1];
+            case "getDefaultLeatherColor":
+                return Color.fromRGB(0xA06540);
+            case "hashCode":
+                return 0;
+            case "toString":
+                return "StubItemFactory";
+            default:
+                return StubHandler.defaultValue(method.getReturnType());
+        }
+    }
+
+    private static ItemMeta createMeta(Material material) {
+        if (material.isAir())
+            return null;
+
+        List<Class<?>> interfaces = new ArrayList<>();
+        interfaces.add(Damageable.class);
+        interfaces.add(Repairable.class);
+
+        String name = material.name();
+        Class<? extends BlockState> blockState = null;
+        if (material == Material.SHIELD) {
+            interfaces.add(BlockStateMeta.class);
+            blockState = Banner.class;
+        } else if (name.endsWith("_BANNER")) {
+            interfaces.add(BannerMeta.class);
+        } else if (material == Material.SPAWNER) {
+            interfaces.add(BlockStateMeta.class);
+            blockState = CreatureSpawner.class;
+        } else if (name.endsWith("SHULKER_BOX")) {
+            interfaces.add(BlockStateMeta.class);
+            blockState = ShulkerBox.class;
+        } else if (material == Material.POTION || material == Material.SPLASH_POTION || material == Material.LINGERING_POTION || material == Material.TIPPED_ARROW) {
+            interfaces.add(PotionMeta.class);
+        } else if (name.startsWith("LEATHER_")) {
+            interfaces.add(LeatherArmorMeta.class);
+        } else if (material == Material.PLAYER_HEAD || material == Material.PLAYER_WALL_HEAD) {
+            interfaces.add(SkullMeta.class);
+        } else if (material == Material.WRITTEN_BOOK || material == Material.WRITABLE_BOOK) {
+            interfaces.add(BookMeta.class);
+        } else if (material == Material.FILLED_MAP) {
+            interfaces.add(MapMeta.class);
+        } else if (material == Material.FIREWORK_ROCKET) {
+            interfaces.add(FireworkMeta.class);
+        } else if (material == Material.FIREWORK_STAR) {
+            interfaces.add(FireworkEffectMeta.class);
+        } else if (material == Material.TROPICAL_FISH_BUCKET) {
+            interfaces.add(TropicalFishBucketMeta.class);
+        } else if (material == Material.ENCHANTED_BOOK) {
+            interfaces.add(EnchantmentStorageMeta.class);
+        } else if (material == Material.COMPASS) {
+            interfaces.add(CompassMeta.class);
+        } else if (material == Material.KNOWLEDGE_BOOK) {
+            interfaces.add(KnowledgeBookMeta.class);
+        } else if (material == Material.CROSSBOW) {
+            interfaces.add(CrossbowMeta.class);
+        } else if (material == Material.SUSPICIOUS_STEW) {
+            interfaces.add(SuspiciousStewMeta.class);
+        } else if (material == Material.AXOLOTL_BUCKET) {
+            interfaces.add(AxolotlBucketMeta.class);
+        } else if (material == Material.BUNDLE) {
+            interfaces.add(BundleMeta.class);
+        } else if (name.endsWith("_SPAWN_EGG")) {
+            interfaces.add(SpawnEggMeta.class);
+        }
+
+        ItemMeta meta = StubHandler.create(ItemMeta.class, interfaces.toArray(new Class<?>[0]));
+        if (blockState != null)
+            StubHandler.set(meta, "BlockState", StubHandler.create(blockState));
+        return meta;
+    }
+}
@@ -0,0 +1,57 @@
+package dev.magicmq.itemapi.benchmarks;
+
+import dev.magicmq.itemapi.text.FormattedText;
+import org.bukkit.ChatColor;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Measures translating the color codes of a lore-heavy item with {@link FormattedText}, compared against translating every line with {@link ChatColor#translateAlternateColorCodes(char, String)} and translating it back with a regex, as ItemAPI did before.
+ * The lore has 12 lines, which are the same on every invocation, as they are when the items of a GUI are built again after every click.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TextFormatBenchmark {
+
+    private List<String> lore;
+    private List<String> formatted;
+
+    @Setup
+    public void setup() {
+        StubServer.install();
+        lore = new ArrayList<>();
+        lore.add("&7&m-----------------------");
+        for (int i = 0; i < 10; i++)
+            lore.add("&7Stat " + i + ": &e" + (i * 17) + " &8(&a+" + i + "%&8)");
+        lore.add("&#FFAA00Click to &lpurchase");
+        formatted = FormattedText.formatAll(lore);
+    }
+
+    @Benchmark
+    public List<String> formatCompiled() {
+        return FormattedText.formatAll(lore);
+    }
+
+    @Benchmark
+    public List<String> formatChatColor() {
+        return lore.stream().map(line -> ChatColor.translateAlternateColorCodes('&', line)).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<String> unformatCompiled() {
+        return FormattedText.unformatAll(formatted);
+    }
+
+    @Benchmark
+    public List<String> unformatRegex() {
+        return formatted.stream().map(line -> line.replaceAll("\u00A7", "&")).collect(Collectors.toList());
+    }
+}
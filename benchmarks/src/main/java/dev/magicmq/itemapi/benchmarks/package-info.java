@@ -0,0 +1,4 @@
+/**
+ * Contains JMH benchmarks for ItemAPI's hot paths, along with a stubbed Bukkit server that allows them to run outside of a Minecraft server
+ */
+package dev.magicmq.itemapi.benchmarks;
@@ -0,0 +1,107 @@
+package dev.magicmq.itemapi;
+
+import dev.magicmq.itemapi.metrics.CacheType;
+import dev.magicmq.itemapi.metrics.Metrics;
+import dev.magicmq.itemapi.profile.ProfileSource;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * A compiled form of a {@link WrappedItem WrappedItem}. The ItemStack is fully built (material, metadata, enchantments, item flags and NBT data) the first time it is needed, and cheap copies of it are handed out afterwards.
+ * The compiled ItemStack is rebuilt automatically the next time it is used after any setter on the WrappedItem, its {@link dev.magicmq.itemapi.metadata.Metadata Metadata} or its {@link dev.magicmq.itemapi.nbt.NBTData NBTData} is called.
+ * <b>Note:</b> Changes made directly to mutable lists returned by getters (such as the lore) are not detected automatically. Call {@link WrappedItem#markModified()} or {@link #invalidate()} after making such changes.
+ * @see WrappedItem#compile()
+ */
+public class CompiledItem {
+
+    private final WrappedItem item;
+
+    private volatile ItemStack template;
+    private volatile long revision;
+    private volatile long profileRevision;
+
+    CompiledItem(WrappedItem item) {
+        this.item = item;
+    }
+
+    /**
+     * Get the WrappedItem from which this compiled item is built.
+     * @return The WrappedItem backing this compiled item
+     */
+    public WrappedItem getItem() {
+        return item;
+    }
+
+    /**
+     * Get a new copy of the compiled ItemStack. The ItemStack is only rebuilt if the WrappedItem was changed since it was last built.
+     * @return A copy of the compiled ItemStack, which may be freely modified
+     * @throws dev.magicmq.itemapi.utils.exception.IncorrectMetaException If the Metadata cannot be properly applied to the item
+     */
+    public ItemStack getItemStack() {
+        return getTemplate().clone();
+    }
+
+    /**
+     * Get a new copy of the compiled ItemStack with a different amount.
+     * @param amount The amount that the returned ItemStack should have
+     * @return A copy of the compiled ItemStack with the specified amount, which may be freely modified
+     * @throws dev.magicmq.itemapi.utils.exception.IncorrectMetaException If the Metadata cannot be properly applied to the item
+     */
+    public ItemStack getItemStack(int amount) {
+        ItemStack item = getTemplate().clone();
+        item.setAmount(amount);
+        return item;
+    }
+
+    /**
+     * Get a new copy of the compiled ItemStack without blocking on profile lookups. If the item is a player head whose skull owner has not been resolved yet, the owner is first resolved through the profile source, after which the ItemStack is rebuilt once and then reused like any other compiled item.
+     * @param source The source through which the skull owner will be looked up
+     * @param executor The executor on which the ItemStack will be built or copied, usually one that runs tasks on the server's main thread
+     * @return A future that completes with a copy of the compiled ItemStack, which may be freely modified
+     * @see WrappedItem#getAsItemStackAsync(ProfileSource, Executor)
+     */
+    public CompletableFuture<ItemStack> getItemStackAsync(ProfileSource source, Executor executor) {
+        return item.resolveProfiles(source).thenApplyAsync(ignored -> getItemStack(), executor);
+    }
+
+    /**
+     * Check if the compiled ItemStack is built and up to date with the WrappedItem.
+     * @return True if the compiled ItemStack can be handed out without being rebuilt, false if otherwise
+     */
+    public boolean isValid() {
+        return template != null && revision == item.getRevision() && profileRevision == item.getProfileRevision();
+    }
+
+    /**
+     * Discard the compiled ItemStack so that it is rebuilt the next time it is used.
+     */
+    public synchronized void invalidate() {
+        template = null;
+    }
+
+    private ItemStack getTemplate() {
+        ItemStack template = this.template;
+        if (template != null && revision == item.getRevision() && profileRevision == item.getProfileRevision()) {
+            Metrics.cacheAccess(CacheType.COMPILED_ITEM, true);
+            return template;
+        }
+
+        synchronized (this) {
+            long current = item.getRevision();
+            //Resolving the skull owner of a player head does not change the revision of the item, but does change the built ItemStack
+            long currentProfile = item.getProfileRevision();
+            template = this.template;
+            boolean valid = template != null && revision == current && profileRevision == currentProfile;
+            Metrics.cacheAccess(CacheType.COMPILED_ITEM, valid);
+            if (!valid) {
+                template = item.getAsItemStack();
+                this.revision = current;
+                this.profileRevision = currentProfile;
+                this.template = template;
+            }
+            return template;
+        }
+    }
+}
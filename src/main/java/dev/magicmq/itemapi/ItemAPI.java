@@ -1,26 +1,75 @@
 package dev.magicmq.itemapi;
 
 import com.google.common.base.Preconditions;
+import dev.magicmq.itemapi.config.SnapshotConfigSection;
 import dev.magicmq.itemapi.config.WrappedConfigurationSection;
+import dev.magicmq.itemapi.metrics.Metrics;
+import dev.magicmq.itemapi.metrics.Stage;
+import dev.magicmq.itemapi.serialization.ItemCodec;
+import dev.magicmq.itemapi.utils.InternPool;
+import dev.magicmq.itemapi.utils.exception.ItemValidationException;
 import org.bukkit.inventory.ItemStack;
 
-import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
-import java.io.ObjectInputStream;
 import java.util.ArrayList;
 import java.util.Base64;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.UnaryOperator;
 
 /**
  * This is the main class of ItemAPI. Static methods here are designed to interface with more subsurface features of ItemAPI. You may also interface with those classes/methods yourself, but if in doubt, use this class.
  */
 public class ItemAPI {
 
+    private static final ItemCatalog CATALOG = new ItemCatalog();
+
+    /**
+     * Get the shared item catalog. Items can be looked up in the catalog from any thread without blocking, so it is the preferred way to share parsed items with asynchronous tasks.
+     * @return The shared ItemCatalog
+     * @see #parseItemsIntoCatalog(WrappedConfigurationSection)
+     */
+    public static ItemCatalog getCatalog() {
+        return CATALOG;
+    }
+
+    /**
+     * Parse a list of items out of a config file in parallel and add them to the {@link #getCatalog() shared catalog}. This is functionally the same as calling {@link #parseItemsIntoCatalog(WrappedConfigurationSection, ItemCatalog)} with the shared catalog.
+     * @param section A WrappedConfigurationSection containing multiple subsections, where each subsection has an item defined within
+     * @return A ParseResult containing the items that were parsed and the errors that occurred, in config order
+     */
+    public static ParseResult parseItemsIntoCatalog(WrappedConfigurationSection section) {
+        return parseItemsIntoCatalog(section, CATALOG);
+    }
+
+    /**
+     * Parse a list of items out of a config file in parallel and add them to a catalog, replacing any items that already have the same keys. All items that were parsed successfully are published to the catalog at once, as described in {@link ItemCatalog#putAll(java.util.Map)}.
+     * @param section A WrappedConfigurationSection containing multiple subsections, where each subsection has an item defined within
+     * @param catalog The catalog to add the items to
+     * @return A ParseResult containing the items that were parsed and the errors that occurred, in config order
+     * @see #parseItemsParallel(WrappedConfigurationSection)
+     */
+    public static ParseResult parseItemsIntoCatalog(WrappedConfigurationSection section, ItemCatalog catalog) {
+        Preconditions.checkArgument(catalog != null, "catalog cannot be null!");
+
+        ParseResult result = parseItemsParallel(section);
+        catalog.putAll(result.getItems());
+        return result;
+    }
+
     /**
      * Parse a list of items out of a config file.
      * @param section A WrappedConfigurationSection containing multiple subsections, where each subsection has an item defined within
-     * @return A list of Items that were parsed
+     * @return A list of Items that were parsed, which are already {@link WrappedItem#resolve() resolved}
+     * @throws ItemValidationException If any name in an item cannot be resolved
      * @see WrappedConfigurationSection
      */
     public static List<WrappedItem> parseItems(WrappedConfigurationSection section) {
@@ -28,7 +77,7 @@ public class ItemAPI {
 
         List<WrappedItem> toReturn = new ArrayList<>();
         for (String key : section.getKeys(false)) {
-            toReturn.add(new WrappedItem(section.getConfigurationSection(key)));
+            toReturn.add(new WrappedItem(section.getConfigurationSection(key)).resolve());
         }
         return toReturn;
     }
@@ -36,7 +85,8 @@ public class ItemAPI {
     /**
      * Parse a list of items out of a config file. Unlike {@link ItemAPI#parseItems(WrappedConfigurationSection)}, this method will return a HashMap where the key is the name of the configuration section for each item that was parsed.
      * @param section A WrappedConfigurationSection containing multiple subsections, where each subsection has an item defined within
-     * @return A HashMap of WrappedItems that were parsed, where each key was the config section name for that item and the value is the item
+     * @return A HashMap of WrappedItems that were parsed, where each key was the config section name for that item and the value is the item. The items are already {@link WrappedItem#resolve() resolved}
+     * @throws ItemValidationException If any name in an item cannot be resolved
      * @see WrappedConfigurationSection
      */
     public static HashMap<String, WrappedItem> parseItemsWithKeys(WrappedConfigurationSection section) {
@@ -44,21 +94,68 @@ public class ItemAPI {
 
         HashMap<String, WrappedItem> toReturn = new HashMap<>();
         for (String key : section.getKeys(false)) {
-            toReturn.put(key, new WrappedItem(section.getConfigurationSection(key)));
+            toReturn.put(key, new WrappedItem(section.getConfigurationSection(key)).resolve());
         }
         return toReturn;
     }
 
+    /**
+     * Parse a list of items out of a config file in parallel on the common fork-join pool. This is functionally the same as calling {@link #parseItemsParallel(WrappedConfigurationSection, Executor)} with {@link ForkJoinPool#commonPool()}.
+     * @param section A WrappedConfigurationSection containing multiple subsections, where each subsection has an item defined within
+     * @return A ParseResult containing the items that were parsed and the errors that occurred, in config order
+     * @see ParseResult
+     */
+    public static ParseResult parseItemsParallel(WrappedConfigurationSection section) {
+        return parseItemsParallel(section, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Parse a list of items out of a config file in parallel. A read-only {@link SnapshotConfigSection snapshot} of the section is taken on the calling thread, after which each subsection is parsed as a separate task on the specified executor.
+     * Unlike {@link #parseItemsWithKeys(WrappedConfigurationSection)}, an item that cannot be parsed or {@link WrappedItem#resolve() resolved} does not abort the whole batch. The exception, such as an {@link ItemValidationException} listing every problem with the item, is recorded in the returned ParseResult instead.
+     * <b>Note:</b> This method blocks until all items have been parsed. Parsed items keep a reference to the snapshot rather than to the original section.
+     * @param section A WrappedConfigurationSection containing multiple subsections, where each subsection has an item defined within
+     * @param executor The executor on which items will be parsed
+     * @return A ParseResult containing the items that were parsed and the errors that occurred, in config order
+     * @see ParseResult
+     */
+    public static ParseResult parseItemsParallel(WrappedConfigurationSection section, Executor executor) {
+        return parseItemsParallel(section, executor, UnaryOperator.identity());
+    }
+
+    /**
+     * Parse a list of items out of a config file in parallel, in lean mode, with a new {@link InternPool}. This is functionally the same as calling {@link #parseItemsLean(WrappedConfigurationSection, InternPool)} with a new pool.
+     * @param section A WrappedConfigurationSection containing multiple subsections, where each subsection has an item defined within
+     * @return A ParseResult containing the items that were parsed and the errors that occurred, in config order
+     */
+    public static ParseResult parseItemsLean(WrappedConfigurationSection section) {
+        return parseItemsLean(section, new InternPool());
+    }
+
+    /**
+     * Parse a list of items out of a config file in parallel, in lean mode. Each item is {@link WrappedItem#compact(InternPool) compacted} as soon as it is parsed, so items do not keep the parsed configuration in memory and repeated strings are shared through the pool.
+     * This is the preferred way to parse large numbers of items that will be kept in memory, such as the contents of an {@link ItemCatalog}. Passing the same pool when parsing several files shares values between all of them.
+     * @param section A WrappedConfigurationSection containing multiple subsections, where each subsection has an item defined within
+     * @param pool The pool through which values will be interned
+     * @return A ParseResult containing the items that were parsed and the errors that occurred, in config order
+     * @see #parseItemsParallel(WrappedConfigurationSection)
+     */
+    public static ParseResult parseItemsLean(WrappedConfigurationSection section, InternPool pool) {
+        Preconditions.checkArgument(pool != null, "pool cannot be null!");
+
+        return parseItemsParallel(section, ForkJoinPool.commonPool(), item -> item.compact(pool));
+    }
+
     /**
      * Parse a single item defined in a ConfigurationSection.
      * @param section A ConfigurationSection with the item defined within
-     * @return An {@link WrappedItem Item} representing what was parsed from the ConfigurationSection file
+     * @return An {@link WrappedItem Item} representing what was parsed from the ConfigurationSection file, which is already {@link WrappedItem#resolve() resolved}
+     * @throws ItemValidationException If any name in the item cannot be resolved, in which case every problem with the item is listed in the exception
      * @see WrappedConfigurationSection
      */
     public static WrappedItem parseItem(WrappedConfigurationSection section) {
         Preconditions.checkArgument(section != null, "section cannot be null!");
         
-        return new WrappedItem(section);
+        return new WrappedItem(section).resolve();
     }
 
     /**
@@ -88,23 +185,89 @@ public class ItemAPI {
     }
 
     /**
-     * Parse a Base64-encoded String into a WrappedItem.
+     * Parse a Base64-encoded String into a WrappedItem. Strings created by older versions of ItemAPI, which used Java serialization, are still accepted.
      * @param base64 A Base64 string representing the WrappedItem to be deserialized
      * @return A WrappedItem representing the Base64 string that was parsed
-     * @throws IOException If parsing the Base64 string failed due to an I/O issue
-     * @throws ClassNotFoundException If the class being read from the Base64 string cannot be found or if a WrappedItem could not be extracted from the Base64 string
+     * @throws IOException If parsing a legacy Base64 string failed due to an I/O issue
+     * @throws ClassNotFoundException If the class being read from a legacy Base64 string cannot be found or if a WrappedItem could not be extracted from the Base64 string
+     * @throws dev.magicmq.itemapi.utils.exception.ItemDataException If the Base64 string is corrupted or was created by a newer version of ItemAPI
      */
     public static WrappedItem parseItem(String base64) throws IOException, ClassNotFoundException {
+        Preconditions.checkArgument(base64 != null, "base64 cannot be null!");
+
+        long start = Metrics.start();
         Base64.Decoder decoder = Base64.getDecoder();
-        byte[] bytes = decoder.decode(base64);
-
-        try (ByteArrayInputStream bais = new ByteArrayInputStream(bytes);
-        ObjectInputStream input = new ObjectInputStream(bais)) {
-            Object object = input.readObject();
-            if (object instanceof WrappedItem)
-                return (WrappedItem) object;
-            else
-                throw new ClassNotFoundException("WrappedItem could not be parsed from the Base64 string!");
+        WrappedItem item = ItemCodec.decode(decoder.decode(base64));
+        Metrics.stop(Stage.BASE64_DECODE, start);
+        return item;
+    }
+
+    /**
+     * Save many items to the same config file at once. Only items that are {@link WrappedItem#isDirty() dirty}, or that do not have a subsection under their key yet, are written, each replacing the subsection with the same key. The file is then saved once, and only if at least one item was written.
+     * Saving a configuration serializes the entire file, so this is much faster than calling {@link WrappedItem#saveToConfig(File, WrappedConfigurationSection) saveToConfig} for each item when many items have changed. Subsections of items that are not in the map are left as they are.
+     * @param file The config file that will be written to
+     * @param section A WrappedConfigurationSection containing one subsection per item, such as the section the items were parsed from. This must be a section of the loaded configuration, not a {@link SnapshotConfigSection snapshot}
+     * @param items The items to save, keyed by the name of their subsection, such as the items returned by {@link ItemCatalog#getItems()}
+     * @return The number of items that were written
+     * @throws IOException If writing to the configuration failed, in which case all items that were written remain dirty
+     */
+    public static int saveItems(File file, WrappedConfigurationSection section, Map<String, WrappedItem> items) throws IOException {
+        Preconditions.checkArgument(file != null, "file cannot be null!");
+        Preconditions.checkArgument(section != null, "section cannot be null!");
+        Preconditions.checkArgument(items != null, "items cannot be null!");
+
+        Map<WrappedItem, Long> written = writeDirtyItems(section, items);
+        if (written.isEmpty())
+            return 0;
+
+        section.save(file);
+        written.forEach(WrappedItem::markSaved);
+        return written.size();
+    }
+
+    //Writes the items that need to be saved without saving the section, and returns them mapped to their revisions from before they were written
+    static Map<WrappedItem, Long> writeDirtyItems(WrappedConfigurationSection section, Map<String, WrappedItem> items) {
+        Map<WrappedItem, Long> written = new IdentityHashMap<>();
+        for (Map.Entry<String, WrappedItem> entry : items.entrySet()) {
+            WrappedItem item = entry.getValue();
+            boolean exists = section.isConfigurationSection(entry.getKey());
+            if (exists && !item.isDirty())
+                continue;
+
+            //The revision is read before writing, so that a change made while the item is being written keeps it dirty
+            written.put(item, item.getRevision());
+            item.writeToSection(exists ? section.getConfigurationSection(entry.getKey()) : section.createConfigurationSection(entry.getKey()));
+        }
+        return written;
+    }
+
+    private static ParseResult parseItemsParallel(WrappedConfigurationSection section, Executor executor, UnaryOperator<WrappedItem> finisher) {
+        Preconditions.checkArgument(section != null, "section cannot be null!");
+        Preconditions.checkArgument(executor != null, "executor cannot be null!");
+
+        SnapshotConfigSection snapshot = SnapshotConfigSection.of(section);
+        List<String> keys = new ArrayList<>(snapshot.getKeys(false));
+        List<CompletableFuture<WrappedItem>> tasks = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            WrappedConfigurationSection itemSection = snapshot.getConfigurationSection(key);
+            tasks.add(CompletableFuture.supplyAsync(() -> finisher.apply(new WrappedItem(itemSection).resolve()), executor));
+        }
+
+        LinkedHashMap<String, WrappedItem> items = new LinkedHashMap<>();
+        LinkedHashMap<String, RuntimeException> errors = new LinkedHashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            try {
+                items.put(keys.get(i), tasks.get(i).join());
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException)
+                    errors.put(keys.get(i), (RuntimeException) cause);
+                else if (cause instanceof Error)
+                    throw (Error) cause;
+                else
+                    errors.put(keys.get(i), e);
+            }
         }
+        return new ParseResult(items, errors);
     }
 }
@@ -0,0 +1,291 @@
+package dev.magicmq.itemapi;
+
+import com.google.common.base.Preconditions;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A thread-safe collection of items, where each item is stored under the name of the configuration section it was defined in.
+ * Reads never take a lock. All reads go through an immutable {@link Snapshot} that is swapped atomically whenever the catalog is modified, so items can be looked up from any thread, including asynchronous tasks, while the catalog is being updated on another.
+ * Writes are copy-on-write: each modification copies the current items, applies the change, and publishes the result as a new snapshot with a higher {@link Snapshot#getVersion() version}. Writes are performed one at a time and are much more expensive than reads, so bulk changes should be made with {@link #putAll(Map)}, {@link #removeAll(Collection)}, or {@link #replaceAll(Map)}, which publish a single snapshot.
+ * @see ItemAPI#getCatalog()
+ */
+public class ItemCatalog implements Iterable<Map.Entry<String, WrappedItem>> {
+
+    private final AtomicReference<Snapshot> current;
+    private final Object writeLock;
+
+    /**
+     * Create a new, empty ItemCatalog class.
+     */
+    public ItemCatalog() {
+        this.current = new AtomicReference<>(new Snapshot(0, Collections.emptyMap()));
+        this.writeLock = new Object();
+    }
+
+    /**
+     * Get the current snapshot of the catalog. The snapshot never changes, so it can be used to perform several reads that are consistent with each other.
+     * @return The current snapshot
+     */
+    public Snapshot snapshot() {
+        return current.get();
+    }
+
+    /**
+     * Get the version of the current snapshot of the catalog. The version increases every time the catalog is modified, so it can be used to tell whether data derived from the catalog is out of date.
+     * @return The current version
+     */
+    public long getVersion() {
+        return current.get().version;
+    }
+
+    /**
+     * Get an item in the catalog.
+     * @param key The key of the item
+     * @return The item, or null if there is no item with the key
+     */
+    public WrappedItem get(String key) {
+        return current.get().get(key);
+    }
+
+    /**
+     * Check if the catalog contains an item.
+     * @param key The key of the item
+     * @return True if there is an item with the key, false if otherwise
+     */
+    public boolean contains(String key) {
+        return current.get().contains(key);
+    }
+
+    /**
+     * Get the number of items in the catalog.
+     * @return The number of items
+     */
+    public int size() {
+        return current.get().size();
+    }
+
+    /**
+     * Get all items in the catalog.
+     * @return An unmodifiable map of the items in the current snapshot, which does not change when the catalog is modified later
+     */
+    public Map<String, WrappedItem> getItems() {
+        return current.get().items;
+    }
+
+    /**
+     * Iterate over the items in the current snapshot. Changes made to the catalog during iteration are not visible to the iterator.
+     * @return An iterator over the items in the current snapshot
+     */
+    @Override
+    public Iterator<Map.Entry<String, WrappedItem>> iterator() {
+        return current.get().iterator();
+    }
+
+    /**
+     * Add an item to the catalog, replacing any item that already has the same key.
+     * @param key The key of the item
+     * @param item The item
+     * @return The item that was replaced, or null if there was no item with the key
+     */
+    public WrappedItem put(String key, WrappedItem item) {
+        Preconditions.checkArgument(key != null, "key cannot be null!");
+        Preconditions.checkArgument(item != null, "item cannot be null!");
+
+        synchronized (writeLock) {
+            Snapshot snapshot = current.get();
+            if (snapshot.get(key) == item)
+                return item;
+
+            LinkedHashMap<String, WrappedItem> items = new LinkedHashMap<>(snapshot.items);
+            WrappedItem previous = items.put(key, item);
+            publish(snapshot, items);
+            return previous;
+        }
+    }
+
+    /**
+     * Add many items to the catalog at once, replacing any items that already have the same keys. Readers see either none or all of the new items.
+     * @param items The items to add, where each key is the key of an item and the value is the item
+     */
+    public void putAll(Map<String, WrappedItem> items) {
+        Preconditions.checkArgument(items != null, "items cannot be null!");
+
+        update(items, Collections.emptyList());
+    }
+
+    /**
+     * Remove an item from the catalog.
+     * @param key The key of the item
+     * @return The item that was removed, or null if there was no item with the key
+     */
+    public WrappedItem remove(String key) {
+        synchronized (writeLock) {
+            Snapshot snapshot = current.get();
+            if (!snapshot.contains(key))
+                return null;
+
+            LinkedHashMap<String, WrappedItem> items = new LinkedHashMap<>(snapshot.items);
+            WrappedItem previous = items.remove(key);
+            publish(snapshot, items);
+            return previous;
+        }
+    }
+
+    /**
+     * Remove many items from the catalog at once. Readers see either none or all of the items removed.
+     * @param keys The keys of the items to remove
+     * @return The number of items that were removed
+     */
+    public int removeAll(Collection<String> keys) {
+        Preconditions.checkArgument(keys != null, "keys cannot be null!");
+
+        synchronized (writeLock) {
+            Snapshot snapshot = current.get();
+            LinkedHashMap<String, WrappedItem> items = new LinkedHashMap<>(snapshot.items);
+            int removed = 0;
+            for (String key : keys) {
+                if (items.remove(key) != null)
+                    removed++;
+            }
+            if (removed > 0)
+                publish(snapshot, items);
+            return removed;
+        }
+    }
+
+    /**
+     * Add and remove many items at once. Readers see either none or all of the changes. This is useful for applying a {@link ItemFileWatcher.Reload reload} of an item file to a catalog.
+     * <b>Note:</b> Removals are applied after additions, so a key that is both added and removed will not be in the catalog afterwards.
+     * @param put The items to add, where each key is the key of an item and the value is the item
+     * @param remove The keys of the items to remove
+     */
+    public void update(Map<String, WrappedItem> put, Collection<String> remove) {
+        Preconditions.checkArgument(put != null, "put cannot be null!");
+        Preconditions.checkArgument(remove != null, "remove cannot be null!");
+
+        if (put.isEmpty() && remove.isEmpty())
+            return;
+
+        synchronized (writeLock) {
+            Snapshot snapshot = current.get();
+            LinkedHashMap<String, WrappedItem> updated = new LinkedHashMap<>(snapshot.items);
+            for (Map.Entry<String, WrappedItem> entry : put.entrySet()) {
+                Preconditions.checkArgument(entry.getKey() != null, "key cannot be null!");
+                Preconditions.checkArgument(entry.getValue() != null, "item cannot be null!");
+                updated.put(entry.getKey(), entry.getValue());
+            }
+            for (String key : remove)
+                updated.remove(key);
+            publish(snapshot, updated);
+        }
+    }
+
+    /**
+     * Replace the entire contents of the catalog. Readers see either the old items or the new items, never a mix of both.
+     * @param items The new items, where each key is the key of an item and the value is the item
+     */
+    public void replaceAll(Map<String, WrappedItem> items) {
+        Preconditions.checkArgument(items != null, "items cannot be null!");
+
+        synchronized (writeLock) {
+            LinkedHashMap<String, WrappedItem> updated = new LinkedHashMap<>(items.size());
+            for (Map.Entry<String, WrappedItem> entry : items.entrySet()) {
+                Preconditions.checkArgument(entry.getKey() != null, "key cannot be null!");
+                Preconditions.checkArgument(entry.getValue() != null, "item cannot be null!");
+                updated.put(entry.getKey(), entry.getValue());
+            }
+            publish(current.get(), updated);
+        }
+    }
+
+    /**
+     * Remove all items from the catalog.
+     */
+    public void clear() {
+        synchronized (writeLock) {
+            Snapshot snapshot = current.get();
+            if (snapshot.size() > 0)
+                publish(snapshot, new LinkedHashMap<>());
+        }
+    }
+
+    private void publish(Snapshot previous, LinkedHashMap<String, WrappedItem> items) {
+        current.set(new Snapshot(previous.version + 1, Collections.unmodifiableMap(items)));
+    }
+
+    /**
+     * An immutable view of the items in an {@link ItemCatalog} at a single point in time.
+     */
+    public static class Snapshot implements Iterable<Map.Entry<String, WrappedItem>> {
+
+        private final long version;
+        private final Map<String, WrappedItem> items;
+
+        private Snapshot(long version, Map<String, WrappedItem> items) {
+            this.version = version;
+            this.items = items;
+        }
+
+        /**
+         * Get the version of this snapshot. A newer snapshot of the same catalog always has a higher version.
+         * @return The version of this snapshot
+         */
+        public long getVersion() {
+            return version;
+        }
+
+        /**
+         * Get an item in this snapshot.
+         * @param key The key of the item
+         * @return The item, or null if there is no item with the key
+         */
+        public WrappedItem get(String key) {
+            return items.get(key);
+        }
+
+        /**
+         * Check if this snapshot contains an item.
+         * @param key The key of the item
+         * @return True if there is an item with the key, false if otherwise
+         */
+        public boolean contains(String key) {
+            return items.containsKey(key);
+        }
+
+        /**
+         * Get the number of items in this snapshot.
+         * @return The number of items
+         */
+        public int size() {
+            return items.size();
+        }
+
+        /**
+         * Get the keys of all items in this snapshot.
+         * @return An unmodifiable set of keys, in the order in which the items were added
+         */
+        public Set<String> getKeys() {
+            return items.keySet();
+        }
+
+        /**
+         * Get all items in this snapshot.
+         * @return An unmodifiable map where each key is the key of an item and the value is the item, in the order in which the items were added
+         */
+        public Map<String, WrappedItem> getItems() {
+            return items;
+        }
+
+        @Override
+        public Iterator<Map.Entry<String, WrappedItem>> iterator() {
+            return items.entrySet().iterator();
+        }
+    }
+}
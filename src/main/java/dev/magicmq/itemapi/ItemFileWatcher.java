@@ -0,0 +1,360 @@
+package dev.magicmq.itemapi;
+
+import com.google.common.base.Preconditions;
+import dev.magicmq.itemapi.config.ConfigLoader;
+import dev.magicmq.itemapi.config.SnapshotConfigSection;
+import dev.magicmq.itemapi.config.WrappedConfigurationSection;
+import dev.magicmq.itemapi.utils.InternPool;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps the items defined in a configuration file up to date as the file changes on disk.
+ * Each top-level section of the file is parsed as an item, like {@link ItemAPI#parseItemsWithKeys(WrappedConfigurationSection)}. When the file is reloaded, a {@link SnapshotConfigSection snapshot} of it is taken and the {@link SnapshotConfigSection#contentHash() content hash} of every section is compared with the hash from the previous load, so only sections that were added or changed are parsed again. Items whose sections did not change are carried over as they are.
+ * The parsed items are published all at once by swapping an immutable map, so {@link #getItems()} and {@link #getItem(String)} never block and always see a complete, consistent set of items, even while a reload is in progress on another thread.
+ * An item that fails to parse does not abort the reload. The previous version of the item is kept, if there is one, and the exception is reported to listeners in a {@link Reload}.
+ * Changes are detected with a {@link WatchService} on the directory containing the file once {@link #start()} is called. Files can also be reloaded manually with {@link #reload()}. If the file cannot be loaded after a change on disk, the current items are kept and the exception is reported to listeners in a {@link Reload} as its {@link Reload#getFailure() failure}.
+ */
+public class ItemFileWatcher implements Closeable {
+
+    private static final Logger LOGGER = Logger.getLogger(ItemFileWatcher.class.getName());
+
+    //Editors often write a file in several steps, so events are collected until none have arrived for this long before the file is reloaded
+    private static final long DEBOUNCE_MILLIS = 100;
+
+    private final Path file;
+    private final ConfigLoader loader;
+    private final InternPool pool;
+    private final AtomicReference<State> state;
+    private final List<Consumer<Reload>> listeners;
+    private final Object reloadLock;
+
+    private WatchService watchService;
+    private Thread thread;
+
+    /**
+     * Create a new ItemFileWatcher class for a file. No items are available until {@link #reload()} or {@link #start()} is called.
+     * @param file The file containing the items
+     * @param loader The loader that will be used to read the file each time it is reloaded
+     * @see ConfigLoader#bukkit()
+     * @see ConfigLoader#configurate()
+     */
+    public ItemFileWatcher(Path file, ConfigLoader loader) {
+        this(file, loader, null);
+    }
+
+    /**
+     * Create a new ItemFileWatcher class for a file in lean mode. Every item is {@link WrappedItem#compact(InternPool) compacted} through the pool as soon as it is parsed, so items do not keep the parsed configuration in memory. No items are available until {@link #reload()} or {@link #start()} is called.
+     * @param file The file containing the items
+     * @param loader The loader that will be used to read the file each time it is reloaded
+     * @param pool The pool through which values will be interned, or null to keep items as they are parsed
+     */
+    public ItemFileWatcher(Path file, ConfigLoader loader, InternPool pool) {
+        Preconditions.checkArgument(file != null, "file cannot be null!");
+        Preconditions.checkArgument(loader != null, "loader cannot be null!");
+
+        this.file = file.toAbsolutePath();
+        this.loader = loader;
+        this.pool = pool;
+        this.state = new AtomicReference<>(new State(Collections.emptyMap(), Collections.emptyMap()));
+        this.listeners = new CopyOnWriteArrayList<>();
+        this.reloadLock = new Object();
+    }
+
+    /**
+     * Load the file and start watching it for changes. The file is loaded once on the calling thread, after which changes are picked up on a background daemon thread.
+     * <b>Note:</b> A watcher that was {@link #close() closed} can be started again, as can a watcher whose previous start failed.
+     * @throws IOException If the file could not be loaded, or if the directory containing it could not be watched
+     * @throws IllegalStateException If the watcher is already running
+     */
+    public synchronized void start() throws IOException {
+        if (watchService != null)
+            throw new IllegalStateException("This watcher has already been started!");
+
+        reload();
+
+        Path directory = file.getParent();
+        WatchService watchService = directory.getFileSystem().newWatchService();
+        try {
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException | RuntimeException e) {
+            watchService.close();
+            throw e;
+        }
+
+        this.watchService = watchService;
+        thread = new Thread(() -> watch(watchService), "ItemAPI File Watcher - " + file.getFileName());
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Reload the file immediately. Only sections that were added or changed since the last reload are parsed again.
+     * <b>Note:</b> Reloads are performed one at a time. If the file is already being reloaded on another thread, this method waits for it to finish first.
+     * @return A Reload describing what changed
+     * @throws IOException If the file could not be loaded, in which case the current items are left untouched
+     */
+    public Reload reload() throws IOException {
+        Reload reload = load();
+        for (Consumer<Reload> listener : listeners)
+            listener.accept(reload);
+        return reload;
+    }
+
+    private Reload load() throws IOException {
+        synchronized (reloadLock) {
+            WrappedConfigurationSection loaded = loader.load(file);
+            SnapshotConfigSection snapshot = SnapshotConfigSection.of(loaded);
+            State previous = state.get();
+
+            LinkedHashMap<String, WrappedItem> items = new LinkedHashMap<>();
+            HashMap<String, Long> hashes = new HashMap<>();
+            List<String> changedKeys = new ArrayList<>();
+            LinkedHashMap<String, RuntimeException> errors = new LinkedHashMap<>();
+            for (String key : snapshot.getKeys(false)) {
+                if (!snapshot.isConfigurationSection(key))
+                    continue;
+
+                SnapshotConfigSection section = (SnapshotConfigSection) snapshot.getConfigurationSection(key);
+                long hash = section.contentHash();
+                Long previousHash = previous.hashes.get(key);
+                WrappedItem previousItem = previous.items.get(key);
+                if (previousHash != null && previousHash == hash && previousItem != null) {
+                    items.put(key, previousItem);
+                    hashes.put(key, hash);
+                    continue;
+                }
+
+                try {
+                    WrappedItem item = new WrappedItem(section).resolve();
+                    if (pool != null)
+                        item.compact(pool);
+                    items.put(key, item);
+                    hashes.put(key, hash);
+                    changedKeys.add(key);
+                } catch (RuntimeException e) {
+                    errors.put(key, e);
+                    if (previousItem != null) {
+                        items.put(key, previousItem);
+                        hashes.put(key, previousHash);
+                    }
+                }
+            }
+
+            List<String> removedKeys = new ArrayList<>();
+            for (String key : previous.items.keySet()) {
+                if (!items.containsKey(key))
+                    removedKeys.add(key);
+            }
+
+            State updated = new State(Collections.unmodifiableMap(items), hashes);
+            state.set(updated);
+            return new Reload(updated.items, changedKeys, removedKeys, errors, null);
+        }
+    }
+
+    /**
+     * Get all items that are currently loaded. This method never blocks.
+     * @return An unmodifiable map where each key is the config section name for an item and the value is the item, in config order. The map does not change when the file is reloaded later
+     */
+    public Map<String, WrappedItem> getItems() {
+        return state.get().items;
+    }
+
+    /**
+     * Get a single item that is currently loaded. This method never blocks.
+     * @param key The config section name of the item
+     * @return The item, or null if there is no item with the key
+     */
+    public WrappedItem getItem(String key) {
+        return state.get().items.get(key);
+    }
+
+    /**
+     * Add a listener that will be called after every reload, including reloads that were triggered by a change on disk.
+     * <b>Note:</b> Listeners for reloads triggered by a change on disk are called on the watcher's background thread.
+     * @param listener The listener to add
+     */
+    public void addListener(Consumer<Reload> listener) {
+        Preconditions.checkArgument(listener != null, "listener cannot be null!");
+
+        listeners.add(listener);
+    }
+
+    /**
+     * Remove a listener that was previously added with {@link #addListener(Consumer)}.
+     * @param listener The listener to remove
+     */
+    public void removeListener(Consumer<Reload> listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Get the file that is being watched.
+     * @return The absolute path of the file
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Stop watching the file. Items that are currently loaded remain available, and the watcher can be {@link #start() started} again.
+     * @throws IOException If the underlying WatchService could not be closed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (watchService == null)
+            return;
+
+        try {
+            watchService.close();
+        } finally {
+            thread.interrupt();
+            watchService = null;
+            thread = null;
+        }
+    }
+
+    private void watch(WatchService watchService) {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = watchService.take();
+                boolean changed = pollEvents(key);
+                //Keep collecting events until the file has been quiet for a while, so that a file is not reloaded while it is still being written
+                while ((key = watchService.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)) != null)
+                    changed |= pollEvents(key);
+
+                if (changed)
+                    notifyListeners(loadInBackground());
+            }
+        } catch (InterruptedException | ClosedWatchServiceException ignored) {}
+    }
+
+    private Reload loadInBackground() {
+        try {
+            return load();
+        } catch (IOException | RuntimeException e) {
+            //There is no caller to throw to, so the failure is handed to listeners instead
+            return new Reload(state.get().items, Collections.emptyList(), Collections.emptyList(), new LinkedHashMap<>(), e);
+        }
+    }
+
+    private void notifyListeners(Reload reload) {
+        for (Consumer<Reload> listener : listeners) {
+            try {
+                listener.accept(reload);
+            } catch (RuntimeException e) {
+                //A failing listener must not stop the watcher thread or keep other listeners from being called
+                LOGGER.log(Level.SEVERE, "A listener of the item file watcher for " + file + " threw an exception!", e);
+            }
+        }
+    }
+
+    private boolean pollEvents(WatchKey key) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || file.getFileName().equals(event.context()))
+                changed = true;
+        }
+        key.reset();
+        return changed;
+    }
+
+    private static class State {
+
+        private final Map<String, WrappedItem> items;
+        private final Map<String, Long> hashes;
+
+        private State(Map<String, WrappedItem> items, Map<String, Long> hashes) {
+            this.items = items;
+            this.hashes = hashes;
+        }
+    }
+
+    /**
+     * A description of a single reload of an {@link ItemFileWatcher}.
+     */
+    public static class Reload {
+
+        private final Map<String, WrappedItem> items;
+        private final List<String> changedKeys;
+        private final List<String> removedKeys;
+        private final Map<String, RuntimeException> errors;
+        private final Exception failure;
+
+        private Reload(Map<String, WrappedItem> items, List<String> changedKeys, List<String> removedKeys, LinkedHashMap<String, RuntimeException> errors, Exception failure) {
+            this.items = items;
+            this.changedKeys = Collections.unmodifiableList(changedKeys);
+            this.removedKeys = Collections.unmodifiableList(removedKeys);
+            this.errors = Collections.unmodifiableMap(errors);
+            this.failure = failure;
+        }
+
+        /**
+         * Get all items that were loaded after the reload, including items that did not change.
+         * @return An unmodifiable map where each key is the config section name for an item and the value is the item, in config order
+         */
+        public Map<String, WrappedItem> getItems() {
+            return items;
+        }
+
+        /**
+         * Get the keys of items that were added or changed and were parsed successfully.
+         * @return An unmodifiable list of keys, in config order
+         */
+        public List<String> getChangedKeys() {
+            return changedKeys;
+        }
+
+        /**
+         * Get the keys of items that were removed from the file.
+         * @return An unmodifiable list of keys
+         */
+        public List<String> getRemovedKeys() {
+            return removedKeys;
+        }
+
+        /**
+         * Get the errors that occurred while parsing items that were added or changed. An item that could not be parsed keeps its previous version, if it had one.
+         * @return An unmodifiable map where each key is the config section name of an item that could not be parsed and the value is the exception that was thrown, in config order
+         */
+        public Map<String, RuntimeException> getErrors() {
+            return errors;
+        }
+
+        /**
+         * Get the exception that prevented the file from being loaded at all. This is only set for reloads triggered by a change on disk, because {@link #reload()} throws the exception to its caller instead. If the reload failed, the items are the same as before it and nothing is reported as changed.
+         * @return The exception that was thrown while loading the file, usually an {@link IOException}, or null if the file was loaded
+         */
+        public Exception getFailure() {
+            return failure;
+        }
+
+        /**
+         * Check if anything changed during the reload.
+         * @return True if any item was added, changed, or removed, false if otherwise
+         */
+        public boolean hasChanges() {
+            return !changedKeys.isEmpty() || !removedKeys.isEmpty();
+        }
+    }
+}
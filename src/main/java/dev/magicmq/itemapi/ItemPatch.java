@@ -0,0 +1,498 @@
+package dev.magicmq.itemapi;
+
+import com.google.common.base.Preconditions;
+import dev.magicmq.itemapi.metadata.Metadata;
+import dev.magicmq.itemapi.nbt.NBTData;
+import dev.magicmq.itemapi.nbt.NBTTag;
+import dev.magicmq.itemapi.serialization.ItemCodec;
+import dev.magicmq.itemapi.serialization.ItemDataInput;
+import dev.magicmq.itemapi.serialization.ItemDataOutput;
+import dev.magicmq.itemapi.serialization.WireType;
+import dev.magicmq.itemapi.utils.exception.ItemDataException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * The difference between two versions of a WrappedItem, which can be applied to the older version to turn it into the newer one.
+ * A patch only contains what changed: the base fields of the item (material, amount and damage), the individual fields of the {@link Metadata} that changed, and the individual {@link NBTTag NBT tags} that were added, changed or removed, at any depth within compound tags. Storing or sending a patch instead of the whole item is much smaller for items that change often but only slightly, such as an item with a kill counter.
+ * Metadata fields are compared in ItemAPI's binary format, so every type of metadata supported by {@link ItemCodec} can be patched. If the type of metadata changed, the patch contains the new metadata in full.
+ * A patch records the {@link WrappedItem#contentHash() content hash} of the item it was created from, and can only be applied to an item with the same content.
+ * @see WrappedItem#diff(WrappedItem)
+ * @see WrappedItem#apply(ItemPatch)
+ */
+public class ItemPatch {
+
+    /**
+     * The first byte of all patches written in the binary format.
+     */
+    public static final int MAGIC = 0x50;
+
+    /**
+     * The version of the patch format written by this version of ItemAPI.
+     */
+    public static final int VERSION = 1;
+
+    private final long baseHash;
+    private final String material;
+    private final Integer amount;
+    private final Short damage;
+    private final byte[] metadata;
+    private final List<MetadataChange> metadataChanges;
+    private final List<NbtChange> nbtChanges;
+
+    private ItemPatch(long baseHash, String material, Integer amount, Short damage, byte[] metadata, List<MetadataChange> metadataChanges, List<NbtChange> nbtChanges) {
+        this.baseHash = baseHash;
+        this.material = material;
+        this.amount = amount;
+        this.damage = damage;
+        this.metadata = metadata;
+        this.metadataChanges = metadataChanges;
+        this.nbtChanges = nbtChanges;
+    }
+
+    /**
+     * Create a patch that turns one item into another. Neither item is modified.
+     * @param base The item the patch will be applied to
+     * @param target The item the patch should produce
+     * @return The patch, which is {@link #isEmpty() empty} if the items have the same content
+     * @throws ItemDataException If either item contains a type of metadata that is not supported by the binary format
+     */
+    public static ItemPatch diff(WrappedItem base, WrappedItem target) {
+        Preconditions.checkArgument(base != null, "base cannot be null!");
+        Preconditions.checkArgument(target != null, "target cannot be null!");
+
+        String material = Objects.equals(base.getMaterial(), target.getMaterial()) ? null : target.getMaterial();
+        Integer amount = base.getAmount() == target.getAmount() ? null : target.getAmount();
+        Short damage = base.getDamage() == target.getDamage() ? null : target.getDamage();
+
+        byte[] metadata = null;
+        List<MetadataChange> metadataChanges = new ArrayList<>();
+        Metadata baseMetadata = metadataOf(base);
+        Metadata targetMetadata = metadataOf(target);
+        if (baseMetadata.getClass() != targetMetadata.getClass()) {
+            metadata = encodeMetadata(targetMetadata);
+        } else if (!baseMetadata.equals(targetMetadata)) {
+            EncodedMetadata baseFields = new EncodedMetadata(baseMetadata);
+            EncodedMetadata targetFields = new EncodedMetadata(targetMetadata);
+            for (int segment = 0; segment < targetFields.segments.size(); segment++) {
+                TreeMap<Integer, byte[]> baseSegment = baseFields.segments.get(segment);
+                TreeMap<Integer, byte[]> targetSegment = targetFields.segments.get(segment);
+                for (Map.Entry<Integer, byte[]> field : baseSegment.entrySet()) {
+                    if (!targetSegment.containsKey(field.getKey()))
+                        metadataChanges.add(new MetadataChange(segment, field.getKey(), null));
+                }
+                for (Map.Entry<Integer, byte[]> field : targetSegment.entrySet()) {
+                    if (!Arrays.equals(field.getValue(), baseSegment.get(field.getKey())))
+                        metadataChanges.add(new MetadataChange(segment, field.getKey(), field.getValue()));
+                }
+            }
+        }
+
+        List<NbtChange> nbtChanges = new ArrayList<>();
+        diffTags(Collections.emptyList(), toMap(base.getNbtData()), toMap(target.getNbtData()), nbtChanges);
+
+        return new ItemPatch(base.contentHash(), material, amount, damage, metadata, metadataChanges, nbtChanges);
+    }
+
+    /**
+     * Decode a patch that was encoded with {@link #encode()}.
+     * @param data The encoded patch
+     * @return The patch that was decoded
+     * @throws ItemDataException If the data is corrupted or was written by a newer version of ItemAPI
+     */
+    public static ItemPatch decode(byte[] data) {
+        Preconditions.checkArgument(data != null, "data cannot be null!");
+
+        if (data.length < 2 || (data[0] & 0xFF) != MAGIC)
+            throw new ItemDataException("Data is not an item patch encoded by ItemAPI!");
+        int version = data[1] & 0xFF;
+        if (version > VERSION)
+            throw new ItemDataException("Patch data was written with format version " + version + ", but this version of ItemAPI only supports up to version " + VERSION + ". Please update ItemAPI.");
+
+        ItemDataInput in = new ItemDataInput(data, 2, data.length - 2);
+        long baseHash = 0;
+        String material = null;
+        Integer amount = null;
+        Short damage = null;
+        byte[] metadata = null;
+        List<MetadataChange> metadataChanges = new ArrayList<>();
+        List<NbtChange> nbtChanges = new ArrayList<>();
+        for (int tag = in.readTag(); tag != 0; tag = in.readTag()) {
+            switch (ItemDataInput.getFieldNumber(tag)) {
+                case 1:
+                    baseHash = in.readFixed64();
+                    break;
+                case 2:
+                    material = in.readString();
+                    break;
+                case 3:
+                    amount = in.readSignedVarInt();
+                    break;
+                case 4:
+                    damage = (short) in.readSignedVarInt();
+                    break;
+                case 5:
+                    metadata = in.readBytes();
+                    break;
+                case 6:
+                    metadataChanges.add(MetadataChange.read(in.readNested()));
+                    break;
+                case 7:
+                    nbtChanges.add(NbtChange.read(in.readNested()));
+                    break;
+                default:
+                    in.skipField(tag);
+            }
+        }
+        return new ItemPatch(baseHash, material, amount, damage, metadata, metadataChanges, nbtChanges);
+    }
+
+    /**
+     * Check if this patch can be applied to an item, which is the case if the item has the same content as the item the patch was created from.
+     * @param item The item to check
+     * @return True if the patch can be applied to the item, false if otherwise
+     */
+    public boolean isBasedOn(WrappedItem item) {
+        Preconditions.checkArgument(item != null, "item cannot be null!");
+
+        return item.contentHash() == baseHash;
+    }
+
+    /**
+     * Check if this patch changes anything.
+     * @return True if applying this patch would not change the item, false if otherwise
+     */
+    public boolean isEmpty() {
+        return material == null && amount == null && damage == null && metadata == null && metadataChanges.isEmpty() && nbtChanges.isEmpty();
+    }
+
+    /**
+     * Apply this patch to an item, modifying the item.
+     * @param item The item to which the patch will be applied
+     * @return The same item, for chaining
+     * @throws ItemDataException If the item does not have the same content as the item the patch was created from, or if the patch is corrupted
+     */
+    public WrappedItem applyTo(WrappedItem item) {
+        Preconditions.checkArgument(item != null, "item cannot be null!");
+
+        if (!isBasedOn(item))
+            throw new ItemDataException("This patch was created from a different item, and cannot be applied to " + item.getMaterial() + "!");
+        if (isEmpty())
+            return item;
+
+        //The metadata and NBT data are rebuilt on copies before anything is changed, so that a corrupted patch leaves the item untouched
+        Metadata patchedMetadata = null;
+        if (metadata != null) {
+            patchedMetadata = decodeMetadata(metadata);
+        } else if (!metadataChanges.isEmpty()) {
+            EncodedMetadata fields = new EncodedMetadata(metadataOf(item));
+            for (MetadataChange change : metadataChanges) {
+                if (change.segment >= fields.segments.size())
+                    throw new ItemDataException("Patch changes metadata that " + metadataOf(item).getClass().getSimpleName() + " does not have! The patch may be corrupted.");
+                TreeMap<Integer, byte[]> segment = fields.segments.get(change.segment);
+                if (change.value == null)
+                    segment.remove(change.field);
+                else
+                    segment.put(change.field, change.value);
+            }
+            patchedMetadata = decodeMetadata(fields.encode());
+        }
+        NBTData patchedNbtData = nbtChanges.isEmpty() ? null : applyNbtChanges(item.getNbtData());
+
+        if (material != null)
+            item.setMaterial(material);
+        if (amount != null)
+            item.setAmount(amount);
+        if (damage != null)
+            item.setDamage(damage);
+        if (patchedMetadata != null)
+            item.setMetadata(patchedMetadata);
+        if (patchedNbtData != null)
+            item.setNbtData(patchedNbtData);
+        return item;
+    }
+
+    /**
+     * Encode this patch to a compact binary form.
+     * @return The encoded patch
+     */
+    public byte[] encode() {
+        ItemDataOutput out = new ItemDataOutput(32);
+        out.writeByte(MAGIC);
+        out.writeByte(VERSION);
+        out.writeTag(1, WireType.FIXED64);
+        out.writeFixed64(baseHash);
+        out.writeStringField(2, material);
+        if (amount != null)
+            out.writeIntField(3, amount);
+        if (damage != null)
+            out.writeIntField(4, damage);
+        if (metadata != null) {
+            out.writeTag(5, WireType.LENGTH_DELIMITED);
+            out.writeBytes(metadata);
+        }
+        for (MetadataChange change : metadataChanges)
+            out.writeNestedField(6, change::write);
+        for (NbtChange change : nbtChanges)
+            out.writeNestedField(7, change::write);
+        return out.toByteArray();
+    }
+
+    private NBTData applyNbtChanges(NBTData original) {
+        NBTData nbtData = original == null ? new NBTData() : copyNbtData(original);
+        for (NbtChange change : nbtChanges) {
+            String key = change.path.get(change.path.size() - 1);
+            if (change.path.size() == 1) {
+                if (change.tag == null)
+                    nbtData.removeNBTTag(key);
+                else
+                    nbtData.addNbtTag(change.tag.getType(), change.tag.getListType(), key, copyTag(change.tag).getValue());
+                continue;
+            }
+
+            //Keys may contain dots, so the path is followed key by key rather than with NBTData's dotted paths
+            NBTTag parent = nbtData.getNbtTag(change.path.get(0));
+            for (int i = 1; i < change.path.size() - 1 && parent != null; i++)
+                parent = parent.getChild(change.path.get(i));
+            if (parent == null || !parent.isCompoundTag())
+                throw new ItemDataException("Patch changes NBT tag " + String.join(".", change.path) + ", but its parent is not a compound tag! The patch may be corrupted.");
+
+            if (change.tag == null)
+                parent.removeChild(key);
+            else
+                parent.putChild(new NBTTag(change.tag.getType(), change.tag.getListType(), key, copyTag(change.tag).getValue()));
+        }
+        return nbtData;
+    }
+
+    private static void diffTags(List<String> path, Map<String, NBTTag> base, Map<String, NBTTag> target, List<NbtChange> changes) {
+        for (String key : base.keySet()) {
+            if (!target.containsKey(key))
+                changes.add(new NbtChange(append(path, key), null));
+        }
+        for (Map.Entry<String, NBTTag> entry : target.entrySet()) {
+            NBTTag baseTag = base.get(entry.getKey());
+            NBTTag targetTag = entry.getValue();
+            if (baseTag != null && baseTag.isCompoundTag() && targetTag.isCompoundTag())
+                diffTags(append(path, entry.getKey()), baseTag.getChildren(), targetTag.getChildren(), changes);
+            else if (!targetTag.equals(baseTag))
+                changes.add(new NbtChange(append(path, entry.getKey()), copyTag(targetTag)));
+        }
+    }
+
+    private static List<String> append(List<String> path, String key) {
+        List<String> appended = new ArrayList<>(path.size() + 1);
+        appended.addAll(path);
+        appended.add(key);
+        return appended;
+    }
+
+    private static Map<String, NBTTag> toMap(NBTData nbtData) {
+        if (nbtData == null)
+            return Collections.emptyMap();
+
+        Map<String, NBTTag> tags = new LinkedHashMap<>();
+        for (NBTTag tag : nbtData.getNbtTags())
+            tags.put(tag.getKey(), tag);
+        return tags;
+    }
+
+    //Tags are copied through the binary format, so that neither the patch nor the patched item shares tags with another item
+    private static NBTTag copyTag(NBTTag tag) {
+        ItemDataOutput out = new ItemDataOutput();
+        tag.writeBinary(out);
+        return NBTTag.readBinary(new ItemDataInput(out.toByteArray()));
+    }
+
+    private static NBTData copyNbtData(NBTData nbtData) {
+        ItemDataOutput out = new ItemDataOutput();
+        nbtData.writeBinary(out);
+        return new NBTData(new ItemDataInput(out.toByteArray()));
+    }
+
+    private static Metadata metadataOf(WrappedItem item) {
+        return item.getMetadata() == null ? new Metadata() : item.getMetadata();
+    }
+
+    private static byte[] encodeMetadata(Metadata metadata) {
+        ItemDataOutput out = new ItemDataOutput();
+        ItemCodec.writeMetadata(out, metadata);
+        return out.toByteArray();
+    }
+
+    private static Metadata decodeMetadata(byte[] data) {
+        return ItemCodec.readMetadata(new ItemDataInput(data));
+    }
+
+    /**
+     * Metadata in the binary format, split into the fields written by each class in its hierarchy. Each field is kept as the exact bytes of its tag and value.
+     */
+    private static class EncodedMetadata {
+
+        private final byte[] typeId;
+        private final List<TreeMap<Integer, byte[]>> segments;
+
+        private EncodedMetadata(Metadata metadata) {
+            FieldRecordingOutput out = new FieldRecordingOutput();
+            ItemCodec.writeMetadata(out, metadata);
+            byte[] data = out.toByteArray();
+
+            //Everything before the first field or end marker is the type ID
+            this.typeId = Arrays.copyOf(data, out.boundaries.isEmpty() ? data.length : out.boundaries.get(0)[0]);
+            this.segments = new ArrayList<>();
+            TreeMap<Integer, byte[]> segment = new TreeMap<>();
+            for (int i = 0; i < out.boundaries.size(); i++) {
+                int[] boundary = out.boundaries.get(i);
+                if (boundary[1] == 0) {
+                    segments.add(segment);
+                    segment = new TreeMap<>();
+                    continue;
+                }
+
+                int fieldEnd = i + 1 < out.boundaries.size() ? out.boundaries.get(i + 1)[0] : data.length;
+                byte[] previous = segment.get(boundary[1]);
+                byte[] field = new byte[(previous == null ? 0 : previous.length) + fieldEnd - boundary[0]];
+                if (previous != null)
+                    System.arraycopy(previous, 0, field, 0, previous.length);
+                System.arraycopy(data, boundary[0], field, field.length - (fieldEnd - boundary[0]), fieldEnd - boundary[0]);
+                segment.put(boundary[1], field);
+            }
+        }
+
+        private byte[] encode() {
+            ItemDataOutput out = new ItemDataOutput();
+            out.writeRaw(typeId, 0, typeId.length);
+            for (TreeMap<Integer, byte[]> segment : segments) {
+                for (byte[] field : segment.values())
+                    out.writeRaw(field, 0, field.length);
+                out.writeEnd();
+            }
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * An output that records where each top-level field and end marker begins while metadata is written.
+     * The fields are found while writing rather than by reading the data back, because strings and nested blocks share a wire type but store their length differently.
+     */
+    private static class FieldRecordingOutput extends ItemDataOutput {
+
+        private final List<int[]> boundaries = new ArrayList<>();
+        private int depth;
+
+        @Override
+        public void writeTag(int field, int wireType) {
+            if (depth == 0)
+                boundaries.add(new int[] {size(), field});
+            super.writeTag(field, wireType);
+        }
+
+        @Override
+        public void writeEnd() {
+            if (depth == 0)
+                boundaries.add(new int[] {size(), 0});
+            super.writeEnd();
+        }
+
+        @Override
+        public void writeNested(Consumer<ItemDataOutput> writer) {
+            depth++;
+            try {
+                super.writeNested(writer);
+            } finally {
+                depth--;
+            }
+        }
+    }
+
+    private static class MetadataChange {
+
+        private final int segment;
+        private final int field;
+        private final byte[] value;
+
+        private MetadataChange(int segment, int field, byte[] value) {
+            this.segment = segment;
+            this.field = field;
+            this.value = value;
+        }
+
+        private void write(ItemDataOutput out) {
+            out.writeIntField(1, segment);
+            out.writeIntField(2, field);
+            if (value != null) {
+                out.writeTag(3, WireType.LENGTH_DELIMITED);
+                out.writeBytes(value);
+            }
+        }
+
+        private static MetadataChange read(ItemDataInput in) {
+            int segment = 0;
+            int field = 0;
+            byte[] value = null;
+            for (int tag = in.readTag(); tag != 0; tag = in.readTag()) {
+                switch (ItemDataInput.getFieldNumber(tag)) {
+                    case 1:
+                        segment = in.readSignedVarInt();
+                        break;
+                    case 2:
+                        field = in.readSignedVarInt();
+                        break;
+                    case 3:
+                        value = in.readBytes();
+                        break;
+                    default:
+                        in.skipField(tag);
+                }
+            }
+            if (segment < 0 || field <= 0)
+                throw new ItemDataException("Invalid metadata change for field " + field + " of segment " + segment + "! The patch may be corrupted.");
+            return new MetadataChange(segment, field, value);
+        }
+    }
+
+    private static class NbtChange {
+
+        private final List<String> path;
+        private final NBTTag tag;
+
+        private NbtChange(List<String> path, NBTTag tag) {
+            this.path = path;
+            this.tag = tag;
+        }
+
+        private void write(ItemDataOutput out) {
+            out.writeStringListField(1, path);
+            if (tag != null)
+                out.writeNestedField(2, tag::writeBinary);
+        }
+
+        private static NbtChange read(ItemDataInput in) {
+            List<String> path = null;
+            NBTTag tag = null;
+            for (int t = in.readTag(); t != 0; t = in.readTag()) {
+                switch (ItemDataInput.getFieldNumber(t)) {
+                    case 1:
+                        path = in.readStringListField();
+                        break;
+                    case 2:
+                        tag = NBTTag.readBinary(in.readNested());
+                        break;
+                    default:
+                        in.skipField(t);
+                }
+            }
+            if (path == null || path.isEmpty())
+                throw new ItemDataException("NBT change without a path! The patch may be corrupted.");
+            return new NbtChange(path, tag);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package dev.magicmq.itemapi;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The result of parsing many items at once with {@link ItemAPI#parseItemsParallel(dev.magicmq.itemapi.config.WrappedConfigurationSection) parseItemsParallel}.
+ * Items that could not be parsed do not abort the whole batch. Instead, the exception thrown while parsing each of them is recorded under the item's key.
+ * Both the parsed items and the errors are kept in the order in which the keys appeared in the configuration section.
+ */
+public class ParseResult {
+
+    private final Map<String, WrappedItem> items;
+    private final Map<String, RuntimeException> errors;
+
+    ParseResult(LinkedHashMap<String, WrappedItem> items, LinkedHashMap<String, RuntimeException> errors) {
+        this.items = Collections.unmodifiableMap(items);
+        this.errors = Collections.unmodifiableMap(errors);
+    }
+
+    /**
+     * Get all items that were parsed successfully.
+     * @return An unmodifiable map where each key is the config section name for an item and the value is the item, in config order
+     */
+    public Map<String, WrappedItem> getItems() {
+        return items;
+    }
+
+    /**
+     * Get all items that were parsed successfully as a list.
+     * @return A new list containing the parsed items, in config order
+     */
+    public List<WrappedItem> getItemList() {
+        return new ArrayList<>(items.values());
+    }
+
+    /**
+     * Get the errors that occurred while parsing items.
+     * @return An unmodifiable map where each key is the config section name of an item that could not be parsed and the value is the exception that was thrown, in config order
+     */
+    public Map<String, RuntimeException> getErrors() {
+        return errors;
+    }
+
+    /**
+     * Check if any item could not be parsed.
+     * @return True if at least one error occurred, false if otherwise
+     */
+    public boolean hasErrors() {
+        return !errors.isEmpty();
+    }
+}
@@ -1,11 +1,27 @@
 package dev.magicmq.itemapi;
 
+import com.google.common.base.Preconditions;
+import de.tr7zw.changeme.nbtapi.NBTItem;
 import dev.magicmq.itemapi.config.WrappedConfigurationSection;
 import dev.magicmq.itemapi.metadata.*;
+import dev.magicmq.itemapi.metrics.CacheType;
+import dev.magicmq.itemapi.metrics.Metrics;
+import dev.magicmq.itemapi.metrics.Stage;
 import dev.magicmq.itemapi.nbt.NBTData;
+import dev.magicmq.itemapi.profile.ProfileSource;
+import dev.magicmq.itemapi.serialization.ItemCodec;
+import dev.magicmq.itemapi.serialization.ItemDataInput;
+import dev.magicmq.itemapi.serialization.ItemDataOutput;
+import dev.magicmq.itemapi.utils.Capabilities;
+import dev.magicmq.itemapi.utils.ContentHashable;
+import dev.magicmq.itemapi.utils.ContentHasher;
 import dev.magicmq.itemapi.utils.DamageUtil;
+import dev.magicmq.itemapi.utils.InternPool;
 import dev.magicmq.itemapi.utils.MCVersion;
+import dev.magicmq.itemapi.utils.Resolver;
+import dev.magicmq.itemapi.utils.Revision;
 import dev.magicmq.itemapi.utils.exception.IncorrectMetaException;
+import dev.magicmq.itemapi.utils.exception.ItemValidationException;
 import dev.magicmq.itemapi.utils.exception.VersionNotSupportedException;
 import org.bukkit.Material;
 import org.bukkit.inventory.ItemStack;
@@ -13,8 +29,11 @@ import org.bukkit.inventory.meta.*;
 
 import java.io.*;
 import java.util.Base64;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
-public class WrappedItem implements Serializable {
+public class WrappedItem implements Serializable, ContentHashable {
 
     private static final long serialVersionUID = -2714617059791004452L;
 
@@ -26,6 +45,13 @@ public class WrappedItem implements Serializable {
     private NBTData nbtData;
     private Metadata metadata;
 
+    private transient long revision;
+    private transient volatile long savedRevision = -1;
+    private transient volatile ContentHasher.Cached contentHash;
+    private transient CompiledItem compiled;
+    private transient volatile Material resolvedMaterial;
+    private transient String resolvedMaterialName;
+
     /**
      * Create a new WrappedItem with a certain Material type and default values.
      * @param material The {@link Material Material} that the item should be
@@ -41,7 +67,7 @@ public class WrappedItem implements Serializable {
     }
 
     /**
-     * Create a new WrappedItem from a configuration section. This is functionally the same as calling the {@link ItemAPI#parseItem(WrappedConfigurationSection) parseItem} method in the ItemAPI class.
+     * Create a new WrappedItem from a configuration section. This is functionally the same as calling the {@link ItemAPI#parseItem(WrappedConfigurationSection) parseItem} method in the ItemAPI class, except that names in the item are not {@link #resolve() resolved} until the item is first built.
      * @param section A subclass of WrappedConfigurationSection, depending on your configuration API of choice
      * @see WrappedConfigurationSection
      */
@@ -54,84 +80,32 @@ public class WrappedItem implements Serializable {
         this.damage = (short) section.getInt("damage", 0);
 
         //NBT
-        if (section.contains("nbt"))
+        if (section.contains("nbt")) {
+            long start = Metrics.start();
             this.nbtData = new NBTData(section.getConfigurationSection("nbt"));
-        else
+            Metrics.stop(Stage.NBT_PARSE, start);
+        } else
             this.nbtData = new NBTData();
 
         //Spawn Eggs
-        if (material.matches("(.*)_SPAWN_EGG")) {
-            if (!MCVersion.isCurrentVersionAtLeast(MCVersion.v1_13_R1))
+        Capabilities capabilities = MCVersion.getCapabilities();
+        if (material.endsWith("_SPAWN_EGG")) {
+            if (!capabilities.hasFlattenedMaterials())
                 throw new VersionNotSupportedException("Use the \"spawn-egg\" config value to set the mob type of spawn eggs. Versions lower than 1.13 do not have different material names for different spawn eggs.");
         } else {
             if (material.equals("MONSTER_EGG") ||
                     material.equals("MONSTER_EGGS") ||
                     material.equals("LEGACY_MONSTER_EGG") ||
                     material.equals("LEGACY_MONSTER_EGGS")) {
-                if (MCVersion.isCurrentVersionAtLeast(MCVersion.v1_13_R1))
+                if (capabilities.hasFlattenedMaterials())
                     throw new VersionNotSupportedException("Use the material name to spawn the specific spawn egg you need (BAT_SPAWN_EGG, for example). Spawn eggs now have different mateial names and the mob type does not need to be specified separately.");
             }
         }
 
         //Metadata
-        if (section.contains("mob-type")) {
-            if (material.equals("MONSTER_EGG") ||
-                    material.equals("MONSTER_EGGS") ||
-                    material.equals("LEGACY_MONSTER_EGG") ||
-                    material.equals("LEGACY_MONSTER_EGGS"))
-                this.metadata = new SpawnEggMetadata(section);
-            else if (material.equals("MOB_SPAWNER") || material.equals("SPAWNER"))
-                this.metadata = new SpawnerMetadata(section);
-        } else if (section.contains("shulker-box-items")) {
-            this.metadata = new ShulkerBoxMetadata(section);
-        } else if (section.contains("potion")) {
-            this.metadata = new PotionMetadata(section);
-        } else if (section.contains("banner-patterns")) {
-            this.metadata = new BannerMetadata(section);
-        } else if (section.contains("shield-patterns")) {
-            this.metadata = new ShieldMetadata(section);
-        } else if (section.contains("armor-color")) {
-            this.metadata = new LeatherArmorMetadata(section);
-        } else if (section.contains("player-head-data")) {
-            this.metadata = new PlayerHeadMetadata(section);
-        } else if (section.contains("book-data")) {
-            this.metadata = new BookMetadata(section);
-        } else if (section.contains("map-data")) {
-            this.metadata = new MapMetadata(section);
-        } else if (section.contains("firework-effects")) {
-            this.metadata = new FireworkMetadata(section);
-        } else if (section.contains("firework-effect")) {
-            this.metadata = new FireworkStarMetadata(section);
-        } else if (section.contains("tropical-fish-bucket-data")) {
-            this.metadata = new TropicalFishBucketMetadata(section);
-        } else if (section.contains("book-enchantments")) {
-            this.metadata = new EnchantedBookMetadata(section);
-        } else if (section.contains("compass-data")) {
-            if (MCVersion.isCurrentVersionAtLeast(MCVersion.v1_16_R1))
-                this.metadata = new CompassMetadata(section);
-            else
-                throw new VersionNotSupportedException("Compass data is only supported in Minecraft version 1.16 and above!");
-        } else if (section.contains("recipes")) {
-            this.metadata = new KnowledgeBookMetadata(section);
-        } else if (section.contains("charged-projectiles")) {
-            if (MCVersion.isCurrentVersionAtLeast(MCVersion.v1_14_R1))
-                this.metadata = new CrossbowMetadata(section);
-            else
-                throw new VersionNotSupportedException("Crossbows are only supported in Minecraft version 1.14 and above!");
-        } else if (section.contains("stew-potion-effects")) {
-            if (MCVersion.isCurrentVersionAtLeast(MCVersion.v1_14_R1))
-                this.metadata = new SuspiciousStewMetadata(section);
-            else
-                throw new VersionNotSupportedException("Suspicious stews are only supported in Minecraft version 1.14 and above!");
-        } else if (section.contains("axolotl-variant")) {
-            if (MCVersion.isCurrentVersionAtLeast(MCVersion.v1_17_R1))
-                this.metadata = new SuspiciousStewMetadata(section);
-            else
-                throw new VersionNotSupportedException("Axolotl buckets are only supported in Minecraft version 1.17 and above!");
-        }
-        else {
-            this.metadata = new Metadata(section);
-        }
+        this.metadata = MetadataType.fromConfig(material, section);
+
+        this.savedRevision = getRevision();
     }
 
     /**
@@ -142,64 +116,60 @@ public class WrappedItem implements Serializable {
         this.material = item.getType().name();
         this.amount = item.getAmount();
         this.damage = 0;
-        if (MCVersion.isCurrentVersionAtLeast(MCVersion.v1_13_R1))
+        Capabilities capabilities = MCVersion.getCapabilities();
+        if (capabilities.hasDamageableMeta())
             damage = DamageUtil.extractDamage(item);
         else
             damage = item.getDurability();
 
+        long start = Metrics.start();
         this.nbtData = new NBTData(item);
+        Metrics.stop(Stage.NBT_PARSE, start);
 
-        ItemMeta meta = item.getItemMeta();
-        if (!MCVersion.isCurrentVersionAtLeast(MCVersion.v1_13_R1)) {
-            if (meta instanceof SpawnEggMeta)
-                this.metadata = new SpawnEggMetadata(item);
-        }
-        if (material.equals("MOB_SPAWNER") || material.equals("SPAWNER"))
-            this.metadata = new SpawnerMetadata(item);
-        else if (material.equals("SKULL_ITEM") || material.equals("PLAYER_HEAD"))
-            this.metadata = new PlayerHeadMetadata(item);
-        else if (material.equals("SHIELD"))
-            this.metadata = new ShieldMetadata(item);
-        else if (material.equals("TROPICAL_FISH_BUCKET"))
-            this.metadata = new TropicalFishBucketMetadata(item);
-        else if (material.equals("COMPASS") || material.equals("LEGACY_COMPASS"))
-            if (MCVersion.isCurrentVersionAtLeast(MCVersion.v1_16_R1))
-                this.metadata = new CompassMetadata(item);
-            else
-                this.metadata = new Metadata(item);
-        else if (material.equals("CROSSBOW"))
-            this.metadata = new CrossbowMetadata();
-        else if (material.equals("SUSPICIOUS_STEW"))
-            this.metadata = new SuspiciousStewMetadata();
-        else if (material.equals("AXOLOTL_BUCKET"))
-            this.metadata = new AxolotlBucketMetadata();
-        else {
-            if (meta instanceof BannerMeta)
-                this.metadata = new BannerMetadata(item);
-            else if (meta instanceof BookMeta)
-                this.metadata = new BookMetadata(item);
-            else if (meta instanceof FireworkMeta)
-                this.metadata = new FireworkMetadata(item);
-            else if (meta instanceof FireworkEffectMeta)
-                this.metadata = new FireworkStarMetadata(item);
-            else if (meta instanceof LeatherArmorMeta)
-                this.metadata = new LeatherArmorMetadata(item);
-            else if (meta instanceof MapMeta)
-                this.metadata = new MapMetadata(item);
-            else if (meta instanceof PotionMeta)
-                this.metadata = new PotionMetadata(item);
-            else if (meta instanceof EnchantmentStorageMeta)
-                this.metadata = new EnchantedBookMetadata(item);
-            else if (meta instanceof KnowledgeBookMeta) {
-                this.metadata = new KnowledgeBookMetadata(item);
+        this.metadata = MetadataType.fromItem(item);
+    }
+
+    /**
+     * Create a new WrappedItem with values read from ItemAPI's binary format. To decode an item from bytes, use {@link ItemCodec#decode(byte[]) decode} in the ItemCodec class instead.
+     * @param in The input from which the item will be read
+     * @throws dev.magicmq.itemapi.utils.exception.ItemDataException If the data is corrupted or contains an unknown type of metadata
+     */
+    public WrappedItem(ItemDataInput in) {
+        this.amount = 1;
+        this.damage = 0;
+        this.nbtData = null;
+        this.metadata = null;
+
+        for (int tag = in.readTag(); tag != 0; tag = in.readTag()) {
+            switch (ItemDataInput.getFieldNumber(tag)) {
+                case 1:
+                    this.material = in.readString();
+                    break;
+                case 2:
+                    this.amount = in.readSignedVarInt();
+                    break;
+                case 3:
+                    this.damage = (short) in.readSignedVarInt();
+                    break;
+                case 4:
+                    this.metadata = ItemCodec.readMetadata(in.readNested());
+                    break;
+                case 5:
+                    this.nbtData = new NBTData(in.readNested());
+                    break;
+                default:
+                    in.skipField(tag);
             }
-            else
-                this.metadata = new Metadata(item);
         }
+
+        if (this.nbtData == null)
+            this.nbtData = new NBTData();
+        if (this.metadata == null)
+            this.metadata = new Metadata();
     }
 
     /**
-     * Get the configuration section to which this item may have belonged. <b>Note:</b> This method will return null if this WrappedItem was created from scratch or if it was parsed from a Bukkit ItemStack.
+     * Get the configuration section to which this item may have belonged. <b>Note:</b> This method will return null if this WrappedItem was created from scratch, if it was parsed from a Bukkit ItemStack, or if it has been {@link #compact(InternPool) compacted}.
      * @return The WrappedConfigurationSection that this item originated from, or null if it did not originate from a configuration section
      */
     public WrappedConfigurationSection getConfigSection() {
@@ -220,6 +190,7 @@ public class WrappedItem implements Serializable {
      */
     public void setMaterial(String material) {
         this.material = material;
+        markModified();
     }
 
     /**
@@ -236,6 +207,7 @@ public class WrappedItem implements Serializable {
      */
     public void setAmount(int amount) {
         this.amount = amount;
+        markModified();
     }
 
     /**
@@ -252,6 +224,7 @@ public class WrappedItem implements Serializable {
      */
     public void setDamage(short damage) {
         this.damage = damage;
+        markModified();
     }
 
     /**
@@ -269,6 +242,7 @@ public class WrappedItem implements Serializable {
      */
     public void setNbtData(NBTData nbtData) {
         this.nbtData = nbtData;
+        markModified();
     }
 
     /**
@@ -286,45 +260,292 @@ public class WrappedItem implements Serializable {
      */
     public void setMetadata(Metadata metadata) {
         this.metadata = metadata;
+        markModified();
+    }
+
+    /**
+     * Get the current revision of this item. The revision changes every time a setter is called on this item, its {@link Metadata} or its {@link NBTData}.
+     * @return The revision stamp of the most recent change made to this item or any of its components
+     */
+    public long getRevision() {
+        long revision = this.revision;
+        if (metadata != null)
+            revision = Math.max(revision, metadata.getRevision());
+        if (nbtData != null)
+            revision = Math.max(revision, nbtData.getRevision());
+        return revision;
+    }
+
+    /**
+     * Mark this item as modified. This is called automatically by all setters, but should also be called after modifying a mutable object returned by one of the getters.
+     */
+    public void markModified() {
+        revision = Revision.next();
+    }
+
+    /**
+     * Check if this item has changed since it was last loaded from or saved to a configuration section. Items that were not parsed from a configuration section are dirty until they are saved for the first time.
+     * Changes are detected through the {@link #getRevision() revision}, so changes to a mutable object returned by one of the getters are only detected after {@link #markModified()} is called.
+     * @return True if the item has unsaved changes, false if otherwise
+     * @see ItemAPI#saveItems(File, WrappedConfigurationSection, java.util.Map)
+     */
+    public boolean isDirty() {
+        return getRevision() != savedRevision;
+    }
+
+    /**
+     * Mark this item as saved, so that it is no longer {@link #isDirty() dirty} until it is changed again. This is called automatically by {@link #saveToConfig(File, WrappedConfigurationSection) saveToConfig} and {@link ItemAPI#saveItems(File, WrappedConfigurationSection, java.util.Map) saveItems}, but should also be called after the item is saved in some other way.
+     */
+    public void markSaved() {
+        markSaved(getRevision());
+    }
+
+    void markSaved(long revision) {
+        //Saves can complete out of order when they are written in the background, so an older save never makes an item dirty again
+        if (revision > savedRevision)
+            savedRevision = revision;
+    }
+
+    /**
+     * Resolve every name in this item into the value it refers to, so that building the item does no string parsing at all. This resolves the material and the {@link Metadata#resolve() metadata} of the item, including any items nested within it, such as the contents of a shulker box.
+     * Every name that cannot be resolved is reported at once, so that mistakes in a configuration file can be found when it is loaded instead of when each item is first built. Items parsed from a configuration section with {@link ItemAPI} are resolved when they are parsed. Other items are resolved the first time they are built.
+     * @return This item, for chaining
+     * @throws ItemValidationException If any name in this item cannot be resolved
+     */
+    public WrappedItem resolve() {
+        Resolver resolver = new Resolver();
+        resolve(resolver);
+        resolver.throwIfInvalid();
+        return this;
+    }
+
+    /**
+     * Resolve every name in this item, reporting names that cannot be resolved to a resolver instead of throwing an exception.
+     * <b>Warning:</b> This method is called automatically from {@link #resolve()}, which should be used instead!
+     * @param resolver The resolver to which problems will be reported
+     */
+    public void resolve(Resolver resolver) {
+        resolveMaterial(resolver);
+        if (this.metadata != null)
+            this.metadata.resolve(resolver);
+    }
+
+    private Material resolveMaterial(Resolver resolver) {
+        //The material is resolved again only if it was changed, which is cheaper to check than the revision of the whole item
+        Material resolved = this.resolvedMaterial;
+        String material = this.material;
+        if (resolved != null && material != null && material.equals(this.resolvedMaterialName))
+            return resolved;
+
+        resolved = material != null ? Material.matchMaterial(material) : null;
+        if (resolved == null) {
+            resolver.report("material", "Unable to find a Material with the name " + material + ". Did you make sure the material name is correct and that this material exists in this version?");
+            return null;
+        }
+        this.resolvedMaterialName = material;
+        this.resolvedMaterial = resolved;
+        return resolved;
+    }
+
+    /**
+     * Reduce the memory used by this item. The reference to the configuration section that this item was parsed from is dropped, so that the parsed configuration can be garbage collected, repeated strings such as the material, lore and enchantment names are interned through a pool, and lists are trimmed so that they have no spare capacity.
+     * Compacting does not change the contents of the item, so it stays {@link #equals(Object) equal} to what it was before and its {@link #getRevision() revision} does not change. It is most useful when many items are kept in memory for a long time, such as in an {@link ItemCatalog}.
+     * @param pool The pool through which values will be interned. Items that share a pool also share their interned values
+     * @return This item, for chaining
+     * @see ItemAPI#parseItemsLean(WrappedConfigurationSection, InternPool)
+     */
+    public WrappedItem compact(InternPool pool) {
+        Preconditions.checkArgument(pool != null, "pool cannot be null!");
+
+        this.section = null;
+        this.material = pool.intern(this.material);
+        if (this.metadata != null)
+            this.metadata.compact(pool);
+        if (this.nbtData != null)
+            this.nbtData.compact(pool);
+        return this;
+    }
+
+    /**
+     * Get a 64-bit hash of the contents of this item, including its {@link Metadata} and {@link NBTData}. Items that are {@link #equals(Object) equal} always have the same content hash, so the hash can be used to find identical items quickly, for example to deduplicate items in storage.
+     * The hash is cached and only computed again after the {@link #getRevision() revision} changes.
+     * @return The content hash of this item
+     */
+    public long contentHash() {
+        long revision = getRevision();
+        ContentHasher.Cached cached = this.contentHash;
+        boolean valid = ContentHasher.Cached.isValid(cached, revision);
+        Metrics.cacheAccess(CacheType.CONTENT_HASH, valid);
+        if (!valid) {
+            cached = new ContentHasher.Cached(revision, new ContentHasher().put(this).getHash());
+            this.contentHash = cached;
+        }
+        return cached.getHash();
+    }
+
+    /**
+     * Create a patch containing only the changes needed to turn this item into another item. Neither item is modified.
+     * @param target The item the patch should produce when it is applied to this item
+     * @return An {@link ItemPatch} that can be {@link ItemPatch#encode() encoded} for storage or sending, and later applied to this item with {@link #apply(ItemPatch)}
+     * @see ItemPatch#diff(WrappedItem, WrappedItem)
+     */
+    public ItemPatch diff(WrappedItem target) {
+        return ItemPatch.diff(this, target);
+    }
+
+    /**
+     * Apply a patch created with {@link #diff(WrappedItem)} to this item.
+     * @param patch The patch to apply
+     * @return This item, for chaining
+     * @throws dev.magicmq.itemapi.utils.exception.ItemDataException If the patch was not created from an item with the same contents as this item
+     * @see ItemPatch#applyTo(WrappedItem)
+     */
+    public WrappedItem apply(ItemPatch patch) {
+        Preconditions.checkArgument(patch != null, "patch cannot be null!");
+
+        return patch.applyTo(this);
+    }
+
+    @Override
+    public void hashContent(ContentHasher hasher) {
+        hasher.putString(this.material)
+                .putInt(this.amount)
+                .putInt(this.damage)
+                .putLong(this.metadata == null ? 0 : this.metadata.contentHash())
+                .putLong(this.nbtData == null || this.nbtData.isEmpty() ? 0 : this.nbtData.contentHash());
+    }
+
+    /**
+     * Check if this item is the same as another object. Items are equal if they have the same material, amount, damage, {@link Metadata#equals(Object) metadata} and {@link NBTData#equals(Object) NBT data}. Missing NBT data is treated the same as empty NBT data.
+     * @param o The object to compare to
+     * @return True if the object is an item with the same contents, false if otherwise
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+
+        WrappedItem other = (WrappedItem) o;
+        return contentHash() == other.contentHash()
+                && this.amount == other.amount
+                && this.damage == other.damage
+                && Objects.equals(this.material, other.material)
+                && Objects.equals(this.metadata, other.metadata)
+                && nbtEquals(this.nbtData, other.nbtData);
+    }
+
+    @Override
+    public int hashCode() {
+        return ContentHasher.toHashCode(contentHash());
+    }
+
+    private static boolean nbtEquals(NBTData first, NBTData second) {
+        if (first == null || first.isEmpty())
+            return second == null || second.isEmpty();
+        return first.equals(second);
+    }
+
+    /**
+     * Compile this item into a {@link CompiledItem CompiledItem}, which builds the ItemStack once and hands out copies of it on demand. This is the preferred way to hand out the same item many times.
+     * The compiled item is rebuilt automatically the next time it is used after any setter on this item, its {@link Metadata} or its {@link NBTData} is called.
+     * @return The CompiledItem associated with this item
+     * @see CompiledItem
+     */
+    public CompiledItem compile() {
+        CompiledItem compiled = this.compiled;
+        if (compiled == null) {
+            compiled = new CompiledItem(this);
+            this.compiled = compiled;
+        }
+        return compiled;
     }
 
     /**
      * This will convert this Rosetta Item to a Bukkit ItemStack for further usage.
      * @return An ItemStack with all parameters (Metadata, NBT data, etc.) applied
      * @throws IncorrectMetaException If the Metadata cannot be properly applied to the item. For example, if Potion metadata is applied to a banner or vice versa
+     * @throws ItemValidationException If any name in this item cannot be {@link #resolve() resolved}
      */
     public ItemStack getAsItemStack() {
-        Material material = Material.matchMaterial(this.material);
-        if (material != null) {
-            ItemStack item = new ItemStack(material, amount);
-            if (MCVersion.isCurrentVersionAtLeast(MCVersion.v1_13_R1)) {
-                item = DamageUtil.applyDamage(item, damage);
-            } else {
-                item.setDurability(damage);
-            }
-
+        Resolver resolver = new Resolver();
+        Material material = resolveMaterial(resolver);
+        if (metadata != null)
+            metadata.resolve(resolver);
+        resolver.throwIfInvalid();
+
+        ItemStack item = new ItemStack(material, amount);
+        boolean damageableMeta = MCVersion.getCapabilities().hasDamageableMeta();
+        if (!damageableMeta)
+            item.setDurability(damage);
+
+        //Every step shares a single ItemMeta, which is only set on the item once
+        ItemMeta meta = item.getItemMeta();
+        if (meta != null) {
+            if (damageableMeta)
+                DamageUtil.applyDamage(meta, damage);
+            long start = Metrics.start();
             try {
-                item = metadata.applyMetadata(item);
+                metadata.applyMeta(meta);
             } catch (ClassCastException e) {
                 throw new IncorrectMetaException("Tried to apply " + metadata.getClass().getName() + " to " + material + ", but this meta is not allowed for this material.", e.getCause());
             }
+            Metrics.stop(Stage.METADATA_APPLY, metadata.getClass(), start);
+            item.setItemMeta(meta);
+        }
 
-            item = nbtData.applyNbtTags(item);
+        //NBT tags from the metadata and from the NBT data are written in a single pass
+        boolean metadataNbt = metadata.requiresNbt();
+        if (metadataNbt || !nbtData.isEmpty()) {
+            long start = Metrics.start();
+            NBTItem nbtItem = new NBTItem(item);
+            if (metadataNbt)
+                metadata.applyNbt(nbtItem);
+            nbtData.applyNbtTags(nbtItem);
+            item = nbtItem.getItem();
+            Metrics.stop(Stage.NBT_APPLY, start);
+        }
 
-            return item;
-        } else
-            throw new NullPointerException("Unable to find a Material with the name " + this.material + ". Did you make sure the material name is correct and that this material exists in this version?");
+        return item;
+    }
+
+    /**
+     * Convert this Rosetta Item to a Bukkit ItemStack without blocking on profile lookups. If this item is a player head with a skull owner, the owner is first {@link PlayerHeadMetadata#resolveProfile(ProfileSource) resolved} through the profile source, and the ItemStack is then built on the specified executor.
+     * Items that are not player heads, or whose skull owner has already been resolved, are built on the executor straight away.
+     * @param source The source through which the skull owner will be looked up
+     * @param executor The executor on which the ItemStack will be built, usually one that runs tasks on the server's main thread
+     * @return A future that completes with an ItemStack with all parameters (Metadata, NBT data, etc.) applied, or completes exceptionally if the skull owner could not be looked up or the item could not be built
+     */
+    public CompletableFuture<ItemStack> getAsItemStackAsync(ProfileSource source, Executor executor) {
+        return resolveProfiles(source).thenApplyAsync(ignored -> getAsItemStack(), executor);
+    }
+
+    long getProfileRevision() {
+        Metadata metadata = this.metadata;
+        return metadata instanceof PlayerHeadMetadata ? ((PlayerHeadMetadata) metadata).getProfileRevision() : 0;
+    }
+
+    CompletableFuture<?> resolveProfiles(ProfileSource source) {
+        Preconditions.checkArgument(source != null, "source cannot be null!");
+
+        if (metadata instanceof PlayerHeadMetadata)
+            return ((PlayerHeadMetadata) metadata).resolveProfile(source);
+        return CompletableFuture.completedFuture(null);
     }
 
     /**
      * Serialize all data within this WrappedItem to a configuration file for later use. WARNING: This will delete any existing data in the configuration section being written to!
+     * <b>Note:</b> This saves the entire file that the section belongs to. To save many items to the same file, use {@link ItemAPI#saveItems(File, WrappedConfigurationSection, java.util.Map) saveItems} in the ItemAPI class instead, which writes only the items that changed and saves the file once.
      * @param file The config file that will be written to
      * @param section The configuration section to which all data associated with this item will be saved within the config
      * @throws IOException If writing to the configuration failed
      */
     public void saveToConfig(File file, WrappedConfigurationSection section) throws IOException {
+        long revision = getRevision();
         writeToSection(section);
         section.save(file);
+        markSaved(revision);
     }
 
     /**
@@ -344,20 +565,34 @@ public class WrappedItem implements Serializable {
         this.nbtData.saveNbtTags(section);
     }
 
+    /**
+     * Write all data within this WrappedItem in ItemAPI's binary format. To encode an item to bytes, use {@link ItemCodec#encode(WrappedItem) encode} in the ItemCodec class instead.
+     * @param out The output to which all data associated with this item will be written
+     * @throws dev.magicmq.itemapi.utils.exception.ItemDataException If the item contains a type of metadata that is not supported by the binary format
+     */
+    public void writeBinary(ItemDataOutput out) {
+        out.writeStringField(1, this.material);
+        if (this.amount != 1)
+            out.writeIntField(2, this.amount);
+        if (this.damage != 0)
+            out.writeIntField(3, this.damage);
+        if (this.metadata != null)
+            out.writeNestedField(4, metadataOut -> ItemCodec.writeMetadata(metadataOut, this.metadata));
+        if (this.nbtData != null && !this.nbtData.isEmpty())
+            out.writeNestedField(5, this.nbtData::writeBinary);
+    }
+
     /**
      * Serialize all data within this WrappedItem to a Base64 string for more compact and concise storage (such as storage within databases).
+     * The string contains the item in ItemAPI's binary format. For storage as raw bytes, use {@link ItemCodec#encode(WrappedItem) encode} in the ItemCodec class.
      * @return A String contianing a Base64 representation of this WrappedItem
-     * @throws IOException If writing to an ObjectOutputStream fails for any reason
+     * @throws IOException If the item could not be encoded
      */
     public String toBase64String() throws IOException {
-        try (ByteArrayOutputStream baos = new ByteArrayOutputStream();
-             ObjectOutputStream out = new ObjectOutputStream(baos)) {
-            out.writeObject(this);
-            out.flush();
-            byte[] bytes = baos.toByteArray();
-
-            Base64.Encoder encoder = Base64.getEncoder();
-            return encoder.encodeToString(bytes);
-        }
+        long start = Metrics.start();
+        Base64.Encoder encoder = Base64.getEncoder();
+        String base64 = encoder.encodeToString(ItemCodec.encode(this));
+        Metrics.stop(Stage.BASE64_ENCODE, start);
+        return base64;
     }
 }
@@ -0,0 +1,325 @@
+package dev.magicmq.itemapi;
+
+import com.google.common.base.Preconditions;
+import dev.magicmq.itemapi.config.BukkitConfigSection;
+import dev.magicmq.itemapi.config.ConfigurateConfigSection;
+import dev.magicmq.itemapi.config.WrappedConfigurationSection;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Saves configuration files on a background thread, so that saving items does not block the thread that edits them with disk I/O.
+ * When a save is requested, a {@link WrappedConfigurationSection#copyConfiguration() copy} of the configuration is taken on the calling thread, which is fast compared to serializing the configuration and writing it to disk. The copy is serialized and written on a background thread once the coalescing window has passed. If the same file is saved again before then, only the newest copy is written, so a burst of edits results in a single write.
+ * {@link BukkitConfigSection} and {@link ConfigurateConfigSection} (with a loader built with a path or file) both write to a temporary file and then move it into place, so a file is never left half-written.
+ * The number of files waiting to be written is limited. Once the limit is reached, saving another file blocks until one of them has been written. Call {@link #close()} when the plugin is disabled to write all pending saves, and {@link #addShutdownHook()} to also cover the JVM exiting without the plugin being disabled.
+ * Files that fail to be written are logged, in addition to completing the future returned for the save exceptionally, so failures of saves whose future is never checked are not lost. Pass a plugin's logger to {@link #WriteBehindSaver(long, TimeUnit, int, Logger)} to log them through the plugin.
+ * <b>Note:</b> Neither Bukkit's YAML API nor Configurate is safe to read from multiple threads, so saves should be requested from the thread that modifies the configuration, such as the main server thread.
+ */
+public class WriteBehindSaver implements Closeable {
+
+    private final long windowMillis;
+    private final int maxPending;
+    private final ScheduledExecutorService executor;
+    private final Map<Path, PendingSave> pending;
+    private final Object lock;
+    private final Logger logger;
+
+    private boolean closed;
+    private Thread shutdownHook;
+
+    /**
+     * Create a new WriteBehindSaver class with a coalescing window of one second that allows up to 64 files to be waiting to be written.
+     */
+    public WriteBehindSaver() {
+        this(1, TimeUnit.SECONDS, 64);
+    }
+
+    /**
+     * Create a new WriteBehindSaver class. Files are written on a single background daemon thread, so writes never run at the same time.
+     * @param window How long to wait after the first save of a file is requested before it is written. Further saves of the same file during this time are combined with it
+     * @param unit The unit of the window
+     * @param maxPending The maximum number of files that can be waiting to be written before saving another file blocks. Must be greater than zero
+     */
+    public WriteBehindSaver(long window, TimeUnit unit, int maxPending) {
+        this(window, unit, maxPending, Logger.getLogger(WriteBehindSaver.class.getName()));
+    }
+
+    /**
+     * Create a new WriteBehindSaver class that logs failed writes through a specific logger. Files are written on a single background daemon thread, so writes never run at the same time.
+     * @param window How long to wait after the first save of a file is requested before it is written. Further saves of the same file during this time are combined with it
+     * @param unit The unit of the window
+     * @param maxPending The maximum number of files that can be waiting to be written before saving another file blocks. Must be greater than zero
+     * @param logger The logger through which files that fail to be written are reported, such as the logger of the plugin using this saver
+     */
+    public WriteBehindSaver(long window, TimeUnit unit, int maxPending, Logger logger) {
+        Preconditions.checkArgument(window >= 0, "window cannot be negative!");
+        Preconditions.checkArgument(unit != null, "unit cannot be null!");
+        Preconditions.checkArgument(maxPending > 0, "maxPending must be greater than zero!");
+        Preconditions.checkArgument(logger != null, "logger cannot be null!");
+
+        this.windowMillis = unit.toMillis(window);
+        this.maxPending = maxPending;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ItemAPI Write-Behind Saver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.pending = new HashMap<>();
+        this.lock = new Object();
+        this.logger = logger;
+    }
+
+    /**
+     * Request that the entire configuration a section belongs to is saved to a file. This is the write-behind equivalent of {@link WrappedConfigurationSection#save(File)}.
+     * <b>Note:</b> Sections that do not support {@link WrappedConfigurationSection#copyConfiguration() copying} their configuration cannot be saved safely on the background thread, so they are saved on the calling thread instead, and the returned future is already complete.
+     * @param file The file to which the configuration will be saved
+     * @param section Any section of the configuration to save
+     * @return A future that completes once the file has been written, or completes exceptionally if writing it failed
+     * @throws IllegalStateException If this saver has been closed
+     */
+    public CompletableFuture<Void> save(File file, WrappedConfigurationSection section) {
+        Preconditions.checkArgument(file != null, "file cannot be null!");
+        Preconditions.checkArgument(section != null, "section cannot be null!");
+
+        return saveCopy(file, section);
+    }
+
+    /**
+     * Request that many items are saved to the same file. The items are written into the configuration on the calling thread exactly like {@link ItemAPI#saveItems(File, WrappedConfigurationSection, Map)}, after which the configuration is saved in the background.
+     * Items are only marked as saved once the file has been written, so items whose save failed remain {@link WrappedItem#isDirty() dirty}. Like {@link #save(File, WrappedConfigurationSection)}, sections that do not support copying their configuration are saved on the calling thread.
+     * @param file The config file that will be written to
+     * @param section A WrappedConfigurationSection containing one subsection per item, such as the section the items were parsed from
+     * @param items The items to save, keyed by the name of their subsection
+     * @return A future that completes with the number of items that were written once the file has been written, or completes exceptionally if writing it failed
+     * @throws IllegalStateException If this saver has been closed
+     */
+    public CompletableFuture<Integer> saveItems(File file, WrappedConfigurationSection section, Map<String, WrappedItem> items) {
+        Preconditions.checkArgument(file != null, "file cannot be null!");
+        Preconditions.checkArgument(section != null, "section cannot be null!");
+        Preconditions.checkArgument(items != null, "items cannot be null!");
+
+        Map<WrappedItem, Long> written = ItemAPI.writeDirtyItems(section, items);
+        if (written.isEmpty())
+            return CompletableFuture.completedFuture(0);
+
+        return saveCopy(file, section).thenApply(ignored -> {
+            written.forEach(WrappedItem::markSaved);
+            return written.size();
+        });
+    }
+
+    /**
+     * Get the number of files that are waiting to be written. Files that are currently being written are not counted.
+     * @return The number of pending saves
+     */
+    public int getPendingCount() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+
+    /**
+     * Write all pending saves immediately, without waiting for the coalescing window, and wait until they have been written.
+     * @throws IOException If writing any of the files failed, or if the calling thread was interrupted while waiting
+     */
+    public void flush() throws IOException {
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        synchronized (lock) {
+            for (Map.Entry<Path, PendingSave> entry : pending.entrySet()) {
+                Path key = entry.getKey();
+                entry.getValue().task.cancel(false);
+                futures.add(entry.getValue().future);
+                executor.execute(() -> write(key));
+            }
+        }
+
+        try {
+            //Tasks run one at a time in order, so once this task has run, every write submitted before it has finished
+            executor.submit(() -> {}).get();
+            for (CompletableFuture<Void> future : futures)
+                future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for pending saves to be written!");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof IOException ? (IOException) cause : new IOException("Failed to write a pending save!", cause);
+        }
+    }
+
+    /**
+     * Make sure all pending saves are written when the JVM exits, even if this saver is never closed. The hook is removed when this saver is closed.
+     * @return This saver, for chaining
+     */
+    public WriteBehindSaver addShutdownHook() {
+        synchronized (lock) {
+            if (shutdownHook == null && !closed) {
+                shutdownHook = new Thread(() -> {
+                    try {
+                        close();
+                    } catch (IOException e) {
+                        logger.log(Level.SEVERE, "Failed to write pending saves while the JVM was shutting down!", e);
+                    }
+                }, "ItemAPI Write-Behind Saver Shutdown");
+                Runtime.getRuntime().addShutdownHook(shutdownHook);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Write all pending saves and stop the background thread. No more saves can be requested afterwards.
+     * @throws IOException If writing any of the pending files failed
+     */
+    @Override
+    public void close() throws IOException {
+        Thread hook;
+        synchronized (lock) {
+            if (closed)
+                return;
+            closed = true;
+            hook = shutdownHook;
+            lock.notifyAll();
+        }
+
+        try {
+            flush();
+        } finally {
+            executor.shutdown();
+            if (hook != null && hook != Thread.currentThread()) {
+                try {
+                    Runtime.getRuntime().removeShutdownHook(hook);
+                } catch (IllegalStateException ignored) {
+                    //The JVM is already shutting down
+                }
+            }
+        }
+    }
+
+    private CompletableFuture<Void> saveCopy(File file, WrappedConfigurationSection section) {
+        WrappedConfigurationSection copy;
+        try {
+            copy = section.copyConfiguration();
+        } catch (UnsupportedOperationException e) {
+            return saveNow(file, section);
+        }
+        return schedule(file, copy);
+    }
+
+    private CompletableFuture<Void> saveNow(File file, WrappedConfigurationSection section) {
+        Path key = file.toPath().toAbsolutePath().normalize();
+        PendingSave superseded;
+        synchronized (lock) {
+            if (closed)
+                throw new IllegalStateException("This saver has been closed!");
+
+            //A pending save of the same file would overwrite this one with older data once it is written
+            superseded = pending.remove(key);
+            if (superseded != null) {
+                superseded.task.cancel(false);
+                lock.notifyAll();
+            }
+        }
+
+        CompletableFuture<Void> future = superseded != null ? superseded.future : new CompletableFuture<>();
+        try {
+            section.save(file);
+            future.complete(null);
+        } catch (IOException | RuntimeException e) {
+            logger.log(Level.SEVERE, "Failed to save " + file + "!", e);
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    private CompletableFuture<Void> schedule(File file, WrappedConfigurationSection copy) {
+        Path key = file.toPath().toAbsolutePath().normalize();
+        synchronized (lock) {
+            if (closed)
+                throw new IllegalStateException("This saver has been closed!");
+
+            PendingSave save = pending.get(key);
+            if (save != null) {
+                save.copy = copy;
+                return save.future;
+            }
+
+            boolean interrupted = false;
+            while (pending.size() >= maxPending && !closed) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    //Dropping the save would lose data, so it is queued over the limit instead
+                    interrupted = true;
+                    break;
+                }
+            }
+            if (interrupted)
+                Thread.currentThread().interrupt();
+            if (closed)
+                throw new IllegalStateException("This saver has been closed!");
+
+            //Another thread may have queued the same file while this one was waiting
+            save = pending.get(key);
+            if (save != null) {
+                save.copy = copy;
+                return save.future;
+            }
+
+            save = new PendingSave(file, copy);
+            pending.put(key, save);
+            save.task = executor.schedule(() -> write(key), windowMillis, TimeUnit.MILLISECONDS);
+            return save.future;
+        }
+    }
+
+    private void write(Path key) {
+        PendingSave save;
+        synchronized (lock) {
+            save = pending.remove(key);
+            lock.notifyAll();
+        }
+        //The save was already written by a flush
+        if (save == null)
+            return;
+
+        try {
+            save.copy.save(save.file);
+            save.future.complete(null);
+        } catch (IOException | RuntimeException e) {
+            logger.log(Level.SEVERE, "Failed to save " + save.file + "!", e);
+            save.future.completeExceptionally(e);
+        }
+    }
+
+    private static class PendingSave {
+
+        private final File file;
+        private final CompletableFuture<Void> future;
+
+        private WrappedConfigurationSection copy;
+        private ScheduledFuture<?> task;
+
+        private PendingSave(File file, WrappedConfigurationSection copy) {
+            this.file = file;
+            this.copy = copy;
+            this.future = new CompletableFuture<>();
+        }
+    }
+}
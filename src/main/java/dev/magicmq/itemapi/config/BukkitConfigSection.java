@@ -2,19 +2,36 @@ package dev.magicmq.itemapi.config;
 
 import com.google.common.base.Preconditions;
 import dev.magicmq.itemapi.ItemAPI;
+import dev.magicmq.itemapi.metrics.Metrics;
+import dev.magicmq.itemapi.metrics.Stage;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * A wrapper class designed to interface with Bukkit YAML.
  */
 public class BukkitConfigSection implements WrappedConfigurationSection {
 
+    //Comments on individual keys are only supported by Bukkit's YAML API from 1.18.1 onwards
+    private static final boolean COMMENTS = hasComments();
+
     private final FileConfiguration config;
     private final ConfigurationSection section;
 
@@ -59,6 +76,11 @@ public class BukkitConfigSection implements WrappedConfigurationSection {
         return section.contains(key);
     }
 
+    @Override
+    public boolean isConfigurationSection(String key) {
+        return section.isConfigurationSection(key);
+    }
+
     @Override
     public Object get(String key) {
         return section.get(key);
@@ -114,8 +136,87 @@ public class BukkitConfigSection implements WrappedConfigurationSection {
         section.set(key, value);
     }
 
+    /**
+     * Save the entire configuration to a file. The configuration is written to a temporary file in the same directory, which is then moved into place, so the file is never left half-written if the server stops while it is being saved. The permissions of an existing file are kept.
+     * @param file The file to which the configuration will be saved
+     * @throws IOException If writing to the file failed
+     */
     @Override
     public void save(File file) throws IOException {
-        config.save(file);
+        long start = Metrics.start();
+        Path target = file.toPath().toAbsolutePath();
+        Files.createDirectories(target.getParent());
+
+        byte[] data = config.saveToString().getBytes(StandardCharsets.UTF_8);
+        Path temp = target.resolveSibling(target.getFileName() + "." + Long.toUnsignedString(ThreadLocalRandom.current().nextLong(), 36) + ".tmp");
+        //Unlike Files.createTempFile, this creates the file with the default permissions instead of making it readable only by its owner
+        Files.createFile(temp);
+        try {
+            copyPermissions(target, temp);
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.wrap(data);
+                while (buffer.hasRemaining())
+                    channel.write(buffer);
+                channel.force(true);
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        Metrics.stop(Stage.CONFIG_SAVE, getClass(), start);
+    }
+
+    /**
+     * Take a deep copy of the entire configuration, including its header and, on versions that support them, the comments on each key.
+     * @return A BukkitConfigSection wrapping the root of the copy
+     * @throws UnsupportedOperationException If the configuration is not a YamlConfiguration
+     */
+    @Override
+    public WrappedConfigurationSection copyConfiguration() {
+        if (!(config instanceof YamlConfiguration))
+            throw new UnsupportedOperationException("Only YAML configurations can be copied!");
+
+        YamlConfiguration copy = new YamlConfiguration();
+        copy.options().header(config.options().header());
+        copy.options().copyHeader(config.options().copyHeader());
+        copy.options().indent(((YamlConfiguration) config).options().indent());
+        copySection(config, copy);
+        return new BukkitConfigSection(copy, copy);
+    }
+
+    private static void copyPermissions(Path from, Path to) throws IOException {
+        if (!Files.exists(from))
+            return;
+        PosixFileAttributeView view = Files.getFileAttributeView(from, PosixFileAttributeView.class);
+        if (view != null)
+            Files.setPosixFilePermissions(to, view.readAttributes().permissions());
+    }
+
+    private static void copySection(ConfigurationSection from, ConfigurationSection to) {
+        for (String key : from.getKeys(false)) {
+            if (from.isConfigurationSection(key)) {
+                copySection(from.getConfigurationSection(key), to.createSection(key));
+            } else {
+                Object value = from.get(key);
+                to.set(key, value instanceof List<?> ? new ArrayList<>((List<?>) value) : value);
+            }
+            if (COMMENTS) {
+                to.setComments(key, from.getComments(key));
+                to.setInlineComments(key, from.getInlineComments(key));
+            }
+        }
+    }
+
+    private static boolean hasComments() {
+        try {
+            ConfigurationSection.class.getMethod("getComments", String.class);
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
     }
 }
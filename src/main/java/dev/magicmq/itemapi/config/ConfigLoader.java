@@ -0,0 +1,57 @@
+package dev.magicmq.itemapi.config;
+
+import com.google.common.base.Preconditions;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.spongepowered.configurate.yaml.YamlConfigurationLoader;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Loads a configuration file from disk and wraps it so that it can be passed to methods in {@link dev.magicmq.itemapi.ItemAPI ItemAPI}.
+ * A loader is called every time a file is read, so it should read the file again rather than caching its contents.
+ * @see dev.magicmq.itemapi.ItemFileWatcher
+ */
+@FunctionalInterface
+public interface ConfigLoader {
+
+    /**
+     * Load a configuration file.
+     * @param file The file to load
+     * @return A WrappedConfigurationSection containing the contents of the file
+     * @throws IOException If the file could not be read or is not valid
+     */
+    WrappedConfigurationSection load(Path file) throws IOException;
+
+    /**
+     * Get a loader that reads YAML files with Bukkit's YAML API. The root of each file is wrapped in a {@link BukkitConfigSection}.
+     * @return A loader for Bukkit YAML files
+     */
+    static ConfigLoader bukkit() {
+        return file -> {
+            Preconditions.checkArgument(file != null, "file cannot be null!");
+
+            YamlConfiguration config = new YamlConfiguration();
+            try {
+                config.load(file.toFile());
+            } catch (InvalidConfigurationException e) {
+                throw new IOException("Invalid YAML in " + file + "!", e);
+            }
+            return new BukkitConfigSection(config, config);
+        };
+    }
+
+    /**
+     * Get a loader that reads YAML files with Configurate. The root node of each file is wrapped in a {@link ConfigurateConfigSection}.
+     * @return A loader for Configurate YAML files
+     */
+    static ConfigLoader configurate() {
+        return file -> {
+            Preconditions.checkArgument(file != null, "file cannot be null!");
+
+            YamlConfigurationLoader loader = YamlConfigurationLoader.builder().path(file).build();
+            return new ConfigurateConfigSection(loader, loader.load());
+        };
+    }
+}
@@ -2,6 +2,8 @@ package dev.magicmq.itemapi.config;
 
 import com.google.common.base.Preconditions;
 import dev.magicmq.itemapi.ItemAPI;
+import dev.magicmq.itemapi.metrics.Metrics;
+import dev.magicmq.itemapi.metrics.Stage;
 import org.spongepowered.configurate.ConfigurationNode;
 import org.spongepowered.configurate.loader.ConfigurationLoader;
 import org.spongepowered.configurate.serialize.SerializationException;
@@ -9,7 +11,7 @@ import org.spongepowered.configurate.serialize.SerializationException;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -56,7 +58,7 @@ public class ConfigurateConfigSection implements WrappedConfigurationSection {
 
     @Override
     public Set<String> getKeys(boolean deep) {
-        Set<String> toReturn = new HashSet<>();
+        Set<String> toReturn = new LinkedHashSet<>();
         section.childrenMap().keySet().forEach(key -> toReturn.add((String) key));
         return toReturn;
     }
@@ -66,6 +68,11 @@ public class ConfigurateConfigSection implements WrappedConfigurationSection {
         return section.hasChild(key);
     }
 
+    @Override
+    public boolean isConfigurationSection(String key) {
+        return fetchSubNode(key).isMap();
+    }
+
     @Override
     public Object get(String key) {
         ConfigurationNode keyNode = fetchSubNode(key);
@@ -151,15 +158,13 @@ public class ConfigurateConfigSection implements WrappedConfigurationSection {
             //Type conversion due to byte not being a supported type for Configurate
             if (value instanceof Byte)
                 keyNode.set(((Byte) value).intValue());
-            else if (value instanceof List<?>) {
+            else if (value instanceof List<?> && !((List<?>) value).isEmpty()) {
                 Object val = ((List) value).get(0);
-                if (val != null) {
-                    if (val instanceof Byte) {
-                        List<Integer> converted = new ArrayList<>();
-                        ((List<Byte>) value).forEach(bytee -> converted.add(bytee.intValue()));
-                        keyNode.set(converted);
-                        return;
-                    }
+                if (val instanceof Byte) {
+                    List<Integer> converted = new ArrayList<>();
+                    ((List<Byte>) value).forEach(bytee -> converted.add(bytee.intValue()));
+                    keyNode.set(converted);
+                    return;
                 }
             }
             keyNode.set(value);
@@ -172,8 +177,23 @@ public class ConfigurateConfigSection implements WrappedConfigurationSection {
     public void save(File file) throws IOException {
         if (section.parent() != null)
             new ConfigurateConfigSection(loader, section.parent()).save(file);
-        else
+        else {
+            long start = Metrics.start();
             loader.save(section);
+            Metrics.stop(Stage.CONFIG_SAVE, getClass(), start);
+        }
+    }
+
+    /**
+     * Take a deep copy of the entire configuration, including comments. The copy is saved with the same loader, so it is written to the file that the loader was built with. Loaders built with a path or file write to a temporary file and then move it into place.
+     * @return A ConfigurateConfigSection wrapping the root node of the copy
+     */
+    @Override
+    public WrappedConfigurationSection copyConfiguration() {
+        ConfigurationNode root = section;
+        while (root.parent() != null)
+            root = root.parent();
+        return new ConfigurateConfigSection(loader, root.copy());
     }
 
     private ConfigurationNode fetchSubNode(String key) {
@@ -0,0 +1,170 @@
+package dev.magicmq.itemapi.config;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A mutable configuration section held in memory, used as a scratch buffer by {@link YamlItemWriter} so that an item can be serialized with {@link dev.magicmq.itemapi.WrappedItem#writeToSection(WrappedConfigurationSection) writeToSection} and then written out on its own.
+ * Like Bukkit's YAML API and Configurate, dots in keys separate the segments of a path. Keys keep the order in which they were first set.
+ */
+class MemoryConfigSection implements WrappedConfigurationSection {
+
+    private final LinkedHashMap<String, Object> values;
+
+    MemoryConfigSection() {
+        this.values = new LinkedHashMap<>();
+    }
+
+    Map<String, Object> getValues() {
+        return values;
+    }
+
+    @Override
+    public WrappedConfigurationSection createConfigurationSection(String key) {
+        int dot = key.indexOf('.');
+        if (dot != -1)
+            return ((MemoryConfigSection) createConfigurationSection(key.substring(0, dot))).createConfigurationSection(key.substring(dot + 1));
+
+        MemoryConfigSection section = new MemoryConfigSection();
+        values.put(key, section);
+        return section;
+    }
+
+    @Override
+    public WrappedConfigurationSection getConfigurationSection(String key) {
+        Object value = get(key);
+        return value instanceof MemoryConfigSection ? (MemoryConfigSection) value : null;
+    }
+
+    @Override
+    public void clearConfigurationSection() {
+        values.clear();
+    }
+
+    @Override
+    public Set<String> getKeys(boolean deep) {
+        if (!deep)
+            return new LinkedHashSet<>(values.keySet());
+
+        Set<String> keys = new LinkedHashSet<>();
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            keys.add(entry.getKey());
+            if (entry.getValue() instanceof MemoryConfigSection) {
+                for (String child : ((MemoryConfigSection) entry.getValue()).getKeys(true))
+                    keys.add(entry.getKey() + "." + child);
+            }
+        }
+        return keys;
+    }
+
+    @Override
+    public boolean contains(String key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public boolean isConfigurationSection(String key) {
+        return get(key) instanceof MemoryConfigSection;
+    }
+
+    @Override
+    public Object get(String key) {
+        int dot = key.indexOf('.');
+        if (dot == -1)
+            return values.get(key);
+
+        Object parent = values.get(key.substring(0, dot));
+        return parent instanceof MemoryConfigSection ? ((MemoryConfigSection) parent).get(key.substring(dot + 1)) : null;
+    }
+
+    @Override
+    public String getString(String key) {
+        Object value = get(key);
+        return value == null || value instanceof MemoryConfigSection ? null : value.toString();
+    }
+
+    @Override
+    public String getString(String key, String def) {
+        return contains(key) ? getString(key) : def;
+    }
+
+    @Override
+    public int getInt(String key) {
+        return getInt(key, 0);
+    }
+
+    @Override
+    public int getInt(String key, int def) {
+        Object value = get(key);
+        return value instanceof Number ? ((Number) value).intValue() : def;
+    }
+
+    @Override
+    public double getDouble(String key) {
+        return getDouble(key, 0);
+    }
+
+    @Override
+    public double getDouble(String key, double def) {
+        Object value = get(key);
+        return value instanceof Number ? ((Number) value).doubleValue() : def;
+    }
+
+    @Override
+    public boolean getBoolean(String key) {
+        return getBoolean(key, false);
+    }
+
+    @Override
+    public boolean getBoolean(String key, boolean def) {
+        Object value = get(key);
+        return value instanceof Boolean ? (Boolean) value : def;
+    }
+
+    @Override
+    public List<String> getStringList(String key) {
+        Object value = get(key);
+        List<String> list = new ArrayList<>();
+        if (value instanceof List<?>) {
+            for (Object element : (List<?>) value)
+                list.add(String.valueOf(element));
+        }
+        return list;
+    }
+
+    @Override
+    public void set(String key, Object value) {
+        int dot = key.indexOf('.');
+        if (dot != -1) {
+            String parentKey = key.substring(0, dot);
+            Object parent = values.get(parentKey);
+            if (!(parent instanceof MemoryConfigSection)) {
+                if (value == null)
+                    return;
+                parent = createConfigurationSection(parentKey);
+            }
+            ((MemoryConfigSection) parent).set(key.substring(dot + 1), value);
+            return;
+        }
+
+        if (value == null)
+            values.remove(key);
+        else
+            values.put(key, value);
+    }
+
+    @Override
+    public void save(File file) {
+        throw new UnsupportedOperationException("An in-memory section cannot be saved! Use a YamlItemWriter instead.");
+    }
+
+    @Override
+    public WrappedConfigurationSection copyConfiguration() {
+        throw new UnsupportedOperationException("An in-memory section cannot be saved! Use a YamlItemWriter instead.");
+    }
+}
@@ -0,0 +1,357 @@
+package dev.magicmq.itemapi.config;
+
+import com.google.common.base.Preconditions;
+
+import java.io.File;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A read-only copy of a configuration section and all of its subsections, held entirely in memory.
+ * Bukkit's YAML API and Configurate are not safe to read from multiple threads, so a snapshot is taken on the calling thread before items are parsed in parallel. Keys keep the order in which they appeared in the original section.
+ * Each section is stored as flat arrays of keys and values, where subsections are snapshots themselves. Larger sections also have an open-addressing index into the arrays, so a child is found in constant time. Dotted keys such as <code>book-data.pages</code> are resolved one segment at a time without splitting the key, so reading a value does not allocate.
+ * A snapshot is never modified after it is created, so it is safe to read from any number of threads at once, and it can be used anywhere a WrappedConfigurationSection is accepted, such as {@link dev.magicmq.itemapi.WrappedItem#WrappedItem(WrappedConfigurationSection)}.
+ * <b>Note:</b> All methods that modify the section throw an {@link UnsupportedOperationException}.
+ * @see dev.magicmq.itemapi.ItemAPI#parseItemsParallel(WrappedConfigurationSection)
+ */
+public class SnapshotConfigSection implements WrappedConfigurationSection {
+
+    //Sections with at most this many keys are searched linearly, which is faster than hashing for the small sections that make up most items
+    private static final int LINEAR_SEARCH_LIMIT = 8;
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final String[] keys;
+    private final Object[] values;
+    private final int[] index;
+    private final Set<String> keySet;
+
+    private long contentHash;
+
+    private SnapshotConfigSection(String[] keys, Object[] values) {
+        this.keys = keys;
+        this.values = values;
+        this.index = keys.length > LINEAR_SEARCH_LIMIT ? buildIndex(keys) : null;
+        this.keySet = new KeySet();
+    }
+
+    /**
+     * Take a snapshot of a configuration section. This reads the entire section, so it should be called on the thread that owns the configuration.
+     * @param section The section to copy
+     * @return A snapshot of the section, or the section itself if it is already a snapshot
+     */
+    public static SnapshotConfigSection of(WrappedConfigurationSection section) {
+        Preconditions.checkArgument(section != null, "section cannot be null!");
+
+        if (section instanceof SnapshotConfigSection)
+            return (SnapshotConfigSection) section;
+
+        Set<String> sectionKeys = section.getKeys(false);
+        String[] keys = new String[sectionKeys.size()];
+        Object[] values = new Object[keys.length];
+        int i = 0;
+        for (String key : sectionKeys) {
+            keys[i] = key;
+            if (section.isConfigurationSection(key))
+                values[i] = of(section.getConfigurationSection(key));
+            else
+                values[i] = freezeValue(section.get(key));
+            i++;
+        }
+        return new SnapshotConfigSection(keys, values);
+    }
+
+    /**
+     * Get a 64-bit hash of the keys and values of this section and all of its subsections. Two snapshots with the same content, in the same order, always have the same hash, so the hash can be compared to detect whether a section has changed since an earlier snapshot was taken.
+     * @return The content hash of this section, which is computed once and then cached
+     */
+    public long contentHash() {
+        long hash = contentHash;
+        if (hash == 0) {
+            hash = FNV_OFFSET_BASIS;
+            for (int i = 0; i < keys.length; i++) {
+                hash = hashString(hash, keys[i]);
+                hash = hashValue(hash, values[i]);
+            }
+            //Zero means that the hash has not been computed yet, which is harmless if the hash happens to be zero
+            contentHash = hash;
+        }
+        return hash;
+    }
+
+    @Override
+    public WrappedConfigurationSection createConfigurationSection(String key) {
+        throw readOnly();
+    }
+
+    @Override
+    public WrappedConfigurationSection getConfigurationSection(String key) {
+        Object value = resolve(key);
+        return value instanceof SnapshotConfigSection ? (SnapshotConfigSection) value : null;
+    }
+
+    @Override
+    public void clearConfigurationSection() {
+        throw readOnly();
+    }
+
+    @Override
+    public Set<String> getKeys(boolean deep) {
+        if (!deep)
+            return keySet;
+
+        Set<String> deepKeys = new LinkedHashSet<>();
+        for (int i = 0; i < keys.length; i++) {
+            deepKeys.add(keys[i]);
+            if (values[i] instanceof SnapshotConfigSection) {
+                for (String subKey : ((SnapshotConfigSection) values[i]).getKeys(true))
+                    deepKeys.add(keys[i] + "." + subKey);
+            }
+        }
+        return deepKeys;
+    }
+
+    @Override
+    public boolean contains(String key) {
+        return resolve(key) != null;
+    }
+
+    @Override
+    public boolean isConfigurationSection(String key) {
+        return resolve(key) instanceof SnapshotConfigSection;
+    }
+
+    @Override
+    public Object get(String key) {
+        return copyValue(resolve(key));
+    }
+
+    @Override
+    public String getString(String key) {
+        return getString(key, null);
+    }
+
+    @Override
+    public String getString(String key, String def) {
+        Object value = resolve(key);
+        if (value == null || value instanceof SnapshotConfigSection || value instanceof List)
+            return def;
+        return value.toString();
+    }
+
+    @Override
+    public int getInt(String key) {
+        return getInt(key, 0);
+    }
+
+    @Override
+    public int getInt(String key, int def) {
+        Object value = resolve(key);
+        if (value instanceof Number)
+            return ((Number) value).intValue();
+        if (value instanceof String) {
+            try {
+                return Integer.parseInt(((String) value).trim());
+            } catch (NumberFormatException ignored) {}
+        }
+        return def;
+    }
+
+    @Override
+    public double getDouble(String key) {
+        return getDouble(key, 0D);
+    }
+
+    @Override
+    public double getDouble(String key, double def) {
+        Object value = resolve(key);
+        if (value instanceof Number)
+            return ((Number) value).doubleValue();
+        if (value instanceof String) {
+            try {
+                return Double.parseDouble(((String) value).trim());
+            } catch (NumberFormatException ignored) {}
+        }
+        return def;
+    }
+
+    @Override
+    public boolean getBoolean(String key) {
+        return getBoolean(key, false);
+    }
+
+    @Override
+    public boolean getBoolean(String key, boolean def) {
+        Object value = resolve(key);
+        if (value instanceof Boolean)
+            return (Boolean) value;
+        if (value instanceof String) {
+            if (((String) value).equalsIgnoreCase("true"))
+                return true;
+            if (((String) value).equalsIgnoreCase("false"))
+                return false;
+        }
+        return def;
+    }
+
+    @Override
+    public List<String> getStringList(String key) {
+        Object value = resolve(key);
+        List<String> list = new ArrayList<>();
+        if (value instanceof List) {
+            for (Object element : (List<?>) value) {
+                if (element instanceof String || element instanceof Number || element instanceof Boolean || element instanceof Character)
+                    list.add(element.toString());
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public void set(String key, Object value) {
+        throw readOnly();
+    }
+
+    @Override
+    public void save(File file) {
+        throw readOnly();
+    }
+
+    @Override
+    public WrappedConfigurationSection copyConfiguration() {
+        throw readOnly();
+    }
+
+    private Object resolve(String key) {
+        SnapshotConfigSection current = this;
+        int start = 0;
+        for (int end = key.indexOf('.'); end != -1; end = key.indexOf('.', start)) {
+            int position = current.find(key, start, end);
+            if (position == -1 || !(current.values[position] instanceof SnapshotConfigSection))
+                return null;
+            current = (SnapshotConfigSection) current.values[position];
+            start = end + 1;
+        }
+        int position = current.find(key, start, key.length());
+        return position == -1 ? null : current.values[position];
+    }
+
+    private int find(String path, int start, int end) {
+        int length = end - start;
+        if (index == null) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i].length() == length && path.regionMatches(start, keys[i], 0, length))
+                    return i;
+            }
+            return -1;
+        }
+
+        int mask = index.length - 1;
+        int slot = spread(start == 0 && end == path.length() ? path.hashCode() : hash(path, start, end)) & mask;
+        for (int entry = index[slot]; entry != 0; entry = index[slot]) {
+            String candidate = keys[entry - 1];
+            if (candidate.length() == length && path.regionMatches(start, candidate, 0, length))
+                return entry - 1;
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private static int[] buildIndex(String[] keys) {
+        //Each slot holds the position of a key plus one, so that zero marks an empty slot
+        int[] index = new int[Integer.highestOneBit(keys.length * 2 - 1) << 1];
+        int mask = index.length - 1;
+        for (int i = 0; i < keys.length; i++) {
+            int slot = spread(keys[i].hashCode()) & mask;
+            while (index[slot] != 0)
+                slot = (slot + 1) & mask;
+            index[slot] = i + 1;
+        }
+        return index;
+    }
+
+    private static int hash(String path, int start, int end) {
+        //Matches String.hashCode for the same characters, so that keys and segments of dotted paths hash the same way
+        int hash = 0;
+        for (int i = start; i < end; i++)
+            hash = 31 * hash + path.charAt(i);
+        return hash;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static long hashValue(long hash, Object value) {
+        //Each kind of value is preceded by a marker, so that a string and a number with the same text do not collide
+        if (value instanceof SnapshotConfigSection)
+            return hashLong(hashLong(hash, 'S'), ((SnapshotConfigSection) value).contentHash());
+        else if (value instanceof List) {
+            List<?> list = (List<?>) value;
+            hash = hashLong(hashLong(hash, 'L'), list.size());
+            for (Object element : list)
+                hash = hashValue(hash, element);
+            return hash;
+        } else if (value == null)
+            return hashLong(hash, 'N');
+        else if (value instanceof String)
+            return hashString(hashLong(hash, 'T'), (String) value);
+        else
+            return hashString(hashLong(hash, 'V'), value.toString());
+    }
+
+    private static long hashString(long hash, String string) {
+        hash = hashLong(hash, string.length());
+        for (int i = 0; i < string.length(); i++)
+            hash = (hash ^ string.charAt(i)) * FNV_PRIME;
+        return hash;
+    }
+
+    private static long hashLong(long hash, long value) {
+        for (int i = 0; i < 64; i += 8)
+            hash = (hash ^ ((value >>> i) & 0xFF)) * FNV_PRIME;
+        return hash;
+    }
+
+    private static Object freezeValue(Object value) {
+        if (value instanceof List)
+            return Collections.unmodifiableList(new ArrayList<>((List<?>) value));
+        return value;
+    }
+
+    private static Object copyValue(Object value) {
+        //Lists are copied so that items parsed from the same snapshot never share a mutable list
+        if (value instanceof List)
+            return new ArrayList<>((List<?>) value);
+        return value;
+    }
+
+    private static UnsupportedOperationException readOnly() {
+        return new UnsupportedOperationException("Snapshot configuration sections are read-only!");
+    }
+
+    private class KeySet extends AbstractSet<String> {
+
+        @Override
+        public Iterator<String> iterator() {
+            return Collections.unmodifiableList(Arrays.asList(keys)).iterator();
+        }
+
+        @Override
+        public int size() {
+            return keys.length;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof String && find((String) o, 0, ((String) o).length()) != -1;
+        }
+    }
+}
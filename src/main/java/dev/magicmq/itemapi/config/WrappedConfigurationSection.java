@@ -22,6 +22,15 @@ public interface WrappedConfigurationSection {
 
     boolean contains(String key);
 
+    /**
+     * Check if the value at a key is a configuration section. The default implementation checks whether {@link #getConfigurationSection(String)} returns null, so implementations that return a section for every key should override this method.
+     * @param key The key to check
+     * @return True if the value at the key is a configuration section, false if otherwise
+     */
+    default boolean isConfigurationSection(String key) {
+        return getConfigurationSection(key) != null;
+    }
+
     Object get(String key);
 
     String getString(String key);
@@ -45,4 +54,13 @@ public interface WrappedConfigurationSection {
     void set(String key, Object value);
 
     void save(File file) throws IOException;
+
+    /**
+     * Take a deep copy of the entire configuration that this section belongs to, starting from its root. The copy is independent of this configuration, so it can be {@link #save(File) saved} on another thread while this configuration keeps changing.
+     * @return A section wrapping the root of the copy
+     * @throws UnsupportedOperationException If this section cannot be copied, which is the case unless an implementation overrides this method
+     */
+    default WrappedConfigurationSection copyConfiguration() {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " does not support copying its configuration!");
+    }
 }
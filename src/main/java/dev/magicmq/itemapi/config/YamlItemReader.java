@@ -0,0 +1,410 @@
+package dev.magicmq.itemapi.config;
+
+import com.google.common.base.Preconditions;
+import dev.magicmq.itemapi.WrappedItem;
+import dev.magicmq.itemapi.utils.exception.YamlFormatException;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.events.AliasEvent;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.events.MappingStartEvent;
+import org.yaml.snakeyaml.events.ScalarEvent;
+import org.yaml.snakeyaml.events.SequenceStartEvent;
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads WrappedItems from a YAML file one at a time, without loading the whole file.
+ * The file is read as a stream of YAML events, and only a single top-level section is held in memory at a time. Each section is parsed into an item when it is reached, so items that the caller has moved past can be garbage collected, and a stream that is short-circuited, for example with {@link Stream#findFirst()} or {@link Stream#limit(long)}, stops reading the file early. Files of any size can therefore be scanned with a small, constant amount of memory.
+ * Like {@link dev.magicmq.itemapi.ItemAPI#parseItemsWithKeys(WrappedConfigurationSection) parseItemsWithKeys}, every top-level section is parsed as an item and other top-level values are skipped. An item that fails to parse does not stop the rest of the file from being read. Instead, the exception is reported in the item's {@link Entry}.
+ * {@link #stream(boolean) Parallel streams} are supported. The file itself is always read by one thread at a time, but the sections are handed out in batches and parsed into items on all threads of the stream.
+ * <b>Note:</b> Aliases and anchors are not supported, since resolving them would require keeping the whole file in memory.
+ * @see YamlItemWriter
+ */
+public class YamlItemReader implements Closeable {
+
+    private final Reader reader;
+    private final Iterator<Event> events;
+    private final Resolver resolver;
+
+    private boolean started;
+    private boolean finished;
+
+    /**
+     * Create a new YamlItemReader class that reads from a Reader.
+     * @param reader The reader from which YAML will be read
+     */
+    public YamlItemReader(Reader reader) {
+        Preconditions.checkArgument(reader != null, "reader cannot be null!");
+
+        this.reader = reader;
+        this.events = new Yaml(createLoaderOptions()).parse(reader).iterator();
+        this.resolver = new Resolver();
+    }
+
+    /**
+     * Create a new YamlItemReader that reads a file in UTF-8.
+     * @param file The file from which YAML will be read
+     * @return A new YamlItemReader, which must be closed once it is no longer needed
+     * @throws IOException If the file could not be opened
+     */
+    public static YamlItemReader open(Path file) throws IOException {
+        Preconditions.checkArgument(file != null, "file cannot be null!");
+
+        return new YamlItemReader(Files.newBufferedReader(file, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Get a stream over all items in a file. The file is closed when the stream is closed, so the stream should be used in a try-with-resources statement.
+     * @param file The file from which YAML will be read
+     * @param parallel True if the returned stream should be parallel, false if it should be sequential
+     * @return A stream of entries, in file order if the stream is sequential
+     * @throws IOException If the file could not be opened
+     */
+    public static Stream<Entry> stream(Path file, boolean parallel) throws IOException {
+        return open(file).stream(parallel);
+    }
+
+    /**
+     * Get a stream over all items that have not been read yet. This reader is closed when the stream is closed.
+     * @param parallel True if the returned stream should be parallel, false if it should be sequential
+     * @return A stream of entries, in file order if the stream is sequential
+     * @throws YamlFormatException If the YAML is not valid. This is thrown from the operation on the stream that reached the invalid part of the file
+     */
+    public Stream<Entry> stream(boolean parallel) {
+        return StreamSupport.stream(new SectionSpliterator(), parallel)
+                .map(Entry::parse)
+                .onClose(() -> {
+                    try {
+                        close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    /**
+     * Get an iterator over all items that have not been read yet. Items are parsed on the calling thread as the iterator advances.
+     * @return An iterator of entries, in file order
+     * @throws YamlFormatException If the YAML is not valid. This is thrown from the method of the iterator that reached the invalid part of the file
+     */
+    public Iterator<Entry> iterator() {
+        return new Iterator<Entry>() {
+
+            private Section next;
+
+            @Override
+            public boolean hasNext() {
+                if (next == null)
+                    next = nextSection();
+                return next != null;
+            }
+
+            @Override
+            public Entry next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+
+                Section section = next;
+                next = null;
+                return Entry.parse(section);
+            }
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        finished = true;
+        reader.close();
+    }
+
+    private Section nextSection() {
+        try {
+            if (!started) {
+                started = true;
+                if (!startDocument())
+                    finished = true;
+            }
+
+            while (!finished) {
+                Event event = events.next();
+                if (event.is(Event.ID.MappingEnd)) {
+                    finished = true;
+                    break;
+                }
+
+                String key = readKey(event);
+                Event value = events.next();
+                if (value.is(Event.ID.MappingStart)) {
+                    MemoryConfigSection section = new MemoryConfigSection();
+                    readMapping(section.getValues());
+                    return new Section(key, section);
+                }
+                //Top-level values that are not sections cannot be items
+                readValue(value);
+            }
+            return null;
+        } catch (YAMLException e) {
+            finished = true;
+            throw new YamlFormatException("Unable to read YAML: " + e.getMessage(), e);
+        } catch (NoSuchElementException e) {
+            finished = true;
+            throw new YamlFormatException("Unexpected end of YAML! The file may be truncated.", e);
+        }
+    }
+
+    private boolean startDocument() {
+        expect(events.next(), Event.ID.StreamStart);
+        Event event = events.next();
+        if (event.is(Event.ID.StreamEnd))
+            return false;
+        expect(event, Event.ID.DocumentStart);
+
+        event = events.next();
+        if (event.is(Event.ID.MappingStart))
+            return true;
+        //A document containing only a null value, such as an empty file with comments, has no items
+        if (event.is(Event.ID.Scalar) && resolveScalar((ScalarEvent) event) == null)
+            return false;
+        throw new YamlFormatException("The top level of the YAML file must be a map of items, but found " + event.getEventId() + " at " + event.getStartMark() + "!");
+    }
+
+    private void readMapping(Map<String, Object> values) {
+        for (Event event = events.next(); !event.is(Event.ID.MappingEnd); event = events.next()) {
+            String key = readKey(event);
+            Object value = readValue(events.next());
+            if (value != null)
+                values.put(key, value);
+        }
+    }
+
+    private Object readValue(Event event) {
+        if (event.is(Event.ID.Scalar))
+            return resolveScalar((ScalarEvent) event);
+
+        if (event instanceof MappingStartEvent) {
+            MemoryConfigSection section = new MemoryConfigSection();
+            readMapping(section.getValues());
+            return section;
+        }
+
+        if (event instanceof SequenceStartEvent) {
+            List<Object> list = new ArrayList<>();
+            for (Event element = events.next(); !element.is(Event.ID.SequenceEnd); element = events.next()) {
+                Object value = readValue(element);
+                //Maps inside lists are returned as maps rather than sections, like Bukkit's YAML API and Configurate do
+                list.add(value instanceof MemoryConfigSection ? new LinkedHashMap<>(((MemoryConfigSection) value).getValues()) : value);
+            }
+            return list;
+        }
+
+        if (event instanceof AliasEvent)
+            throw new YamlFormatException("Aliases are not supported when reading items one at a time, but found alias " + ((AliasEvent) event).getAnchor() + " at " + event.getStartMark() + "!");
+        throw new YamlFormatException("Unexpected " + event.getEventId() + " at " + event.getStartMark() + "!");
+    }
+
+    private String readKey(Event event) {
+        if (!event.is(Event.ID.Scalar))
+            throw new YamlFormatException("Only plain keys are supported, but found " + event.getEventId() + " at " + event.getStartMark() + "!");
+        return ((ScalarEvent) event).getValue();
+    }
+
+    private Object resolveScalar(ScalarEvent event) {
+        String value = event.getValue();
+        Tag tag;
+        if (event.getTag() != null && !event.getTag().equals("!"))
+            tag = new Tag(event.getTag());
+        else if (event.getImplicit().canOmitTagInPlainScalar())
+            tag = resolver.resolve(NodeId.scalar, value, true);
+        else
+            return value;
+
+        try {
+            if (tag.equals(Tag.NULL))
+                return null;
+            if (tag.equals(Tag.BOOL))
+                return toBoolean(value);
+            if (tag.equals(Tag.INT))
+                return toInteger(value);
+            if (tag.equals(Tag.FLOAT))
+                return toDouble(value);
+        } catch (NumberFormatException ignored) {}
+        return value;
+    }
+
+    private static LoaderOptions createLoaderOptions() {
+        LoaderOptions options = new LoaderOptions();
+        //Newer versions of SnakeYAML refuse to read documents larger than a few megabytes, which would defeat the purpose of reading one item at a time. Older versions have no such limit, or the method to change it
+        try {
+            LoaderOptions.class.getMethod("setCodePointLimit", int.class).invoke(options, Integer.MAX_VALUE);
+        } catch (ReflectiveOperationException ignored) {}
+        return options;
+    }
+
+    private static void expect(Event event, Event.ID id) {
+        if (!event.is(id))
+            throw new YamlFormatException("Expected " + id + " but found " + event.getEventId() + " at " + event.getStartMark() + "!");
+    }
+
+    private static Boolean toBoolean(String value) {
+        switch (value.toLowerCase(Locale.ROOT)) {
+            case "y":
+            case "yes":
+            case "true":
+            case "on":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static Number toInteger(String value) {
+        String digits = value.replace("_", "");
+        boolean negative = digits.startsWith("-");
+        if (negative || digits.startsWith("+"))
+            digits = digits.substring(1);
+
+        BigInteger number;
+        if (digits.startsWith("0x"))
+            number = new BigInteger(digits.substring(2), 16);
+        else if (digits.startsWith("0b"))
+            number = new BigInteger(digits.substring(2), 2);
+        else if (digits.startsWith("0o"))
+            number = new BigInteger(digits.substring(2), 8);
+        else if (digits.length() > 1 && digits.startsWith("0"))
+            number = new BigInteger(digits.substring(1), 8);
+        else
+            number = new BigInteger(digits);
+        if (negative)
+            number = number.negate();
+
+        //The smallest type that fits is used, like Bukkit's YAML API does
+        if (number.bitLength() < 32)
+            return number.intValue();
+        if (number.bitLength() < 64)
+            return number.longValue();
+        return number;
+    }
+
+    private static Double toDouble(String value) {
+        String number = value.replace("_", "").toLowerCase(Locale.ROOT);
+        switch (number) {
+            case ".nan":
+                return Double.NaN;
+            case ".inf":
+            case "+.inf":
+                return Double.POSITIVE_INFINITY;
+            case "-.inf":
+                return Double.NEGATIVE_INFINITY;
+            default:
+                return Double.parseDouble(number);
+        }
+    }
+
+    private static class Section {
+
+        private final String key;
+        private final MemoryConfigSection section;
+
+        private Section(String key, MemoryConfigSection section) {
+            this.key = key;
+            this.section = section;
+        }
+    }
+
+    private class SectionSpliterator extends Spliterators.AbstractSpliterator<Section> {
+
+        private SectionSpliterator() {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Section> action) {
+            Section section = nextSection();
+            if (section == null)
+                return false;
+
+            action.accept(section);
+            return true;
+        }
+    }
+
+    /**
+     * A single item read by a {@link YamlItemReader}, or the error that occurred while parsing it.
+     */
+    public static class Entry {
+
+        private final String key;
+        private final WrappedItem item;
+        private final RuntimeException error;
+
+        private Entry(String key, WrappedItem item, RuntimeException error) {
+            this.key = key;
+            this.item = item;
+            this.error = error;
+        }
+
+        private static Entry parse(Section section) {
+            try {
+                return new Entry(section.key, new WrappedItem(section.section).resolve(), null);
+            } catch (RuntimeException e) {
+                return new Entry(section.key, null, e);
+            }
+        }
+
+        /**
+         * Get the key of the item's section.
+         * @return The config section name of the item
+         */
+        public String getKey() {
+            return key;
+        }
+
+        /**
+         * Get the item that was parsed.
+         * @return The item, or null if it could not be parsed
+         */
+        public WrappedItem getItem() {
+            return item;
+        }
+
+        /**
+         * Get the exception that was thrown while parsing the item.
+         * @return The exception, or null if the item was parsed successfully
+         */
+        public RuntimeException getError() {
+            return error;
+        }
+
+        /**
+         * Check if the item was parsed successfully.
+         * @return True if the item was parsed, false if an exception was thrown while parsing it
+         */
+        public boolean isSuccess() {
+            return error == null;
+        }
+    }
+}
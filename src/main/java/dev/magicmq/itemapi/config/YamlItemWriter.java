@@ -0,0 +1,274 @@
+package dev.magicmq.itemapi.config;
+
+import com.google.common.base.Preconditions;
+import dev.magicmq.itemapi.WrappedItem;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes WrappedItems to a YAML file one at a time, without building a configuration tree for the whole file.
+ * Each item is serialized with {@link WrappedItem#writeToSection(WrappedConfigurationSection) writeToSection} into a small in-memory section, which is written out as YAML and then reused for the next item. The output therefore uses exactly the same keys as {@link WrappedItem#saveToConfig(java.io.File, WrappedConfigurationSection) saveToConfig}, and can be read back with either Bukkit's YAML API or Configurate, while memory usage stays the same no matter how many items are written.
+ * <b>Note:</b> Every item is written as a top-level section. Keys must be unique within a file, since duplicate keys cannot be read back.
+ * @see #export(Iterator, Path)
+ */
+public class YamlItemWriter implements Closeable, Flushable {
+
+    private static final String INDENT = "  ";
+
+    //Plain scalars that YAML 1.1 would read as a boolean or null, which Bukkit's YAML API still uses
+    private static final Set<String> RESERVED = new HashSet<>(Arrays.asList("y", "n", "yes", "no", "true", "false", "on", "off", "null"));
+
+    private final Writer writer;
+    private final MemoryConfigSection buffer;
+
+    private int itemsWritten;
+
+    /**
+     * Create a new YamlItemWriter class that writes to a Writer. The writer is buffered if it is not already.
+     * @param writer The writer to which YAML will be written
+     */
+    public YamlItemWriter(Writer writer) {
+        Preconditions.checkArgument(writer != null, "writer cannot be null!");
+
+        this.writer = writer instanceof BufferedWriter ? writer : new BufferedWriter(writer);
+        this.buffer = new MemoryConfigSection();
+    }
+
+    /**
+     * Create a new YamlItemWriter that writes to a file in UTF-8. The file is created, or truncated if it already exists.
+     * @param file The file to which YAML will be written
+     * @return A new YamlItemWriter, which must be closed once all items are written
+     * @throws IOException If the file could not be opened
+     */
+    public static YamlItemWriter open(Path file) throws IOException {
+        Preconditions.checkArgument(file != null, "file cannot be null!");
+
+        return new YamlItemWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Write every item from an iterator to a file in UTF-8, using sequential numbers starting at 0 as keys. The file is created, or truncated if it already exists.
+     * @param items The items to write, which are only pulled from the iterator as they are written
+     * @param file The file to which YAML will be written
+     * @return The number of items that were written
+     * @throws IOException If writing to the file failed
+     */
+    public static int export(Iterator<WrappedItem> items, Path file) throws IOException {
+        try (YamlItemWriter writer = open(file)) {
+            return writer.writeAll(items);
+        }
+    }
+
+    /**
+     * Write every item from an iterator to a Writer, using sequential numbers starting at 0 as keys. The writer is flushed but not closed.
+     * @param items The items to write, which are only pulled from the iterator as they are written
+     * @param writer The writer to which YAML will be written
+     * @return The number of items that were written
+     * @throws IOException If writing failed
+     */
+    public static int export(Iterator<WrappedItem> items, Writer writer) throws IOException {
+        YamlItemWriter yamlWriter = new YamlItemWriter(writer);
+        int written = yamlWriter.writeAll(items);
+        yamlWriter.flush();
+        return written;
+    }
+
+    /**
+     * Write a single item as a top-level section.
+     * @param key The key of the section, which is the name of the item when it is read back with {@link dev.magicmq.itemapi.ItemAPI#parseItemsWithKeys(WrappedConfigurationSection)}
+     * @param item The item to write
+     * @throws IOException If writing failed
+     */
+    public void write(String key, WrappedItem item) throws IOException {
+        Preconditions.checkArgument(key != null, "key cannot be null!");
+        Preconditions.checkArgument(item != null, "item cannot be null!");
+
+        item.writeToSection(buffer);
+        try {
+            writeKey(key, 0);
+            writeSection(buffer.getValues(), 1);
+        } finally {
+            buffer.clearConfigurationSection();
+        }
+        itemsWritten++;
+    }
+
+    /**
+     * Write every item from an iterator, using the number of items written so far by this writer as the key of each item.
+     * @param items The items to write, which are only pulled from the iterator as they are written
+     * @return The number of items that were written by this call
+     * @throws IOException If writing failed
+     */
+    public int writeAll(Iterator<WrappedItem> items) throws IOException {
+        Preconditions.checkArgument(items != null, "items cannot be null!");
+
+        int written = 0;
+        while (items.hasNext()) {
+            write(String.valueOf(itemsWritten), items.next());
+            written++;
+        }
+        return written;
+    }
+
+    /**
+     * Get the number of items that have been written by this writer.
+     * @return The number of items written
+     */
+    public int getItemsWritten() {
+        return itemsWritten;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    private void writeSection(Map<?, ?> values, int depth) throws IOException {
+        if (values.isEmpty()) {
+            writer.write(" {}\n");
+            return;
+        }
+
+        writer.write('\n');
+        for (Map.Entry<?, ?> entry : values.entrySet()) {
+            writeKey(String.valueOf(entry.getKey()), depth);
+            writeValue(entry.getValue(), depth);
+        }
+    }
+
+    private void writeValue(Object value, int depth) throws IOException {
+        if (value instanceof MemoryConfigSection) {
+            writeSection(((MemoryConfigSection) value).getValues(), depth + 1);
+        } else if (value instanceof Map<?, ?>) {
+            writeSection((Map<?, ?>) value, depth + 1);
+        } else if (value instanceof List<?>) {
+            List<?> list = (List<?>) value;
+            if (list.isEmpty()) {
+                writer.write(" []\n");
+                return;
+            }
+
+            //Sequences are written at the same indentation as their key, like Bukkit's YAML API does
+            writer.write('\n');
+            for (Object element : list) {
+                writeIndent(depth);
+                writer.write("- ");
+                writeScalar(element);
+                writer.write('\n');
+            }
+        } else {
+            writer.write(' ');
+            writeScalar(value);
+            writer.write('\n');
+        }
+    }
+
+    private void writeKey(String key, int depth) throws IOException {
+        writeIndent(depth);
+        writeString(key);
+        writer.write(':');
+    }
+
+    private void writeIndent(int depth) throws IOException {
+        for (int i = 0; i < depth; i++)
+            writer.write(INDENT);
+    }
+
+    private void writeScalar(Object value) throws IOException {
+        if (value == null)
+            writer.write("null");
+        else if (value instanceof Boolean || value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte)
+            writer.write(value.toString());
+        else if (value instanceof Float)
+            writeDouble(Double.parseDouble(value.toString()));
+        else if (value instanceof Double)
+            writeDouble((Double) value);
+        else if (value instanceof Enum<?>)
+            writeString(((Enum<?>) value).name());
+        else
+            writeString(value.toString());
+    }
+
+    private void writeDouble(double value) throws IOException {
+        if (Double.isNaN(value)) {
+            writer.write(".nan");
+        } else if (Double.isInfinite(value)) {
+            writer.write(value > 0 ? ".inf" : "-.inf");
+        } else {
+            //YAML 1.1 only reads an exponent as part of a float if it has a sign
+            String string = Double.toString(value);
+            int exponent = string.indexOf('E');
+            if (exponent != -1 && string.charAt(exponent + 1) != '-')
+                string = string.substring(0, exponent + 1) + "+" + string.substring(exponent + 1);
+            writer.write(string);
+        }
+    }
+
+    private void writeString(String value) throws IOException {
+        if (isPlain(value)) {
+            writer.write(value);
+            return;
+        }
+
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    writer.write("\\\"");
+                    break;
+                case '\\':
+                    writer.write("\\\\");
+                    break;
+                case '\n':
+                    writer.write("\\n");
+                    break;
+                case '\r':
+                    writer.write("\\r");
+                    break;
+                case '\t':
+                    writer.write("\\t");
+                    break;
+                default:
+                    if (c < 0x20 || c == 0x7F || c == '\u0085' || c == '\u2028' || c == '\u2029' || c == '\uFEFF')
+                        writer.write(String.format("\\u%04X", (int) c));
+                    else
+                        writer.write(c);
+            }
+        }
+        writer.write('"');
+    }
+
+    private static boolean isPlain(String value) {
+        if (value.isEmpty() || value.charAt(value.length() - 1) == ' ' || RESERVED.contains(value.toLowerCase()))
+            return false;
+
+        char first = value.charAt(0);
+        if (!(first >= 'A' && first <= 'Z') && !(first >= 'a' && first <= 'z') && first != '_')
+            return false;
+        for (int i = 1; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (!(c >= 'A' && c <= 'Z') && !(c >= 'a' && c <= 'z') && !(c >= '0' && c <= '9') && c != '_' && c != ' ' && c != '.' && c != '-' && c != '/')
+                return false;
+        }
+        return true;
+    }
+}
@@ -2,11 +2,18 @@ package dev.magicmq.itemapi.metadata;
 
 import dev.magicmq.itemapi.WrappedItem;
 import dev.magicmq.itemapi.config.WrappedConfigurationSection;
+import dev.magicmq.itemapi.serialization.ItemDataInput;
+import dev.magicmq.itemapi.serialization.ItemDataOutput;
+import dev.magicmq.itemapi.utils.ContentHasher;
+import dev.magicmq.itemapi.utils.InternPool;
+import dev.magicmq.itemapi.utils.Resolver;
 import org.bukkit.entity.Axolotl;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.AxolotlBucketMeta;
+import org.bukkit.inventory.meta.ItemMeta;
 
 import java.io.File;
+import java.util.Objects;
 
 /**
  * Wrapper class that contians all Metadata associated with Axolotl Buckets.
@@ -19,6 +26,8 @@ public class AxolotlBucketMetadata extends Metadata {
 
     private String variant;
 
+    private transient Axolotl.Variant resolvedVariant;
+
     /**
      * Create a new AxolotlBucketMetadata class from scratch with default values.
      */
@@ -47,13 +56,34 @@ public class AxolotlBucketMetadata extends Metadata {
         super(item);
 
         AxolotlBucketMeta meta = (AxolotlBucketMeta) item.getItemMeta();
-        if (meta != null) {
+        //Buckets that were never filled with an axolotl have no variant, and getVariant fails for them
+        if (meta != null && meta.hasVariant()) {
             this.variant = meta.getVariant().name();
         } else {
             this.variant = "LUCY";
         }
     }
 
+    /**
+     * Create a new AxolotlBucketMetadata class with values read from ItemAPI's binary format.
+     * @param in The input from which the data will be read
+     */
+    public AxolotlBucketMetadata(ItemDataInput in) {
+        super(in);
+
+        this.variant = null;
+
+        for (int tag = in.readTag(); tag != 0; tag = in.readTag()) {
+            switch (ItemDataInput.getFieldNumber(tag)) {
+                case 1:
+                    this.variant = in.readString();
+                    break;
+                default:
+                    in.skipField(tag);
+            }
+        }
+    }
+
     /**
      * Get the variant of the axolotl in this axolotl bucket.
      * @return The axolotl variant as an enum of {@link org.bukkit.entity.Axolotl.Variant}
@@ -68,24 +98,85 @@ public class AxolotlBucketMetadata extends Metadata {
      */
     public void setVariant(String variant) {
         this.variant = variant;
+        markModified();
+    }
+
+    /**
+     * Intern all the axolotl bucket metadata contained within this class as well as basic metadata in {@link Metadata Metadata} through a pool, and trim lists so that they have no spare capacity.
+     * <b>Warning:</b> This method is called automatically from {@link WrappedItem#compact(InternPool) compact} in the WrappedItem class!
+     * @param pool The pool through which values will be interned
+     */
+    @Override
+    public void compact(InternPool pool) {
+        super.compact(pool);
+
+        this.variant = pool.intern(this.variant);
+    }
+
+    /**
+     * Feed all the axolotl bucket metadata contained within this class as well as basic metadata in {@link Metadata Metadata} into a hasher.
+     * <b>Warning:</b> This method is called automatically from {@link Metadata#contentHash() contentHash} in the Metadata class!
+     * @param hasher The hasher to which the metadata will be added
+     */
+    @Override
+    public void hashContent(ContentHasher hasher) {
+        super.hashContent(hasher);
+
+        hasher.putString(this.variant);
     }
 
     /**
-     * Apply the axolotl bucket metadata as well as basic metadata in {@link Metadata Metadata} to an ItemStack.
+     * Check if all the axolotl bucket metadata contained within this class as well as basic metadata in {@link Metadata Metadata} is the same as in other metadata.
+     * <b>Warning:</b> This method is called automatically from {@link Metadata#equals(Object) equals} in the Metadata class!
+     * @param metadata The metadata to compare to, which is always a AxolotlBucketMetadata
+     * @return True if the metadata is the same, false if otherwise
+     */
+    @Override
+    protected boolean contentEquals(Metadata metadata) {
+        if (!super.contentEquals(metadata))
+            return false;
+
+        AxolotlBucketMetadata other = (AxolotlBucketMetadata) metadata;
+        return Objects.equals(this.variant, other.variant);
+    }
+
+    /**
+     * Resolve the variant of the axolotl bucket metadata as well as basic metadata in {@link Metadata Metadata}.
+     * <b>Warning:</b> This method is called automatically from {@link Metadata#resolve() resolve}!
+     * @param resolver The resolver through which names are resolved, and to which problems are reported
+     */
+    @Override
+    protected void resolveValues(Resolver resolver) {
+        super.resolveValues(resolver);
+
+        this.resolvedVariant = resolver.resolveEnum("axolotl-variant", Axolotl.Variant.class, variant);
+    }
+
+    /**
+     * Apply the axolotl bucket metadata as well as basic metadata in {@link Metadata Metadata} to an ItemMeta.
      * <b>Warning:</b> This method is called automatically from {@link WrappedItem#getAsItemStack() getAsItemStack} in the WrappedItem class!
-     * @param item The item to which the metadata will be applied
-     * @return The item, with metadata applied to it
+     * @param itemMeta The meta to which the metadata will be applied
      */
     @Override
-    public ItemStack applyMetadata(ItemStack item) {
-        item = super.applyMetadata(item);
+    public void applyMeta(ItemMeta itemMeta) {
+        super.applyMeta(itemMeta);
 
-        AxolotlBucketMeta meta = (AxolotlBucketMeta) item.getItemMeta();
-        if (variant != null)
-            meta.setVariant(Axolotl.Variant.valueOf(variant));
+        AxolotlBucketMeta meta = (AxolotlBucketMeta) itemMeta;
+        if (resolvedVariant != null)
+            meta.setVariant(resolvedVariant);
+    }
+
+    /**
+     * Write all the axolotl bucket metadata contained within this class as well as basic metadata in {@link Metadata Metadata} in ItemAPI's binary format.
+     * <b>Warning:</b> This method is called automatically from {@link WrappedItem#writeBinary(ItemDataOutput) writeBinary} in the WrappedItem class!
+     * @param out The output to which the data will be written
+     */
+    @Override
+    public void writeBinary(ItemDataOutput out) {
+        super.writeBinary(out);
 
-        item.setItemMeta(meta);
-        return item;
+        out.writeStringField(1, this.variant);
+        out.writeEnd();
     }
 
     /**
@@ -2,11 +2,17 @@ package dev.magicmq.itemapi.metadata;
 
 import dev.magicmq.itemapi.WrappedItem;
 import dev.magicmq.itemapi.config.WrappedConfigurationSection;
+import dev.magicmq.itemapi.serialization.ItemDataInput;
+import dev.magicmq.itemapi.serialization.ItemDataOutput;
+import dev.magicmq.itemapi.utils.ContentHasher;
+import dev.magicmq.itemapi.utils.InternPool;
 import dev.magicmq.itemapi.utils.Pattern;
+import dev.magicmq.itemapi.utils.Resolver;
 import org.bukkit.DyeColor;
 import org.bukkit.block.banner.PatternType;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.BannerMeta;
+import org.bukkit.inventory.meta.ItemMeta;
 
 import java.io.File;
 import java.util.ArrayList;
@@ -21,6 +27,8 @@ public class BannerMetadata extends Metadata {
 
     private List<Pattern> patterns;
 
+    private transient List<org.bukkit.block.banner.Pattern> resolvedPatterns;
+
     /**
      * Create a new BannerMetadata class from scratch with default values.
      */
@@ -41,7 +49,7 @@ public class BannerMetadata extends Metadata {
         this.patterns = new ArrayList<>();
         WrappedConfigurationSection bannerSection = section.getConfigurationSection("banner-patterns");
         for (String key : bannerSection.getKeys(false)) {
-            WrappedConfigurationSection subSection = section.getConfigurationSection(key);
+            WrappedConfigurationSection subSection = bannerSection.getConfigurationSection(key);
             patterns.add(new Pattern(subSection.getString("color"), subSection.getString("type")));
         }
     }
@@ -62,6 +70,26 @@ public class BannerMetadata extends Metadata {
         }
     }
 
+    /**
+     * Create a new BannerMetadata class with values read from ItemAPI's binary format.
+     * @param in The input from which the data will be read
+     */
+    public BannerMetadata(ItemDataInput in) {
+        super(in);
+
+        this.patterns = new ArrayList<>();
+
+        for (int tag = in.readTag(); tag != 0; tag = in.readTag()) {
+            switch (ItemDataInput.getFieldNumber(tag)) {
+                case 1:
+                    this.patterns = in.readListField(Pattern::readBinary);
+                    break;
+                default:
+                    in.skipField(tag);
+            }
+        }
+    }
+
     /**
      * Get a list of patterns present in this metadata.
      * @return A mutable list containing all patterns associated with this metadata
@@ -78,6 +106,7 @@ public class BannerMetadata extends Metadata {
      */
     public void addPattern(Pattern pattern) {
         patterns.add(pattern);
+        markModified();
     }
 
     /**
@@ -86,26 +115,106 @@ public class BannerMetadata extends Metadata {
      */
     public void setPatterns(List<Pattern> patterns) {
         this.patterns = patterns;
+        markModified();
     }
 
     /**
-     * Apply the banner metadata as well as basic metadata in {@link Metadata Metadata} to an ItemStack.
+     * Intern all the banner metadata contained within this class as well as basic metadata in {@link Metadata Metadata} through a pool, and trim lists so that they have no spare capacity.
+     * <b>Warning:</b> This method is called automatically from {@link WrappedItem#compact(InternPool) compact} in the WrappedItem class!
+     * @param pool The pool through which values will be interned
+     */
+    @Override
+    public void compact(InternPool pool) {
+        super.compact(pool);
+
+        this.patterns = pool.internAll(this.patterns);
+    }
+
+    /**
+     * Feed all the banner metadata contained within this class as well as basic metadata in {@link Metadata Metadata} into a hasher.
+     * <b>Warning:</b> This method is called automatically from {@link Metadata#contentHash() contentHash} in the Metadata class!
+     * @param hasher The hasher to which the metadata will be added
+     */
+    @Override
+    public void hashContent(ContentHasher hasher) {
+        super.hashContent(hasher);
+
+        hasher.putAll(this.patterns);
+    }
+
+    /**
+     * Check if all the banner metadata contained within this class as well as basic metadata in {@link Metadata Metadata} is the same as in other metadata.
+     * <b>Warning:</b> This method is called automatically from {@link Metadata#equals(Object) equals} in the Metadata class!
+     * @param metadata The metadata to compare to, which is always a BannerMetadata
+     * @return True if the metadata is the same, false if otherwise
+     */
+    @Override
+    protected boolean contentEquals(Metadata metadata) {
+        if (!super.contentEquals(metadata))
+            return false;
+
+        BannerMetadata other = (BannerMetadata) metadata;
+        return ContentHasher.listEquals(this.patterns, other.patterns);
+    }
+
+    /**
+     * Resolve the colors and types of the patterns of the banner metadata as well as basic metadata in {@link Metadata Metadata}.
+     * <b>Warning:</b> This method is called automatically from {@link Metadata#resolve() resolve}!
+     * @param resolver The resolver through which names are resolved, and to which problems are reported
+     */
+    @Override
+    protected void resolveValues(Resolver resolver) {
+        super.resolveValues(resolver);
+
+        this.resolvedPatterns = resolvePatterns(resolver, "banner-patterns", patterns);
+    }
+
+    static List<org.bukkit.block.banner.Pattern> resolvePatterns(Resolver resolver, String key, List<Pattern> patterns) {
+        if (patterns == null)
+            return null;
+
+        List<org.bukkit.block.banner.Pattern> resolved = new ArrayList<>(patterns.size());
+        for (int i = 0; i < patterns.size(); i++) {
+            Pattern pattern = patterns.get(i);
+            if (pattern.getColor() == null || pattern.getPatternType() == null) {
+                resolver.report(key + "." + i, "Every pattern must have both a color and a type!");
+                continue;
+            }
+            DyeColor color = resolver.resolveEnum(key + "." + i + ".color", DyeColor.class, pattern.getColor());
+            PatternType type = resolver.resolveEnum(key + "." + i + ".type", PatternType.class, pattern.getPatternType());
+            if (color != null && type != null)
+                resolved.add(new org.bukkit.block.banner.Pattern(color, type));
+        }
+        return resolved;
+    }
+
+    /**
+     * Apply the banner metadata as well as basic metadata in {@link Metadata Metadata} to an ItemMeta.
      * <b>Warning:</b> This method is called automatically from {@link WrappedItem#getAsItemStack() getAsItemStack} in the WrappedItem class!
-     * @param item The item to which the metadata will be applied
-     * @return The item, with metadata applied to it
+     * @param itemMeta The meta to which the metadata will be applied
      */
     @Override
-    public ItemStack applyMetadata(ItemStack item) {
-        item = super.applyMetadata(item);
+    public void applyMeta(ItemMeta itemMeta) {
+        super.applyMeta(itemMeta);
 
-        BannerMeta meta = (BannerMeta) item.getItemMeta();
-        if (patterns != null) {
-            for (Pattern pattern : patterns)
-                meta.addPattern(new org.bukkit.block.banner.Pattern(DyeColor.valueOf(pattern.getColor()), PatternType.valueOf(pattern.getPatternType())));
+        BannerMeta meta = (BannerMeta) itemMeta;
+        if (resolvedPatterns != null) {
+            for (org.bukkit.block.banner.Pattern pattern : resolvedPatterns)
+                meta.addPattern(pattern);
         }
+    }
+
+    /**
+     * Write all the banner metadata contained within this class as well as basic metadata in {@link Metadata Metadata} in ItemAPI's binary format.
+     * <b>Warning:</b> This method is called automatically from {@link WrappedItem#writeBinary(ItemDataOutput) writeBinary} in the WrappedItem class!
+     * @param out The output to which the data will be written
+     */
+    @Override
+    public void writeBinary(ItemDataOutput out) {
+        super.writeBinary(out);
 
-        item.setItemMeta(meta);
-        return item;
+        out.writeListField(1, this.patterns, Pattern::writeBinary);
+        out.writeEnd();
     }
 
     /**
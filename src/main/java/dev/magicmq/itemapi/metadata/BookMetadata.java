@@ -2,14 +2,20 @@ package dev.magicmq.itemapi.metadata;
 
 import dev.magicmq.itemapi.WrappedItem;
 import dev.magicmq.itemapi.config.WrappedConfigurationSection;
-import org.bukkit.ChatColor;
+import dev.magicmq.itemapi.serialization.ItemDataInput;
+import dev.magicmq.itemapi.serialization.ItemDataOutput;
+import dev.magicmq.itemapi.text.FormattedText;
+import dev.magicmq.itemapi.utils.ContentHasher;
+import dev.magicmq.itemapi.utils.InternPool;
+import dev.magicmq.itemapi.utils.Resolver;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.BookMeta;
+import org.bukkit.inventory.meta.ItemMeta;
 
 import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Objects;
 
 /**
  * Wrapper class that contians all Metadata associated with Books.
@@ -23,6 +29,8 @@ public class BookMetadata extends Metadata {
     private String generation;
     private List<String> pages;
 
+    private transient BookMeta.Generation resolvedGeneration;
+
     /**
      * Create a new BookMetadata class from scratch with default values.
      */
@@ -72,6 +80,38 @@ public class BookMetadata extends Metadata {
         }
     }
 
+    /**
+     * Create a new BookMetadata class with values read from ItemAPI's binary format.
+     * @param in The input from which the data will be read
+     */
+    public BookMetadata(ItemDataInput in) {
+        super(in);
+
+        this.title = null;
+        this.author = null;
+        this.generation = null;
+        this.pages = new ArrayList<>();
+
+        for (int tag = in.readTag(); tag != 0; tag = in.readTag()) {
+            switch (ItemDataInput.getFieldNumber(tag)) {
+                case 1:
+                    this.title = in.readString();
+                    break;
+                case 2:
+                    this.author = in.readString();
+                    break;
+                case 3:
+                    this.generation = in.readString();
+                    break;
+                case 4:
+                    this.pages = in.readStringListField();
+                    break;
+                default:
+                    in.skipField(tag);
+            }
+        }
+    }
+
     /**
      * Get the title of the book.
      * @return The title of the book
@@ -86,6 +126,7 @@ public class BookMetadata extends Metadata {
      */
     public void setTitle(String title) {
         this.title = title;
+        markModified();
     }
 
     /**
@@ -102,6 +143,7 @@ public class BookMetadata extends Metadata {
      */
     public void setAuthor(String author) {
         this.author = author;
+        markModified();
     }
 
     /**
@@ -118,6 +160,7 @@ public class BookMetadata extends Metadata {
      */
     public void setGeneration(String generation) {
         this.generation = generation;
+        markModified();
     }
 
     /**
@@ -134,30 +177,103 @@ public class BookMetadata extends Metadata {
      */
     public void setPages(List<String> pages) {
         this.pages = pages;
+        markModified();
+    }
+
+    /**
+     * Intern all the book metadata contained within this class as well as basic metadata in {@link Metadata Metadata} through a pool, and trim lists so that they have no spare capacity.
+     * <b>Warning:</b> This method is called automatically from {@link WrappedItem#compact(InternPool) compact} in the WrappedItem class!
+     * @param pool The pool through which values will be interned
+     */
+    @Override
+    public void compact(InternPool pool) {
+        super.compact(pool);
+
+        this.title = pool.intern(this.title);
+        this.author = pool.intern(this.author);
+        this.generation = pool.intern(this.generation);
+        this.pages = pool.internAll(this.pages);
+    }
+
+    /**
+     * Feed all the book metadata contained within this class as well as basic metadata in {@link Metadata Metadata} into a hasher.
+     * <b>Warning:</b> This method is called automatically from {@link Metadata#contentHash() contentHash} in the Metadata class!
+     * @param hasher The hasher to which the metadata will be added
+     */
+    @Override
+    public void hashContent(ContentHasher hasher) {
+        super.hashContent(hasher);
+
+        hasher.putText(this.title)
+                .putText(this.author)
+                .putString(this.generation)
+                .putTexts(this.pages);
     }
 
     /**
-     * Apply the book metadata as well as basic metadata in {@link Metadata Metadata} to an ItemStack.
+     * Check if all the book metadata contained within this class as well as basic metadata in {@link Metadata Metadata} is the same as in other metadata.
+     * <b>Warning:</b> This method is called automatically from {@link Metadata#equals(Object) equals} in the Metadata class!
+     * @param metadata The metadata to compare to, which is always a BookMetadata
+     * @return True if the metadata is the same, false if otherwise
+     */
+    @Override
+    protected boolean contentEquals(Metadata metadata) {
+        if (!super.contentEquals(metadata))
+            return false;
+
+        BookMetadata other = (BookMetadata) metadata;
+        return ContentHasher.textEquals(this.title, other.title)
+                && ContentHasher.textEquals(this.author, other.author)
+                && Objects.equals(this.generation, other.generation)
+                && ContentHasher.textEquals(this.pages, other.pages);
+    }
+
+    /**
+     * Resolve the generation of the book metadata as well as basic metadata in {@link Metadata Metadata}.
+     * <b>Warning:</b> This method is called automatically from {@link Metadata#resolve() resolve}!
+     * @param resolver The resolver through which names are resolved, and to which problems are reported
+     */
+    @Override
+    protected void resolveValues(Resolver resolver) {
+        super.resolveValues(resolver);
+
+        this.resolvedGeneration = resolver.resolveEnum("book-data.generation", BookMeta.Generation.class, generation);
+    }
+
+    /**
+     * Apply the book metadata as well as basic metadata in {@link Metadata Metadata} to an ItemMeta.
      * <b>Warning:</b> This method is called automatically from {@link WrappedItem#getAsItemStack() getAsItemStack} in the WrappedItem class!
-     * @param item The item to which the metadata will be applied
-     * @return The item, with metadata applied to it
+     * @param itemMeta The meta to which the metadata will be applied
      */
     @Override
-    public ItemStack applyMetadata(ItemStack item) {
-        item = super.applyMetadata(item);
+    public void applyMeta(ItemMeta itemMeta) {
+        super.applyMeta(itemMeta);
 
-        BookMeta meta = (BookMeta) item.getItemMeta();
+        BookMeta meta = (BookMeta) itemMeta;
         if (title != null && !title.isEmpty())
-            meta.setTitle(ChatColor.translateAlternateColorCodes('&', title));
+            meta.setTitle(FormattedText.format(title));
         if (author != null && !author.isEmpty())
-            meta.setAuthor(ChatColor.translateAlternateColorCodes('&', author));
-        if (generation != null)
-            meta.setGeneration(BookMeta.Generation.valueOf(generation));
+            meta.setAuthor(FormattedText.format(author));
+        if (resolvedGeneration != null)
+            meta.setGeneration(resolvedGeneration);
         if (pages != null && pages.size() > 0)
-            meta.setPages(pages.stream().map(string -> ChatColor.translateAlternateColorCodes('&', string)).collect(Collectors.toList()));
+            meta.setPages(FormattedText.formatAll(pages));
+    }
+
+    /**
+     * Write all the book metadata contained within this class as well as basic metadata in {@link Metadata Metadata} in ItemAPI's binary format.
+     * <b>Warning:</b> This method is called automatically from {@link WrappedItem#writeBinary(ItemDataOutput) writeBinary} in the WrappedItem class!
+     * @param out The output to which the data will be written
+     */
+    @Override
+    public void writeBinary(ItemDataOutput out) {
+        super.writeBinary(out);
 
-        item.setItemMeta(meta);
-        return item;
+        out.writeStringField(1, this.title);
+        out.writeStringField(2, this.author);
+        out.writeStringField(3, this.generation);
+        out.writeStringListField(4, this.pages);
+        out.writeEnd();
     }
 
     /**
@@ -172,13 +288,13 @@ public class BookMetadata extends Metadata {
         if ((this.title != null && !this.title.isEmpty()) || (this.author != null && !this.author.isEmpty()) || this.generation != null || (this.pages != null && this.pages.size() > 0)) {
             WrappedConfigurationSection bookSection = section.createConfigurationSection("book-data");
             if (this.title != null && !this.title.isEmpty())
-                bookSection.set("title", this.title.replaceAll("\u00A7", "&"));
+                bookSection.set("title", FormattedText.unformat(this.title));
             if (this.author != null && !this.author.isEmpty())
-                bookSection.set("author", this.author.replaceAll("\u00A7", "&"));
+                bookSection.set("author", FormattedText.unformat(this.author));
             if (this.generation != null)
                 bookSection.set("generation", this.generation);
             if (this.pages != null && this.pages.size() > 0)
-                bookSection.set("pages", this.pages.stream().map(string -> string.replaceAll("\u00A7", "&")).collect(Collectors.toList()));
+                bookSection.set("pages", FormattedText.unformatAll(this.pages));
         }
     }
 }
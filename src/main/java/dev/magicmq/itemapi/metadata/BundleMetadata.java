@@ -2,8 +2,15 @@ package dev.magicmq.itemapi.metadata;
 
 import dev.magicmq.itemapi.WrappedItem;
 import dev.magicmq.itemapi.config.WrappedConfigurationSection;
+import dev.magicmq.itemapi.serialization.InventoryCodec;
+import dev.magicmq.itemapi.serialization.ItemDataInput;
+import dev.magicmq.itemapi.serialization.ItemDataOutput;
+import dev.magicmq.itemapi.utils.ContentHasher;
+import dev.magicmq.itemapi.utils.InternPool;
+import dev.magicmq.itemapi.utils.Resolver;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.BundleMeta;
+import org.bukkit.inventory.meta.ItemMeta;
 
 import java.io.File;
 import java.util.ArrayList;
@@ -57,6 +64,29 @@ public class BundleMetadata extends Metadata {
             this.items.add(new WrappedItem(itemStack));
     }
 
+    /**
+     * Create a new BundleMetadata class with values read from ItemAPI's binary format.
+     * @param in The input from which the data will be read
+     */
+    public BundleMetadata(ItemDataInput in) {
+        super(in);
+
+        this.items = new ArrayList<>();
+
+        for (int tag = in.readTag(); tag != 0; tag = in.readTag()) {
+            switch (ItemDataInput.getFieldNumber(tag)) {
+                case 1:
+                    this.items = in.readListField(WrappedItem::new);
+                    break;
+                case 2:
+                    this.items = InventoryCodec.readSlots(in.readNested());
+                    break;
+                default:
+                    in.skipField(tag);
+            }
+        }
+    }
+
     /**
      * Get the contents of the bundle.
      * @return A mutable List containing the contents of the bundle
@@ -71,6 +101,7 @@ public class BundleMetadata extends Metadata {
      */
     public void addItem(WrappedItem item) {
         items.add(item);
+        markModified();
     }
 
     /**
@@ -79,23 +110,106 @@ public class BundleMetadata extends Metadata {
      */
     public void setItems(List<WrappedItem> items) {
         this.items = items;
+        markModified();
+    }
+
+    /**
+     * Get the current revision of this metadata, taking changes made to the contained items into account.
+     * @return The revision stamp of the most recent change made to this metadata or any of its contained items
+     */
+    @Override
+    public long getRevision() {
+        long revision = super.getRevision();
+        if (items != null) {
+            for (WrappedItem item : items)
+                revision = Math.max(revision, item.getRevision());
+        }
+        return revision;
+    }
+
+    /**
+     * Intern all the bundle metadata contained within this class as well as basic metadata in {@link Metadata Metadata} through a pool, and trim lists so that they have no spare capacity.
+     * <b>Warning:</b> This method is called automatically from {@link WrappedItem#compact(InternPool) compact} in the WrappedItem class!
+     * @param pool The pool through which values will be interned
+     */
+    @Override
+    public void compact(InternPool pool) {
+        super.compact(pool);
+
+        if (this.items != null) {
+            for (WrappedItem item : this.items)
+                item.compact(pool);
+            this.items = new ArrayList<>(this.items);
+        }
     }
 
     /**
-     * Apply the bundle metadata as well as basic metadata in {@link Metadata Metadata} to an ItemStack.
+     * Feed all the bundle metadata contained within this class as well as basic metadata in {@link Metadata Metadata} into a hasher.
+     * <b>Warning:</b> This method is called automatically from {@link Metadata#contentHash() contentHash} in the Metadata class!
+     * @param hasher The hasher to which the metadata will be added
+     */
+    @Override
+    public void hashContent(ContentHasher hasher) {
+        super.hashContent(hasher);
+
+        hasher.putAll(this.items);
+    }
+
+    /**
+     * Check if all the bundle metadata contained within this class as well as basic metadata in {@link Metadata Metadata} is the same as in other metadata.
+     * <b>Warning:</b> This method is called automatically from {@link Metadata#equals(Object) equals} in the Metadata class!
+     * @param metadata The metadata to compare to, which is always a BundleMetadata
+     * @return True if the metadata is the same, false if otherwise
+     */
+    @Override
+    protected boolean contentEquals(Metadata metadata) {
+        if (!super.contentEquals(metadata))
+            return false;
+
+        BundleMetadata other = (BundleMetadata) metadata;
+        return ContentHasher.listEquals(this.items, other.items);
+    }
+
+    /**
+     * Resolve the items in the bundle metadata as well as basic metadata in {@link Metadata Metadata}.
+     * <b>Warning:</b> This method is called automatically from {@link Metadata#resolve() resolve}!
+     * @param resolver The resolver through which names are resolved, and to which problems are reported
+     */
+    @Override
+    protected void resolveValues(Resolver resolver) {
+        super.resolveValues(resolver);
+
+        if (items != null) {
+            for (int i = 0; i < items.size(); i++)
+                resolver.resolveItem("bundle-items." + i, items.get(i));
+        }
+    }
+
+    /**
+     * Apply the bundle metadata as well as basic metadata in {@link Metadata Metadata} to an ItemMeta.
      * <b>Warning:</b> This method is called automatically from {@link WrappedItem#getAsItemStack() getAsItemStack} in the WrappedItem class!
-     * @param item The item to which the metadata will be applied
-     * @return The item, with metadata applied to it
+     * @param itemMeta The meta to which the metadata will be applied
      */
     @Override
-    public ItemStack applyMetadata(ItemStack item) {
-        item = super.applyMetadata(item);
+    public void applyMeta(ItemMeta itemMeta) {
+        super.applyMeta(itemMeta);
 
-        BundleMeta meta = (BundleMeta) item.getItemMeta();
+        BundleMeta meta = (BundleMeta) itemMeta;
         meta.setItems(items.stream().map(WrappedItem::getAsItemStack).collect(Collectors.toList()));
+    }
+
+    /**
+     * Write all the bundle metadata contained within this class as well as basic metadata in {@link Metadata Metadata} in ItemAPI's binary format.
+     * <b>Warning:</b> This method is called automatically from {@link WrappedItem#writeBinary(ItemDataOutput) writeBinary} in the WrappedItem class!
+     * @param out The output to which the data will be written
+     */
+    @Override
+    public void writeBinary(ItemDataOutput out) {
+        super.writeBinary(out);
 
-        item.setItemMeta(meta);
-        return item;
+        if (this.items != null)
+            out.writeNestedField(2, itemsOut -> InventoryCodec.writeSlots(itemsOut, this.items));
+        out.writeEnd();
     }
 
     /**
@@ -113,6 +227,7 @@ public class BundleMetadata extends Metadata {
             for (WrappedItem item : items) {
                 WrappedConfigurationSection itemSection = bundleSection.createConfigurationSection("" + i);
                 item.writeToSection(itemSection);
+                i++;
             }
         }
     }
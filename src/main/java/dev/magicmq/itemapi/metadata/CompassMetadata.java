@@ -2,12 +2,20 @@ package dev.magicmq.itemapi.metadata;
 
 import dev.magicmq.itemapi.WrappedItem;
 import dev.magicmq.itemapi.config.WrappedConfigurationSection;
+import dev.magicmq.itemapi.serialization.ItemDataInput;
+import dev.magicmq.itemapi.serialization.ItemDataOutput;
+import dev.magicmq.itemapi.utils.ContentHashable;
+import dev.magicmq.itemapi.utils.ContentHasher;
+import dev.magicmq.itemapi.utils.InternPool;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.CompassMeta;
+import org.bukkit.inventory.meta.ItemMeta;
 
 import java.io.File;
+import java.io.Serializable;
+import java.util.Objects;
 
 /**
  * Wrapper class that contians all Metadata associated with Compasses.
@@ -53,6 +61,30 @@ public class CompassMetadata extends Metadata {
         }
     }
 
+    /**
+     * Create a new CompassMetadata class with values read from ItemAPI's binary format.
+     * @param in The input from which the data will be read
+     */
+    public CompassMetadata(ItemDataInput in) {
+        super(in);
+
+        this.lodestone = null;
+        this.tracking = false;
+
+        for (int tag = in.readTag(); tag != 0; tag = in.readTag()) {
+            switch (ItemDataInput.getFieldNumber(tag)) {
+                case 1:
+                    this.lodestone = new Lodestone(in.readNested());
+                    break;
+                case 2:
+                    this.tracking = in.readBoolean();
+                    break;
+                default:
+                    in.skipField(tag);
+            }
+        }
+    }
+
     /**
      * Get the lodestone that the compass should point to.
      * @return The lodestone associated with this metadata
@@ -67,6 +99,7 @@ public class CompassMetadata extends Metadata {
      */
     public void setLodestone(Lodestone lodestone) {
         this.lodestone = lodestone;
+        markModified();
     }
 
     /**
@@ -83,25 +116,79 @@ public class CompassMetadata extends Metadata {
      */
     public void setTracking(boolean tracking) {
         this.tracking = tracking;
+        markModified();
     }
 
     /**
-     * Apply the compss metadata as well as basic metadata in {@link Metadata Metadata} to an ItemStack.
+     * Intern all the compss metadata contained within this class as well as basic metadata in {@link Metadata Metadata} through a pool, and trim lists so that they have no spare capacity.
+     * <b>Warning:</b> This method is called automatically from {@link WrappedItem#compact(InternPool) compact} in the WrappedItem class!
+     * @param pool The pool through which values will be interned
+     */
+    @Override
+    public void compact(InternPool pool) {
+        super.compact(pool);
+
+        if (this.lodestone != null)
+            this.lodestone.setWorld(pool.intern(this.lodestone.getWorld()));
+    }
+
+    /**
+     * Feed all the compss metadata contained within this class as well as basic metadata in {@link Metadata Metadata} into a hasher.
+     * <b>Warning:</b> This method is called automatically from {@link Metadata#contentHash() contentHash} in the Metadata class!
+     * @param hasher The hasher to which the metadata will be added
+     */
+    @Override
+    public void hashContent(ContentHasher hasher) {
+        super.hashContent(hasher);
+
+        hasher.put(this.lodestone)
+                .putBoolean(this.tracking);
+    }
+
+    /**
+     * Check if all the compss metadata contained within this class as well as basic metadata in {@link Metadata Metadata} is the same as in other metadata.
+     * <b>Warning:</b> This method is called automatically from {@link Metadata#equals(Object) equals} in the Metadata class!
+     * @param metadata The metadata to compare to, which is always a CompassMetadata
+     * @return True if the metadata is the same, false if otherwise
+     */
+    @Override
+    protected boolean contentEquals(Metadata metadata) {
+        if (!super.contentEquals(metadata))
+            return false;
+
+        CompassMetadata other = (CompassMetadata) metadata;
+        return Objects.equals(this.lodestone, other.lodestone)
+                && this.tracking == other.tracking;
+    }
+
+    /**
+     * Apply the compss metadata as well as basic metadata in {@link Metadata Metadata} to an ItemMeta.
      * <b>Warning:</b> This method is called automatically from {@link WrappedItem#getAsItemStack() getAsItemStack} in the WrappedItem class!
-     * @param item The item to which the metadata will be applied
-     * @return The item, with metadata applied to it
+     * @param itemMeta The meta to which the metadata will be applied
      */
     @Override
-    public ItemStack applyMetadata(ItemStack item) {
-        item = super.applyMetadata(item);
+    public void applyMeta(ItemMeta itemMeta) {
+        super.applyMeta(itemMeta);
 
-        CompassMeta meta = (CompassMeta) item.getItemMeta();
+        CompassMeta meta = (CompassMeta) itemMeta;
         if (lodestone != null)
             meta.setLodestone(lodestone.toLocation());
         meta.setLodestoneTracked(tracking);
+    }
 
-        item.setItemMeta(meta);
-        return item;
+    /**
+     * Write all the compass metadata contained within this class as well as basic metadata in {@link Metadata Metadata} in ItemAPI's binary format.
+     * <b>Warning:</b> This method is called automatically from {@link WrappedItem#writeBinary(ItemDataOutput) writeBinary} in the WrappedItem class!
+     * @param out The output to which the data will be written
+     */
+    @Override
+    public void writeBinary(ItemDataOutput out) {
+        super.writeBinary(out);
+
+        if (this.lodestone != null)
+            out.writeNestedField(1, this.lodestone::writeBinary);
+        out.writeBooleanField(2, this.tracking);
+        out.writeEnd();
     }
 
     /**
@@ -113,7 +200,7 @@ public class CompassMetadata extends Metadata {
     public void saveToConfig(WrappedConfigurationSection section) {
         super.saveToConfig(section);
 
-        WrappedConfigurationSection compassSection = section.getConfigurationSection("compass-data");
+        WrappedConfigurationSection compassSection = section.createConfigurationSection("compass-data");
         if (this.lodestone != null)
             compassSection.set("lodestone", this.lodestone.toString());
         compassSection.set("track-lodestone", tracking);
@@ -122,7 +209,9 @@ public class CompassMetadata extends Metadata {
     /**
      * An easily-serializable class to store values that correspond to a compass's lodestone.
      */
-    static class Lodestone {
+    public static class Lodestone implements Serializable, ContentHashable {
+
+        private static final long serialVersionUID = -5127700563358937640L;
 
         private String world;
         private int x;
@@ -155,6 +244,31 @@ public class CompassMetadata extends Metadata {
             this.z = Integer.parseInt(split[3]);
         }
 
+        /**
+         * Initialize a new lodestone with values read from ItemAPI's binary format.
+         * @param in The input from which the lodestone will be read
+         */
+        public Lodestone(ItemDataInput in) {
+            for (int tag = in.readTag(); tag != 0; tag = in.readTag()) {
+                switch (ItemDataInput.getFieldNumber(tag)) {
+                    case 1:
+                        this.world = in.readString();
+                        break;
+                    case 2:
+                        this.x = in.readSignedVarInt();
+                        break;
+                    case 3:
+                        this.y = in.readSignedVarInt();
+                        break;
+                    case 4:
+                        this.z = in.readSignedVarInt();
+                        break;
+                    default:
+                        in.skipField(tag);
+                }
+            }
+        }
+
         /**
          * Get the world in which this lodestone is located.
          * @return The name of the world in which this lodestone is located
@@ -227,6 +341,17 @@ public class CompassMetadata extends Metadata {
             return new Location(Bukkit.getWorld(world), x, y, z);
         }
 
+        /**
+         * Write this lodestone in ItemAPI's binary format.
+         * @param out The output to which the lodestone will be written
+         */
+        public void writeBinary(ItemDataOutput out) {
+            out.writeStringField(1, world);
+            out.writeIntField(2, x);
+            out.writeIntField(3, y);
+            out.writeIntField(4, z);
+        }
+
         /**
          * Get a string representing this lodestone for writing to config files.
          * @return The string value representing this lodestone
@@ -235,5 +360,26 @@ public class CompassMetadata extends Metadata {
         public String toString() {
             return world + ":" + x + ":" + y + ":" + z;
         }
+
+        @Override
+        public void hashContent(ContentHasher hasher) {
+            hasher.putString(world).putInt(x).putInt(y).putInt(z);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (o == null || getClass() != o.getClass())
+                return false;
+
+            Lodestone other = (Lodestone) o;
+            return x == other.x && y == other.y && z == other.z && Objects.equals(world, other.world);
+        }
+
+        @Override
+        public int hashCode() {
+            return ContentHasher.toHashCode(new ContentHasher().put(this).getHash());
+        }
     }
 }
@@ -2,8 +2,15 @@ package dev.magicmq.itemapi.metadata;
 
 import dev.magicmq.itemapi.WrappedItem;
 import dev.magicmq.itemapi.config.WrappedConfigurationSection;
+import dev.magicmq.itemapi.serialization.InventoryCodec;
+import dev.magicmq.itemapi.serialization.ItemDataInput;
+import dev.magicmq.itemapi.serialization.ItemDataOutput;
+import dev.magicmq.itemapi.utils.ContentHasher;
+import dev.magicmq.itemapi.utils.InternPool;
+import dev.magicmq.itemapi.utils.Resolver;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.CrossbowMeta;
+import org.bukkit.inventory.meta.ItemMeta;
 
 import java.io.File;
 import java.util.ArrayList;
@@ -53,11 +60,33 @@ public class CrossbowMetadata extends Metadata {
     public CrossbowMetadata(ItemStack item) {
         super(item);
 
+        this.chargedProjectiles = new ArrayList<>();
         CrossbowMeta meta = (CrossbowMeta) item.getItemMeta();
         if (meta != null) {
             meta.getChargedProjectiles().forEach(charge -> chargedProjectiles.add(new WrappedItem(charge)));
-        } else {
-            this.chargedProjectiles = new ArrayList<>();
+        }
+    }
+
+    /**
+     * Create a new CrossbowMetadata class with values read from ItemAPI's binary format.
+     * @param in The input from which the data will be read
+     */
+    public CrossbowMetadata(ItemDataInput in) {
+        super(in);
+
+        this.chargedProjectiles = new ArrayList<>();
+
+        for (int tag = in.readTag(); tag != 0; tag = in.readTag()) {
+            switch (ItemDataInput.getFieldNumber(tag)) {
+                case 1:
+                    this.chargedProjectiles = in.readListField(WrappedItem::new);
+                    break;
+                case 2:
+                    this.chargedProjectiles = InventoryCodec.readSlots(in.readNested());
+                    break;
+                default:
+                    in.skipField(tag);
+            }
         }
     }
 
@@ -75,6 +104,7 @@ public class CrossbowMetadata extends Metadata {
      */
     public void addCharge(WrappedItem charge) {
         chargedProjectiles.add(charge);
+        markModified();
     }
 
     /**
@@ -83,25 +113,108 @@ public class CrossbowMetadata extends Metadata {
      */
     public void setChargedProjectiles(List<WrappedItem> chargedProjectiles) {
         this.chargedProjectiles = chargedProjectiles;
+        markModified();
+    }
+
+    /**
+     * Get the current revision of this metadata, taking changes made to the contained items into account.
+     * @return The revision stamp of the most recent change made to this metadata or any of its contained items
+     */
+    @Override
+    public long getRevision() {
+        long revision = super.getRevision();
+        if (chargedProjectiles != null) {
+            for (WrappedItem item : chargedProjectiles)
+                revision = Math.max(revision, item.getRevision());
+        }
+        return revision;
+    }
+
+    /**
+     * Intern all the crossbow metadata contained within this class as well as basic metadata in {@link Metadata Metadata} through a pool, and trim lists so that they have no spare capacity.
+     * <b>Warning:</b> This method is called automatically from {@link WrappedItem#compact(InternPool) compact} in the WrappedItem class!
+     * @param pool The pool through which values will be interned
+     */
+    @Override
+    public void compact(InternPool pool) {
+        super.compact(pool);
+
+        if (this.chargedProjectiles != null) {
+            for (WrappedItem item : this.chargedProjectiles)
+                item.compact(pool);
+            this.chargedProjectiles = new ArrayList<>(this.chargedProjectiles);
+        }
+    }
+
+    /**
+     * Feed all the crossbow metadata contained within this class as well as basic metadata in {@link Metadata Metadata} into a hasher.
+     * <b>Warning:</b> This method is called automatically from {@link Metadata#contentHash() contentHash} in the Metadata class!
+     * @param hasher The hasher to which the metadata will be added
+     */
+    @Override
+    public void hashContent(ContentHasher hasher) {
+        super.hashContent(hasher);
+
+        hasher.putAll(this.chargedProjectiles);
     }
 
     /**
-     * Apply the crossbow metadata as well as basic metadata in {@link Metadata Metadata} to an ItemStack.
+     * Check if all the crossbow metadata contained within this class as well as basic metadata in {@link Metadata Metadata} is the same as in other metadata.
+     * <b>Warning:</b> This method is called automatically from {@link Metadata#equals(Object) equals} in the Metadata class!
+     * @param metadata The metadata to compare to, which is always a CrossbowMetadata
+     * @return True if the metadata is the same, false if otherwise
+     */
+    @Override
+    protected boolean contentEquals(Metadata metadata) {
+        if (!super.contentEquals(metadata))
+            return false;
+
+        CrossbowMetadata other = (CrossbowMetadata) metadata;
+        return ContentHasher.listEquals(this.chargedProjectiles, other.chargedProjectiles);
+    }
+
+    /**
+     * Resolve the charged projectiles of the crossbow metadata as well as basic metadata in {@link Metadata Metadata}.
+     * <b>Warning:</b> This method is called automatically from {@link Metadata#resolve() resolve}!
+     * @param resolver The resolver through which names are resolved, and to which problems are reported
+     */
+    @Override
+    protected void resolveValues(Resolver resolver) {
+        super.resolveValues(resolver);
+
+        if (chargedProjectiles != null) {
+            for (int i = 0; i < chargedProjectiles.size(); i++)
+                resolver.resolveItem("charged-projectiles." + i, chargedProjectiles.get(i));
+        }
+    }
+
+    /**
+     * Apply the crossbow metadata as well as basic metadata in {@link Metadata Metadata} to an ItemMeta.
      * <b>Warning:</b> This method is called automatically from {@link WrappedItem#getAsItemStack() getAsItemStack} in the WrappedItem class!
-     * @param item The item to which the metadata will be applied
-     * @return The item, with metadata applied to it
+     * @param itemMeta The meta to which the metadata will be applied
      */
     @Override
-    public ItemStack applyMetadata(ItemStack item) {
-        item = super.applyMetadata(item);
+    public void applyMeta(ItemMeta itemMeta) {
+        super.applyMeta(itemMeta);
 
-        CrossbowMeta meta = (CrossbowMeta) item.getItemMeta();
+        CrossbowMeta meta = (CrossbowMeta) itemMeta;
         if (chargedProjectiles != null) {
             meta.setChargedProjectiles(chargedProjectiles.stream().map(WrappedItem::getAsItemStack).collect(Collectors.toList()));
         }
+    }
+
+    /**
+     * Write all the crossbow metadata contained within this class as well as basic metadata in {@link Metadata Metadata} in ItemAPI's binary format.
+     * <b>Warning:</b> This method is called automatically from {@link WrappedItem#writeBinary(ItemDataOutput) writeBinary} in the WrappedItem class!
+     * @param out The output to which the data will be written
+     */
+    @Override
+    public void writeBinary(ItemDataOutput out) {
+        super.writeBinary(out);
 
-        item.setItemMeta(meta);
-        return item;
+        if (this.chargedProjectiles != null)
+            out.writeNestedField(2, projectilesOut -> InventoryCodec.writeSlots(projectilesOut, this.chargedProjectiles));
+        out.writeEnd();
     }
 
     /**
@@ -114,7 +227,7 @@ public class CrossbowMetadata extends Metadata {
         super.saveToConfig(section);
 
         if (this.chargedProjectiles != null && this.chargedProjectiles.size() > 0) {
-            WrappedConfigurationSection chargedProjSection = section.createConfigurationSection("charged-projetiles");
+            WrappedConfigurationSection chargedProjSection = section.createConfigurationSection("charged-projectiles");
             int i = 0;
             for (WrappedItem item : chargedProjectiles) {
                 WrappedConfigurationSection chargeSection = chargedProjSection.createConfigurationSection("" + i);
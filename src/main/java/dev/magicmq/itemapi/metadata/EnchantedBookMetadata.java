@@ -2,10 +2,15 @@ package dev.magicmq.itemapi.metadata;
 
 import dev.magicmq.itemapi.WrappedItem;
 import dev.magicmq.itemapi.config.WrappedConfigurationSection;
+import dev.magicmq.itemapi.serialization.ItemDataInput;
+import dev.magicmq.itemapi.serialization.ItemDataOutput;
+import dev.magicmq.itemapi.utils.ContentHasher;
+import dev.magicmq.itemapi.utils.InternPool;
 import dev.magicmq.itemapi.utils.MCVersion;
-import dev.magicmq.itemapi.utils.exception.EnchantmentNotFoundException;
+import dev.magicmq.itemapi.utils.Resolver;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.EnchantmentStorageMeta;
+import org.bukkit.inventory.meta.ItemMeta;
 
 import java.io.File;
 import java.util.ArrayList;
@@ -59,8 +64,9 @@ public class EnchantedBookMetadata extends Metadata {
         EnchantmentStorageMeta meta = (EnchantmentStorageMeta) item.getItemMeta();
         this.enchantments = new ArrayList<>();
         if (meta != null) {
+            boolean namespaced = MCVersion.getCapabilities().hasNamespacedEnchantments();
             for (Map.Entry<org.bukkit.enchantments.Enchantment, Integer> entry : meta.getEnchants().entrySet()) {
-                if (MCVersion.isCurrentVersionAtLeast(MCVersion.v1_13_R1))
+                if (namespaced)
                     this.enchantments.add(new Enchantment(entry.getKey().getKey().getKey(), entry.getValue()));
                 else
                     this.enchantments.add(new Enchantment(entry.getKey().getName(), entry.getValue()));
@@ -68,6 +74,26 @@ public class EnchantedBookMetadata extends Metadata {
         }
     }
 
+    /**
+     * Create a new EnchantedBookMetadata class with values read from ItemAPI's binary format.
+     * @param in The input from which the data will be read
+     */
+    public EnchantedBookMetadata(ItemDataInput in) {
+        super(in);
+
+        this.enchantments = new ArrayList<>();
+
+        for (int tag = in.readTag(); tag != 0; tag = in.readTag()) {
+            switch (ItemDataInput.getFieldNumber(tag)) {
+                case 1:
+                    this.enchantments = readEnchantments(in.readNested());
+                    break;
+                default:
+                    in.skipField(tag);
+            }
+        }
+    }
+
     /**
      * Get the enchantments associated with this enchanted book.
      * @return A mutable list containing all enchantments associated with the enchanted book
@@ -84,6 +110,7 @@ public class EnchantedBookMetadata extends Metadata {
      */
     public void addEnchantment(Enchantment enchantment) {
         enchantments.add(enchantment);
+        markModified();
     }
 
     /**
@@ -92,10 +119,9 @@ public class EnchantedBookMetadata extends Metadata {
      * @see dev.magicmq.itemapi.utils.Enchantment
      */
     public void removeEnchantment(String enchantment) {
-        org.bukkit.enchantments.Enchantment bukkitEnchantment = org.bukkit.enchantments.Enchantment.getByName(dev.magicmq.itemapi.utils.Enchantment.getByName(enchantment).getBukkitEnchantment());
-        if (bukkitEnchantment == null)
-            throw new EnchantmentNotFoundException("Enchantment " + enchantment + " not found! Please make sure this enchantment is supported for this MC version.");
+        org.bukkit.enchantments.Enchantment bukkitEnchantment = new Enchantment(enchantment).getBukkitEnchantment();
         enchantments.removeIf(toCheck -> toCheck.getBukkitEnchantment().equals(bukkitEnchantment));
+        markModified();
     }
 
     /**
@@ -105,28 +131,93 @@ public class EnchantedBookMetadata extends Metadata {
      */
     public void setEnchantments(List<Enchantment> enchantments) {
         this.enchantments = enchantments;
+        markModified();
+    }
+
+    /**
+     * Intern all the enchanted book metadata contained within this class as well as basic metadata in {@link Metadata Metadata} through a pool, and trim lists so that they have no spare capacity.
+     * <b>Warning:</b> This method is called automatically from {@link WrappedItem#compact(InternPool) compact} in the WrappedItem class!
+     * @param pool The pool through which values will be interned
+     */
+    @Override
+    public void compact(InternPool pool) {
+        super.compact(pool);
+
+        this.enchantments = pool.internAll(this.enchantments);
+    }
+
+    /**
+     * Feed all the enchanted book metadata contained within this class as well as basic metadata in {@link Metadata Metadata} into a hasher.
+     * <b>Warning:</b> This method is called automatically from {@link Metadata#contentHash() contentHash} in the Metadata class!
+     * @param hasher The hasher to which the metadata will be added
+     */
+    @Override
+    public void hashContent(ContentHasher hasher) {
+        super.hashContent(hasher);
+
+        hasher.putAll(this.enchantments);
     }
 
     /**
-     * Apply the enchanted book metadata as well as basic metadata in {@link Metadata Metadata} to an ItemStack.
+     * Check if all the enchanted book metadata contained within this class as well as basic metadata in {@link Metadata Metadata} is the same as in other metadata.
+     * <b>Warning:</b> This method is called automatically from {@link Metadata#equals(Object) equals} in the Metadata class!
+     * @param metadata The metadata to compare to, which is always a EnchantedBookMetadata
+     * @return True if the metadata is the same, false if otherwise
+     */
+    @Override
+    protected boolean contentEquals(Metadata metadata) {
+        if (!super.contentEquals(metadata))
+            return false;
+
+        EnchantedBookMetadata other = (EnchantedBookMetadata) metadata;
+        return ContentHasher.listEquals(this.enchantments, other.enchantments);
+    }
+
+    /**
+     * Resolve the stored enchantments of the enchanted book metadata as well as basic metadata in {@link Metadata Metadata}.
+     * <b>Warning:</b> This method is called automatically from {@link Metadata#resolve() resolve}!
+     * @param resolver The resolver through which names are resolved, and to which problems are reported
+     */
+    @Override
+    protected void resolveValues(Resolver resolver) {
+        super.resolveValues(resolver);
+
+        if (enchantments != null) {
+            for (Enchantment enchantment : enchantments)
+                resolver.resolve("book-enchantments", enchantment.getName(), name -> enchantment.getBukkitEnchantment());
+        }
+    }
+
+    /**
+     * Apply the enchanted book metadata as well as basic metadata in {@link Metadata Metadata} to an ItemMeta.
      * <b>Warning:</b> This method is called automatically from {@link WrappedItem#getAsItemStack() getAsItemStack} in the WrappedItem class!
-     * @param item The item to which the metadata will be applied
-     * @return The item, with metadata applied to it
+     * @param itemMeta The meta to which the metadata will be applied
      */
     @Override
-    public ItemStack applyMetadata(ItemStack item) {
-        item = super.applyMetadata(item);
+    public void applyMeta(ItemMeta itemMeta) {
+        super.applyMeta(itemMeta);
 
-        EnchantmentStorageMeta meta = (EnchantmentStorageMeta) item.getItemMeta();
+        EnchantmentStorageMeta meta = (EnchantmentStorageMeta) itemMeta;
         if (enchantments != null) {
             for (Enchantment enchantment : enchantments) {
                 org.bukkit.enchantments.Enchantment bukkitEnchantment = enchantment.getBukkitEnchantment();
                 meta.addEnchant(bukkitEnchantment, enchantment.getLevel(), true);
             }
         }
+    }
+
+    /**
+     * Write all the enchanted book metadata contained within this class as well as basic metadata in {@link Metadata Metadata} in ItemAPI's binary format.
+     * <b>Warning:</b> This method is called automatically from {@link WrappedItem#writeBinary(ItemDataOutput) writeBinary} in the WrappedItem class!
+     * @param out The output to which the data will be written
+     */
+    @Override
+    public void writeBinary(ItemDataOutput out) {
+        super.writeBinary(out);
 
-        item.setItemMeta(meta);
-        return item;
+        if (this.enchantments != null)
+            out.writeNestedField(1, enchantmentsOut -> writeEnchantments(enchantmentsOut, this.enchantments));
+        out.writeEnd();
     }
 
     /**
@@ -2,11 +2,17 @@ package dev.magicmq.itemapi.metadata;
 
 import dev.magicmq.itemapi.WrappedItem;
 import dev.magicmq.itemapi.config.WrappedConfigurationSection;
+import dev.magicmq.itemapi.serialization.ItemDataInput;
+import dev.magicmq.itemapi.serialization.ItemDataOutput;
 import dev.magicmq.itemapi.utils.Colors;
+import dev.magicmq.itemapi.utils.ContentHasher;
 import dev.magicmq.itemapi.utils.FireworkEffect;
+import dev.magicmq.itemapi.utils.InternPool;
+import dev.magicmq.itemapi.utils.Resolver;
 import org.bukkit.Color;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.FireworkMeta;
+import org.bukkit.inventory.meta.ItemMeta;
 
 import java.io.File;
 import java.util.ArrayList;
@@ -23,6 +29,8 @@ public class FireworkMetadata extends Metadata {
     private int power;
     private List<FireworkEffect> effects;
 
+    private transient List<org.bukkit.FireworkEffect> resolvedEffects;
+
     /**
      * Create a new FireworkMetadata class from scratch with default values.
      */
@@ -83,6 +91,29 @@ public class FireworkMetadata extends Metadata {
         }
     }
 
+    /**
+     * Create a new FireworkMetadata class with values read from ItemAPI's binary format.
+     * @param in The input from which the data will be read
+     */
+    public FireworkMetadata(ItemDataInput in) {
+        super(in);
+
+        this.effects = new ArrayList<>();
+
+        for (int tag = in.readTag(); tag != 0; tag = in.readTag()) {
+            switch (ItemDataInput.getFieldNumber(tag)) {
+                case 1:
+                    this.power = in.readSignedVarInt();
+                    break;
+                case 2:
+                    this.effects = in.readListField(FireworkEffect::readBinary);
+                    break;
+                default:
+                    in.skipField(tag);
+            }
+        }
+    }
+
     /**
      * Get the power of the firework.
      * @return The firework's power as an integer greater than zero
@@ -97,6 +128,7 @@ public class FireworkMetadata extends Metadata {
      */
     public void setPower(int power) {
         this.power = power;
+        markModified();
     }
 
     /**
@@ -115,43 +147,132 @@ public class FireworkMetadata extends Metadata {
      */
     public void addEffect(FireworkEffect effect) {
         effects.add(effect);
+        markModified();
     }
 
     /**
-     * Apply the firework metadata as well as basic metadata in {@link Metadata Metadata} to an ItemStack.
-     * <b>Warning:</b> This method is called automatically from {@link WrappedItem#getAsItemStack() getAsItemStack} in the WrappedItem class!
-     * @param item The item to which the metadata will be applied
-     * @return The item, with metadata applied to it
+     * Intern all the firework metadata contained within this class as well as basic metadata in {@link Metadata Metadata} through a pool, and trim lists so that they have no spare capacity.
+     * <b>Warning:</b> This method is called automatically from {@link WrappedItem#compact(InternPool) compact} in the WrappedItem class!
+     * @param pool The pool through which values will be interned
      */
     @Override
-    public ItemStack applyMetadata(ItemStack item) {
-        item = super.applyMetadata(item);
+    public void compact(InternPool pool) {
+        super.compact(pool);
 
-        FireworkMeta meta = (FireworkMeta) item.getItemMeta();
-        if (power > -1)
-            meta.setPower(power);
+        if (this.effects != null) {
+            List<FireworkEffect> effects = new ArrayList<>(this.effects.size());
+            for (FireworkEffect effect : this.effects)
+                effects.add(effect.compact(pool));
+            this.effects = effects;
+        }
+    }
+
+    /**
+     * Feed all the firework metadata contained within this class as well as basic metadata in {@link Metadata Metadata} into a hasher.
+     * <b>Warning:</b> This method is called automatically from {@link Metadata#contentHash() contentHash} in the Metadata class!
+     * @param hasher The hasher to which the metadata will be added
+     */
+    @Override
+    public void hashContent(ContentHasher hasher) {
+        super.hashContent(hasher);
+
+        hasher.putInt(this.power)
+                .putAll(this.effects);
+    }
+
+    /**
+     * Check if all the firework metadata contained within this class as well as basic metadata in {@link Metadata Metadata} is the same as in other metadata.
+     * <b>Warning:</b> This method is called automatically from {@link Metadata#equals(Object) equals} in the Metadata class!
+     * @param metadata The metadata to compare to, which is always a FireworkMetadata
+     * @return True if the metadata is the same, false if otherwise
+     */
+    @Override
+    protected boolean contentEquals(Metadata metadata) {
+        if (!super.contentEquals(metadata))
+            return false;
+
+        FireworkMetadata other = (FireworkMetadata) metadata;
+        return this.power == other.power
+                && ContentHasher.listEquals(this.effects, other.effects);
+    }
+
+    /**
+     * Resolve the effects of the firework metadata as well as basic metadata in {@link Metadata Metadata}.
+     * <b>Warning:</b> This method is called automatically from {@link Metadata#resolve() resolve}!
+     * @param resolver The resolver through which names are resolved, and to which problems are reported
+     */
+    @Override
+    protected void resolveValues(Resolver resolver) {
+        super.resolveValues(resolver);
+
+        List<org.bukkit.FireworkEffect> resolvedEffects = new ArrayList<>();
         if (effects != null) {
-            for (FireworkEffect effect : effects) {
-                org.bukkit.FireworkEffect.Builder toApply = org.bukkit.FireworkEffect.builder();
-                if (effect.getType() != null) {
-                    toApply.with(org.bukkit.FireworkEffect.Type.valueOf(effect.getType()));
-                }
-                if (effect.getColors() != null) {
-                    List<Color> colors = effect.getColors().stream().map(color -> Colors.valueOf(color).getBukkitColor()).collect(Collectors.toList());
-                    toApply.withColor(colors);
-                }
-                if (effect.getFadeColors() != null) {
-                    List<Color> fadeColors = effect.getFadeColors().stream().map(color -> Colors.valueOf(color).getBukkitColor()).collect(Collectors.toList());
-                    toApply.withFade(fadeColors);
-                }
-                toApply.flicker(effect.isFlicker());
-                toApply.trail(effect.isTrail());
-                meta.addEffect(toApply.build());
+            for (int i = 0; i < effects.size(); i++) {
+                org.bukkit.FireworkEffect effect = resolveEffect(resolver, "firework-effects." + i, effects.get(i));
+                if (effect != null)
+                    resolvedEffects.add(effect);
+            }
+        }
+        this.resolvedEffects = resolvedEffects;
+    }
+
+    static org.bukkit.FireworkEffect resolveEffect(Resolver resolver, String key, FireworkEffect effect) {
+        //Shared with FireworkStarMetadata, which stores a single effect in the same format
+        org.bukkit.FireworkEffect.Builder builder = org.bukkit.FireworkEffect.builder();
+        org.bukkit.FireworkEffect.Type type = resolver.resolveEnum(key + ".type", org.bukkit.FireworkEffect.Type.class, effect.getType());
+        if (type != null)
+            builder.with(type);
+        builder.withColor(resolveColors(resolver, key + ".colors", effect.getColors()));
+        builder.withFade(resolveColors(resolver, key + ".fade-colors", effect.getFadeColors()));
+        builder.flicker(effect.isFlicker());
+        builder.trail(effect.isTrail());
+        try {
+            return builder.build();
+        } catch (IllegalStateException | IllegalArgumentException e) {
+            resolver.report(key, e.getMessage());
+            return null;
+        }
+    }
+
+    private static List<Color> resolveColors(Resolver resolver, String key, List<String> colors) {
+        List<Color> resolved = new ArrayList<>();
+        if (colors != null) {
+            for (String color : colors) {
+                Colors resolvedColor = resolver.resolveEnum(key, Colors.class, color);
+                if (resolvedColor != null)
+                    resolved.add(resolvedColor.getBukkitColor());
             }
         }
+        return resolved;
+    }
+
+    /**
+     * Apply the firework metadata as well as basic metadata in {@link Metadata Metadata} to an ItemMeta.
+     * <b>Warning:</b> This method is called automatically from {@link WrappedItem#getAsItemStack() getAsItemStack} in the WrappedItem class!
+     * @param itemMeta The meta to which the metadata will be applied
+     */
+    @Override
+    public void applyMeta(ItemMeta itemMeta) {
+        super.applyMeta(itemMeta);
+
+        FireworkMeta meta = (FireworkMeta) itemMeta;
+        if (power > -1)
+            meta.setPower(power);
+        meta.addEffects(resolvedEffects);
+    }
+
+    /**
+     * Write all the firework metadata contained within this class as well as basic metadata in {@link Metadata Metadata} in ItemAPI's binary format.
+     * <b>Warning:</b> This method is called automatically from {@link WrappedItem#writeBinary(ItemDataOutput) writeBinary} in the WrappedItem class!
+     * @param out The output to which the data will be written
+     */
+    @Override
+    public void writeBinary(ItemDataOutput out) {
+        super.writeBinary(out);
 
-        item.setItemMeta(meta);
-        return item;
+        out.writeIntField(1, this.power);
+        out.writeListField(2, this.effects, FireworkEffect::writeBinary);
+        out.writeEnd();
     }
 
     /**
@@ -181,6 +302,7 @@ public class FireworkMetadata extends Metadata {
                         effectSection.set("flicker", true);
                     if (effect.isTrail())
                         effectSection.set("trail", true);
+                    i++;
                 }
             }
         }
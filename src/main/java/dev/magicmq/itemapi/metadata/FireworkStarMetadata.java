@@ -2,14 +2,19 @@ package dev.magicmq.itemapi.metadata;
 
 import dev.magicmq.itemapi.WrappedItem;
 import dev.magicmq.itemapi.config.WrappedConfigurationSection;
+import dev.magicmq.itemapi.serialization.ItemDataInput;
+import dev.magicmq.itemapi.serialization.ItemDataOutput;
 import dev.magicmq.itemapi.utils.Colors;
+import dev.magicmq.itemapi.utils.ContentHasher;
 import dev.magicmq.itemapi.utils.FireworkEffect;
-import org.bukkit.Color;
+import dev.magicmq.itemapi.utils.InternPool;
+import dev.magicmq.itemapi.utils.Resolver;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.FireworkEffectMeta;
+import org.bukkit.inventory.meta.ItemMeta;
 
 import java.io.File;
-import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 /**
@@ -21,6 +26,8 @@ public class FireworkStarMetadata extends Metadata {
 
     private FireworkEffect effect;
 
+    private transient org.bukkit.FireworkEffect resolvedEffect;
+
     /**
      * Create a new FireworkStarMetadata class from scratch with default values.
      */
@@ -68,6 +75,26 @@ public class FireworkStarMetadata extends Metadata {
             this.effect = new FireworkEffect(null, null, null, false, false);
     }
 
+    /**
+     * Create a new FireworkStarMetadata class with values read from ItemAPI's binary format.
+     * @param in The input from which the data will be read
+     */
+    public FireworkStarMetadata(ItemDataInput in) {
+        super(in);
+
+        this.effect = null;
+
+        for (int tag = in.readTag(); tag != 0; tag = in.readTag()) {
+            switch (ItemDataInput.getFieldNumber(tag)) {
+                case 1:
+                    this.effect = FireworkEffect.readBinary(in.readNested());
+                    break;
+                default:
+                    in.skipField(tag);
+            }
+        }
+    }
+
     /**
      * Get the {@link FireworkEffect FireworkEffect} associated with this firework star.
      * @return The associated FireworkEffect
@@ -84,37 +111,87 @@ public class FireworkStarMetadata extends Metadata {
      */
     public void setEffect(FireworkEffect effect) {
         this.effect = effect;
+        markModified();
+    }
+
+    /**
+     * Intern all the firework star metadata contained within this class as well as basic metadata in {@link Metadata Metadata} through a pool, and trim lists so that they have no spare capacity.
+     * <b>Warning:</b> This method is called automatically from {@link WrappedItem#compact(InternPool) compact} in the WrappedItem class!
+     * @param pool The pool through which values will be interned
+     */
+    @Override
+    public void compact(InternPool pool) {
+        super.compact(pool);
+
+        if (this.effect != null)
+            this.effect = this.effect.compact(pool);
+    }
+
+    /**
+     * Feed all the firework star metadata contained within this class as well as basic metadata in {@link Metadata Metadata} into a hasher.
+     * <b>Warning:</b> This method is called automatically from {@link Metadata#contentHash() contentHash} in the Metadata class!
+     * @param hasher The hasher to which the metadata will be added
+     */
+    @Override
+    public void hashContent(ContentHasher hasher) {
+        super.hashContent(hasher);
+
+        hasher.put(this.effect);
     }
 
     /**
-     * Apply the firework star metadata as well as basic metadata in {@link Metadata Metadata} to an ItemStack.
+     * Check if all the firework star metadata contained within this class as well as basic metadata in {@link Metadata Metadata} is the same as in other metadata.
+     * <b>Warning:</b> This method is called automatically from {@link Metadata#equals(Object) equals} in the Metadata class!
+     * @param metadata The metadata to compare to, which is always a FireworkStarMetadata
+     * @return True if the metadata is the same, false if otherwise
+     */
+    @Override
+    protected boolean contentEquals(Metadata metadata) {
+        if (!super.contentEquals(metadata))
+            return false;
+
+        FireworkStarMetadata other = (FireworkStarMetadata) metadata;
+        return Objects.equals(this.effect, other.effect);
+    }
+
+    /**
+     * Resolve the effect of the firework star metadata as well as basic metadata in {@link Metadata Metadata}.
+     * <b>Warning:</b> This method is called automatically from {@link Metadata#resolve() resolve}!
+     * @param resolver The resolver through which names are resolved, and to which problems are reported
+     */
+    @Override
+    protected void resolveValues(Resolver resolver) {
+        super.resolveValues(resolver);
+
+        this.resolvedEffect = effect != null ? FireworkMetadata.resolveEffect(resolver, "firework-effect", effect) : null;
+    }
+
+    /**
+     * Apply the firework star metadata as well as basic metadata in {@link Metadata Metadata} to an ItemMeta.
      * <b>Warning:</b> This method is called automatically from {@link WrappedItem#getAsItemStack() getAsItemStack} in the WrappedItem class!
-     * @param item The item to which the metadata will be applied
-     * @return The item, with metadata applied to it
+     * @param itemMeta The meta to which the metadata will be applied
      */
     @Override
-    public ItemStack applyMetadata(ItemStack item) {
-        item = super.applyMetadata(item);
+    public void applyMeta(ItemMeta itemMeta) {
+        super.applyMeta(itemMeta);
 
-        FireworkEffectMeta meta = (FireworkEffectMeta) item.getItemMeta();
-        org.bukkit.FireworkEffect.Builder toApply = org.bukkit.FireworkEffect.builder();
-        if (effect.getType() != null) {
-            toApply.with(org.bukkit.FireworkEffect.Type.valueOf(effect.getType()));
-        }
-        if (effect.getColors() != null) {
-            List<Color> colors = effect.getColors().stream().map(color -> Colors.valueOf(color).getBukkitColor()).collect(Collectors.toList());
-            toApply.withColor(colors);
-        }
-        if (effect.getFadeColors() != null) {
-            List<Color> fadeColors = effect.getFadeColors().stream().map(color -> Colors.valueOf(color).getBukkitColor()).collect(Collectors.toList());
-            toApply.withFade(fadeColors);
-        }
-        toApply.flicker(effect.isFlicker());
-        toApply.trail(effect.isTrail());
-        meta.setEffect(toApply.build());
+        FireworkEffectMeta meta = (FireworkEffectMeta) itemMeta;
+        if (resolvedEffect != null)
+            meta.setEffect(resolvedEffect);
+    }
+
+    /**
+     * Write all the firework star metadata contained within this class as well as basic metadata in {@link Metadata Metadata} in ItemAPI's binary format.
+     * <b>Warning:</b> This method is called automatically from {@link WrappedItem#writeBinary(ItemDataOutput) writeBinary} in the WrappedItem class!
+     * @param out The output to which the data will be written
+     */
+    @Override
+    public void writeBinary(ItemDataOutput out) {
+        super.writeBinary(out);
 
-        item.setItemMeta(meta);
-        return item;
+        if (this.effect != null)
+            out.writeNestedField(1, this.effect::writeBinary);
+        out.writeEnd();
     }
 
     /**
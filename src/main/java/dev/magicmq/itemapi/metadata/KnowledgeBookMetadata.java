@@ -2,8 +2,14 @@ package dev.magicmq.itemapi.metadata;
 
 import dev.magicmq.itemapi.WrappedItem;
 import dev.magicmq.itemapi.config.WrappedConfigurationSection;
+import dev.magicmq.itemapi.serialization.ItemDataInput;
+import dev.magicmq.itemapi.serialization.ItemDataOutput;
+import dev.magicmq.itemapi.utils.ContentHasher;
+import dev.magicmq.itemapi.utils.InternPool;
+import dev.magicmq.itemapi.utils.Resolver;
 import org.bukkit.NamespacedKey;
 import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.inventory.meta.KnowledgeBookMeta;
 
 import java.io.File;
@@ -20,6 +26,8 @@ public class KnowledgeBookMetadata extends Metadata {
 
     private List<String> recipes;
 
+    private transient List<NamespacedKey> resolvedRecipes;
+
     /**
      * Create a new KnowledgeBookMetadata class from scratch with default values.
      */
@@ -55,6 +63,26 @@ public class KnowledgeBookMetadata extends Metadata {
         }
     }
 
+    /**
+     * Create a new KnowledgeBookMetadata class with values read from ItemAPI's binary format.
+     * @param in The input from which the data will be read
+     */
+    public KnowledgeBookMetadata(ItemDataInput in) {
+        super(in);
+
+        this.recipes = new ArrayList<>();
+
+        for (int tag = in.readTag(); tag != 0; tag = in.readTag()) {
+            switch (ItemDataInput.getFieldNumber(tag)) {
+                case 1:
+                    this.recipes = in.readStringListField();
+                    break;
+                default:
+                    in.skipField(tag);
+            }
+        }
+    }
+
     /**
      * Get a list of recipes present in this metadata.
      * @return A mutable list containing all recipes associated with this metadata
@@ -69,6 +97,7 @@ public class KnowledgeBookMetadata extends Metadata {
      */
     public void addRecipe(String recipe) {
         recipes.add(recipe);
+        markModified();
     }
 
     /**
@@ -77,25 +106,94 @@ public class KnowledgeBookMetadata extends Metadata {
      */
     public void setRecipes(List<String> recipes) {
         this.recipes = recipes;
+        markModified();
+    }
+
+    /**
+     * Intern all the knowledge book metadata contained within this class as well as basic metadata in {@link Metadata Metadata} through a pool, and trim lists so that they have no spare capacity.
+     * <b>Warning:</b> This method is called automatically from {@link WrappedItem#compact(InternPool) compact} in the WrappedItem class!
+     * @param pool The pool through which values will be interned
+     */
+    @Override
+    public void compact(InternPool pool) {
+        super.compact(pool);
+
+        this.recipes = pool.internAll(this.recipes);
+    }
+
+    /**
+     * Feed all the knowledge book metadata contained within this class as well as basic metadata in {@link Metadata Metadata} into a hasher.
+     * <b>Warning:</b> This method is called automatically from {@link Metadata#contentHash() contentHash} in the Metadata class!
+     * @param hasher The hasher to which the metadata will be added
+     */
+    @Override
+    public void hashContent(ContentHasher hasher) {
+        super.hashContent(hasher);
+
+        hasher.putStrings(this.recipes);
     }
 
     /**
-     * Apply the knowledge book metadata as well as basic metadata in {@link Metadata Metadata} to an ItemStack.
+     * Check if all the knowledge book metadata contained within this class as well as basic metadata in {@link Metadata Metadata} is the same as in other metadata.
+     * <b>Warning:</b> This method is called automatically from {@link Metadata#equals(Object) equals} in the Metadata class!
+     * @param metadata The metadata to compare to, which is always a KnowledgeBookMetadata
+     * @return True if the metadata is the same, false if otherwise
+     */
+    @Override
+    protected boolean contentEquals(Metadata metadata) {
+        if (!super.contentEquals(metadata))
+            return false;
+
+        KnowledgeBookMetadata other = (KnowledgeBookMetadata) metadata;
+        return ContentHasher.listEquals(this.recipes, other.recipes);
+    }
+
+    /**
+     * Resolve the recipes of the knowledge book metadata as well as basic metadata in {@link Metadata Metadata}.
+     * <b>Warning:</b> This method is called automatically from {@link Metadata#resolve() resolve}!
+     * @param resolver The resolver through which names are resolved, and to which problems are reported
+     */
+    @Override
+    protected void resolveValues(Resolver resolver) {
+        super.resolveValues(resolver);
+
+        List<NamespacedKey> resolvedRecipes = new ArrayList<>();
+        if (recipes != null) {
+            for (String recipe : recipes) {
+                NamespacedKey key = resolver.resolve("recipes", recipe, NamespacedKey::fromString);
+                if (key != null)
+                    resolvedRecipes.add(key);
+            }
+        }
+        this.resolvedRecipes = resolvedRecipes;
+    }
+
+    /**
+     * Apply the knowledge book metadata as well as basic metadata in {@link Metadata Metadata} to an ItemMeta.
      * <b>Warning:</b> This method is called automatically from {@link WrappedItem#getAsItemStack() getAsItemStack} in the WrappedItem class!
-     * @param item The item to which the metadata will be applied
-     * @return The item, with metadata applied to it
+     * @param itemMeta The meta to which the metadata will be applied
      */
     @Override
-    public ItemStack applyMetadata(ItemStack item) {
-        item = super.applyMetadata(item);
+    public void applyMeta(ItemMeta itemMeta) {
+        super.applyMeta(itemMeta);
 
-        KnowledgeBookMeta meta = (KnowledgeBookMeta) item.getItemMeta();
+        KnowledgeBookMeta meta = (KnowledgeBookMeta) itemMeta;
         if (recipes != null) {
-            meta.setRecipes(recipes.stream().map(NamespacedKey::fromString).collect(Collectors.toList()));
+            meta.setRecipes(resolvedRecipes);
         }
+    }
+
+    /**
+     * Write all the knowledge book metadata contained within this class as well as basic metadata in {@link Metadata Metadata} in ItemAPI's binary format.
+     * <b>Warning:</b> This method is called automatically from {@link WrappedItem#writeBinary(ItemDataOutput) writeBinary} in the WrappedItem class!
+     * @param out The output to which the data will be written
+     */
+    @Override
+    public void writeBinary(ItemDataOutput out) {
+        super.writeBinary(out);
 
-        item.setItemMeta(meta);
-        return item;
+        out.writeStringListField(1, this.recipes);
+        out.writeEnd();
     }
 
     /**
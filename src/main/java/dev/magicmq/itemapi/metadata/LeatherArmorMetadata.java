@@ -2,13 +2,20 @@ package dev.magicmq.itemapi.metadata;
 
 import dev.magicmq.itemapi.WrappedItem;
 import dev.magicmq.itemapi.config.WrappedConfigurationSection;
+import dev.magicmq.itemapi.serialization.ItemDataInput;
+import dev.magicmq.itemapi.serialization.ItemDataOutput;
 import dev.magicmq.itemapi.utils.Colors;
+import dev.magicmq.itemapi.utils.ContentHasher;
+import dev.magicmq.itemapi.utils.InternPool;
+import dev.magicmq.itemapi.utils.Resolver;
 import org.bukkit.Color;
 import org.bukkit.DyeColor;
 import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.inventory.meta.LeatherArmorMeta;
 
 import java.io.File;
+import java.util.Objects;
 
 /**
  * Wrapper class that contians all Metadata associated with Leather Armor.
@@ -19,6 +26,8 @@ public class LeatherArmorMetadata extends Metadata {
 
     private String color;
 
+    private transient Color resolvedColor;
+
     /**
      * Create a new LeatherArmorMetadata class from scratch with default values.
      */
@@ -52,6 +61,26 @@ public class LeatherArmorMetadata extends Metadata {
             this.color = null;
     }
 
+    /**
+     * Create a new LeatherArmorMetadata class with values read from ItemAPI's binary format.
+     * @param in The input from which the data will be read
+     */
+    public LeatherArmorMetadata(ItemDataInput in) {
+        super(in);
+
+        this.color = null;
+
+        for (int tag = in.readTag(); tag != 0; tag = in.readTag()) {
+            switch (ItemDataInput.getFieldNumber(tag)) {
+                case 1:
+                    this.color = in.readString();
+                    break;
+                default:
+                    in.skipField(tag);
+            }
+        }
+    }
+
     /**
      * Get the color of the leather armor.
      * @return The color, either as a enum value of as a comma-separated RGB string
@@ -66,36 +95,103 @@ public class LeatherArmorMetadata extends Metadata {
      */
     public void setColor(String color) {
         this.color = color;
+        markModified();
     }
 
     /**
-     * Apply the leather armor metadata as well as basic metadata in {@link Metadata Metadata} to an ItemStack.
-     * <b>Warning:</b> This method is called automatically from {@link WrappedItem#getAsItemStack() getAsItemStack} in the WrappedItem class!
-     * @param item The item to which the metadata will be applied
-     * @return The item, with metadata applied to it
+     * Intern all the leather armor metadata contained within this class as well as basic metadata in {@link Metadata Metadata} through a pool, and trim lists so that they have no spare capacity.
+     * <b>Warning:</b> This method is called automatically from {@link WrappedItem#compact(InternPool) compact} in the WrappedItem class!
+     * @param pool The pool through which values will be interned
      */
     @Override
-    public ItemStack applyMetadata(ItemStack item) {
-        item = super.applyMetadata(item);
+    public void compact(InternPool pool) {
+        super.compact(pool);
 
-        LeatherArmorMeta meta = (LeatherArmorMeta) item.getItemMeta();
-        if (color != null) {
+        this.color = pool.intern(this.color);
+    }
+
+    /**
+     * Feed all the leather armor metadata contained within this class as well as basic metadata in {@link Metadata Metadata} into a hasher.
+     * <b>Warning:</b> This method is called automatically from {@link Metadata#contentHash() contentHash} in the Metadata class!
+     * @param hasher The hasher to which the metadata will be added
+     */
+    @Override
+    public void hashContent(ContentHasher hasher) {
+        super.hashContent(hasher);
+
+        hasher.putString(this.color);
+    }
+
+    /**
+     * Check if all the leather armor metadata contained within this class as well as basic metadata in {@link Metadata Metadata} is the same as in other metadata.
+     * <b>Warning:</b> This method is called automatically from {@link Metadata#equals(Object) equals} in the Metadata class!
+     * @param metadata The metadata to compare to, which is always a LeatherArmorMetadata
+     * @return True if the metadata is the same, false if otherwise
+     */
+    @Override
+    protected boolean contentEquals(Metadata metadata) {
+        if (!super.contentEquals(metadata))
+            return false;
+
+        LeatherArmorMetadata other = (LeatherArmorMetadata) metadata;
+        return Objects.equals(this.color, other.color);
+    }
+
+    /**
+     * Resolve the color of the leather armor metadata as well as basic metadata in {@link Metadata Metadata}.
+     * <b>Warning:</b> This method is called automatically from {@link Metadata#resolve() resolve}!
+     * @param resolver The resolver through which names are resolved, and to which problems are reported
+     */
+    @Override
+    protected void resolveValues(Resolver resolver) {
+        super.resolveValues(resolver);
+
+        this.resolvedColor = resolver.resolve("armor-color", color, LeatherArmorMetadata::parseColor);
+    }
+
+    private static Color parseColor(String color) {
+        //A color can be a dye color, one of ItemAPI's color names, or an RGB value such as 255,0,0
+        try {
+            return DyeColor.valueOf(color).getColor();
+        } catch (IllegalArgumentException ignored) {
             try {
-                DyeColor color = DyeColor.valueOf(this.color);
-                meta.setColor(color.getColor());
-            } catch (IllegalArgumentException ignored) {
+                return Colors.valueOf(color).getBukkitColor();
+            } catch (IllegalArgumentException ignored2) {
                 try {
-                    Colors color = Colors.valueOf(this.color);
-                    meta.setColor(color.getBukkitColor());
-                } catch (IllegalArgumentException ignored2) {
                     String[] split = color.split(",");
-                    meta.setColor(Color.fromRGB(Integer.parseInt(split[0]), Integer.parseInt(split[1]), Integer.parseInt(split[2])));
+                    return Color.fromRGB(Integer.parseInt(split[0].trim()), Integer.parseInt(split[1].trim()), Integer.parseInt(split[2].trim()));
+                } catch (RuntimeException e) {
+                    throw new IllegalArgumentException("Unknown color " + color + "! Use a dye color, a color name or an RGB value such as 255,0,0.");
                 }
             }
         }
+    }
+
+    /**
+     * Apply the leather armor metadata as well as basic metadata in {@link Metadata Metadata} to an ItemMeta.
+     * <b>Warning:</b> This method is called automatically from {@link WrappedItem#getAsItemStack() getAsItemStack} in the WrappedItem class!
+     * @param itemMeta The meta to which the metadata will be applied
+     */
+    @Override
+    public void applyMeta(ItemMeta itemMeta) {
+        super.applyMeta(itemMeta);
+
+        LeatherArmorMeta meta = (LeatherArmorMeta) itemMeta;
+        if (resolvedColor != null)
+            meta.setColor(resolvedColor);
+    }
+
+    /**
+     * Write all the leather armor metadata contained within this class as well as basic metadata in {@link Metadata Metadata} in ItemAPI's binary format.
+     * <b>Warning:</b> This method is called automatically from {@link WrappedItem#writeBinary(ItemDataOutput) writeBinary} in the WrappedItem class!
+     * @param out The output to which the data will be written
+     */
+    @Override
+    public void writeBinary(ItemDataOutput out) {
+        super.writeBinary(out);
 
-        item.setItemMeta(meta);
-        return item;
+        out.writeStringField(1, this.color);
+        out.writeEnd();
     }
 
     /**
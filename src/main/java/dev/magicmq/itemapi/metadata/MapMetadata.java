@@ -2,15 +2,22 @@ package dev.magicmq.itemapi.metadata;
 
 import dev.magicmq.itemapi.WrappedItem;
 import dev.magicmq.itemapi.config.WrappedConfigurationSection;
+import dev.magicmq.itemapi.serialization.ItemDataInput;
+import dev.magicmq.itemapi.serialization.ItemDataOutput;
 import dev.magicmq.itemapi.utils.Colors;
+import dev.magicmq.itemapi.utils.ContentHasher;
+import dev.magicmq.itemapi.utils.InternPool;
+import dev.magicmq.itemapi.utils.Resolver;
 import dev.magicmq.itemapi.utils.exception.MapNotFoundException;
 import org.bukkit.Bukkit;
 import org.bukkit.Color;
 import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.inventory.meta.MapMeta;
 import org.bukkit.map.MapView;
 
 import java.io.File;
+import java.util.Objects;
 
 /**
  * Wrapper class that contians all Metadata associated with Maps.
@@ -23,6 +30,7 @@ public class MapMetadata extends Metadata {
     private MapMetaType type;
 
     private String color;
+    private transient Color resolvedColor;
     private boolean scaling;
     private int mapId;
 
@@ -43,6 +51,7 @@ public class MapMetadata extends Metadata {
     public MapMetadata() {
         super();
 
+        this.type = MapMetaType.LEGACY;
         this.color = null;
         this.scaling = false;
         this.mapId = -1;
@@ -93,6 +102,7 @@ public class MapMetadata extends Metadata {
     public MapMetadata(ItemStack item) {
         super(item);
 
+        this.type = MapMetaType.LEGACY;
         MapMeta meta = (MapMeta) item.getItemMeta();
         if (meta != null) {
             if (meta.getColor() != null)
@@ -108,6 +118,34 @@ public class MapMetadata extends Metadata {
         }
     }
 
+    /**
+     * Create a new MapMetadata class with values read from ItemAPI's binary format.
+     * @param in The input from which the data will be read
+     */
+    public MapMetadata(ItemDataInput in) {
+        super(in);
+
+        this.type = MapMetaType.LEGACY;
+        this.color = null;
+        this.scaling = false;
+
+        for (int tag = in.readTag(); tag != 0; tag = in.readTag()) {
+            switch (ItemDataInput.getFieldNumber(tag)) {
+                case 1:
+                    this.color = in.readString();
+                    break;
+                case 2:
+                    this.scaling = in.readBoolean();
+                    break;
+                case 3:
+                    this.mapId = in.readSignedVarInt();
+                    break;
+                default:
+                    in.skipField(tag);
+            }
+        }
+    }
+
     /**
      * Get the color of the map.
      * @return The color of the map, either as an enum of {@link Colors} or as a comma-separated RGB string
@@ -122,6 +160,7 @@ public class MapMetadata extends Metadata {
      */
     public void setColor(String color) {
         this.color = color;
+        markModified();
     }
 
     /**
@@ -138,6 +177,7 @@ public class MapMetadata extends Metadata {
      */
     public void setScaling(boolean scaling) {
         this.scaling = scaling;
+        markModified();
     }
 
     /**
@@ -154,30 +194,94 @@ public class MapMetadata extends Metadata {
      */
     public void setMapId(int mapId) {
         this.mapId = mapId;
+        markModified();
+    }
+
+    /**
+     * Intern all the map metadata contained within this class as well as basic metadata in {@link Metadata Metadata} through a pool, and trim lists so that they have no spare capacity.
+     * <b>Warning:</b> This method is called automatically from {@link WrappedItem#compact(InternPool) compact} in the WrappedItem class!
+     * @param pool The pool through which values will be interned
+     */
+    @Override
+    public void compact(InternPool pool) {
+        super.compact(pool);
+
+        this.color = pool.intern(this.color);
     }
 
     /**
-     * Apply the map metadata as well as basic metadata in {@link Metadata Metadata} to an ItemStack.
+     * Feed all the map metadata contained within this class as well as basic metadata in {@link Metadata Metadata} into a hasher.
+     * <b>Warning:</b> This method is called automatically from {@link Metadata#contentHash() contentHash} in the Metadata class!
+     * @param hasher The hasher to which the metadata will be added
+     */
+    @Override
+    public void hashContent(ContentHasher hasher) {
+        super.hashContent(hasher);
+
+        hasher.putString(this.type == null ? null : this.type.name())
+                .putString(this.color)
+                .putBoolean(this.scaling)
+                .putInt(this.mapId);
+    }
+
+    /**
+     * Check if all the map metadata contained within this class as well as basic metadata in {@link Metadata Metadata} is the same as in other metadata.
+     * <b>Warning:</b> This method is called automatically from {@link Metadata#equals(Object) equals} in the Metadata class!
+     * @param metadata The metadata to compare to, which is always a MapMetadata
+     * @return True if the metadata is the same, false if otherwise
+     */
+    @Override
+    protected boolean contentEquals(Metadata metadata) {
+        if (!super.contentEquals(metadata))
+            return false;
+
+        MapMetadata other = (MapMetadata) metadata;
+        return this.type == other.type
+                && Objects.equals(this.color, other.color)
+                && this.scaling == other.scaling
+                && this.mapId == other.mapId;
+    }
+
+    /**
+     * Resolve the color of the map metadata as well as basic metadata in {@link Metadata Metadata}.
+     * <b>Warning:</b> This method is called automatically from {@link Metadata#resolve() resolve}!
+     * @param resolver The resolver through which names are resolved, and to which problems are reported
+     */
+    @Override
+    protected void resolveValues(Resolver resolver) {
+        super.resolveValues(resolver);
+
+        this.resolvedColor = type == MapMetaType.LEGACY ? resolver.resolve("map-data.color", color, MapMetadata::parseColor) : null;
+    }
+
+    private static Color parseColor(String color) {
+        //A color can be one of ItemAPI's color names, or an RGB value such as 255,0,0
+        try {
+            return Colors.valueOf(color).getBukkitColor();
+        } catch (IllegalArgumentException ignored) {
+            try {
+                String[] split = color.split(",");
+                return Color.fromRGB(Integer.parseInt(split[0].trim()), Integer.parseInt(split[1].trim()), Integer.parseInt(split[2].trim()));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Unknown color " + color + "! Use a color name or an RGB value such as 255,0,0.");
+            }
+        }
+    }
+
+    /**
+     * Apply the map metadata as well as basic metadata in {@link Metadata Metadata} to an ItemMeta.
      * <b>Warning:</b> This method is called automatically from {@link WrappedItem#getAsItemStack() getAsItemStack} in the WrappedItem class!
-     * @param item The item to which the metadata will be applied
-     * @return The item, with metadata applied to it
+     * @param itemMeta The meta to which the metadata will be applied
      * @throws MapNotFoundException If the map ID was not found
      */
     @Override
-    public ItemStack applyMetadata(ItemStack item) {
-        item = super.applyMetadata(item);
+    public void applyMeta(ItemMeta itemMeta) {
+        super.applyMeta(itemMeta);
 
-        MapMeta meta = (MapMeta) item.getItemMeta();
+        MapMeta meta = (MapMeta) itemMeta;
         if (type == MapMetaType.LEGACY) {
-            if (color != null) {
-                try {
-                    Colors color = Colors.valueOf(this.color);
-                    meta.setColor(color.getBukkitColor());
-                } catch (IllegalArgumentException ignored) {
-                    String[] split = color.split(",");
-                    meta.setColor(Color.fromRGB(Integer.parseInt(split[0]), Integer.parseInt(split[1]), Integer.parseInt(split[2])));
-                }
-            }
+            if (resolvedColor != null)
+                meta.setColor(resolvedColor);
             meta.setScaling(scaling);
             if (mapId > -1) {
                 MapView view = Bukkit.getMap(mapId);
@@ -225,9 +329,21 @@ public class MapMetadata extends Metadata {
 
             meta.setMapView(view);
         }*/
+    }
+
+    /**
+     * Write all the map metadata contained within this class as well as basic metadata in {@link Metadata Metadata} in ItemAPI's binary format.
+     * <b>Warning:</b> This method is called automatically from {@link WrappedItem#writeBinary(ItemDataOutput) writeBinary} in the WrappedItem class!
+     * @param out The output to which the data will be written
+     */
+    @Override
+    public void writeBinary(ItemDataOutput out) {
+        super.writeBinary(out);
 
-        item.setItemMeta(meta);
-        return item;
+        out.writeStringField(1, this.color);
+        out.writeBooleanField(2, this.scaling);
+        out.writeIntField(3, this.mapId);
+        out.writeEnd();
     }
 
     /**
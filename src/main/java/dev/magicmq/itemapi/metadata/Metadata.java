@@ -1,10 +1,24 @@
 package dev.magicmq.itemapi.metadata;
 
+import de.tr7zw.changeme.nbtapi.NBTCompound;
+import de.tr7zw.changeme.nbtapi.NBTItem;
 import dev.magicmq.itemapi.WrappedItem;
 import dev.magicmq.itemapi.config.WrappedConfigurationSection;
+import dev.magicmq.itemapi.metrics.CacheType;
+import dev.magicmq.itemapi.metrics.Metrics;
+import dev.magicmq.itemapi.metrics.Stage;
+import dev.magicmq.itemapi.serialization.ItemDataInput;
+import dev.magicmq.itemapi.serialization.ItemDataOutput;
+import dev.magicmq.itemapi.text.FormattedText;
+import dev.magicmq.itemapi.utils.Capabilities;
+import dev.magicmq.itemapi.utils.ContentHashable;
+import dev.magicmq.itemapi.utils.ContentHasher;
+import dev.magicmq.itemapi.utils.InternPool;
 import dev.magicmq.itemapi.utils.MCVersion;
+import dev.magicmq.itemapi.utils.Resolver;
+import dev.magicmq.itemapi.utils.Revision;
 import dev.magicmq.itemapi.utils.exception.EnchantmentNotFoundException;
-import org.bukkit.ChatColor;
+import dev.magicmq.itemapi.utils.exception.ItemValidationException;
 import org.bukkit.enchantments.Enchantment;
 import org.bukkit.inventory.ItemFlag;
 import org.bukkit.inventory.ItemStack;
@@ -15,12 +29,13 @@ import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 /**
  * Wrapper class that contians all basic metadata such as name and lore for most items.
  */
-public class Metadata implements Serializable {
+public class Metadata implements Serializable, ContentHashable {
 
     private static final long serialVersionUID = 4593997172606851959L;
 
@@ -31,6 +46,11 @@ public class Metadata implements Serializable {
     private List<Enchantment> enchantments;
     private Integer model;
 
+    private transient long revision;
+    private transient volatile ContentHasher.Cached contentHash;
+    private transient volatile Long resolvedRevision;
+    private transient ItemFlag[] resolvedFlags;
+
     /**
      * Create a new Metadata class from scratch with default values.
      */
@@ -70,17 +90,18 @@ public class Metadata implements Serializable {
             this.lore = meta.getLore();
             this.unbreakable = meta.isUnbreakable();
             this.flags = meta.getItemFlags().stream().map(ItemFlag::name).collect(Collectors.toList());
+            Capabilities capabilities = MCVersion.getCapabilities();
             if (meta.hasEnchants()) {
                 this.enchantments = new ArrayList<>();
                 for (Map.Entry<org.bukkit.enchantments.Enchantment, Integer> entry : meta.getEnchants().entrySet()) {
-                    if (MCVersion.isCurrentVersionAtLeast(MCVersion.v1_13_R1))
+                    if (capabilities.hasNamespacedEnchantments())
                         enchantments.add(new Enchantment(entry.getKey().getKey().getKey(), entry.getValue()));
                     else
                         enchantments.add(new Enchantment(entry.getKey().getName(), entry.getValue()));
                 }
             } else
                 this.enchantments = null;
-            if (MCVersion.isCurrentVersionAtLeast(MCVersion.v1_14_R1)) {
+            if (capabilities.hasCustomModelData()) {
                 if (meta.hasCustomModelData()) {
                     this.model = meta.getCustomModelData();
                 } else
@@ -97,6 +118,39 @@ public class Metadata implements Serializable {
         }
     }
 
+    /**
+     * Create a new Metadata class with values read from ItemAPI's binary format.
+     * @param in The input from which the data will be read
+     */
+    public Metadata(ItemDataInput in) {
+        this();
+
+        for (int tag = in.readTag(); tag != 0; tag = in.readTag()) {
+            switch (ItemDataInput.getFieldNumber(tag)) {
+                case 1:
+                    this.name = in.readString();
+                    break;
+                case 2:
+                    this.lore = in.readStringListField();
+                    break;
+                case 3:
+                    this.unbreakable = in.readBoolean();
+                    break;
+                case 4:
+                    this.flags = in.readStringListField();
+                    break;
+                case 5:
+                    this.enchantments = readEnchantments(in.readNested());
+                    break;
+                case 6:
+                    this.model = in.readSignedVarInt();
+                    break;
+                default:
+                    in.skipField(tag);
+            }
+        }
+    }
+
     /**
      * Get the display name of the item.
      * @return The display name that is set
@@ -111,6 +165,7 @@ public class Metadata implements Serializable {
      */
     public void setName(String name) {
         this.name = name;
+        markModified();
     }
 
     /**
@@ -127,6 +182,7 @@ public class Metadata implements Serializable {
      */
     public void setLore(List<String> lore) {
         this.lore = lore;
+        markModified();
     }
 
     /**
@@ -143,6 +199,7 @@ public class Metadata implements Serializable {
      */
     public void setUnbreakable(boolean unbreakable) {
         this.unbreakable = unbreakable;
+        markModified();
     }
 
     /**
@@ -159,6 +216,7 @@ public class Metadata implements Serializable {
      */
     public void addItemFlag(String flag) {
         flags.add(flag);
+        markModified();
     }
 
     /**
@@ -167,6 +225,7 @@ public class Metadata implements Serializable {
      */
     public void setFlags(List<String> flags) {
         this.flags = flags;
+        markModified();
     }
 
     /**
@@ -185,6 +244,7 @@ public class Metadata implements Serializable {
      */
     public void addEnchantment(Enchantment enchantment) {
         enchantments.add(enchantment);
+        markModified();
     }
 
     /**
@@ -193,10 +253,9 @@ public class Metadata implements Serializable {
      * @see dev.magicmq.itemapi.utils.Enchantment
      */
     public void removeEnchantment(String enchantment) {
-        org.bukkit.enchantments.Enchantment bukkitEnchantment = org.bukkit.enchantments.Enchantment.getByName(dev.magicmq.itemapi.utils.Enchantment.getByName(enchantment).getBukkitEnchantment());
-        if (bukkitEnchantment == null)
-            throw new EnchantmentNotFoundException("Enchantment " + enchantment + " not found! Please make sure this enchantment is supported for this MC version.");
+        org.bukkit.enchantments.Enchantment bukkitEnchantment = new Enchantment(enchantment).getBukkitEnchantment();
         enchantments.removeIf(toCheck -> toCheck.getBukkitEnchantment().equals(bukkitEnchantment));
+        markModified();
     }
 
     /**
@@ -206,6 +265,7 @@ public class Metadata implements Serializable {
      */
     public void setEnchantments(List<Enchantment> enchantments) {
         this.enchantments = enchantments;
+        markModified();
     }
 
     /**
@@ -216,37 +276,219 @@ public class Metadata implements Serializable {
         return model;
     }
 
+    /**
+     * Check if a model is set for the item.
+     * @return True if a model is set, false if otherwise
+     */
+    public boolean hasModel() {
+        return model != null;
+    }
+
     /**
      * Set the model of an item. This value can be associated with a custom client-side item model.
      * @param model The data to set; use null to clear.
      */
     public void setModel(Integer model) {
         this.model = model;
+        markModified();
     }
 
     /**
-     * Apply all metadatata in this class to an ItemStack.
-     * <b>Warning:</b> This method is called automatically from {@link WrappedItem#getAsItemStack() getAsItemStack} in the WrappedItem class!
+     * Get the current revision of this metadata. The revision changes every time a setter is called, which allows cached data derived from this metadata (such as a {@link dev.magicmq.itemapi.CompiledItem CompiledItem}) to detect that it is stale.
+     * @return The revision stamp of the most recent change made to this metadata
+     */
+    public long getRevision() {
+        return revision;
+    }
+
+    /**
+     * Mark this metadata as modified. This is called automatically by all setters, but should also be called after modifying a mutable list returned by one of the getters.
+     */
+    public void markModified() {
+        revision = Revision.next();
+    }
+
+    /**
+     * Resolve every name in this metadata (such as item flags, enchantments, dye colors and entity types) into the value it refers to, so that applying the metadata does no string parsing at all. Every name that cannot be resolved is reported at once, rather than only the first one when the item is first built.
+     * The resolved values are kept until the {@link #getRevision() revision} changes, so this method returns immediately if nothing changed since the metadata was last resolved.
+     * <b>Note:</b> Metadata parsed from a configuration section with {@link dev.magicmq.itemapi.ItemAPI ItemAPI} is resolved when it is parsed. Other metadata is resolved the first time it is applied. Call {@link #markModified()} after modifying a mutable list returned by one of the getters, or the change will not be resolved.
+     * @throws ItemValidationException If any name in this metadata cannot be resolved
+     */
+    public void resolve() {
+        Resolver resolver = new Resolver();
+        resolve(resolver);
+        resolver.throwIfInvalid();
+    }
+
+    /**
+     * Resolve every name in this metadata, reporting names that cannot be resolved to a resolver instead of throwing an exception.
+     * <b>Warning:</b> This method is called automatically from {@link WrappedItem#resolve()} in the WrappedItem class!
+     * @param resolver The resolver to which problems will be reported
+     */
+    public void resolve(Resolver resolver) {
+        long revision = this.revision;
+        Long resolved = this.resolvedRevision;
+        if (resolved != null && resolved == revision)
+            return;
+
+        synchronized (this) {
+            resolved = this.resolvedRevision;
+            if (resolved != null && resolved == revision)
+                return;
+
+            int problems = resolver.getProblemCount();
+            resolveValues(resolver);
+            //Metadata that could not be fully resolved is resolved again the next time, so that the problems are reported again
+            if (resolver.getProblemCount() == problems)
+                this.resolvedRevision = revision;
+        }
+    }
+
+    /**
+     * Resolve the names in all metadata contained within this class. Subclasses that override this method must call it first and then resolve their own fields, keeping the resolved values in transient fields that {@link #applyMeta(ItemMeta) applyMeta} uses instead of the names.
+     * <b>Warning:</b> This method is called automatically from {@link #resolve()}, which should be used instead!
+     * @param resolver The resolver through which names are resolved, and to which problems are reported
+     */
+    protected void resolveValues(Resolver resolver) {
+        if (flags != null) {
+            ItemFlag[] resolvedFlags = new ItemFlag[flags.size()];
+            for (int i = 0; i < resolvedFlags.length; i++)
+                resolvedFlags[i] = resolver.resolveEnum("item-flags", ItemFlag.class, flags.get(i).toUpperCase());
+            this.resolvedFlags = resolvedFlags;
+        } else
+            this.resolvedFlags = null;
+
+        if (enchantments != null) {
+            for (Enchantment enchantment : enchantments)
+                resolver.resolve("enchantments", enchantment.getName(), name -> enchantment.getBukkitEnchantment());
+        }
+    }
+
+    /**
+     * Intern all metadata contained within this class through a pool, and trim lists so that they have no spare capacity. This does not change the contents of the metadata, so its {@link #getRevision() revision} is not changed either.
+     * Subclasses that override this method must call it first and then compact their own fields.
+     * <b>Warning:</b> This method is called automatically from {@link WrappedItem#compact(InternPool) compact} in the WrappedItem class!
+     * @param pool The pool through which values will be interned
+     */
+    public void compact(InternPool pool) {
+        this.name = pool.intern(this.name);
+        this.lore = pool.internAll(this.lore);
+        this.flags = pool.internAll(this.flags);
+        this.enchantments = pool.internAll(this.enchantments);
+    }
+
+    /**
+     * Get a 64-bit hash of the contents of this metadata. Metadata that is {@link #equals(Object) equal} always has the same content hash, so the hash can be used to find identical metadata quickly, but two different pieces of metadata may rarely have the same hash as well.
+     * The hash is cached and only computed again after the {@link #getRevision() revision} changes.
+     * @return The content hash of this metadata
+     */
+    public long contentHash() {
+        long revision = getRevision();
+        ContentHasher.Cached cached = this.contentHash;
+        boolean valid = ContentHasher.Cached.isValid(cached, revision);
+        Metrics.cacheAccess(CacheType.CONTENT_HASH, valid);
+        if (!valid) {
+            ContentHasher hasher = new ContentHasher().putString(getClass().getName());
+            hashContent(hasher);
+            cached = new ContentHasher.Cached(revision, hasher.getHash());
+            this.contentHash = cached;
+        }
+        return cached.getHash();
+    }
+
+    /**
+     * Feed all metadata contained within this class into a hasher. Subclasses that override this method must call it first and then add their own fields.
+     * <b>Warning:</b> This method is called automatically from {@link #contentHash()}, which should be used instead!
+     * @param hasher The hasher to which the metadata will be added
+     */
+    @Override
+    public void hashContent(ContentHasher hasher) {
+        hasher.putText(this.name)
+                .putTexts(this.lore)
+                .putBoolean(this.unbreakable)
+                .putStrings(this.flags)
+                .putAll(this.enchantments)
+                .putLong(this.model == null ? Long.MIN_VALUE : this.model);
+    }
+
+    /**
+     * Check if all metadata contained within this class is the same as in other metadata of the same class. Subclasses that override this method must call it first and then compare their own fields.
+     * <b>Warning:</b> This method is called automatically from {@link #equals(Object)}, which should be used instead!
+     * @param other The metadata to compare to, which is always of the same class as this metadata
+     * @return True if the metadata is the same, false if otherwise
+     */
+    protected boolean contentEquals(Metadata other) {
+        return ContentHasher.textEquals(this.name, other.name)
+                && ContentHasher.textEquals(this.lore, other.lore)
+                && this.unbreakable == other.unbreakable
+                && ContentHasher.listEquals(this.flags, other.flags)
+                && ContentHasher.listEquals(this.enchantments, other.enchantments)
+                && Objects.equals(this.model, other.model);
+    }
+
+    /**
+     * Check if this metadata is the same as another object. Metadata is equal to other metadata of exactly the same class that contains the same data, where text is compared as described in {@link ContentHasher#textEquals(String, String)} and null lists are treated as empty lists.
+     * @param o The object to compare to
+     * @return True if the object is equal to this metadata, false if otherwise
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+
+        Metadata other = (Metadata) o;
+        return contentHash() == other.contentHash() && contentEquals(other);
+    }
+
+    @Override
+    public int hashCode() {
+        return ContentHasher.toHashCode(contentHash());
+    }
+
+    /**
+     * Apply all metadatata in this class to an ItemStack. The ItemMeta of the item is read once, passed through {@link #applyMeta(ItemMeta) applyMeta}, and set on the item once. If {@link #requiresNbt()} returns true, NBT tags are written afterwards via {@link #applyNbt(NBTCompound) applyNbt}.
+     * <b>Warning:</b> {@link WrappedItem#getAsItemStack() getAsItemStack} in the WrappedItem class does not call this method. It calls the individual steps directly so that they share a single ItemMeta and a single NBT pass with damage and {@link dev.magicmq.itemapi.nbt.NBTData NBTData}.
      * @param item The item to which the metadata will be applied
      * @return The item, with metadata applied to it
-     * @throws EnchantmentNotFoundException If an enchantment name was used that could not be found
+     * @throws ItemValidationException If any name in this metadata cannot be resolved
      */
     public ItemStack applyMetadata(ItemStack item) {
         ItemMeta meta = item.getItemMeta();
+        long start = Metrics.start();
+        applyMeta(meta);
+        Metrics.stop(Stage.METADATA_APPLY, getClass(), start);
+        item.setItemMeta(meta);
+
+        if (requiresNbt()) {
+            NBTItem nbtItem = new NBTItem(item);
+            applyNbt(nbtItem);
+            item = nbtItem.getItem();
+        }
+        return item;
+    }
+
+    /**
+     * Apply all metadata in this class to an ItemMeta. This method {@link #resolve() resolves} the metadata first if it has not been resolved yet. Subclasses apply their own metadata after calling this method, so the whole metadata chain works on the same ItemMeta and can use the values resolved by {@link #resolveValues(Resolver) resolveValues}.
+     * <b>Warning:</b> This method is called automatically from {@link WrappedItem#getAsItemStack() getAsItemStack} in the WrappedItem class!
+     * @param meta The meta to which the metadata will be applied
+     * @throws ItemValidationException If any name in this metadata cannot be resolved
+     * @throws ClassCastException If the meta is not the type of meta required by this metadata
+     */
+    public void applyMeta(ItemMeta meta) {
+        resolve();
 
         if (name != null && !name.isEmpty())
-            meta.setDisplayName(ChatColor.translateAlternateColorCodes('&', name));
+            meta.setDisplayName(FormattedText.format(name));
 
         if (lore != null && lore.size() > 0)
-            meta.setLore(lore.stream().map(string -> ChatColor.translateAlternateColorCodes('&', string)).collect(Collectors.toList()));
+            meta.setLore(FormattedText.formatAll(lore));
 
         meta.setUnbreakable(unbreakable);
 
-        if (flags != null) {
-            for (String flag : flags) {
-                meta.addItemFlags(ItemFlag.valueOf(flag.toUpperCase()));
-            }
-        }
+        if (resolvedFlags != null)
+            meta.addItemFlags(resolvedFlags);
 
         if (enchantments != null) {
             for (Enchantment enchantment : enchantments) {
@@ -255,16 +497,28 @@ public class Metadata implements Serializable {
             }
         }
 
-        if (MCVersion.isCurrentVersionAtLeast(MCVersion.v1_14_R1)) {
+        if (MCVersion.getCapabilities().hasCustomModelData()) {
             if (model != null) {
                 meta.setCustomModelData(model);
             }
         }
+    }
 
-        item.setItemMeta(meta);
-        return item;
+    /**
+     * Check if this metadata contains data that can only be applied by writing NBT tags directly, rather than through the ItemMeta.
+     * @return True if {@link #applyNbt(NBTCompound) applyNbt} needs to be called, false if otherwise
+     */
+    public boolean requiresNbt() {
+        return false;
     }
 
+    /**
+     * Apply metadata that can only be written as NBT tags. This is only called if {@link #requiresNbt()} returns true, after the ItemMeta has been set on the item.
+     * <b>Warning:</b> This method is called automatically from {@link WrappedItem#getAsItemStack() getAsItemStack} in the WrappedItem class, in the same NBT pass as {@link dev.magicmq.itemapi.nbt.NBTData NBTData}!
+     * @param nbt The NBT compound of the item
+     */
+    public void applyNbt(NBTCompound nbt) {}
+
     /**
      * Serialize all metadata contained within this class to a configuration section.
      * <b>Warning:</b> This method is called automatically from {@link WrappedItem#saveToConfig(File, WrappedConfigurationSection) saveToConfig} in the WrappedItem class!
@@ -272,9 +526,9 @@ public class Metadata implements Serializable {
      */
     public void saveToConfig(WrappedConfigurationSection section) {
         if (this.name != null && !this.name.isEmpty())
-            section.set("name", this.name.replaceAll("\u00A7", "&"));
+            section.set("name", FormattedText.unformat(this.name));
         if (this.lore != null && this.lore.size() > 0)
-            section.set("lore", this.lore.stream().map(string -> string.replaceAll("\u00A7", "&")).collect(Collectors.toList()));
+            section.set("lore", FormattedText.unformatAll(this.lore));
         if (this.unbreakable)
             section.set("unbreakable", true);
         if (this.flags != null && this.flags.size() > 0)
@@ -288,6 +542,41 @@ public class Metadata implements Serializable {
             section.set("model", this.model);
     }
 
+    /**
+     * Write all metadata contained within this class in ItemAPI's binary format.
+     * <b>Warning:</b> This method is called automatically from {@link WrappedItem#writeBinary(ItemDataOutput) writeBinary} in the WrappedItem class!
+     * Subclasses that override this method must call it first and then write their own fields, followed by {@link ItemDataOutput#writeEnd() writeEnd}.
+     * @param out The output to which the data will be written
+     */
+    public void writeBinary(ItemDataOutput out) {
+        out.writeStringField(1, this.name);
+        out.writeStringListField(2, this.lore);
+        if (this.unbreakable)
+            out.writeBooleanField(3, true);
+        out.writeStringListField(4, this.flags);
+        if (this.enchantments != null)
+            out.writeNestedField(5, enchantmentsOut -> writeEnchantments(enchantmentsOut, this.enchantments));
+        if (this.model != null)
+            out.writeIntField(6, this.model);
+        out.writeEnd();
+    }
+
+    static void writeEnchantments(ItemDataOutput out, List<Enchantment> enchantments) {
+        out.writeVarInt(enchantments.size());
+        for (Enchantment enchantment : enchantments) {
+            out.writeString(enchantment.name);
+            out.writeSignedVarInt(enchantment.level);
+        }
+    }
+
+    static List<Enchantment> readEnchantments(ItemDataInput in) {
+        int size = in.readSize();
+        List<Enchantment> enchantments = new ArrayList<>(size);
+        for (int i = 0; i < size; i++)
+            enchantments.add(new Enchantment(in.readString(), in.readSignedVarInt()));
+        return enchantments;
+    }
+
     private void setEnchantmentsFromConfig(List<String> enchantments) {
         for (String enchantment : enchantments) {
             String[] split = enchantment.split(":");
@@ -302,11 +591,15 @@ public class Metadata implements Serializable {
     /**
      * A class used to hold enchantment data.
      */
-    static class Enchantment {
+    public static class Enchantment implements Serializable, ContentHashable {
+
+        private static final long serialVersionUID = 7032245106385641592L;
 
         private final String name;
         private final int level;
 
+        private transient org.bukkit.enchantments.Enchantment bukkitEnchantment;
+
         /**
          * Initialize a new enchantment with the given name and a level of 1.
          * @param name The name of the enchantment
@@ -348,12 +641,39 @@ public class Metadata implements Serializable {
          * @throws EnchantmentNotFoundException If no enchantment was found associated with the name of this enchantment
          */
         public org.bukkit.enchantments.Enchantment getBukkitEnchantment() {
-            org.bukkit.enchantments.Enchantment bukkitEnchantment = org.bukkit.enchantments.Enchantment.getByName(dev.magicmq.itemapi.utils.Enchantment.getByName(name).getBukkitEnchantment());
+            org.bukkit.enchantments.Enchantment bukkitEnchantment = this.bukkitEnchantment;
+            if (bukkitEnchantment == null) {
+                dev.magicmq.itemapi.utils.Enchantment enchantment = dev.magicmq.itemapi.utils.Enchantment.getByName(name);
+                if (enchantment != null)
+                    bukkitEnchantment = org.bukkit.enchantments.Enchantment.getByName(enchantment.getBukkitEnchantment());
 
-            if (bukkitEnchantment == null)
-                throw new EnchantmentNotFoundException("Enchantment " + name + " not found! Please make sure this enchantment is supported for this MC version.");
+                if (bukkitEnchantment == null)
+                    throw new EnchantmentNotFoundException("Enchantment " + name + " not found! Please make sure this enchantment is supported for this MC version.");
 
+                this.bukkitEnchantment = bukkitEnchantment;
+            }
             return bukkitEnchantment;
         }
+
+        @Override
+        public void hashContent(ContentHasher hasher) {
+            hasher.putString(name).putInt(level);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (o == null || getClass() != o.getClass())
+                return false;
+
+            Enchantment other = (Enchantment) o;
+            return level == other.level && Objects.equals(name, other.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, level);
+        }
     }
 }
@@ -0,0 +1,466 @@
+package dev.magicmq.itemapi.metadata;
+
+import com.google.common.base.Preconditions;
+import dev.magicmq.itemapi.config.WrappedConfigurationSection;
+import dev.magicmq.itemapi.metrics.Metrics;
+import dev.magicmq.itemapi.metrics.Stage;
+import dev.magicmq.itemapi.utils.Capabilities;
+import dev.magicmq.itemapi.utils.MCVersion;
+import dev.magicmq.itemapi.utils.exception.VersionNotSupportedException;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.*;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A type of {@link Metadata}, which describes how the metadata is recognized in a configuration section and on an ItemStack, and how it is created.
+ * All types are kept in a registry that {@link dev.magicmq.itemapi.WrappedItem WrappedItem} uses to pick the metadata for an item:
+ * <ul>
+ *     <li>When an item is parsed from a configuration section, the keys of the section are read once and each key is looked up in the registry. If more than one type is recognized, the type that was registered first is used.</li>
+ *     <li>When an item is parsed from an ItemStack, the material of the item is looked up first. If no type is registered for the material, the type registered for the ItemMeta of the item is used.</li>
+ * </ul>
+ * If no type is recognized, a plain {@link Metadata} is used. Plugins may register types for their own subclasses of Metadata with {@link #register(MetadataType)}.
+ * <b>Note:</b> Metadata registered by other plugins is not supported by the binary format in {@link dev.magicmq.itemapi.serialization.ItemCodec ItemCodec}.
+ */
+public final class MetadataType<T extends Metadata> {
+
+    private static final Object LOCK = new Object();
+    private static volatile Registry registry = new Registry(Collections.emptyList());
+
+    private static final String[] LEGACY_SPAWN_EGGS = {"MONSTER_EGG", "MONSTER_EGGS", "LEGACY_MONSTER_EGG", "LEGACY_MONSTER_EGGS"};
+    private static final String[] SPAWNERS = {"MOB_SPAWNER", "SPAWNER"};
+
+    public static final MetadataType<SpawnEggMetadata> SPAWN_EGG = register(builder("SPAWN_EGG", SpawnEggMetadata.class, SpawnEggMetadata::new, SpawnEggMetadata::new)
+            .configKey("mob-type", LEGACY_SPAWN_EGGS)
+            .materials(LEGACY_SPAWN_EGGS)
+            .requires(capabilities -> !capabilities.hasFlattenedMaterials(), "Use the material name to spawn the specific spawn egg you need (BAT_SPAWN_EGG, for example). Spawn eggs now have different mateial names and the mob type does not need to be specified separately.")
+            .build());
+    public static final MetadataType<SpawnerMetadata> SPAWNER = register(builder("SPAWNER", SpawnerMetadata.class, SpawnerMetadata::new, SpawnerMetadata::new)
+            .configKey("mob-type", SPAWNERS)
+            .materials(SPAWNERS)
+            .build());
+    public static final MetadataType<ShulkerBoxMetadata> SHULKER_BOX = register(builder("SHULKER_BOX", ShulkerBoxMetadata.class, ShulkerBoxMetadata::new, ShulkerBoxMetadata::new)
+            .configKey("shulker-box-items")
+            .build());
+    public static final MetadataType<PotionMetadata> POTION = register(builder("POTION", PotionMetadata.class, PotionMetadata::new, PotionMetadata::new)
+            .configKey("potion-data")
+            .metaClass(PotionMeta.class)
+            .build());
+    public static final MetadataType<BannerMetadata> BANNER = register(builder("BANNER", BannerMetadata.class, BannerMetadata::new, BannerMetadata::new)
+            .configKey("banner-patterns")
+            .metaClass(BannerMeta.class)
+            .build());
+    public static final MetadataType<ShieldMetadata> SHIELD = register(builder("SHIELD", ShieldMetadata.class, ShieldMetadata::new, ShieldMetadata::new)
+            .configKey("shield-patterns")
+            .materials("SHIELD")
+            .build());
+    public static final MetadataType<LeatherArmorMetadata> LEATHER_ARMOR = register(builder("LEATHER_ARMOR", LeatherArmorMetadata.class, LeatherArmorMetadata::new, LeatherArmorMetadata::new)
+            .configKey("armor-color")
+            .metaClass(LeatherArmorMeta.class)
+            .build());
+    public static final MetadataType<PlayerHeadMetadata> PLAYER_HEAD = register(builder("PLAYER_HEAD", PlayerHeadMetadata.class, PlayerHeadMetadata::new, PlayerHeadMetadata::new)
+            .configKey("player-head-data")
+            .materials("SKULL_ITEM", "PLAYER_HEAD")
+            .build());
+    public static final MetadataType<BookMetadata> BOOK = register(builder("BOOK", BookMetadata.class, BookMetadata::new, BookMetadata::new)
+            .configKey("book-data")
+            .metaClass(BookMeta.class)
+            .build());
+    public static final MetadataType<MapMetadata> MAP = register(builder("MAP", MapMetadata.class, MapMetadata::new, MapMetadata::new)
+            .configKey("map-data")
+            .metaClass(MapMeta.class)
+            .build());
+    public static final MetadataType<FireworkMetadata> FIREWORK = register(builder("FIREWORK", FireworkMetadata.class, FireworkMetadata::new, FireworkMetadata::new)
+            .configKey("firework-effects")
+            .metaClass(FireworkMeta.class)
+            .build());
+    public static final MetadataType<FireworkStarMetadata> FIREWORK_STAR = register(builder("FIREWORK_STAR", FireworkStarMetadata.class, FireworkStarMetadata::new, FireworkStarMetadata::new)
+            .configKey("firework-effect")
+            .metaClass(FireworkEffectMeta.class)
+            .build());
+    public static final MetadataType<TropicalFishBucketMetadata> TROPICAL_FISH_BUCKET = register(builder("TROPICAL_FISH_BUCKET", TropicalFishBucketMetadata.class, TropicalFishBucketMetadata::new, TropicalFishBucketMetadata::new)
+            .configKey("tropical-fish-bucket-data")
+            .materials("TROPICAL_FISH_BUCKET")
+            .build());
+    public static final MetadataType<EnchantedBookMetadata> ENCHANTED_BOOK = register(builder("ENCHANTED_BOOK", EnchantedBookMetadata.class, EnchantedBookMetadata::new, EnchantedBookMetadata::new)
+            .configKey("book-enchantments")
+            .metaClass(EnchantmentStorageMeta.class)
+            .build());
+    public static final MetadataType<CompassMetadata> COMPASS = register(builder("COMPASS", CompassMetadata.class, CompassMetadata::new, CompassMetadata::new)
+            .configKey("compass-data")
+            .materials("COMPASS", "LEGACY_COMPASS")
+            .requires(Capabilities::hasCompassLodestones, "Compass data is only supported in Minecraft version 1.16 and above!")
+            .build());
+    public static final MetadataType<KnowledgeBookMetadata> KNOWLEDGE_BOOK = register(builder("KNOWLEDGE_BOOK", KnowledgeBookMetadata.class, KnowledgeBookMetadata::new, KnowledgeBookMetadata::new)
+            .configKey("recipes")
+            .metaClass(KnowledgeBookMeta.class)
+            .build());
+    public static final MetadataType<CrossbowMetadata> CROSSBOW = register(builder("CROSSBOW", CrossbowMetadata.class, CrossbowMetadata::new, CrossbowMetadata::new)
+            .configKey("charged-projectiles")
+            .materials("CROSSBOW")
+            .requires(Capabilities::hasCrossbows, "Crossbows are only supported in Minecraft version 1.14 and above!")
+            .build());
+    public static final MetadataType<SuspiciousStewMetadata> SUSPICIOUS_STEW = register(builder("SUSPICIOUS_STEW", SuspiciousStewMetadata.class, SuspiciousStewMetadata::new, SuspiciousStewMetadata::new)
+            .configKey("stew-potion-effects")
+            .materials("SUSPICIOUS_STEW")
+            .requires(Capabilities::hasSuspiciousStews, "Suspicious stews are only supported in Minecraft version 1.14 and above!")
+            .build());
+    public static final MetadataType<AxolotlBucketMetadata> AXOLOTL_BUCKET = register(builder("AXOLOTL_BUCKET", AxolotlBucketMetadata.class, AxolotlBucketMetadata::new, AxolotlBucketMetadata::new)
+            .configKey("axolotl-variant")
+            .materials("AXOLOTL_BUCKET")
+            .requires(Capabilities::hasAxolotlBuckets, "Axolotl buckets are only supported in Minecraft version 1.17 and above!")
+            .build());
+    public static final MetadataType<BundleMetadata> BUNDLE = register(builder("BUNDLE", BundleMetadata.class, BundleMetadata::new, BundleMetadata::new)
+            .configKey("bundle-items")
+            .materials("BUNDLE")
+            .requires(Capabilities::hasBundles, "Bundles are only supported in Minecraft version 1.17 and above!")
+            .build());
+
+    private final String name;
+    private final Class<T> metadataClass;
+    private final Function<WrappedConfigurationSection, T> configFactory;
+    private final Function<ItemStack, T> itemFactory;
+    private final Map<String, Set<String>> configKeys;
+    private final Set<String> materials;
+    private final Class<? extends ItemMeta> metaClass;
+    private final Predicate<Capabilities> requirement;
+    private final String unsupportedMessage;
+
+    private MetadataType(Builder<T> builder) {
+        this.name = builder.name;
+        this.metadataClass = builder.metadataClass;
+        this.configFactory = builder.configFactory;
+        this.itemFactory = builder.itemFactory;
+        this.configKeys = Collections.unmodifiableMap(new LinkedHashMap<>(builder.configKeys));
+        this.materials = Collections.unmodifiableSet(new LinkedHashSet<>(builder.materials));
+        this.metaClass = builder.metaClass;
+        this.requirement = builder.requirement;
+        this.unsupportedMessage = builder.unsupportedMessage;
+    }
+
+    /**
+     * Start building a new metadata type.
+     * @param name The unique name of the type
+     * @param metadataClass The class of the metadata that this type creates
+     * @param configFactory The factory that creates metadata from the configuration section of an item, usually a constructor reference
+     * @param itemFactory The factory that creates metadata from an ItemStack, usually a constructor reference
+     * @param <T> The type of metadata
+     * @return A builder for the metadata type
+     */
+    public static <T extends Metadata> Builder<T> builder(String name, Class<T> metadataClass, Function<WrappedConfigurationSection, T> configFactory, Function<ItemStack, T> itemFactory) {
+        return new Builder<>(name, metadataClass, configFactory, itemFactory);
+    }
+
+    /**
+     * Register a metadata type, so that it is recognized when items are parsed.
+     * @param type The type to register
+     * @param <T> The type of metadata
+     * @return The type that was registered
+     * @throws IllegalArgumentException If a type with the same name is already registered
+     */
+    public static <T extends Metadata> MetadataType<T> register(MetadataType<T> type) {
+        Preconditions.checkArgument(type != null, "type cannot be null!");
+
+        synchronized (LOCK) {
+            Preconditions.checkArgument(registry.byName.get(type.name) == null, "A metadata type named " + type.name + " is already registered!");
+
+            List<MetadataType<?>> types = new ArrayList<>(registry.types);
+            types.add(type);
+            registry = new Registry(types);
+        }
+        return type;
+    }
+
+    /**
+     * Unregister a metadata type, so that it is no longer recognized when items are parsed. This can be used to replace one of ItemAPI's types with a different one.
+     * @param type The type to unregister
+     * @return True if the type was registered, false if otherwise
+     */
+    public static boolean unregister(MetadataType<?> type) {
+        Preconditions.checkArgument(type != null, "type cannot be null!");
+
+        synchronized (LOCK) {
+            List<MetadataType<?>> types = new ArrayList<>(registry.types);
+            if (!types.remove(type))
+                return false;
+            registry = new Registry(types);
+        }
+        return true;
+    }
+
+    /**
+     * Get a registered metadata type by its name.
+     * @param name The name of the type
+     * @return The type with the specified name, or null if no type was found
+     */
+    public static MetadataType<?> getType(String name) {
+        return registry.byName.get(name);
+    }
+
+    /**
+     * Get all registered metadata types.
+     * @return An unmodifiable list of all registered types, in the order they were registered
+     */
+    public static List<MetadataType<?>> getTypes() {
+        return registry.types;
+    }
+
+    /**
+     * Create the metadata for an item that is being parsed from a configuration section.
+     * <b>Warning:</b> This method is called automatically when a {@link dev.magicmq.itemapi.WrappedItem WrappedItem} is created from a configuration section!
+     * @param material The material of the item
+     * @param section The configuration section of the item
+     * @return The metadata for the item, or a plain {@link Metadata} if no type was recognized
+     * @throws VersionNotSupportedException If the recognized type is not supported by the running Minecraft version
+     */
+    public static Metadata fromConfig(String material, WrappedConfigurationSection section) {
+        long start = Metrics.start();
+        Registry registry = MetadataType.registry;
+        MetadataType<?> match = null;
+        int matchIndex = Integer.MAX_VALUE;
+        for (String key : section.getKeys(false)) {
+            List<MetadataType<?>> candidates = registry.byConfigKey.get(key);
+            if (candidates == null)
+                continue;
+            for (MetadataType<?> candidate : candidates) {
+                int index = registry.indexes.get(candidate);
+                if (index < matchIndex && candidate.acceptsConfigKey(key, material)) {
+                    match = candidate;
+                    matchIndex = index;
+                    break;
+                }
+            }
+        }
+
+        if (match != null && !match.isSupported())
+            throw new VersionNotSupportedException(match.unsupportedMessage);
+
+        Metadata metadata = match != null ? match.configFactory.apply(section) : new Metadata(section);
+        Metrics.stop(Stage.METADATA_PARSE, metadata.getClass(), start);
+        return metadata;
+    }
+
+    /**
+     * Create the metadata for an item that is being parsed from an ItemStack.
+     * <b>Warning:</b> This method is called automatically when a {@link dev.magicmq.itemapi.WrappedItem WrappedItem} is created from an ItemStack!
+     * @param item The ItemStack
+     * @return The metadata for the item, or a plain {@link Metadata} if no supported type was recognized
+     */
+    public static Metadata fromItem(ItemStack item) {
+        Registry registry = MetadataType.registry;
+        MetadataType<?> type = registry.byMaterial.get(item.getType().name());
+        if (type == null || !type.isSupported()) {
+            ItemMeta meta = item.getItemMeta();
+            type = meta != null ? registry.getByMetaClass(meta.getClass()) : null;
+        }
+
+        if (type == null || !type.isSupported())
+            return new Metadata(item);
+        return type.itemFactory.apply(item);
+    }
+
+    /**
+     * Get the name of this type.
+     * @return The unique name of the type
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the class of the metadata that this type creates.
+     * @return The metadata class
+     */
+    public Class<T> getMetadataClass() {
+        return metadataClass;
+    }
+
+    /**
+     * Get the configuration keys that identify this type.
+     * @return An unmodifiable set of configuration keys
+     */
+    public Set<String> getConfigKeys() {
+        return configKeys.keySet();
+    }
+
+    /**
+     * Get the materials that identify this type when an item is parsed from an ItemStack.
+     * @return An unmodifiable set of material names
+     */
+    public Set<String> getMaterials() {
+        return materials;
+    }
+
+    /**
+     * Get the ItemMeta class that identifies this type when an item is parsed from an ItemStack.
+     * @return The ItemMeta class, or null if this type is only identified by material
+     */
+    public Class<? extends ItemMeta> getMetaClass() {
+        return metaClass;
+    }
+
+    /**
+     * Check if this type is supported by the running Minecraft version.
+     * @return True if the type is supported, false if otherwise
+     */
+    public boolean isSupported() {
+        return requirement == null || requirement.test(MCVersion.getCapabilities());
+    }
+
+    /**
+     * Create new metadata of this type from the configuration section of an item.
+     * @param section The configuration section of the item
+     * @return The metadata that was created
+     */
+    public T create(WrappedConfigurationSection section) {
+        return configFactory.apply(section);
+    }
+
+    /**
+     * Create new metadata of this type from an ItemStack.
+     * @param item The ItemStack
+     * @return The metadata that was created
+     */
+    public T create(ItemStack item) {
+        return itemFactory.apply(item);
+    }
+
+    @Override
+    public String toString() {
+        return "MetadataType{" + name + "}";
+    }
+
+    private boolean acceptsConfigKey(String key, String material) {
+        Set<String> keyMaterials = configKeys.get(key);
+        return keyMaterials.isEmpty() || keyMaterials.contains(material);
+    }
+
+    /**
+     * A builder for {@link MetadataType}. A type should be identified by at least one configuration key, and by a material or ItemMeta class if it can be parsed from ItemStacks.
+     * @param <T> The type of metadata
+     */
+    public static final class Builder<T extends Metadata> {
+
+        private final String name;
+        private final Class<T> metadataClass;
+        private final Function<WrappedConfigurationSection, T> configFactory;
+        private final Function<ItemStack, T> itemFactory;
+        private final Map<String, Set<String>> configKeys;
+        private final Set<String> materials;
+        private Class<? extends ItemMeta> metaClass;
+        private Predicate<Capabilities> requirement;
+        private String unsupportedMessage;
+
+        private Builder(String name, Class<T> metadataClass, Function<WrappedConfigurationSection, T> configFactory, Function<ItemStack, T> itemFactory) {
+            Preconditions.checkArgument(name != null, "name cannot be null!");
+            Preconditions.checkArgument(metadataClass != null, "metadataClass cannot be null!");
+            Preconditions.checkArgument(configFactory != null, "configFactory cannot be null!");
+            Preconditions.checkArgument(itemFactory != null, "itemFactory cannot be null!");
+
+            this.name = name;
+            this.metadataClass = metadataClass;
+            this.configFactory = configFactory;
+            this.itemFactory = itemFactory;
+            this.configKeys = new LinkedHashMap<>();
+            this.materials = new LinkedHashSet<>();
+        }
+
+        /**
+         * Identify the type by a key in the configuration section of an item.
+         * @param key The configuration key
+         * @param materials If not empty, the key only identifies this type for items with one of these materials
+         * @return This builder
+         */
+        public Builder<T> configKey(String key, String... materials) {
+            Preconditions.checkArgument(key != null, "key cannot be null!");
+
+            configKeys.put(key, new HashSet<>(Arrays.asList(materials)));
+            return this;
+        }
+
+        /**
+         * Identify the type by the material of an ItemStack.
+         * @param materials The names of the materials
+         * @return This builder
+         */
+        public Builder<T> materials(String... materials) {
+            this.materials.addAll(Arrays.asList(materials));
+            return this;
+        }
+
+        /**
+         * Identify the type by the ItemMeta of an ItemStack. This is only used if no type is registered for the material of the ItemStack.
+         * @param metaClass The ItemMeta class, usually an interface such as {@link BannerMeta}
+         * @return This builder
+         */
+        public Builder<T> metaClass(Class<? extends ItemMeta> metaClass) {
+            this.metaClass = metaClass;
+            return this;
+        }
+
+        /**
+         * Only allow the type in Minecraft versions that meet a requirement.
+         * @param requirement The requirement, tested against the capabilities of the running version
+         * @param unsupportedMessage The message of the exception thrown when the type is used in a configuration section but the running version does not meet the requirement
+         * @return This builder
+         */
+        public Builder<T> requires(Predicate<Capabilities> requirement, String unsupportedMessage) {
+            this.requirement = requirement;
+            this.unsupportedMessage = unsupportedMessage;
+            return this;
+        }
+
+        /**
+         * Build the metadata type. The type must still be registered with {@link MetadataType#register(MetadataType)} before it is recognized.
+         * @return The metadata type
+         */
+        public MetadataType<T> build() {
+            return new MetadataType<>(this);
+        }
+    }
+
+    private static final class Registry {
+
+        private static final MetadataType<?> NONE = builder("NONE", Metadata.class, Metadata::new, Metadata::new).build();
+
+        private final List<MetadataType<?>> types;
+        private final Map<MetadataType<?>, Integer> indexes;
+        private final Map<String, MetadataType<?>> byName;
+        private final Map<String, List<MetadataType<?>>> byConfigKey;
+        private final Map<String, MetadataType<?>> byMaterial;
+        private final Map<Class<?>, MetadataType<?>> byMetaClass;
+
+        private Registry(List<MetadataType<?>> types) {
+            this.types = Collections.unmodifiableList(types);
+            this.indexes = new IdentityHashMap<>();
+            this.byName = new HashMap<>();
+            this.byConfigKey = new HashMap<>();
+            this.byMaterial = new HashMap<>();
+            //Caches the type for each ItemMeta implementation class, which is filled in as ItemStacks are parsed
+            this.byMetaClass = new ConcurrentHashMap<>();
+
+            for (MetadataType<?> type : types) {
+                indexes.put(type, indexes.size());
+                byName.put(type.name, type);
+                for (String key : type.configKeys.keySet())
+                    byConfigKey.computeIfAbsent(key, k -> new ArrayList<>()).add(type);
+                for (String material : type.materials)
+                    byMaterial.putIfAbsent(material, type);
+            }
+        }
+
+        private MetadataType<?> getByMetaClass(Class<?> implementation) {
+            MetadataType<?> type = byMetaClass.computeIfAbsent(implementation, clazz -> {
+                for (MetadataType<?> candidate : types) {
+                    if (candidate.metaClass != null && candidate.metaClass.isAssignableFrom(clazz))
+                        return candidate;
+                }
+                return NONE;
+            });
+            return type == NONE ? null : type;
+        }
+    }
+}
@@ -1,17 +1,30 @@
 package dev.magicmq.itemapi.metadata;
 
+import com.google.common.base.Preconditions;
 import de.tr7zw.changeme.nbtapi.NBTCompound;
 import de.tr7zw.changeme.nbtapi.NBTCompoundList;
 import de.tr7zw.changeme.nbtapi.NBTItem;
 import de.tr7zw.changeme.nbtapi.NBTListCompound;
 import dev.magicmq.itemapi.WrappedItem;
 import dev.magicmq.itemapi.config.WrappedConfigurationSection;
+import dev.magicmq.itemapi.profile.ProfileSource;
+import dev.magicmq.itemapi.profile.SkullProfile;
+import dev.magicmq.itemapi.serialization.ItemDataInput;
+import dev.magicmq.itemapi.serialization.ItemDataOutput;
+import dev.magicmq.itemapi.utils.ContentHasher;
+import dev.magicmq.itemapi.utils.InternPool;
+import dev.magicmq.itemapi.utils.MCVersion;
+import dev.magicmq.itemapi.utils.Resolver;
+import dev.magicmq.itemapi.utils.Revision;
 import org.bukkit.Bukkit;
 import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.inventory.meta.SkullMeta;
 
 import java.io.File;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Wrapper class that contians all Metadata associated with Player Heads/Skulls.
@@ -24,6 +37,11 @@ public class PlayerHeadMetadata extends Metadata {
     private String skinBase64;
     private String skinName;
 
+    private transient volatile Resolved resolved;
+    private transient volatile long profileRevision;
+    private transient volatile SkullProfile textureProfile;
+    private transient UUID resolvedOwnerId;
+
     /**
      * Create a new PlayerHeadMetadata class from scratch with default values.
      */
@@ -65,7 +83,7 @@ public class PlayerHeadMetadata extends Metadata {
                     NBTCompound skull = nbtItem.getCompound("SkullOwner");
                     this.skinName = skull.getString("Name");
                     if (skull.hasKey("Properties")) {
-                        NBTCompound properties = nbtItem.getCompound("Properties");
+                        NBTCompound properties = skull.getCompound("Properties");
                         if (properties.hasKey("textures")) {
                             NBTCompoundList list = properties.getCompoundList("textures");
                             list.forEach(compound -> {
@@ -80,6 +98,34 @@ public class PlayerHeadMetadata extends Metadata {
         }
     }
 
+    /**
+     * Create a new PlayerHeadMetadata class with values read from ItemAPI's binary format.
+     * @param in The input from which the data will be read
+     */
+    public PlayerHeadMetadata(ItemDataInput in) {
+        super(in);
+
+        this.skullOwner = null;
+        this.skinBase64 = null;
+        this.skinName = null;
+
+        for (int tag = in.readTag(); tag != 0; tag = in.readTag()) {
+            switch (ItemDataInput.getFieldNumber(tag)) {
+                case 1:
+                    this.skullOwner = in.readString();
+                    break;
+                case 2:
+                    this.skinBase64 = in.readString();
+                    break;
+                case 3:
+                    this.skinName = in.readString();
+                    break;
+                default:
+                    in.skipField(tag);
+            }
+        }
+    }
+
     /**
      * Get the player associated with this player head.
      * Note: This may return null if a custom skin is being used for this player head.
@@ -95,6 +141,8 @@ public class PlayerHeadMetadata extends Metadata {
      */
     public void setSkullOwner(String skullOwner) {
         this.skullOwner = skullOwner;
+        this.resolved = null;
+        markModified();
     }
 
     /**
@@ -112,6 +160,8 @@ public class PlayerHeadMetadata extends Metadata {
      */
     public void setSkinBase64(String skinBase64) {
         this.skinBase64 = skinBase64;
+        this.textureProfile = null;
+        markModified();
     }
 
     /**
@@ -130,39 +180,212 @@ public class PlayerHeadMetadata extends Metadata {
      */
     public void setSkinName(String skinName) {
         this.skinName = skinName;
+        this.textureProfile = null;
+        markModified();
     }
 
     /**
-     * Apply the player head metadata as well as basic metadata in {@link Metadata Metadata} to an ItemStack.
-     * <b>Warning:</b> This method is called automatically from {@link WrappedItem#getAsItemStack() getAsItemStack} in the WrappedItem class!
-     * @param item The item to which the metadata will be applied
-     * @return The item, with metadata applied to it
+     * Resolve the skull owner of this player head through a profile source, so that the head can later be built without looking up the owner on the calling thread. If the owner is a player name, building the head would otherwise look up the player with {@link Bukkit#getOfflinePlayer(String)}, which may block the server.
+     * The resolved profile is kept with this metadata until the skull owner is changed. If the profile has a skin texture, it is written directly as NBT tags when the head is built.
+     * @param source The source through which the skull owner will be looked up
+     * @return A future that completes with the resolved profile, or with null if there is no skull owner or if no profile was found for it
+     * @see WrappedItem#getAsItemStackAsync(ProfileSource, java.util.concurrent.Executor)
+     */
+    public CompletableFuture<SkullProfile> resolveProfile(ProfileSource source) {
+        Preconditions.checkArgument(source != null, "source cannot be null!");
+
+        String owner = this.skullOwner;
+        if (owner == null)
+            return CompletableFuture.completedFuture(null);
+
+        Resolved current = this.resolved;
+        if (current != null && current.owner.equals(owner))
+            return CompletableFuture.completedFuture(current.profile);
+
+        return source.lookup(owner).thenApply(profile -> {
+            if (profile != null && owner.equals(this.skullOwner)) {
+                this.resolved = new Resolved(owner, profile);
+                //The built ItemStack depends on the profile, but the content of the metadata does not, so only the profile revision is changed
+                this.profileRevision = Revision.next();
+            }
+            return profile;
+        });
+    }
+
+    /**
+     * Get the profile of the skull owner that was previously resolved with {@link #resolveProfile(ProfileSource) resolveProfile}.
+     * @return The resolved profile, or null if the skull owner has not been resolved or was changed since it was resolved
+     */
+    public SkullProfile getResolvedProfile() {
+        Resolved resolved = this.resolved;
+        return resolved != null && resolved.owner.equals(this.skullOwner) ? resolved.profile : null;
+    }
+
+    /**
+     * Get the revision of the profile resolved with {@link #resolveProfile(ProfileSource) resolveProfile}. This changes every time a profile is resolved, which allows a {@link dev.magicmq.itemapi.CompiledItem CompiledItem} to rebuild the head with the profile. Resolving a profile does not change the content of this metadata, so it does not change the {@link #getRevision() revision}.
+     * @return The revision stamp of the most recently resolved profile, or 0 if no profile was resolved
+     */
+    public long getProfileRevision() {
+        return profileRevision;
+    }
+
+    /**
+     * Get the profile that is used to apply the skin texture of this player head. The profile has a unique ID derived from the texture, so heads with the same texture are always built with the same profile and stack with each other.
+     * @return The profile for the skin texture, or null if there is no skin texture
+     * @see SkullProfile#ofTextures(String, String)
+     */
+    public SkullProfile getTextureProfile() {
+        if (skinBase64 == null)
+            return null;
+
+        SkullProfile profile = this.textureProfile;
+        if (profile == null) {
+            profile = SkullProfile.ofTextures(skinBase64, skinName != null ? skinName : "None");
+            this.textureProfile = profile;
+        }
+        return profile;
+    }
+
+    /**
+     * Intern all the player head metadata contained within this class as well as basic metadata in {@link Metadata Metadata} through a pool, and trim lists so that they have no spare capacity.
+     * <b>Warning:</b> This method is called automatically from {@link WrappedItem#compact(InternPool) compact} in the WrappedItem class!
+     * @param pool The pool through which values will be interned
      */
     @Override
-    public ItemStack applyMetadata(ItemStack item) {
-        item = super.applyMetadata(item);
+    public void compact(InternPool pool) {
+        super.compact(pool);
+
+        this.skullOwner = pool.intern(this.skullOwner);
+        this.skinBase64 = pool.intern(this.skinBase64);
+        this.skinName = pool.intern(this.skinName);
+    }
 
+    /**
+     * Feed all the player head metadata contained within this class as well as basic metadata in {@link Metadata Metadata} into a hasher.
+     * <b>Warning:</b> This method is called automatically from {@link Metadata#contentHash() contentHash} in the Metadata class!
+     * @param hasher The hasher to which the metadata will be added
+     */
+    @Override
+    public void hashContent(ContentHasher hasher) {
+        super.hashContent(hasher);
+
+        hasher.putString(this.skullOwner)
+                .putString(this.skinBase64)
+                .putString(this.skinName);
+    }
+
+    /**
+     * Check if all the player head metadata contained within this class as well as basic metadata in {@link Metadata Metadata} is the same as in other metadata.
+     * <b>Warning:</b> This method is called automatically from {@link Metadata#equals(Object) equals} in the Metadata class!
+     * @param metadata The metadata to compare to, which is always a PlayerHeadMetadata
+     * @return True if the metadata is the same, false if otherwise
+     */
+    @Override
+    protected boolean contentEquals(Metadata metadata) {
+        if (!super.contentEquals(metadata))
+            return false;
+
+        PlayerHeadMetadata other = (PlayerHeadMetadata) metadata;
+        return Objects.equals(this.skullOwner, other.skullOwner)
+                && Objects.equals(this.skinBase64, other.skinBase64)
+                && Objects.equals(this.skinName, other.skinName);
+    }
+
+    /**
+     * Resolve the skull owner of the player head metadata as well as basic metadata in {@link Metadata Metadata}.
+     * <b>Warning:</b> This method is called automatically from {@link Metadata#resolve() resolve}!
+     * @param resolver The resolver through which names are resolved, and to which problems are reported
+     */
+    @Override
+    protected void resolveValues(Resolver resolver) {
+        super.resolveValues(resolver);
+
+        //The skull owner can be a UUID or the name of a player, so an owner that is not a UUID is not a problem
+        UUID ownerId = null;
         if (skullOwner != null) {
-            SkullMeta meta = (SkullMeta) item.getItemMeta();
             try {
-                meta.setOwningPlayer(Bukkit.getOfflinePlayer(UUID.fromString(skullOwner)));
-            } catch (IllegalArgumentException ignored) {
-                meta.setOwningPlayer(Bukkit.getOfflinePlayer(skullOwner));
-            }
-            item.setItemMeta(meta);
-        } else if (skinBase64 != null) {
-            NBTItem nbtItem = new NBTItem(item);
-            NBTCompound skull = nbtItem.addCompound("SkullOwner");
-            skull.setString("Name", skinName != null ? skinName : "None");
-            skull.setString("Id", UUID.randomUUID().toString());
+                ownerId = UUID.fromString(skullOwner);
+            } catch (IllegalArgumentException ignored) {}
+        }
+        this.resolvedOwnerId = ownerId;
+    }
 
-            NBTListCompound texture = skull.addCompound("Properties").getCompoundList("textures").addCompound();
-            texture.setString("Value", skinBase64);
+    /**
+     * Apply the player head metadata as well as basic metadata in {@link Metadata Metadata} to an ItemMeta. A skin texture without a skull owner is applied separately, via {@link #applyNbt(NBTCompound) applyNbt}.
+     * <b>Warning:</b> This method is called automatically from {@link WrappedItem#getAsItemStack() getAsItemStack} in the WrappedItem class!
+     * @param itemMeta The meta to which the metadata will be applied
+     */
+    @Override
+    public void applyMeta(ItemMeta itemMeta) {
+        super.applyMeta(itemMeta);
 
-            item = nbtItem.getItem();
+        if (skullOwner != null) {
+            SkullMeta meta = (SkullMeta) itemMeta;
+            SkullProfile profile = getResolvedProfile();
+            if (profile != null) {
+                //A profile with a skin texture is written as NBT tags instead, which needs no lookup at all
+                if (!profile.hasTextures())
+                    meta.setOwningPlayer(Bukkit.getOfflinePlayer(profile.getUniqueId()));
+                return;
+            }
+            if (resolvedOwnerId != null)
+                meta.setOwningPlayer(Bukkit.getOfflinePlayer(resolvedOwnerId));
+            else
+                meta.setOwningPlayer(Bukkit.getOfflinePlayer(skullOwner));
         }
+    }
 
-        return item;
+    /**
+     * Check if this player head has a skin texture but no skull owner, or a resolved skull owner with a skin texture, in which case the texture must be written as NBT tags.
+     * @return True if the skin texture will be applied as NBT tags, false if otherwise
+     */
+    @Override
+    public boolean requiresNbt() {
+        if (skullOwner == null)
+            return skinBase64 != null;
+
+        SkullProfile profile = getResolvedProfile();
+        return profile != null && profile.hasTextures();
+    }
+
+    /**
+     * Apply the skin texture of this player head as NBT tags.
+     * <b>Warning:</b> This method is called automatically from {@link WrappedItem#getAsItemStack() getAsItemStack} in the WrappedItem class!
+     * @param nbt The NBT compound of the item
+     */
+    @Override
+    public void applyNbt(NBTCompound nbt) {
+        SkullProfile profile = skullOwner != null ? getResolvedProfile() : getTextureProfile();
+        if (profile == null || !profile.hasTextures())
+            return;
+
+        NBTCompound skull = nbt.addCompound("SkullOwner");
+        if (profile.getName() != null)
+            skull.setString("Name", profile.getName());
+        //Versions before 1.16 only read the ID of a skull owner as a string, and ignore it otherwise
+        UUID id = profile.getUniqueId();
+        if (MCVersion.getCapabilities().hasIntArrayUuids())
+            skull.setIntArray("Id", new int[] {(int) (id.getMostSignificantBits() >> 32), (int) id.getMostSignificantBits(), (int) (id.getLeastSignificantBits() >> 32), (int) id.getLeastSignificantBits()});
+        else
+            skull.setString("Id", id.toString());
+
+        NBTListCompound texture = skull.addCompound("Properties").getCompoundList("textures").addCompound();
+        texture.setString("Value", profile.getTextures());
+    }
+
+    /**
+     * Write all the player head metadata contained within this class as well as basic metadata in {@link Metadata Metadata} in ItemAPI's binary format.
+     * <b>Warning:</b> This method is called automatically from {@link WrappedItem#writeBinary(ItemDataOutput) writeBinary} in the WrappedItem class!
+     * @param out The output to which the data will be written
+     */
+    @Override
+    public void writeBinary(ItemDataOutput out) {
+        super.writeBinary(out);
+
+        out.writeStringField(1, this.skullOwner);
+        out.writeStringField(2, this.skinBase64);
+        out.writeStringField(3, this.skinName);
+        out.writeEnd();
     }
 
     /**
@@ -184,4 +407,15 @@ public class PlayerHeadMetadata extends Metadata {
                 headSection.set("skin-name", this.skinName);
         }
     }
+
+    private static class Resolved {
+
+        private final String owner;
+        private final SkullProfile profile;
+
+        private Resolved(String owner, SkullProfile profile) {
+            this.owner = owner;
+            this.profile = profile;
+        }
+    }
 }
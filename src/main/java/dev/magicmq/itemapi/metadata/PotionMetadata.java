@@ -2,15 +2,20 @@ package dev.magicmq.itemapi.metadata;
 
 import dev.magicmq.itemapi.WrappedItem;
 import dev.magicmq.itemapi.config.WrappedConfigurationSection;
+import dev.magicmq.itemapi.serialization.ItemDataInput;
+import dev.magicmq.itemapi.serialization.ItemDataOutput;
+import dev.magicmq.itemapi.utils.ContentHasher;
+import dev.magicmq.itemapi.utils.InternPool;
 import dev.magicmq.itemapi.utils.Potion;
-import dev.magicmq.itemapi.utils.exception.PotionNotFoundException;
-import dev.magicmq.itemapi.utils.exception.UpgradeAndExtendException;
+import dev.magicmq.itemapi.utils.Resolver;
 import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.inventory.meta.PotionMeta;
 import org.bukkit.potion.PotionData;
 import org.bukkit.potion.PotionType;
 
 import java.io.File;
+import java.util.Objects;
 
 /**
  * Wrapper class that contians all Metadata associated with Potions.
@@ -23,6 +28,8 @@ public class PotionMetadata extends Metadata {
     private int potionLevel;
     private boolean potionExtended;
 
+    private transient PotionData resolvedPotionData;
+
     /**
      * Create a new PotionMetadata class from scratch with default values.
      */
@@ -68,6 +75,33 @@ public class PotionMetadata extends Metadata {
         }
     }
 
+    /**
+     * Create a new PotionMetadata class with values read from ItemAPI's binary format.
+     * @param in The input from which the data will be read
+     */
+    public PotionMetadata(ItemDataInput in) {
+        super(in);
+
+        this.potionName = null;
+        this.potionExtended = false;
+
+        for (int tag = in.readTag(); tag != 0; tag = in.readTag()) {
+            switch (ItemDataInput.getFieldNumber(tag)) {
+                case 1:
+                    this.potionName = in.readString();
+                    break;
+                case 2:
+                    this.potionLevel = in.readSignedVarInt();
+                    break;
+                case 3:
+                    this.potionExtended = in.readBoolean();
+                    break;
+                default:
+                    in.skipField(tag);
+            }
+        }
+    }
+
     /**
      * Get the potion type/name.
      * @return An enum or name associated with a potion name in {@link Potion}
@@ -84,6 +118,7 @@ public class PotionMetadata extends Metadata {
      */
     public void setPotionName(String potionName) {
         this.potionName = potionName;
+        markModified();
     }
 
     /**
@@ -100,6 +135,7 @@ public class PotionMetadata extends Metadata {
      */
     public void setPotionLevel(int potionLevel) {
         this.potionLevel = potionLevel;
+        markModified();
     }
 
     /**
@@ -116,34 +152,114 @@ public class PotionMetadata extends Metadata {
      */
     public void setPotionExtended(boolean potionExtended) {
         this.potionExtended = potionExtended;
+        markModified();
     }
 
     /**
-     * Apply the potion metadata as well as basic metadata in {@link Metadata Metadata} to an ItemStack.
-     * <b>Warning:</b> This method is called automatically from {@link WrappedItem#getAsItemStack() getAsItemStack} in the WrappedItem class!
-     * @param item The item to which the metadata will be applied
-     * @return The item, with metadata applied to it
+     * Intern all the potion metadata contained within this class as well as basic metadata in {@link Metadata Metadata} through a pool, and trim lists so that they have no spare capacity.
+     * <b>Warning:</b> This method is called automatically from {@link WrappedItem#compact(InternPool) compact} in the WrappedItem class!
+     * @param pool The pool through which values will be interned
      */
     @Override
-    public ItemStack applyMetadata(ItemStack item) {
-        item = super.applyMetadata(item);
+    public void compact(InternPool pool) {
+        super.compact(pool);
 
-        PotionMeta meta = (PotionMeta) item.getItemMeta();
+        this.potionName = pool.intern(this.potionName);
+    }
+
+    /**
+     * Feed all the potion metadata contained within this class as well as basic metadata in {@link Metadata Metadata} into a hasher.
+     * <b>Warning:</b> This method is called automatically from {@link Metadata#contentHash() contentHash} in the Metadata class!
+     * @param hasher The hasher to which the metadata will be added
+     */
+    @Override
+    public void hashContent(ContentHasher hasher) {
+        super.hashContent(hasher);
+
+        hasher.putString(this.potionName)
+                .putInt(this.potionLevel)
+                .putBoolean(this.potionExtended);
+    }
+
+    /**
+     * Check if all the potion metadata contained within this class as well as basic metadata in {@link Metadata Metadata} is the same as in other metadata.
+     * <b>Warning:</b> This method is called automatically from {@link Metadata#equals(Object) equals} in the Metadata class!
+     * @param metadata The metadata to compare to, which is always a PotionMetadata
+     * @return True if the metadata is the same, false if otherwise
+     */
+    @Override
+    protected boolean contentEquals(Metadata metadata) {
+        if (!super.contentEquals(metadata))
+            return false;
+
+        PotionMetadata other = (PotionMetadata) metadata;
+        return Objects.equals(this.potionName, other.potionName)
+                && this.potionLevel == other.potionLevel
+                && this.potionExtended == other.potionExtended;
+    }
+
+    /**
+     * Resolve the potion type of the potion metadata as well as basic metadata in {@link Metadata Metadata}.
+     * <b>Warning:</b> This method is called automatically from {@link Metadata#resolve() resolve}!
+     * @param resolver The resolver through which names are resolved, and to which problems are reported
+     */
+    @Override
+    protected void resolveValues(Resolver resolver) {
+        super.resolveValues(resolver);
+
+        this.resolvedPotionData = null;
         if (this.potionName != null) {
-            if (potionLevel > 1 && potionExtended)
-                throw new UpgradeAndExtendException("A potion cannot be both extended and upgraded at the same time.");
+            if (potionLevel > 1 && potionExtended) {
+                resolver.report("potion-data", "A potion cannot be both extended and upgraded at the same time.");
+                return;
+            }
             Potion potionName = Potion.getByName(this.potionName);
-            if (potionName == null)
-                throw new PotionNotFoundException("Potion type " + this.potionName + " not found! Please check that the name is correct.");
+            if (potionName == null) {
+                resolver.report("potion-data.type", "Potion type " + this.potionName + " not found! Please check that the name is correct.");
+                return;
+            }
+            PotionType potionType;
             try {
-                PotionType potionType = PotionType.valueOf(potionName.getBukkitPotionType());
-                meta.setBasePotionData(new PotionData(potionType, potionExtended, potionLevel > 1));
+                potionType = PotionType.valueOf(potionName.getBukkitPotionType());
             } catch (IllegalArgumentException ignored) {
-                throw new PotionNotFoundException("Potion type " + this.potionName + " not found in Bukkit! Please make sure this potion type is supported for this MC version.");
+                resolver.report("potion-data.type", "Potion type " + this.potionName + " not found in Bukkit! Please make sure this potion type is supported for this MC version.");
+                return;
+            }
+            try {
+                this.resolvedPotionData = new PotionData(potionType, potionExtended, potionLevel > 1);
+            } catch (IllegalArgumentException e) {
+                resolver.report("potion-data", e.getMessage());
             }
         }
-        item.setItemMeta(meta);
-        return item;
+    }
+
+    /**
+     * Apply the potion metadata as well as basic metadata in {@link Metadata Metadata} to an ItemMeta.
+     * <b>Warning:</b> This method is called automatically from {@link WrappedItem#getAsItemStack() getAsItemStack} in the WrappedItem class!
+     * @param itemMeta The meta to which the metadata will be applied
+     */
+    @Override
+    public void applyMeta(ItemMeta itemMeta) {
+        super.applyMeta(itemMeta);
+
+        PotionMeta meta = (PotionMeta) itemMeta;
+        if (resolvedPotionData != null)
+            meta.setBasePotionData(resolvedPotionData);
+    }
+
+    /**
+     * Write all the potion metadata contained within this class as well as basic metadata in {@link Metadata Metadata} in ItemAPI's binary format.
+     * <b>Warning:</b> This method is called automatically from {@link WrappedItem#writeBinary(ItemDataOutput) writeBinary} in the WrappedItem class!
+     * @param out The output to which the data will be written
+     */
+    @Override
+    public void writeBinary(ItemDataOutput out) {
+        super.writeBinary(out);
+
+        out.writeStringField(1, this.potionName);
+        out.writeIntField(2, this.potionLevel);
+        out.writeBooleanField(3, this.potionExtended);
+        out.writeEnd();
     }
 
     /**
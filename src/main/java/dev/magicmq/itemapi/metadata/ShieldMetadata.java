@@ -2,16 +2,22 @@ package dev.magicmq.itemapi.metadata;
 
 import dev.magicmq.itemapi.WrappedItem;
 import dev.magicmq.itemapi.config.WrappedConfigurationSection;
+import dev.magicmq.itemapi.serialization.ItemDataInput;
+import dev.magicmq.itemapi.serialization.ItemDataOutput;
+import dev.magicmq.itemapi.utils.ContentHasher;
+import dev.magicmq.itemapi.utils.InternPool;
 import dev.magicmq.itemapi.utils.Pattern;
+import dev.magicmq.itemapi.utils.Resolver;
 import org.bukkit.DyeColor;
 import org.bukkit.block.Banner;
-import org.bukkit.block.banner.PatternType;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.BlockStateMeta;
+import org.bukkit.inventory.meta.ItemMeta;
 
 import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * Wrapper class that contians all Metadata associated with Shields.
@@ -23,6 +29,9 @@ public class ShieldMetadata extends Metadata {
     private String baseColor;
     private List<Pattern> patterns;
 
+    private transient DyeColor resolvedBaseColor;
+    private transient List<org.bukkit.block.banner.Pattern> resolvedPatterns;
+
     /**
      * Create a new ShieldMetadata class from scratch with default values.
      */
@@ -72,6 +81,30 @@ public class ShieldMetadata extends Metadata {
 
     }
 
+    /**
+     * Create a new ShieldMetadata class with values read from ItemAPI's binary format.
+     * @param in The input from which the data will be read
+     */
+    public ShieldMetadata(ItemDataInput in) {
+        super(in);
+
+        this.baseColor = null;
+        this.patterns = new ArrayList<>();
+
+        for (int tag = in.readTag(); tag != 0; tag = in.readTag()) {
+            switch (ItemDataInput.getFieldNumber(tag)) {
+                case 1:
+                    this.baseColor = in.readString();
+                    break;
+                case 2:
+                    this.patterns = in.readListField(Pattern::readBinary);
+                    break;
+                default:
+                    in.skipField(tag);
+            }
+        }
+    }
+
     /**
      * Get the base color of the shield.
      * @return The base color as an enum of {@link DyeColor}
@@ -86,6 +119,7 @@ public class ShieldMetadata extends Metadata {
      */
     public void setBaseColor(String baseColor) {
         this.baseColor = baseColor;
+        markModified();
     }
 
     /**
@@ -104,6 +138,7 @@ public class ShieldMetadata extends Metadata {
      */
     public void addPattern(Pattern pattern) {
         patterns.add(pattern);
+        markModified();
     }
 
     /**
@@ -113,31 +148,98 @@ public class ShieldMetadata extends Metadata {
      */
     public void setPatterns(List<Pattern> patterns) {
         this.patterns = patterns;
+        markModified();
     }
 
     /**
-     * Apply the shield metadata as well as basic metadata in {@link Metadata Metadata} to an ItemStack.
+     * Intern all the shield metadata contained within this class as well as basic metadata in {@link Metadata Metadata} through a pool, and trim lists so that they have no spare capacity.
+     * <b>Warning:</b> This method is called automatically from {@link WrappedItem#compact(InternPool) compact} in the WrappedItem class!
+     * @param pool The pool through which values will be interned
+     */
+    @Override
+    public void compact(InternPool pool) {
+        super.compact(pool);
+
+        this.baseColor = pool.intern(this.baseColor);
+        this.patterns = pool.internAll(this.patterns);
+    }
+
+    /**
+     * Feed all the shield metadata contained within this class as well as basic metadata in {@link Metadata Metadata} into a hasher.
+     * <b>Warning:</b> This method is called automatically from {@link Metadata#contentHash() contentHash} in the Metadata class!
+     * @param hasher The hasher to which the metadata will be added
+     */
+    @Override
+    public void hashContent(ContentHasher hasher) {
+        super.hashContent(hasher);
+
+        hasher.putString(this.baseColor)
+                .putAll(this.patterns);
+    }
+
+    /**
+     * Check if all the shield metadata contained within this class as well as basic metadata in {@link Metadata Metadata} is the same as in other metadata.
+     * <b>Warning:</b> This method is called automatically from {@link Metadata#equals(Object) equals} in the Metadata class!
+     * @param metadata The metadata to compare to, which is always a ShieldMetadata
+     * @return True if the metadata is the same, false if otherwise
+     */
+    @Override
+    protected boolean contentEquals(Metadata metadata) {
+        if (!super.contentEquals(metadata))
+            return false;
+
+        ShieldMetadata other = (ShieldMetadata) metadata;
+        return Objects.equals(this.baseColor, other.baseColor)
+                && ContentHasher.listEquals(this.patterns, other.patterns);
+    }
+
+    /**
+     * Resolve the base color and the patterns of the shield metadata as well as basic metadata in {@link Metadata Metadata}.
+     * <b>Warning:</b> This method is called automatically from {@link Metadata#resolve() resolve}!
+     * @param resolver The resolver through which names are resolved, and to which problems are reported
+     */
+    @Override
+    protected void resolveValues(Resolver resolver) {
+        super.resolveValues(resolver);
+
+        this.resolvedBaseColor = resolver.resolveEnum("base-color", DyeColor.class, baseColor);
+        this.resolvedPatterns = BannerMetadata.resolvePatterns(resolver, "shield-patterns", patterns);
+    }
+
+    /**
+     * Apply the shield metadata as well as basic metadata in {@link Metadata Metadata} to an ItemMeta.
      * <b>Warning:</b> This method is called automatically from {@link WrappedItem#getAsItemStack() getAsItemStack} in the WrappedItem class!
-     * @param item The item to which the metadata will be applied
-     * @return The item, with metadata applied to it
+     * @param itemMeta The meta to which the metadata will be applied
      */
     @Override
-    public ItemStack applyMetadata(ItemStack item) {
-        item = super.applyMetadata(item);
+    public void applyMeta(ItemMeta itemMeta) {
+        super.applyMeta(itemMeta);
 
-        BlockStateMeta meta = (BlockStateMeta) item.getItemMeta();
+        BlockStateMeta meta = (BlockStateMeta) itemMeta;
         Banner banner = (Banner) meta.getBlockState();
-        if (baseColor != null)
-            banner.setBaseColor(DyeColor.valueOf(baseColor));
-        if (patterns != null) {
-            for (Pattern pattern : patterns)
-                banner.addPattern(new org.bukkit.block.banner.Pattern(DyeColor.valueOf(pattern.getColor()), PatternType.valueOf(pattern.getPatternType())));
+        if (resolvedBaseColor != null)
+            banner.setBaseColor(resolvedBaseColor);
+        if (resolvedPatterns != null) {
+            for (org.bukkit.block.banner.Pattern pattern : resolvedPatterns)
+                banner.addPattern(pattern);
         }
 
         banner.update();
         meta.setBlockState(banner);
-        item.setItemMeta(meta);
-        return item;
+    }
+
+    /**
+     * Write all the shield metadata contained within this class as well as basic metadata in {@link Metadata Metadata} in ItemAPI's binary format.
+     * <b>Warning:</b> This method is called automatically from {@link WrappedItem#writeBinary(ItemDataOutput) writeBinary} in the WrappedItem class!
+     * @param out The output to which the data will be written
+     */
+    @Override
+    public void writeBinary(ItemDataOutput out) {
+        super.writeBinary(out);
+
+        out.writeStringField(1, this.baseColor);
+        out.writeListField(2, this.patterns, Pattern::writeBinary);
+        out.writeEnd();
     }
 
     /**
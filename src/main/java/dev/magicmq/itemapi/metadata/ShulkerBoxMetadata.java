@@ -2,23 +2,37 @@ package dev.magicmq.itemapi.metadata;
 
 import dev.magicmq.itemapi.WrappedItem;
 import dev.magicmq.itemapi.config.WrappedConfigurationSection;
+import dev.magicmq.itemapi.serialization.InventoryCodec;
+import dev.magicmq.itemapi.serialization.ItemDataInput;
+import dev.magicmq.itemapi.serialization.ItemDataOutput;
+import dev.magicmq.itemapi.utils.ContentHasher;
+import dev.magicmq.itemapi.utils.InternPool;
+import dev.magicmq.itemapi.utils.Resolver;
 import org.bukkit.block.ShulkerBox;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.BlockStateMeta;
+import org.bukkit.inventory.meta.ItemMeta;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.AbstractMap;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
  * Wrapper class that contians all Metadata associated with Shulker Boxes.
+ * <b>Note:</b> The contents are kept in an {@link IdentityHashMap}, because items are {@link WrappedItem#equals(Object) equal} whenever their contents are the same, so identical items in different slots would otherwise replace each other.
  */
 public class ShulkerBoxMetadata extends Metadata {
 
     private static final long serialVersionUID = 4869406315206615339L;
 
-    private HashMap<WrappedItem, Integer> contents;
+    private Map<WrappedItem, Integer> contents;
 
     /**
      * Create a new ShulkerBoxMetadata class from scratch with default values.
@@ -26,7 +40,7 @@ public class ShulkerBoxMetadata extends Metadata {
     public ShulkerBoxMetadata() {
         super();
 
-        this.contents = new HashMap<>();
+        this.contents = new IdentityHashMap<>();
     }
 
     /**
@@ -37,7 +51,7 @@ public class ShulkerBoxMetadata extends Metadata {
     public ShulkerBoxMetadata(WrappedConfigurationSection section) {
         super(section);
 
-        this.contents = new HashMap<>();
+        this.contents = new IdentityHashMap<>();
         WrappedConfigurationSection shulkerSection = section.getConfigurationSection("shulker-box-items");
         for (String key : shulkerSection.getKeys(false)) {
             WrappedConfigurationSection subSection = shulkerSection.getConfigurationSection(key);
@@ -53,7 +67,7 @@ public class ShulkerBoxMetadata extends Metadata {
     public ShulkerBoxMetadata(ItemStack item) {
         super(item);
 
-        this.contents = new HashMap<>();
+        this.contents = new IdentityHashMap<>();
         BlockStateMeta meta = (BlockStateMeta) item.getItemMeta();
         if (meta != null) {
             ShulkerBox shulkerBox = (ShulkerBox) meta.getBlockState();
@@ -62,18 +76,60 @@ public class ShulkerBoxMetadata extends Metadata {
                 if (contents[i] == null)
                     continue;
 
-                this.contents.put(new WrappedItem(item), i);
+                this.contents.put(new WrappedItem(contents[i]), i);
             }
         } else {
-            this.contents = new HashMap<>();
+            this.contents = new IdentityHashMap<>();
+        }
+    }
+
+    /**
+     * Create a new ShulkerBoxMetadata class with values read from ItemAPI's binary format.
+     * @param in The input from which the data will be read
+     */
+    public ShulkerBoxMetadata(ItemDataInput in) {
+        super(in);
+
+        this.contents = new IdentityHashMap<>();
+        for (int tag = in.readTag(); tag != 0; tag = in.readTag()) {
+            switch (ItemDataInput.getFieldNumber(tag)) {
+                case 1:
+                    readContents(in.readNested());
+                    break;
+                case 2:
+                    List<WrappedItem> slots = InventoryCodec.readSlots(in.readNested());
+                    for (int i = 0; i < slots.size(); i++) {
+                        if (slots.get(i) != null)
+                            contents.put(slots.get(i), i);
+                    }
+                    break;
+                case 3:
+                    for (WrappedItem item : InventoryCodec.readSlots(in.readNested())) {
+                        if (item != null)
+                            contents.put(item, null);
+                    }
+                    break;
+                default:
+                    in.skipField(tag);
+            }
         }
     }
 
     /**
      * Get the contents of the shulker box intentory along with their respective slots. <b>Note:</b> The value (slot) may be null if the item does not have a defined slot. If this is the case, then the item is added to the shulker box inventory in the first available slot.
-     * @return A mutable HashMap containing the contents of the inventory; the key is the item and the value is the slot number (could be null)
+     * @return A copy of the contents of the inventory in a HashMap; the key is the item and the value is the slot number (could be null)
+     * @deprecated Identical items in different slots are equal, so only one of them is kept in the returned HashMap, and changes to it are not reflected in this metadata. Use {@link #getContentMap()} instead.
      */
+    @Deprecated
     public HashMap<WrappedItem, Integer> getContents() {
+        return contents == null ? null : new HashMap<>(contents);
+    }
+
+    /**
+     * Get the contents of the shulker box intentory along with their respective slots. <b>Note:</b> The value (slot) may be null if the item does not have a defined slot. If this is the case, then the item is added to the shulker box inventory in the first available slot.
+     * @return A mutable IdentityHashMap containing the contents of the inventory; the key is the item and the value is the slot number (could be null)
+     */
+    public Map<WrappedItem, Integer> getContentMap() {
         return contents;
     }
 
@@ -92,37 +148,149 @@ public class ShulkerBoxMetadata extends Metadata {
      */
     public void addItem(WrappedItem item, Integer slot) {
         if (contents == null)
-            contents = new HashMap<>();
+            contents = new IdentityHashMap<>();
 
         contents.put(item, slot);
+        markModified();
     }
 
     /**
-     * Set the entire contents of the shulker box inventory. Set the slot value to null if the item does not need to have a specific slot. Setting to an empty HashMap or null will clear the contents of the shulker box.
+     * Set the entire contents of the shulker box inventory. Set the slot value to null if the item does not need to have a specific slot. Setting to an empty map or null will clear the contents of the shulker box.
      * @param contents A HashMap representing the contents of the inventory where the keys are the items and the values are their slots
+     * @deprecated A HashMap cannot hold identical items in different slots. Use {@link #setContentMap(Map)} instead.
      */
+    @Deprecated
     public void setContents(HashMap<WrappedItem, Integer> contents) {
+        setContentMap(contents == null ? null : new IdentityHashMap<>(contents));
+    }
+
+    /**
+     * Set the entire contents of the shulker box inventory. Set the slot value to null if the item does not need to have a specific slot. Setting to an empty map or null will clear the contents of the shulker box.
+     * <b>Note:</b> The map should be an {@link IdentityHashMap}, so that identical items in different slots are kept separately.
+     * @param contents A map representing the contents of the inventory where the keys are the items and the values are their slots
+     */
+    public void setContentMap(Map<WrappedItem, Integer> contents) {
         this.contents = contents;
+        markModified();
+    }
+
+    /**
+     * Get the current revision of this metadata, taking changes made to the contained items into account.
+     * @return The revision stamp of the most recent change made to this metadata or any of its contained items
+     */
+    @Override
+    public long getRevision() {
+        long revision = super.getRevision();
+        if (contents != null) {
+            for (WrappedItem item : contents.keySet())
+                revision = Math.max(revision, item.getRevision());
+        }
+        return revision;
+    }
+
+    /**
+     * Intern all the shulker box metadata contained within this class as well as basic metadata in {@link Metadata Metadata} through a pool, and trim lists so that they have no spare capacity.
+     * <b>Warning:</b> This method is called automatically from {@link WrappedItem#compact(InternPool) compact} in the WrappedItem class!
+     * @param pool The pool through which values will be interned
+     */
+    @Override
+    public void compact(InternPool pool) {
+        super.compact(pool);
+
+        if (this.contents != null) {
+            for (WrappedItem item : this.contents.keySet())
+                item.compact(pool);
+        }
+    }
+
+    /**
+     * Feed all the shulker box metadata contained within this class as well as basic metadata in {@link Metadata Metadata} into a hasher. The contents are hashed regardless of their order.
+     * <b>Warning:</b> This method is called automatically from {@link Metadata#contentHash() contentHash} in the Metadata class!
+     * @param hasher The hasher to which the metadata will be added
+     */
+    @Override
+    public void hashContent(ContentHasher hasher) {
+        super.hashContent(hasher);
+
+        long sum = 0;
+        if (this.contents != null) {
+            for (Map.Entry<WrappedItem, Integer> entry : this.contents.entrySet())
+                sum += new ContentHasher().put(entry.getKey()).putLong(entry.getValue() == null ? Long.MIN_VALUE : entry.getValue()).getHash();
+        }
+        hasher.putInt(this.contents == null ? 0 : this.contents.size()).putLong(sum);
     }
 
     /**
-     * Apply the shulker box metadata as well as basic metadata in {@link Metadata Metadata} to an ItemStack.
+     * Check if all the shulker box metadata contained within this class as well as basic metadata in {@link Metadata Metadata} is the same as in other metadata. The contents are the same if they contain equal items in the same slots, regardless of their order.
+     * <b>Warning:</b> This method is called automatically from {@link Metadata#equals(Object) equals} in the Metadata class!
+     * @param metadata The metadata to compare to, which is always a ShulkerBoxMetadata
+     * @return True if the metadata is the same, false if otherwise
+     */
+    @Override
+    protected boolean contentEquals(Metadata metadata) {
+        if (!super.contentEquals(metadata))
+            return false;
+
+        ShulkerBoxMetadata other = (ShulkerBoxMetadata) metadata;
+        int size = this.contents == null ? 0 : this.contents.size();
+        if (size != (other.contents == null ? 0 : other.contents.size()))
+            return false;
+        if (size == 0)
+            return true;
+
+        //Entries are counted by structural equality, since the same item may appear more than once
+        Map<Map.Entry<WrappedItem, Integer>, Integer> counts = new HashMap<>();
+        for (Map.Entry<WrappedItem, Integer> entry : this.contents.entrySet())
+            counts.merge(new AbstractMap.SimpleImmutableEntry<>(entry), 1, Integer::sum);
+        for (Map.Entry<WrappedItem, Integer> entry : other.contents.entrySet()) {
+            Map.Entry<WrappedItem, Integer> key = new AbstractMap.SimpleImmutableEntry<>(entry);
+            Integer count = counts.get(key);
+            if (count == null)
+                return false;
+            if (count == 1)
+                counts.remove(key);
+            else
+                counts.put(key, count - 1);
+        }
+        return true;
+    }
+
+    /**
+     * Resolve the items in the shulker box metadata as well as basic metadata in {@link Metadata Metadata}.
+     * <b>Warning:</b> This method is called automatically from {@link Metadata#resolve() resolve}!
+     * @param resolver The resolver through which names are resolved, and to which problems are reported
+     */
+    @Override
+    protected void resolveValues(Resolver resolver) {
+        super.resolveValues(resolver);
+
+        if (contents != null) {
+            for (Map.Entry<WrappedItem, Integer> entry : contents.entrySet()) {
+                //The contents are not kept in config order, so items are described by their slot instead
+                WrappedItem item = entry.getKey();
+                String key = "shulker-box-items" + (entry.getValue() != null ? "[slot " + entry.getValue() + "]" : "");
+                if (item.getMaterial() != null && item.getMaterial().contains("SHULKER_BOX"))
+                    resolver.report(key, "Shulker boxes cannot be nested within other shulker boxes!");
+                else
+                    resolver.resolveItem(key, item);
+            }
+        }
+    }
+
+    /**
+     * Apply the shulker box metadata as well as basic metadata in {@link Metadata Metadata} to an ItemMeta.
      * <b>Warning:</b> This method is called automatically from {@link WrappedItem#getAsItemStack() getAsItemStack} in the WrappedItem class!
-     * @param item The item to which the metadata will be applied
-     * @return The item, with metadata applied to it
+     * @param itemMeta The meta to which the metadata will be applied
      */
     @Override
-    public ItemStack applyMetadata(ItemStack item) {
-        item = super.applyMetadata(item);
+    public void applyMeta(ItemMeta itemMeta) {
+        super.applyMeta(itemMeta);
 
-        BlockStateMeta meta = (BlockStateMeta) item.getItemMeta();
+        BlockStateMeta meta = (BlockStateMeta) itemMeta;
         ShulkerBox shulkerBox = (ShulkerBox) meta.getBlockState();
         Inventory inventory = shulkerBox.getSnapshotInventory();
         for (Map.Entry<WrappedItem, Integer> toAdd : contents.entrySet()) {
             WrappedItem itemToAdd = toAdd.getKey();
-            if (itemToAdd.getMaterial().contains("SHULKER_BOX"))
-                throw new UnsupportedOperationException("Shulker boxes cannot be nested within other shulker boxes!");
-
             if (toAdd.getValue() == null)
                 inventory.addItem(itemToAdd.getAsItemStack());
             else
@@ -131,8 +299,86 @@ public class ShulkerBoxMetadata extends Metadata {
 
         shulkerBox.update();
         meta.setBlockState(shulkerBox);
-        item.setItemMeta(meta);
-        return item;
+    }
+
+    /**
+     * Write all the shulker box metadata contained within this class as well as basic metadata in {@link Metadata Metadata} in ItemAPI's binary format.
+     * <b>Warning:</b> This method is called automatically from {@link WrappedItem#writeBinary(ItemDataOutput) writeBinary} in the WrappedItem class!
+     * @param out The output to which the data will be written
+     */
+    @Override
+    public void writeBinary(ItemDataOutput out) {
+        super.writeBinary(out);
+
+        if (this.contents != null) {
+            //Items in a slot are written as an array of slots and items without a slot as a separate list, so that duplicates are only written once
+            List<WrappedItem> slots = new ArrayList<>();
+            List<WrappedItem> unslotted = new ArrayList<>();
+            boolean slotsInRange = true;
+            for (Map.Entry<WrappedItem, Integer> entry : this.contents.entrySet()) {
+                Integer slot = entry.getValue();
+                if (slot == null) {
+                    unslotted.add(entry.getKey());
+                } else if (slot < 0 || slot >= InventoryCodec.MAX_SLOTS || (slot < slots.size() && slots.get(slot) != null)) {
+                    slotsInRange = false;
+                    break;
+                } else {
+                    while (slots.size() <= slot)
+                        slots.add(null);
+                    slots.set(slot, entry.getKey());
+                }
+            }
+
+            if (slotsInRange) {
+                if (!slots.isEmpty())
+                    out.writeNestedField(2, slotsOut -> InventoryCodec.writeSlots(slotsOut, slots));
+                if (!unslotted.isEmpty())
+                    out.writeNestedField(3, unslottedOut -> InventoryCodec.writeSlots(unslottedOut, unslotted));
+            } else {
+                //Slots that cannot be stored in an array, such as two items in the same slot, are written one entry at a time
+                out.writeNestedField(1, contentsOut -> {
+                    contentsOut.writeVarInt(this.contents.size());
+                    for (Map.Entry<WrappedItem, Integer> entry : this.contents.entrySet()) {
+                        contentsOut.writeNested(entryOut -> {
+                            entryOut.writeNestedField(1, entry.getKey()::writeBinary);
+                            if (entry.getValue() != null)
+                                entryOut.writeIntField(2, entry.getValue());
+                        });
+                    }
+                });
+            }
+        }
+        out.writeEnd();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        //Older versions stored the contents in a HashMap, which is copied into an IdentityHashMap so that identical items added later are kept separately
+        Map<WrappedItem, Integer> contents = (Map<WrappedItem, Integer>) in.readFields().get("contents", null);
+        this.contents = contents == null ? null : new IdentityHashMap<>(contents);
+    }
+
+    private void readContents(ItemDataInput in) {
+        int size = in.readSize();
+        for (int i = 0; i < size; i++) {
+            ItemDataInput entryIn = in.readNested();
+            WrappedItem item = null;
+            Integer slot = null;
+            for (int tag = entryIn.readTag(); tag != 0; tag = entryIn.readTag()) {
+                switch (ItemDataInput.getFieldNumber(tag)) {
+                    case 1:
+                        item = new WrappedItem(entryIn.readNested());
+                        break;
+                    case 2:
+                        slot = entryIn.readSignedVarInt();
+                        break;
+                    default:
+                        entryIn.skipField(tag);
+                }
+            }
+            if (item != null)
+                contents.put(item, slot);
+        }
     }
 
     /**
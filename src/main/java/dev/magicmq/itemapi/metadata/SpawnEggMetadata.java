@@ -2,11 +2,18 @@ package dev.magicmq.itemapi.metadata;
 
 import dev.magicmq.itemapi.WrappedItem;
 import dev.magicmq.itemapi.config.WrappedConfigurationSection;
+import dev.magicmq.itemapi.serialization.ItemDataInput;
+import dev.magicmq.itemapi.serialization.ItemDataOutput;
+import dev.magicmq.itemapi.utils.ContentHasher;
+import dev.magicmq.itemapi.utils.InternPool;
+import dev.magicmq.itemapi.utils.Resolver;
 import org.bukkit.entity.EntityType;
 import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.inventory.meta.SpawnEggMeta;
 
 import java.io.File;
+import java.util.Objects;
 
 /**
  * Legacy support for spawn eggs prior to 1.13.
@@ -18,6 +25,8 @@ public class SpawnEggMetadata extends Metadata {
 
     private String entityType;
 
+    private transient EntityType resolvedEntityType;
+
     /**
      * Create a new SpawnEggMetadata class from scratch with default values.
      */
@@ -51,6 +60,26 @@ public class SpawnEggMetadata extends Metadata {
             this.entityType = null;
     }
 
+    /**
+     * Create a new SpawnEggMetadata class with values read from ItemAPI's binary format.
+     * @param in The input from which the data will be read
+     */
+    public SpawnEggMetadata(ItemDataInput in) {
+        super(in);
+
+        this.entityType = null;
+
+        for (int tag = in.readTag(); tag != 0; tag = in.readTag()) {
+            switch (ItemDataInput.getFieldNumber(tag)) {
+                case 1:
+                    this.entityType = in.readString();
+                    break;
+                default:
+                    in.skipField(tag);
+            }
+        }
+    }
+
     /**
      * Get the entity type associated with this spawn egg.
      * @return The entity type of this spawn egg as an enum of {@link EntityType}
@@ -65,25 +94,86 @@ public class SpawnEggMetadata extends Metadata {
      */
     public void setEntityType(String entityType) {
         this.entityType = entityType;
+        markModified();
+    }
+
+    /**
+     * Intern all the spawn egg metadata contained within this class as well as basic metadata in {@link Metadata Metadata} through a pool, and trim lists so that they have no spare capacity.
+     * <b>Warning:</b> This method is called automatically from {@link WrappedItem#compact(InternPool) compact} in the WrappedItem class!
+     * @param pool The pool through which values will be interned
+     */
+    @Override
+    public void compact(InternPool pool) {
+        super.compact(pool);
+
+        this.entityType = pool.intern(this.entityType);
     }
 
     /**
-     * Apply the spawn egg metadata as well as basic metadata in {@link Metadata Metadata} to an ItemStack.
+     * Feed all the spawn egg metadata contained within this class as well as basic metadata in {@link Metadata Metadata} into a hasher.
+     * <b>Warning:</b> This method is called automatically from {@link Metadata#contentHash() contentHash} in the Metadata class!
+     * @param hasher The hasher to which the metadata will be added
+     */
+    @Override
+    public void hashContent(ContentHasher hasher) {
+        super.hashContent(hasher);
+
+        hasher.putString(this.entityType);
+    }
+
+    /**
+     * Check if all the spawn egg metadata contained within this class as well as basic metadata in {@link Metadata Metadata} is the same as in other metadata.
+     * <b>Warning:</b> This method is called automatically from {@link Metadata#equals(Object) equals} in the Metadata class!
+     * @param metadata The metadata to compare to, which is always a SpawnEggMetadata
+     * @return True if the metadata is the same, false if otherwise
+     */
+    @Override
+    protected boolean contentEquals(Metadata metadata) {
+        if (!super.contentEquals(metadata))
+            return false;
+
+        SpawnEggMetadata other = (SpawnEggMetadata) metadata;
+        return Objects.equals(this.entityType, other.entityType);
+    }
+
+    /**
+     * Resolve the mob type of the spawn egg metadata as well as basic metadata in {@link Metadata Metadata}.
+     * <b>Warning:</b> This method is called automatically from {@link Metadata#resolve() resolve}!
+     * @param resolver The resolver through which names are resolved, and to which problems are reported
+     */
+    @Override
+    protected void resolveValues(Resolver resolver) {
+        super.resolveValues(resolver);
+
+        this.resolvedEntityType = resolver.resolveEnum("mob-type", EntityType.class, entityType);
+    }
+
+    /**
+     * Apply the spawn egg metadata as well as basic metadata in {@link Metadata Metadata} to an ItemMeta.
      * <b>Warning:</b> This method is called automatically from {@link WrappedItem#getAsItemStack() getAsItemStack} in the WrappedItem class!
-     * @param item The item to which the metadata will be applied
-     * @return The item, with metadata applied to it
+     * @param itemMeta The meta to which the metadata will be applied
      */
     @Override
-    public ItemStack applyMetadata(ItemStack item) {
-        item = super.applyMetadata(item);
+    public void applyMeta(ItemMeta itemMeta) {
+        super.applyMeta(itemMeta);
 
-        SpawnEggMeta meta = (SpawnEggMeta) item.getItemMeta();
-        if (entityType != null) {
-            meta.setSpawnedType(EntityType.valueOf(entityType));
+        SpawnEggMeta meta = (SpawnEggMeta) itemMeta;
+        if (resolvedEntityType != null) {
+            meta.setSpawnedType(resolvedEntityType);
         }
+    }
+
+    /**
+     * Write all the spawn egg metadata contained within this class as well as basic metadata in {@link Metadata Metadata} in ItemAPI's binary format.
+     * <b>Warning:</b> This method is called automatically from {@link WrappedItem#writeBinary(ItemDataOutput) writeBinary} in the WrappedItem class!
+     * @param out The output to which the data will be written
+     */
+    @Override
+    public void writeBinary(ItemDataOutput out) {
+        super.writeBinary(out);
 
-        item.setItemMeta(meta);
-        return item;
+        out.writeStringField(1, this.entityType);
+        out.writeEnd();
     }
 
     /**
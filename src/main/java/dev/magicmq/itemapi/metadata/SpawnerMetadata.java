@@ -2,12 +2,19 @@ package dev.magicmq.itemapi.metadata;
 
 import dev.magicmq.itemapi.WrappedItem;
 import dev.magicmq.itemapi.config.WrappedConfigurationSection;
+import dev.magicmq.itemapi.serialization.ItemDataInput;
+import dev.magicmq.itemapi.serialization.ItemDataOutput;
+import dev.magicmq.itemapi.utils.ContentHasher;
+import dev.magicmq.itemapi.utils.InternPool;
+import dev.magicmq.itemapi.utils.Resolver;
 import org.bukkit.block.CreatureSpawner;
 import org.bukkit.entity.EntityType;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.BlockStateMeta;
+import org.bukkit.inventory.meta.ItemMeta;
 
 import java.io.File;
+import java.util.Objects;
 
 /**
  * Wrapper class that contians all Metadata associated with Spawners.
@@ -18,6 +25,8 @@ public class SpawnerMetadata extends Metadata {
 
     private String entityType;
 
+    private transient EntityType resolvedEntityType;
+
     /**
      * Create a new SpawnerMetadata class from scratch with default values.
      */
@@ -50,6 +59,26 @@ public class SpawnerMetadata extends Metadata {
         this.entityType = spawner.getSpawnedType().name();
     }
 
+    /**
+     * Create a new SpawnerMetadata class with values read from ItemAPI's binary format.
+     * @param in The input from which the data will be read
+     */
+    public SpawnerMetadata(ItemDataInput in) {
+        super(in);
+
+        this.entityType = null;
+
+        for (int tag = in.readTag(); tag != 0; tag = in.readTag()) {
+            switch (ItemDataInput.getFieldNumber(tag)) {
+                case 1:
+                    this.entityType = in.readString();
+                    break;
+                default:
+                    in.skipField(tag);
+            }
+        }
+    }
+
     /**
      * Get the entity type associated with this spawner.
      * @return The entity type of this spawner as an enum of {@link EntityType}
@@ -64,27 +93,89 @@ public class SpawnerMetadata extends Metadata {
      */
     public void setEntityType(String entityType) {
         this.entityType = entityType;
+        markModified();
+    }
+
+    /**
+     * Intern all the spawner metadata contained within this class as well as basic metadata in {@link Metadata Metadata} through a pool, and trim lists so that they have no spare capacity.
+     * <b>Warning:</b> This method is called automatically from {@link WrappedItem#compact(InternPool) compact} in the WrappedItem class!
+     * @param pool The pool through which values will be interned
+     */
+    @Override
+    public void compact(InternPool pool) {
+        super.compact(pool);
+
+        this.entityType = pool.intern(this.entityType);
+    }
+
+    /**
+     * Feed all the spawner metadata contained within this class as well as basic metadata in {@link Metadata Metadata} into a hasher.
+     * <b>Warning:</b> This method is called automatically from {@link Metadata#contentHash() contentHash} in the Metadata class!
+     * @param hasher The hasher to which the metadata will be added
+     */
+    @Override
+    public void hashContent(ContentHasher hasher) {
+        super.hashContent(hasher);
+
+        hasher.putString(this.entityType);
+    }
+
+    /**
+     * Check if all the spawner metadata contained within this class as well as basic metadata in {@link Metadata Metadata} is the same as in other metadata.
+     * <b>Warning:</b> This method is called automatically from {@link Metadata#equals(Object) equals} in the Metadata class!
+     * @param metadata The metadata to compare to, which is always a SpawnerMetadata
+     * @return True if the metadata is the same, false if otherwise
+     */
+    @Override
+    protected boolean contentEquals(Metadata metadata) {
+        if (!super.contentEquals(metadata))
+            return false;
+
+        SpawnerMetadata other = (SpawnerMetadata) metadata;
+        return Objects.equals(this.entityType, other.entityType);
+    }
+
+    /**
+     * Resolve the mob type of the spawner metadata as well as basic metadata in {@link Metadata Metadata}.
+     * <b>Warning:</b> This method is called automatically from {@link Metadata#resolve() resolve}!
+     * @param resolver The resolver through which names are resolved, and to which problems are reported
+     */
+    @Override
+    protected void resolveValues(Resolver resolver) {
+        super.resolveValues(resolver);
+
+        this.resolvedEntityType = resolver.resolveEnum("mob-type", EntityType.class, entityType);
     }
 
     /**
-     * Apply the spawner metadata as well as basic metadata in {@link Metadata Metadata} to an ItemStack.
+     * Apply the spawner metadata as well as basic metadata in {@link Metadata Metadata} to an ItemMeta.
      * <b>Warning:</b> This method is called automatically from {@link WrappedItem#getAsItemStack() getAsItemStack} in the WrappedItem class!
-     * @param item The item to which the metadata will be applied
-     * @return The item, with metadata applied to it
+     * @param itemMeta The meta to which the metadata will be applied
      */
     @Override
-    public ItemStack applyMetadata(ItemStack item) {
-        item = super.applyMetadata(item);
+    public void applyMeta(ItemMeta itemMeta) {
+        super.applyMeta(itemMeta);
 
-        BlockStateMeta meta = (BlockStateMeta) item.getItemMeta();
+        BlockStateMeta meta = (BlockStateMeta) itemMeta;
         CreatureSpawner spawner = (CreatureSpawner) meta.getBlockState();
-        if (entityType != null)
-            spawner.setSpawnedType(EntityType.valueOf(entityType));
+        if (resolvedEntityType != null)
+            spawner.setSpawnedType(resolvedEntityType);
 
         spawner.update();
         meta.setBlockState(spawner);
-        item.setItemMeta(meta);
-        return item;
+    }
+
+    /**
+     * Write all the spawner metadata contained within this class as well as basic metadata in {@link Metadata Metadata} in ItemAPI's binary format.
+     * <b>Warning:</b> This method is called automatically from {@link WrappedItem#writeBinary(ItemDataOutput) writeBinary} in the WrappedItem class!
+     * @param out The output to which the data will be written
+     */
+    @Override
+    public void writeBinary(ItemDataOutput out) {
+        super.writeBinary(out);
+
+        out.writeStringField(1, this.entityType);
+        out.writeEnd();
     }
 
     /**
@@ -2,12 +2,18 @@ package dev.magicmq.itemapi.metadata;
 
 import dev.magicmq.itemapi.WrappedItem;
 import dev.magicmq.itemapi.config.WrappedConfigurationSection;
+import dev.magicmq.itemapi.serialization.ItemDataInput;
+import dev.magicmq.itemapi.serialization.ItemDataOutput;
+import dev.magicmq.itemapi.utils.ContentHasher;
+import dev.magicmq.itemapi.utils.InternPool;
 import dev.magicmq.itemapi.utils.Potion;
 import dev.magicmq.itemapi.utils.PotionEffect;
+import dev.magicmq.itemapi.utils.Resolver;
 import dev.magicmq.itemapi.utils.StringUtils;
-import dev.magicmq.itemapi.utils.exception.PotionNotFoundException;
 import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.inventory.meta.SuspiciousStewMeta;
+import org.bukkit.potion.PotionEffectType;
 import org.bukkit.potion.PotionType;
 
 import java.io.File;
@@ -25,6 +31,8 @@ public class SuspiciousStewMetadata extends Metadata {
 
     private List<PotionEffect> potionEffects;
 
+    private transient List<org.bukkit.potion.PotionEffect> resolvedEffects;
+
     /**
      * Create a new SuspiciousStewMetadata class from scratch with default values.
      */
@@ -58,7 +66,7 @@ public class SuspiciousStewMetadata extends Metadata {
     }
 
     /**
-     * Create a new SuspiciousStewMetadata class with values parsed from an existing ItemStack.
+     * Create a new SuspiciousStewMetadata class with values parsed from an existing ItemStack. Each effect is stored by the name of its {@link PotionEffectType}, which is accepted in place of a potion type when the metadata is resolved.
      * @param item The item from which suspicious stew metadata will be extracted
      */
     public SuspiciousStewMetadata(ItemStack item) {
@@ -82,6 +90,26 @@ public class SuspiciousStewMetadata extends Metadata {
         }
     }
 
+    /**
+     * Create a new SuspiciousStewMetadata class with values read from ItemAPI's binary format.
+     * @param in The input from which the data will be read
+     */
+    public SuspiciousStewMetadata(ItemDataInput in) {
+        super(in);
+
+        this.potionEffects = new ArrayList<>();
+
+        for (int tag = in.readTag(); tag != 0; tag = in.readTag()) {
+            switch (ItemDataInput.getFieldNumber(tag)) {
+                case 1:
+                    this.potionEffects = in.readListField(PotionEffect::readBinary);
+                    break;
+                default:
+                    in.skipField(tag);
+            }
+        }
+    }
+
     /**
      * Get a list of potion effects associated with this metadata
      * @return A mutable list containing all potion effects
@@ -96,6 +124,7 @@ public class SuspiciousStewMetadata extends Metadata {
      */
     public void addPotionEffect(PotionEffect potionEffect) {
         potionEffects.add(potionEffect);
+        markModified();
     }
 
     /**
@@ -104,39 +133,127 @@ public class SuspiciousStewMetadata extends Metadata {
      */
     public void setPotionEffects(List<PotionEffect> potionEffects) {
         this.potionEffects = potionEffects;
+        markModified();
     }
 
     /**
-     * Apply the suspicious stew metadata as well as basic metadata in {@link Metadata Metadata} to an ItemStack.
-     * <b>Warning:</b> This method is called automatically from {@link WrappedItem#getAsItemStack() getAsItemStack} in the WrappedItem class!
-     * @param item The item to which the metadata will be applied
-     * @return The item, with metadata applied to it
+     * Intern all the suspicious stew metadata contained within this class as well as basic metadata in {@link Metadata Metadata} through a pool, and trim lists so that they have no spare capacity.
+     * <b>Warning:</b> This method is called automatically from {@link WrappedItem#compact(InternPool) compact} in the WrappedItem class!
+     * @param pool The pool through which values will be interned
      */
     @Override
-    public ItemStack applyMetadata(ItemStack item) {
-        item = super.applyMetadata(item);
+    public void compact(InternPool pool) {
+        super.compact(pool);
 
-        SuspiciousStewMeta meta = (SuspiciousStewMeta) item.getItemMeta();
+        this.potionEffects = pool.internAll(this.potionEffects);
+    }
+
+    /**
+     * Feed all the suspicious stew metadata contained within this class as well as basic metadata in {@link Metadata Metadata} into a hasher.
+     * <b>Warning:</b> This method is called automatically from {@link Metadata#contentHash() contentHash} in the Metadata class!
+     * @param hasher The hasher to which the metadata will be added
+     */
+    @Override
+    public void hashContent(ContentHasher hasher) {
+        super.hashContent(hasher);
+
+        hasher.putAll(this.potionEffects);
+    }
+
+    /**
+     * Check if all the suspicious stew metadata contained within this class as well as basic metadata in {@link Metadata Metadata} is the same as in other metadata.
+     * <b>Warning:</b> This method is called automatically from {@link Metadata#equals(Object) equals} in the Metadata class!
+     * @param metadata The metadata to compare to, which is always a SuspiciousStewMetadata
+     * @return True if the metadata is the same, false if otherwise
+     */
+    @Override
+    protected boolean contentEquals(Metadata metadata) {
+        if (!super.contentEquals(metadata))
+            return false;
+
+        SuspiciousStewMetadata other = (SuspiciousStewMetadata) metadata;
+        return ContentHasher.listEquals(this.potionEffects, other.potionEffects);
+    }
+
+    /**
+     * Resolve the potion effects of the suspicious stew metadata, including their durations in ticks, as well as basic metadata in {@link Metadata Metadata}.
+     * <b>Warning:</b> This method is called automatically from {@link Metadata#resolve() resolve}!
+     * @param resolver The resolver through which names are resolved, and to which problems are reported
+     */
+    @Override
+    protected void resolveValues(Resolver resolver) {
+        super.resolveValues(resolver);
+
+        List<org.bukkit.potion.PotionEffect> resolvedEffects = new ArrayList<>();
         if (potionEffects != null) {
-            for (PotionEffect effect : potionEffects) {
-                Potion potionName = Potion.getByName(effect.getPotion());
-                if (potionName == null)
-                    throw new PotionNotFoundException("Potion type " + effect.getPotion() + " not found! Please check that the name is correct.");
+            for (int i = 0; i < potionEffects.size(); i++) {
+                PotionEffect effect = potionEffects.get(i);
+                String key = "stew-potion-effects." + i;
+                PotionEffectType effectType = resolveEffectType(resolver, key + ".potion", effect.getPotion());
+                Integer duration = resolver.resolve(key + ".duration", effect.getDuration(), StringUtils::parseTimeStrictly);
+                if (effectType == null || duration == null)
+                    continue;
 
-                org.bukkit.potion.PotionEffect bukkitPotionEffect = new org.bukkit.potion.PotionEffect(
-                        PotionType.valueOf(potionName.getBukkitPotionType()).getEffectType(),
-                        StringUtils.parseTime(effect.getDuration()),
-                        effect.getAmplifier(),
-                        effect.isAmbient(),
-                        effect.hasParticles(),
-                        effect.hasIcon()
-                );
-                meta.addCustomEffect(bukkitPotionEffect, false);
+                try {
+                    resolvedEffects.add(new org.bukkit.potion.PotionEffect(
+                            effectType,
+                            duration,
+                            effect.getAmplifier(),
+                            effect.isAmbient(),
+                            effect.hasParticles(),
+                            effect.hasIcon()
+                    ));
+                } catch (IllegalArgumentException e) {
+                    resolver.report(key, e.getMessage());
+                }
             }
         }
+        this.resolvedEffects = resolvedEffects;
+    }
+
+    private static PotionEffectType resolveEffectType(Resolver resolver, String key, String name) {
+        Potion potion = name != null ? Potion.getByName(name) : null;
+        if (potion != null) {
+            PotionType potionType = resolver.resolveEnum(key, PotionType.class, potion.getBukkitPotionType());
+            if (potionType == null)
+                return null;
+            if (potionType.getEffectType() == null)
+                resolver.report(key, "Potion type " + name + " has no potion effect!");
+            return potionType.getEffectType();
+        }
+
+        //Effects such as saturation and blindness have no potion type, and effects read from an ItemStack are stored by the name of their effect type
+        PotionEffectType effectType = name != null ? PotionEffectType.getByName(name) : null;
+        if (effectType == null)
+            resolver.report(key, "Potion type " + name + " not found! Please check that the name is correct.");
+        return effectType;
+    }
+
+    /**
+     * Apply the suspicious stew metadata as well as basic metadata in {@link Metadata Metadata} to an ItemMeta.
+     * <b>Warning:</b> This method is called automatically from {@link WrappedItem#getAsItemStack() getAsItemStack} in the WrappedItem class!
+     * @param itemMeta The meta to which the metadata will be applied
+     */
+    @Override
+    public void applyMeta(ItemMeta itemMeta) {
+        super.applyMeta(itemMeta);
+
+        SuspiciousStewMeta meta = (SuspiciousStewMeta) itemMeta;
+        for (org.bukkit.potion.PotionEffect effect : resolvedEffects)
+            meta.addCustomEffect(effect, false);
+    }
+
+    /**
+     * Write all the suspicious stew metadata contained within this class as well as basic metadata in {@link Metadata Metadata} in ItemAPI's binary format.
+     * <b>Warning:</b> This method is called automatically from {@link WrappedItem#writeBinary(ItemDataOutput) writeBinary} in the WrappedItem class!
+     * @param out The output to which the data will be written
+     */
+    @Override
+    public void writeBinary(ItemDataOutput out) {
+        super.writeBinary(out);
 
-        item.setItemMeta(meta);
-        return item;
+        out.writeListField(1, this.potionEffects, PotionEffect::writeBinary);
+        out.writeEnd();
     }
 
     /**
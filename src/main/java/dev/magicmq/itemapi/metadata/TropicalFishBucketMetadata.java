@@ -2,12 +2,19 @@ package dev.magicmq.itemapi.metadata;
 
 import dev.magicmq.itemapi.WrappedItem;
 import dev.magicmq.itemapi.config.WrappedConfigurationSection;
+import dev.magicmq.itemapi.serialization.ItemDataInput;
+import dev.magicmq.itemapi.serialization.ItemDataOutput;
+import dev.magicmq.itemapi.utils.ContentHasher;
+import dev.magicmq.itemapi.utils.InternPool;
+import dev.magicmq.itemapi.utils.Resolver;
 import org.bukkit.DyeColor;
 import org.bukkit.entity.TropicalFish;
 import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.inventory.meta.TropicalFishBucketMeta;
 
 import java.io.File;
+import java.util.Objects;
 
 /**
  * Wrapper class that contians all Metadata associated with Tropical Fish Buckets.
@@ -22,6 +29,10 @@ public class TropicalFishBucketMetadata extends Metadata {
     private String pattern;
     private String patternColor;
 
+    private transient DyeColor resolvedBodyColor;
+    private transient TropicalFish.Pattern resolvedPattern;
+    private transient DyeColor resolvedPatternColor;
+
     /**
      * Create a new TropicalFishBucketMetadata class from scratch with default values.
      */
@@ -66,6 +77,34 @@ public class TropicalFishBucketMetadata extends Metadata {
         }
     }
 
+    /**
+     * Create a new TropicalFishBucketMetadata class with values read from ItemAPI's binary format.
+     * @param in The input from which the data will be read
+     */
+    public TropicalFishBucketMetadata(ItemDataInput in) {
+        super(in);
+
+        this.bodyColor = null;
+        this.pattern = null;
+        this.patternColor = null;
+
+        for (int tag = in.readTag(); tag != 0; tag = in.readTag()) {
+            switch (ItemDataInput.getFieldNumber(tag)) {
+                case 1:
+                    this.bodyColor = in.readString();
+                    break;
+                case 2:
+                    this.pattern = in.readString();
+                    break;
+                case 3:
+                    this.patternColor = in.readString();
+                    break;
+                default:
+                    in.skipField(tag);
+            }
+        }
+    }
+
     /**
      * Get the fish's body color.
      * @return The body color of the fish as an enum of {@link DyeColor}
@@ -80,6 +119,7 @@ public class TropicalFishBucketMetadata extends Metadata {
      */
     public void setBodyColor(String bodyColor) {
         this.bodyColor = bodyColor;
+        markModified();
     }
 
     /**
@@ -96,6 +136,7 @@ public class TropicalFishBucketMetadata extends Metadata {
      */
     public void setPattern(String pattern) {
         this.pattern = pattern;
+        markModified();
     }
 
     /**
@@ -112,28 +153,99 @@ public class TropicalFishBucketMetadata extends Metadata {
      */
     public void setPatternColor(String patternColor) {
         this.patternColor = patternColor;
+        markModified();
+    }
+
+    /**
+     * Intern all the tropical fish bucket metadata contained within this class as well as basic metadata in {@link Metadata Metadata} through a pool, and trim lists so that they have no spare capacity.
+     * <b>Warning:</b> This method is called automatically from {@link WrappedItem#compact(InternPool) compact} in the WrappedItem class!
+     * @param pool The pool through which values will be interned
+     */
+    @Override
+    public void compact(InternPool pool) {
+        super.compact(pool);
+
+        this.bodyColor = pool.intern(this.bodyColor);
+        this.pattern = pool.intern(this.pattern);
+        this.patternColor = pool.intern(this.patternColor);
+    }
+
+    /**
+     * Feed all the tropical fish bucket metadata contained within this class as well as basic metadata in {@link Metadata Metadata} into a hasher.
+     * <b>Warning:</b> This method is called automatically from {@link Metadata#contentHash() contentHash} in the Metadata class!
+     * @param hasher The hasher to which the metadata will be added
+     */
+    @Override
+    public void hashContent(ContentHasher hasher) {
+        super.hashContent(hasher);
+
+        hasher.putString(this.bodyColor)
+                .putString(this.pattern)
+                .putString(this.patternColor);
     }
 
     /**
-     * Apply the tropical fish bucket metadata as well as basic metadata in {@link Metadata Metadata} to an ItemStack.
+     * Check if all the tropical fish bucket metadata contained within this class as well as basic metadata in {@link Metadata Metadata} is the same as in other metadata.
+     * <b>Warning:</b> This method is called automatically from {@link Metadata#equals(Object) equals} in the Metadata class!
+     * @param metadata The metadata to compare to, which is always a TropicalFishBucketMetadata
+     * @return True if the metadata is the same, false if otherwise
+     */
+    @Override
+    protected boolean contentEquals(Metadata metadata) {
+        if (!super.contentEquals(metadata))
+            return false;
+
+        TropicalFishBucketMetadata other = (TropicalFishBucketMetadata) metadata;
+        return Objects.equals(this.bodyColor, other.bodyColor)
+                && Objects.equals(this.pattern, other.pattern)
+                && Objects.equals(this.patternColor, other.patternColor);
+    }
+
+    /**
+     * Resolve the colors and pattern of the tropical fish bucket metadata as well as basic metadata in {@link Metadata Metadata}.
+     * <b>Warning:</b> This method is called automatically from {@link Metadata#resolve() resolve}!
+     * @param resolver The resolver through which names are resolved, and to which problems are reported
+     */
+    @Override
+    protected void resolveValues(Resolver resolver) {
+        super.resolveValues(resolver);
+
+        this.resolvedBodyColor = resolver.resolveEnum("tropical-fish-bucket-data.body-color", DyeColor.class, bodyColor);
+        this.resolvedPattern = resolver.resolveEnum("tropical-fish-bucket-data.pattern", TropicalFish.Pattern.class, pattern);
+        this.resolvedPatternColor = resolver.resolveEnum("tropical-fish-bucket-data.pattern-color", DyeColor.class, patternColor);
+    }
+
+    /**
+     * Apply the tropical fish bucket metadata as well as basic metadata in {@link Metadata Metadata} to an ItemMeta.
      * <b>Warning:</b> This method is called automatically from {@link WrappedItem#getAsItemStack() getAsItemStack} in the WrappedItem class!
-     * @param item The item to which the metadata will be applied
-     * @return The item, with metadata applied to it
+     * @param itemMeta The meta to which the metadata will be applied
      */
     @Override
-    public ItemStack applyMetadata(ItemStack item) {
-        item = super.applyMetadata(item);
+    public void applyMeta(ItemMeta itemMeta) {
+        super.applyMeta(itemMeta);
 
-        TropicalFishBucketMeta meta = (TropicalFishBucketMeta) item.getItemMeta();
-        if (bodyColor != null)
-            meta.setBodyColor(DyeColor.valueOf(bodyColor));
-        if (pattern != null)
-            meta.setPattern(TropicalFish.Pattern.valueOf(pattern));
-        if (patternColor != null)
-            meta.setPatternColor(DyeColor.valueOf(patternColor));
-
-        item.setItemMeta(meta);
-        return item;
+        TropicalFishBucketMeta meta = (TropicalFishBucketMeta) itemMeta;
+        if (resolvedBodyColor != null)
+            meta.setBodyColor(resolvedBodyColor);
+        if (resolvedPattern != null)
+            meta.setPattern(resolvedPattern);
+        if (resolvedPatternColor != null)
+            meta.setPatternColor(resolvedPatternColor);
+    }
+
+    /**
+     * Write all the tropical fish bucket metadata contained within this class as well as basic metadata in {@link Metadata Metadata} in ItemAPI's binary format.
+     * <b>Warning:</b> This method is called automatically from {@link WrappedItem#writeBinary(ItemDataOutput) writeBinary} in the WrappedItem class!
+     * @param out The output to which the data will be written
+     */
+    @Override
+    public void writeBinary(ItemDataOutput out) {
+        super.writeBinary(out);
+
+        out.writeStringField(1, this.bodyColor);
+        out.writeStringField(2, this.pattern);
+        out.writeStringField(3, this.patternColor);
+        out.writeEnd();
     }
 
     /**
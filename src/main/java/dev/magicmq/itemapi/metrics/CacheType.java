@@ -0,0 +1,27 @@
+package dev.magicmq.itemapi.metrics;
+
+/**
+ * A cache kept by ItemAPI whose hits and misses are counted by {@link Metrics}.
+ */
+public enum CacheType {
+
+    /**
+     * The ItemStack built by a {@link dev.magicmq.itemapi.CompiledItem CompiledItem}. A miss means the ItemStack had to be built again.
+     */
+    COMPILED_ITEM,
+
+    /**
+     * The shared cache of compiled {@link dev.magicmq.itemapi.text.FormattedText FormattedText}. Text that is too long to be cached is counted as a miss.
+     */
+    FORMATTED_TEXT,
+
+    /**
+     * The profiles cached by a {@link dev.magicmq.itemapi.profile.CachingProfileSource CachingProfileSource}.
+     */
+    SKULL_PROFILE,
+
+    /**
+     * The content hashes cached by items, metadata and NBT data.
+     */
+    CONTENT_HASH
+}
@@ -0,0 +1,81 @@
+package dev.magicmq.itemapi.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lightweight histogram of latencies in nanoseconds. Latencies are counted in buckets whose bounds are powers of two, so recording a latency only increments two counters and is safe to do from many threads at once without contention.
+ * Percentiles are estimated from the buckets and are accurate to within a factor of two, which is enough to tell a stage that takes microseconds from one that takes milliseconds.
+ */
+public final class LatencyHistogram {
+
+    //Bucket i counts latencies of at least 2^(i - 1) and less than 2^i nanoseconds, and bucket 0 counts latencies of 0
+    private static final int BUCKETS = 64;
+
+    private final LongAdder[] buckets;
+    private final LongAdder total;
+    private final LongAccumulator max;
+
+    /**
+     * Create a new, empty LatencyHistogram class.
+     */
+    public LatencyHistogram() {
+        this.buckets = new LongAdder[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++)
+            buckets[i] = new LongAdder();
+        this.total = new LongAdder();
+        this.max = new LongAccumulator(Math::max, 0);
+    }
+
+    /**
+     * Record a latency.
+     * @param nanos The latency in nanoseconds. Negative latencies are recorded as 0
+     */
+    public void record(long nanos) {
+        if (nanos < 0)
+            nanos = 0;
+        buckets[BUCKETS - Long.numberOfLeadingZeros(nanos)].increment();
+        total.add(nanos);
+        max.accumulate(nanos);
+    }
+
+    /**
+     * Take a snapshot of the latencies recorded so far. Latencies recorded while the snapshot is taken may or may not be included.
+     * @return A snapshot of this histogram
+     */
+    public LatencySnapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+            count += counts[i];
+        }
+        long max = this.max.get();
+        return new LatencySnapshot(count, total.sum(), max, percentile(counts, count, max, 0.5), percentile(counts, count, max, 0.9), percentile(counts, count, max, 0.99));
+    }
+
+    /**
+     * Remove all recorded latencies.
+     */
+    public void reset() {
+        for (LongAdder bucket : buckets)
+            bucket.reset();
+        total.reset();
+        max.reset();
+    }
+
+    private static long percentile(long[] counts, long count, long max, double percentile) {
+        if (count == 0)
+            return 0;
+
+        //The upper bound of the bucket containing the percentile is used, but never more than the largest latency recorded
+        long rank = (long) Math.ceil(count * percentile);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank)
+                return i == 0 ? 0 : Math.min((1L << i) - 1, max);
+        }
+        return max;
+    }
+}
@@ -0,0 +1,96 @@
+package dev.magicmq.itemapi.metrics;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * An immutable snapshot of a {@link LatencyHistogram}. All latencies are in nanoseconds.
+ */
+public final class LatencySnapshot {
+
+    private final long count;
+    private final long totalNanos;
+    private final long maxNanos;
+    private final long p50Nanos;
+    private final long p90Nanos;
+    private final long p99Nanos;
+
+    /**
+     * Create a new LatencySnapshot class.
+     * @param count The number of latencies recorded
+     * @param totalNanos The sum of all latencies recorded
+     * @param maxNanos The largest latency recorded
+     * @param p50Nanos The estimated median latency
+     * @param p90Nanos The estimated 90th percentile latency
+     * @param p99Nanos The estimated 99th percentile latency
+     */
+    @ConstructorProperties({"count", "totalNanos", "maxNanos", "p50Nanos", "p90Nanos", "p99Nanos"})
+    public LatencySnapshot(long count, long totalNanos, long maxNanos, long p50Nanos, long p90Nanos, long p99Nanos) {
+        this.count = count;
+        this.totalNanos = totalNanos;
+        this.maxNanos = maxNanos;
+        this.p50Nanos = p50Nanos;
+        this.p90Nanos = p90Nanos;
+        this.p99Nanos = p99Nanos;
+    }
+
+    /**
+     * Get the number of latencies recorded.
+     * @return The number of latencies
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Get the sum of all latencies recorded.
+     * @return The total latency
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * Get the largest latency recorded.
+     * @return The largest latency, or 0 if none were recorded
+     */
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    /**
+     * Get the average latency.
+     * @return The average latency, or 0 if none were recorded
+     */
+    public long getMeanNanos() {
+        return count == 0 ? 0 : totalNanos / count;
+    }
+
+    /**
+     * Get the estimated median latency.
+     * @return The median latency, or 0 if none were recorded
+     */
+    public long getP50Nanos() {
+        return p50Nanos;
+    }
+
+    /**
+     * Get the estimated 90th percentile latency.
+     * @return The 90th percentile latency, or 0 if none were recorded
+     */
+    public long getP90Nanos() {
+        return p90Nanos;
+    }
+
+    /**
+     * Get the estimated 99th percentile latency.
+     * @return The 99th percentile latency, or 0 if none were recorded
+     */
+    public long getP99Nanos() {
+        return p99Nanos;
+    }
+
+    @Override
+    public String toString() {
+        return "LatencySnapshot{count=" + count + ", meanNanos=" + getMeanNanos() + ", p50Nanos=" + p50Nanos + ", p90Nanos=" + p90Nanos + ", p99Nanos=" + p99Nanos + ", maxNanos=" + maxNanos + "}";
+    }
+}
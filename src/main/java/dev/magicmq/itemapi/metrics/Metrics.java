@@ -0,0 +1,143 @@
+package dev.magicmq.itemapi.metrics;
+
+import java.lang.management.ManagementFactory;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * The entry point to ItemAPI's optional metrics. Metrics are disabled by default, in which case every measurement taken by ItemAPI costs a single read of a volatile field.
+ * Once {@link #enable() enabled}, ItemAPI records the latency of each {@link Stage} and counts the hits and misses of each {@link CacheType cache} in the {@link #getRegistry() registry}, or in a custom {@link MetricsSink} installed with {@link #setSink(MetricsSink)}. The registry can be exposed through JMX with {@link #registerMBean()}, so that it can be inspected with tools such as JConsole or VisualVM.
+ * A stage is measured by passing the value returned by {@link #start()} to {@link #stop(Stage, Class, long)} once the stage has finished:
+ * <pre>
+ * long start = Metrics.start();
+ * // ... do the work ...
+ * Metrics.stop(Stage.CONFIG_SAVE, start);
+ * </pre>
+ */
+public final class Metrics {
+
+    /**
+     * The name under which the registry is registered with the platform MBean server.
+     */
+    public static final String OBJECT_NAME = "dev.magicmq.itemapi:type=Metrics";
+
+    private static final MetricsRegistry REGISTRY = new MetricsRegistry();
+
+    private static volatile MetricsSink sink;
+
+    private Metrics() {}
+
+    /**
+     * Enable metrics, recording them in the {@link #getRegistry() registry}.
+     */
+    public static void enable() {
+        sink = REGISTRY;
+    }
+
+    /**
+     * Disable metrics. Metrics recorded so far are kept in the registry until it is {@link MetricsRegistry#reset() reset}.
+     */
+    public static void disable() {
+        sink = null;
+    }
+
+    /**
+     * Check if metrics are enabled.
+     * @return True if measurements are being recorded, false if otherwise
+     */
+    public static boolean isEnabled() {
+        return sink != null;
+    }
+
+    /**
+     * Set the sink in which measurements are recorded, which also enables metrics.
+     * @param sink The sink, or null to disable metrics
+     */
+    public static void setSink(MetricsSink sink) {
+        Metrics.sink = sink;
+    }
+
+    /**
+     * Get the sink in which measurements are currently recorded.
+     * @return The sink, or null if metrics are disabled
+     */
+    public static MetricsSink getSink() {
+        return sink;
+    }
+
+    /**
+     * Get the registry in which measurements are recorded after {@link #enable()} is called.
+     * @return The default registry
+     */
+    public static MetricsRegistry getRegistry() {
+        return REGISTRY;
+    }
+
+    /**
+     * Get the time at which a stage started.
+     * @return The current value of {@link System#nanoTime()}, or 0 if metrics are disabled
+     */
+    public static long start() {
+        return sink != null ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Record a stage that is not broken down by class.
+     * @param stage The stage that finished
+     * @param start The value returned by {@link #start()} when the stage started
+     */
+    public static void stop(Stage stage, long start) {
+        stop(stage, null, start);
+    }
+
+    /**
+     * Record a stage. Nothing is recorded if metrics were disabled when the stage started or are disabled now.
+     * @param stage The stage that finished
+     * @param type The class that did the work, or null if the stage is not broken down by class
+     * @param start The value returned by {@link #start()} when the stage started
+     */
+    public static void stop(Stage stage, Class<?> type, long start) {
+        MetricsSink sink = Metrics.sink;
+        if (sink != null && start != 0)
+            sink.recordLatency(stage, type, System.nanoTime() - start);
+    }
+
+    /**
+     * Record a lookup in one of ItemAPI's caches.
+     * @param cache The cache that was used
+     * @param hit True if the value was found in the cache, false if it had to be computed
+     */
+    public static void cacheAccess(CacheType cache, boolean hit) {
+        MetricsSink sink = Metrics.sink;
+        if (sink != null)
+            sink.recordCacheAccess(cache, hit);
+    }
+
+    /**
+     * Register the {@link #getRegistry() registry} with the platform MBean server under {@link #OBJECT_NAME}. Metrics can also be enabled, disabled and reset through JMX. Registering it again has no effect.
+     * <b>Note:</b> Registering the MBean does not enable metrics.
+     * @throws JMException If the MBean could not be registered
+     */
+    public static void registerMBean() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        synchronized (Metrics.class) {
+            if (!server.isRegistered(name))
+                server.registerMBean(new MetricsMXBeanImpl(REGISTRY), name);
+        }
+    }
+
+    /**
+     * Unregister the registry from the platform MBean server, such as when the plugin is disabled. Unregistering it when it is not registered has no effect.
+     * @throws JMException If the MBean could not be unregistered
+     */
+    public static void unregisterMBean() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        synchronized (Metrics.class) {
+            if (server.isRegistered(name))
+                server.unregisterMBean(name);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package dev.magicmq.itemapi.metrics;
+
+import java.util.Map;
+
+/**
+ * The JMX interface of ItemAPI's metrics, registered by {@link Metrics#registerMBean()}. All latencies are in nanoseconds.
+ */
+public interface MetricsMXBean {
+
+    /**
+     * Check if metrics are enabled and recorded in the registry exposed by this MBean.
+     * @return True if measurements are being recorded in the registry, false if metrics are disabled or a custom {@link MetricsSink} is installed
+     */
+    boolean isEnabled();
+
+    /**
+     * Enable or disable metrics.
+     * @param enabled True to record measurements in the registry, false to stop recording them
+     */
+    void setEnabled(boolean enabled);
+
+    /**
+     * Get the latencies of every stage, and of every class within each stage.
+     * @return A map of snapshots keyed by stage, or by stage and class
+     * @see MetricsRegistry#getLatencies()
+     */
+    Map<String, LatencySnapshot> getLatencies();
+
+    /**
+     * Get the number of hits of every cache.
+     * @return A map of hit counts keyed by the name of the cache
+     */
+    Map<String, Long> getCacheHits();
+
+    /**
+     * Get the number of misses of every cache.
+     * @return A map of miss counts keyed by the name of the cache
+     */
+    Map<String, Long> getCacheMisses();
+
+    /**
+     * Remove all recorded latencies and cache counts.
+     */
+    void reset();
+}
@@ -0,0 +1,55 @@
+package dev.magicmq.itemapi.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Exposes a {@link MetricsRegistry} through JMX.
+ */
+class MetricsMXBeanImpl implements MetricsMXBean {
+
+    private final MetricsRegistry registry;
+
+    MetricsMXBeanImpl(MetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return Metrics.getSink() == registry;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        if (enabled)
+            Metrics.enable();
+        else
+            Metrics.disable();
+    }
+
+    @Override
+    public Map<String, LatencySnapshot> getLatencies() {
+        return registry.getLatencies();
+    }
+
+    @Override
+    public Map<String, Long> getCacheHits() {
+        Map<String, Long> hits = new LinkedHashMap<>();
+        for (CacheType cache : CacheType.values())
+            hits.put(cache.name(), registry.getHits(cache));
+        return hits;
+    }
+
+    @Override
+    public Map<String, Long> getCacheMisses() {
+        Map<String, Long> misses = new LinkedHashMap<>();
+        for (CacheType cache : CacheType.values())
+            misses.put(cache.name(), registry.getMisses(cache));
+        return misses;
+    }
+
+    @Override
+    public void reset() {
+        registry.reset();
+    }
+}
@@ -0,0 +1,156 @@
+package dev.magicmq.itemapi.metrics;
+
+import com.google.common.base.Preconditions;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The default {@link MetricsSink}, which keeps a {@link LatencyHistogram} for every stage and for every class within a stage, and counts the hits and misses of every cache.
+ * The registry used while metrics are enabled is returned by {@link Metrics#getRegistry()}, and is also exposed through JMX by {@link Metrics#registerMBean()}.
+ */
+public class MetricsRegistry implements MetricsSink {
+
+    private final LatencyHistogram[] stages;
+    private final Map<Class<?>, LatencyHistogram[]> types;
+    private final LongAdder[] hits;
+    private final LongAdder[] misses;
+
+    /**
+     * Create a new, empty MetricsRegistry class.
+     */
+    public MetricsRegistry() {
+        Stage[] stages = Stage.values();
+        this.stages = new LatencyHistogram[stages.length];
+        for (int i = 0; i < stages.length; i++)
+            this.stages[i] = new LatencyHistogram();
+        this.types = new ConcurrentHashMap<>();
+
+        CacheType[] caches = CacheType.values();
+        this.hits = new LongAdder[caches.length];
+        this.misses = new LongAdder[caches.length];
+        for (int i = 0; i < caches.length; i++) {
+            hits[i] = new LongAdder();
+            misses[i] = new LongAdder();
+        }
+    }
+
+    @Override
+    public void recordLatency(Stage stage, Class<?> type, long nanos) {
+        stages[stage.ordinal()].record(nanos);
+        if (type != null) {
+            LatencyHistogram[] histograms = types.get(type);
+            if (histograms == null)
+                histograms = types.computeIfAbsent(type, ignored -> new LatencyHistogram[stages.length]);
+            LatencyHistogram histogram = histograms[stage.ordinal()];
+            if (histogram == null) {
+                synchronized (histograms) {
+                    histogram = histograms[stage.ordinal()];
+                    if (histogram == null) {
+                        histogram = new LatencyHistogram();
+                        histograms[stage.ordinal()] = histogram;
+                    }
+                }
+            }
+            histogram.record(nanos);
+        }
+    }
+
+    @Override
+    public void recordCacheAccess(CacheType cache, boolean hit) {
+        (hit ? hits : misses)[cache.ordinal()].increment();
+    }
+
+    /**
+     * Get the latencies of a stage, across all classes.
+     * @param stage The stage
+     * @return A snapshot of the latencies of the stage
+     */
+    public LatencySnapshot getLatency(Stage stage) {
+        Preconditions.checkArgument(stage != null, "stage cannot be null!");
+
+        return stages[stage.ordinal()].snapshot();
+    }
+
+    /**
+     * Get the latencies of a stage for a single class, such as a subclass of {@link dev.magicmq.itemapi.metadata.Metadata Metadata}.
+     * @param stage The stage
+     * @param type The class
+     * @return A snapshot of the latencies of the stage for the class, which is empty if the class was never recorded for the stage
+     */
+    public LatencySnapshot getLatency(Stage stage, Class<?> type) {
+        Preconditions.checkArgument(stage != null, "stage cannot be null!");
+        Preconditions.checkArgument(type != null, "type cannot be null!");
+
+        LatencyHistogram[] histograms = types.get(type);
+        LatencyHistogram histogram = histograms != null ? histograms[stage.ordinal()] : null;
+        return histogram != null ? histogram.snapshot() : new LatencySnapshot(0, 0, 0, 0, 0, 0);
+    }
+
+    /**
+     * Get the latencies of every stage, and of every class within each stage. Stages are keyed by their name, and classes by the name of the stage and the simple name of the class, separated by a slash, such as <code>METADATA_PARSE/BookMetadata</code>.
+     * @return A map of snapshots, which may be freely modified
+     */
+    public Map<String, LatencySnapshot> getLatencies() {
+        Map<String, LatencySnapshot> latencies = new TreeMap<>();
+        for (Stage stage : Stage.values())
+            latencies.put(stage.name(), getLatency(stage));
+        for (Map.Entry<Class<?>, LatencyHistogram[]> entry : types.entrySet()) {
+            LatencyHistogram[] histograms = entry.getValue();
+            Stage[] stages = Stage.values();
+            for (int i = 0; i < histograms.length; i++) {
+                if (histograms[i] != null)
+                    latencies.put(stages[i].name() + "/" + entry.getKey().getSimpleName(), histograms[i].snapshot());
+            }
+        }
+        return latencies;
+    }
+
+    /**
+     * Get the number of lookups in a cache that found a value.
+     * @param cache The cache
+     * @return The number of hits
+     */
+    public long getHits(CacheType cache) {
+        Preconditions.checkArgument(cache != null, "cache cannot be null!");
+
+        return hits[cache.ordinal()].sum();
+    }
+
+    /**
+     * Get the number of lookups in a cache that had to compute the value.
+     * @param cache The cache
+     * @return The number of misses
+     */
+    public long getMisses(CacheType cache) {
+        Preconditions.checkArgument(cache != null, "cache cannot be null!");
+
+        return misses[cache.ordinal()].sum();
+    }
+
+    /**
+     * Get the ratio of hits to lookups in a cache.
+     * @param cache The cache
+     * @return The hit ratio between 0 and 1, or 0 if the cache was never used
+     */
+    public double getHitRatio(CacheType cache) {
+        long hits = getHits(cache);
+        long lookups = hits + getMisses(cache);
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    /**
+     * Remove all recorded latencies and cache counts.
+     */
+    public void reset() {
+        for (LatencyHistogram histogram : stages)
+            histogram.reset();
+        types.clear();
+        for (int i = 0; i < hits.length; i++) {
+            hits[i].reset();
+            misses[i].reset();
+        }
+    }
+}
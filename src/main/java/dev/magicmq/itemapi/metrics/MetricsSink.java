@@ -0,0 +1,23 @@
+package dev.magicmq.itemapi.metrics;
+
+/**
+ * Receives the measurements taken by ItemAPI while {@link Metrics} are enabled. The default sink is the {@link MetricsRegistry} returned by {@link Metrics#getRegistry()}, but plugins may install their own sink with {@link Metrics#setSink(MetricsSink)} to forward measurements to another metrics library.
+ * <b>Note:</b> Measurements are taken on whichever thread does the work, often the main server thread, so implementations must be thread-safe and should return quickly.
+ */
+public interface MetricsSink {
+
+    /**
+     * Record how long a stage took.
+     * @param stage The stage that was measured
+     * @param type The class that did the work, such as the subclass of {@link dev.magicmq.itemapi.metadata.Metadata Metadata} that was parsed, or null if the stage is not broken down by class
+     * @param nanos How long the stage took, in nanoseconds
+     */
+    void recordLatency(Stage stage, Class<?> type, long nanos);
+
+    /**
+     * Record a lookup in one of ItemAPI's caches.
+     * @param cache The cache that was used
+     * @param hit True if the value was found in the cache, false if it had to be computed
+     */
+    void recordCacheAccess(CacheType cache, boolean hit);
+}
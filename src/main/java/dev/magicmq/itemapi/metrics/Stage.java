@@ -0,0 +1,42 @@
+package dev.magicmq.itemapi.metrics;
+
+/**
+ * A stage of parsing, building or saving items whose latency is recorded by {@link Metrics}.
+ */
+public enum Stage {
+
+    /**
+     * Parsing the {@link dev.magicmq.itemapi.metadata.Metadata Metadata} of an item from a configuration section. Latencies are also recorded per subclass of Metadata.
+     */
+    METADATA_PARSE,
+
+    /**
+     * Applying the {@link dev.magicmq.itemapi.metadata.Metadata Metadata} of an item to an ItemMeta. Latencies are also recorded per subclass of Metadata.
+     */
+    METADATA_APPLY,
+
+    /**
+     * Parsing the {@link dev.magicmq.itemapi.nbt.NBTData NBTData} of an item from a configuration section or an ItemStack.
+     */
+    NBT_PARSE,
+
+    /**
+     * Writing the NBT tags of an item to an ItemStack, including NBT tags written by its metadata.
+     */
+    NBT_APPLY,
+
+    /**
+     * Encoding an item to a Base64 string.
+     */
+    BASE64_ENCODE,
+
+    /**
+     * Decoding an item from a Base64 string.
+     */
+    BASE64_DECODE,
+
+    /**
+     * Saving a configuration to a file. Latencies are also recorded per subclass of {@link dev.magicmq.itemapi.config.WrappedConfigurationSection WrappedConfigurationSection}.
+     */
+    CONFIG_SAVE
+}
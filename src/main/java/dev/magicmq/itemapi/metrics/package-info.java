@@ -0,0 +1,4 @@
+/**
+ * Contains the optional metrics of ItemAPI, which record how long each stage of parsing, building and saving items takes and how often the caches of ItemAPI are hit. Metrics are disabled by default and cost almost nothing until they are {@link dev.magicmq.itemapi.metrics.Metrics#enable() enabled}.
+ */
+package dev.magicmq.itemapi.metrics;
\ No newline at end of file
@@ -1,34 +1,55 @@
 package dev.magicmq.itemapi.nbt;
 
+import com.google.common.base.Preconditions;
 import de.tr7zw.changeme.nbtapi.NBTCompound;
+import de.tr7zw.changeme.nbtapi.NBTCompoundList;
 import de.tr7zw.changeme.nbtapi.NBTItem;
+import de.tr7zw.changeme.nbtapi.NBTList;
+import de.tr7zw.changeme.nbtapi.NBTListCompound;
 import dev.magicmq.itemapi.WrappedItem;
 import dev.magicmq.itemapi.config.WrappedConfigurationSection;
+import dev.magicmq.itemapi.metrics.CacheType;
+import dev.magicmq.itemapi.metrics.Metrics;
+import dev.magicmq.itemapi.serialization.ItemDataInput;
+import dev.magicmq.itemapi.serialization.ItemDataOutput;
+import dev.magicmq.itemapi.utils.ContentHashable;
+import dev.magicmq.itemapi.utils.ContentHasher;
+import dev.magicmq.itemapi.utils.InternPool;
+import dev.magicmq.itemapi.utils.Revision;
 import dev.magicmq.itemapi.utils.exception.NBTException;
 import org.bukkit.inventory.ItemStack;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.function.IntFunction;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
  * A wrapper class representing all NBT Tags and data associated with an item.
+ * Tags are stored as a tree, where each compound holds its children in an insertion-ordered map keyed by the key of each child. This allows tags to be looked up by key, or by a dot-separated path such as <code>display.extra.power</code>, in time proportional to the depth of the tag rather than the number of tags.
  */
-public class NBTData implements Serializable {
+public class NBTData implements Serializable, ContentHashable {
 
     private static final long serialVersionUID = 3226903116011105573L;
 
-    private final List<NBTTag> nbtTags;
+    private LinkedHashMap<String, NBTTag> nbtTags;
+
+    private transient long revision;
+    private transient volatile ContentHasher.Cached contentHash;
 
     /**
      * Create a new NBTData class from scratch with default values.
      */
     public NBTData() {
-        nbtTags = new ArrayList<>();
+        nbtTags = new LinkedHashMap<>();
     }
 
     /**
@@ -37,9 +58,10 @@ public class NBTData implements Serializable {
      * @param section The section from which the data will be parsed
      */
     public NBTData(WrappedConfigurationSection section) {
-        nbtTags = new ArrayList<>();
+        nbtTags = new LinkedHashMap<>();
 
-        parseConfig(section, null);
+        parseConfig(section, nbtTags);
+        adoptTags();
     }
 
     /**
@@ -47,158 +69,366 @@ public class NBTData implements Serializable {
      * @param item The item from which NBT tags will be extracted
      */
     public NBTData(ItemStack item) {
-        nbtTags = new ArrayList<>();
+        nbtTags = new LinkedHashMap<>();
+
+        //An item without meta has no tag, so there is nothing to extract
+        if (!item.hasItemMeta())
+            return;
 
         NBTItem nbtItem = new NBTItem(item);
-        parseItemStack(nbtItem, null);
+        parseItemStack(nbtItem, nbtTags);
         nbtItem.clearCustomNBT();
         for (String key : nbtItem.getKeys()) {
-            removeNBTTag(key);
+            nbtTags.remove(key);
         }
+        adoptTags();
     }
 
-    private void parseConfig(WrappedConfigurationSection section, NBTTag compoundTag) {
-        if (compoundTag == null) {
-            for (String key : section.getKeys(false)) {
-                NBTTag tag;
-                WrappedConfigurationSection tagSection = section.getConfigurationSection(key);
-                if (tagSection.getString("type") == null)
-                    throw new NBTException("NBTTag does not have a type! Please make sure one is defined in the config");
-                NBTTagType type = NBTTagType.valueOf(tagSection.getString("type"));
-                if (type == NBTTagType.COMPOUND) {
-                    tag = new NBTTag(type, tagSection.getString("key"), new ArrayList<NBTTag>());
-                    parseConfig(tagSection.getConfigurationSection("children"), tag);
-                } else {
-                    if (tagSection.getString("key") == null)
-                        throw new NBTException("NBTTag key cannot be null! Please ensure you have defined a key for all tags in the config.");
-                    else if (tagSection.get("value") == null)
-                        throw new NBTException("NBTTag value cannot be null! Please ensure you have defined a value for the " + tagSection.getString("key") + " tag.");
-
-                    if (type == NBTTagType.LIST)
-                        tag = new NBTTag(type, NBTTagType.valueOf(tagSection.getString("list-type")), tagSection.getString("key"), tagSection.getStringList("value"));
-                    else
-                        tag = new NBTTag(type, tagSection.getString("key"), tagSection.get("value"));
-                }
-                nbtTags.add(tag);
+    /**
+     * Create a new NBTData class with NBT tags read from ItemAPI's binary format.
+     * @param in The input from which the NBT tags will be read
+     */
+    public NBTData(ItemDataInput in) {
+        nbtTags = new LinkedHashMap<>();
+
+        for (int tag = in.readTag(); tag != 0; tag = in.readTag()) {
+            switch (ItemDataInput.getFieldNumber(tag)) {
+                case 1:
+                    for (NBTTag nbtTag : in.readListField(NBTTag::readBinary))
+                        nbtTags.put(nbtTag.getKey(), nbtTag);
+                    break;
+                default:
+                    in.skipField(tag);
             }
-        } else {
-            for (String key : section.getKeys(false)) {
-                WrappedConfigurationSection tagSection = section.getConfigurationSection(key);
-                if (tagSection.getString("type") == null)
-                    throw new NBTException("NBTTag does not have a type! Please make sure one is defined in the config");
-                NBTTagType type = NBTTagType.valueOf(tagSection.getString("type"));
-                if (type == NBTTagType.COMPOUND) {
-                    NBTTag innerTag = new NBTTag(type, tagSection.getString("key"), new ArrayList<>());
-                    ((ArrayList<NBTTag>) compoundTag.getValue()).add(innerTag);
-                    parseConfig(tagSection.getConfigurationSection("children"), innerTag);
-                } else {
-                    if (tagSection.getString("key") == null)
-                        throw new NBTException("NBTTag key cannot be null! Please ensure you have defined a key for all tags in the config.");
-                    else if (tagSection.get("value") == null)
-                        throw new NBTException("NBTTag value cannot be null! Please ensure you have defined a value for the " + tagSection.getString("key") + " tag.");
-
-                    if (type == NBTTagType.LIST)
-                        ((ArrayList<NBTTag>) compoundTag.getValue()).add(new NBTTag(type, NBTTagType.valueOf(tagSection.getString("list-type")), tagSection.getString("key"), tagSection.getStringList("value")));
+        }
+        adoptTags();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        //Versions before tags were keyed by their key stored them in a list, so the field is read without assuming its type
+        Object tags = in.readFields().get("nbtTags", null);
+        nbtTags = new LinkedHashMap<>();
+        if (tags instanceof Map)
+            nbtTags.putAll((Map<String, NBTTag>) tags);
+        else if (tags instanceof Collection) {
+            for (NBTTag tag : (Collection<NBTTag>) tags)
+                nbtTags.put(tag.getKey(), tag);
+        } else if (tags != null)
+            throw new InvalidObjectException("NBT tags were serialized as an unknown type " + tags.getClass().getName() + "!");
+        adoptTags();
+    }
+
+    private void adoptTags() {
+        //Tags notify the NBTData they belong to when they are changed directly
+        for (NBTTag tag : nbtTags.values())
+            tag.setOwner(this);
+    }
+
+    private void parseConfig(WrappedConfigurationSection section, Map<String, NBTTag> target) {
+        for (String key : section.getKeys(false)) {
+            NBTTag tag;
+            WrappedConfigurationSection tagSection = section.getConfigurationSection(key);
+            if (tagSection.getString("type") == null)
+                throw new NBTException("NBTTag does not have a type! Please make sure one is defined in the config");
+            NBTTagType type = NBTTagType.valueOf(tagSection.getString("type"));
+            if (type == NBTTagType.COMPOUND) {
+                tag = new NBTTag(type, tagSection.getString("key"), null);
+                parseConfig(tagSection.getConfigurationSection("children"), tag.children());
+            } else {
+                if (tagSection.getString("key") == null)
+                    throw new NBTException("NBTTag key cannot be null! Please ensure you have defined a key for all tags in the config.");
+                else if (tagSection.get("value") == null)
+                    throw new NBTException("NBTTag value cannot be null! Please ensure you have defined a value for the " + tagSection.getString("key") + " tag.");
+
+                if (type == NBTTagType.LIST) {
+                    NBTTagType listType = NBTTagType.valueOf(tagSection.getString("list-type"));
+                    if (listType == NBTTagType.COMPOUND) {
+                        List<NBTTag> compounds = new ArrayList<>();
+                        WrappedConfigurationSection elementsSection = tagSection.getConfigurationSection("value");
+                        for (String elementKey : elementsSection.getKeys(false)) {
+                            NBTTag compound = new NBTTag(NBTTagType.COMPOUND, null, null);
+                            parseConfig(elementsSection.getConfigurationSection(elementKey), compound.children());
+                            compounds.add(compound);
+                        }
+                        tag = new NBTTag(type, listType, tagSection.getString("key"), compounds);
+                    } else if (listType == NBTTagType.STRING)
+                        tag = new NBTTag(type, listType, tagSection.getString("key"), tagSection.getStringList("value"));
                     else
-                        ((ArrayList<NBTTag>) compoundTag.getValue()).add(new NBTTag(type, tagSection.getString("key"), tagSection.get("value")));
-                }
+                        tag = new NBTTag(type, listType, tagSection.getString("key"), tagSection.get("value"));
+                } else
+                    tag = new NBTTag(type, tagSection.getString("key"), tagSection.get("value"));
             }
+            target.put(tag.getKey(), tag);
         }
     }
 
-    private void parseItemStack(NBTCompound itemCompoundTag, NBTTag compoundTag) {
-        if (compoundTag == null) {
-            for (String key : itemCompoundTag.getKeys()) {
-                NBTTag tag;
-                NBTTagType type = NBTTagType.getFromNBTAPIType(itemCompoundTag.getType(key));
-                if (type == NBTTagType.COMPOUND) {
-                    tag = new NBTTag(type, key, new ArrayList<NBTTag>());
-                    parseItemStack(itemCompoundTag.getCompound(key), tag);
-                } else {
-                    if (type == NBTTagType.LIST) {
-                        NBTTagType listType = NBTTagType.getFromNBTAPIType(itemCompoundTag.getListType(key));
-                        tag = extractNBT(itemCompoundTag, key, type, listType);
-                    } else
-                        tag = extractNBT(itemCompoundTag, key, type);
-                }
-                nbtTags.add(tag);
-            }
-        } else {
-            for (String key : itemCompoundTag.getKeys()) {
-                NBTTagType type = NBTTagType.getFromNBTAPIType(itemCompoundTag.getType(key));
-                if (type == NBTTagType.COMPOUND) {
-                    NBTTag innerTag = new NBTTag(type, key, new ArrayList<>());
-                    ((ArrayList<NBTTag>) compoundTag.getValue()).add(innerTag);
-                    parseItemStack(itemCompoundTag.getCompound(key), innerTag);
-                } else {
-                    if (type == NBTTagType.LIST) {
-                        NBTTagType listType = NBTTagType.getFromNBTAPIType(itemCompoundTag.getListType(key));
-                        ((ArrayList<NBTTag>) compoundTag.getValue()).add(extractNBT(itemCompoundTag, key, type, listType));
-                    } else
-                        ((ArrayList<NBTTag>) compoundTag.getValue()).add(extractNBT(itemCompoundTag, key, type));
-                }
+    private void parseItemStack(NBTCompound itemCompoundTag, Map<String, NBTTag> target) {
+        for (String key : itemCompoundTag.getKeys()) {
+            NBTTag tag;
+            NBTTagType type = NBTTagType.getFromNBTAPIType(itemCompoundTag.getType(key));
+            if (type == NBTTagType.COMPOUND) {
+                tag = new NBTTag(type, key, null);
+                parseItemStack(itemCompoundTag.getCompound(key), tag.children());
+            } else {
+                if (type == NBTTagType.LIST) {
+                    NBTTagType listType = NBTTagType.getFromNBTAPIType(itemCompoundTag.getListType(key));
+                    tag = extractNBT(itemCompoundTag, key, type, listType);
+                } else
+                    tag = extractNBT(itemCompoundTag, key, type);
             }
+            target.put(key, tag);
         }
     }
 
     /**
-     * Get all NBT tags associated with this item.
-     * @return A mutable list containing all NBT tags associated with the item
+     * Get all top-level NBT tags associated with this item. Tags nested inside compound tags can be accessed with {@link NBTTag#getChildren()}.
+     * <b>Note:</b> The returned list is a copy, so tags should be added and removed with {@link #addNbtTag(NBTTagType, String, Object)} and {@link #removeNBTTag(String)}.
+     * @return A new list containing all top-level NBT tags associated with the item, in the order they were added
      */
     public List<NBTTag> getNbtTags() {
-        return nbtTags;
+        return new ArrayList<>(nbtTags.values());
     }
 
     /**
-     * Get an NBT Tag by its key.
+     * Check if this item has any NBT tags.
+     * @return True if the item has no NBT tags, false if otherwise
+     */
+    public boolean isEmpty() {
+        return nbtTags.isEmpty();
+    }
+
+    /**
+     * Get a top-level NBT Tag by its key.
      * @param key The key of the NBT tag to get
      * @return The NBT tag under the specified key, or null if nothing was found
      */
     public NBTTag getNbtTag(String key) {
-        for (NBTTag tag : nbtTags) {
-            if (tag.getKey().equals(key))
-                return tag;
+        return nbtTags.get(key);
+    }
+
+    /**
+     * Get an NBT tag by its path. A path is made up of the keys of each compound tag leading to the tag, separated by dots. For example, the path <code>display.extra.power</code> refers to the <code>power</code> tag inside the <code>extra</code> compound, which is itself inside the top-level <code>display</code> compound.
+     * @param path The path of the NBT tag to get
+     * @return The NBT tag at the specified path, or null if nothing was found
+     */
+    public NBTTag getNbtTagAtPath(String path) {
+        Preconditions.checkArgument(path != null, "path cannot be null!");
+
+        Map<String, NBTTag> parent = nbtTags;
+        int start = 0;
+        for (int end = path.indexOf('.'); end != -1; end = path.indexOf('.', start)) {
+            NBTTag compound = parent.get(path.substring(start, end));
+            if (compound == null || !compound.isCompoundTag())
+                return null;
+            parent = compound.children();
+            start = end + 1;
         }
-        return null;
+        return parent.get(path.substring(start));
     }
 
     /**
-     * Add a new NBT tag to the item.
+     * Add a new top-level NBT tag to the item. If a tag with the same key already exists, it is replaced.
      * @param type The {@link NBTTagType} representing the type that the tag is
      * @param key The key of the tag
-     * @param value The value of the tag, should be another NBTTag if the tag is a compound tag
+     * @param value The value of the tag, should be a collection or map of child NBTTags if the tag is a compound tag
      */
     public void addNbtTag(NBTTagType type, String key, Object value) {
         addNbtTag(type, null, key, value);
     }
 
     /**
-     * Add a new NBT tag to the item. This method should be used for all list tags.
+     * Add a new top-level NBT tag to the item. If a tag with the same key already exists, it is replaced. This method should be used for all list tags.
      * @param type The {@link NBTTagType} representing the type that the tag is
      * @param listType If the <code>type</code> is <code>LIST</code>, this should be the type representing values in the list; this should be null otherwise
      * @param key The key of the tag
-     * @param value The value of the tag, should be another NBTTag if the tag is a compound tag
+     * @param value The value of the tag, should be a collection or map of child NBTTags if the tag is a compound tag
      */
     public void addNbtTag(NBTTagType type, NBTTagType listType, String key, Object value) {
-        nbtTags.add(new NBTTag(type, listType, key, value));
+        NBTTag tag = new NBTTag(type, listType, key, value);
+        tag.setOwner(this);
+        nbtTags.put(key, tag);
+        markModified();
     }
 
     /**
-     * Remove an NBT tag from the item.
+     * Put an NBT tag at a path. Compound tags leading to the tag that do not exist yet are created. If a tag already exists at the path, it is replaced.
+     * @param type The {@link NBTTagType} representing the type that the tag is
+     * @param path The path of the tag, with the keys of each compound tag leading to it separated by dots
+     * @param value The value of the tag, should be a collection or map of child NBTTags if the tag is a compound tag
+     * @return The tag that was put at the path
+     * @throws NBTException If a tag along the path exists but is not a compound tag
+     * @see #getNbtTagAtPath(String)
+     */
+    public NBTTag putNbtTagAtPath(NBTTagType type, String path, Object value) {
+        return putNbtTagAtPath(type, null, path, value);
+    }
+
+    /**
+     * Put an NBT tag at a path. Compound tags leading to the tag that do not exist yet are created. If a tag already exists at the path, it is replaced. This method should be used for all list tags.
+     * @param type The {@link NBTTagType} representing the type that the tag is
+     * @param listType If the <code>type</code> is <code>LIST</code>, this should be the type representing values in the list; this should be null otherwise
+     * @param path The path of the tag, with the keys of each compound tag leading to it separated by dots
+     * @param value The value of the tag, should be a collection or map of child NBTTags if the tag is a compound tag
+     * @return The tag that was put at the path
+     * @throws NBTException If a tag along the path exists but is not a compound tag
+     * @see #getNbtTagAtPath(String)
+     */
+    public NBTTag putNbtTagAtPath(NBTTagType type, NBTTagType listType, String path, Object value) {
+        Preconditions.checkArgument(path != null, "path cannot be null!");
+
+        Map<String, NBTTag> parent = nbtTags;
+        int start = 0;
+        for (int end = path.indexOf('.'); end != -1; end = path.indexOf('.', start)) {
+            String key = path.substring(start, end);
+            NBTTag compound = parent.get(key);
+            if (compound == null) {
+                compound = new NBTTag(NBTTagType.COMPOUND, key, null);
+                compound.setOwner(this);
+                parent.put(key, compound);
+            } else if (!compound.isCompoundTag())
+                throw new NBTException("Unable to put NBT tag at " + path + ", because " + path.substring(0, end) + " is not a compound tag!");
+            parent = compound.children();
+            start = end + 1;
+        }
+        String key = path.substring(start);
+        NBTTag tag = new NBTTag(type, listType, key, value);
+        tag.setOwner(this);
+        parent.put(key, tag);
+        markModified();
+        return tag;
+    }
+
+    /**
+     * Remove a top-level NBT tag from the item.
      * @param key The key of the tag that should be removed
      */
     public void removeNBTTag(String key) {
-        nbtTags.removeIf(next -> next.getKey().equals(key));
+        NBTTag removed = nbtTags.remove(key);
+        if (removed != null)
+            removed.setOwner(null);
+        markModified();
+    }
+
+    /**
+     * Remove an NBT tag at a path. Compound tags leading to the tag are kept, even if they become empty.
+     * @param path The path of the tag, with the keys of each compound tag leading to it separated by dots
+     * @return The tag that was removed, or null if nothing was found
+     * @see #getNbtTagAtPath(String)
+     */
+    public NBTTag removeNbtTagAtPath(String path) {
+        Preconditions.checkArgument(path != null, "path cannot be null!");
+
+        int end = path.lastIndexOf('.');
+        Map<String, NBTTag> parent;
+        if (end == -1)
+            parent = nbtTags;
+        else {
+            NBTTag compound = getNbtTagAtPath(path.substring(0, end));
+            if (compound == null || !compound.isCompoundTag())
+                return null;
+            parent = compound.children();
+        }
+        NBTTag removed = parent.remove(path.substring(end + 1));
+        if (removed != null) {
+            removed.setOwner(null);
+            markModified();
+        }
+        return removed;
+    }
+
+    /**
+     * Get the current revision of this NBT data. The revision changes every time a tag is added, removed or changed, which allows cached data derived from this NBT data (such as a {@link dev.magicmq.itemapi.CompiledItem CompiledItem}) to detect that it is stale.
+     * @return The revision stamp of the most recent change made to this NBT data
+     */
+    public long getRevision() {
+        return revision;
+    }
+
+    /**
+     * Mark this NBT data as modified. This is called automatically when tags are added or removed and when an {@link NBTTag} belonging to this NBT data is changed, but should also be called after modifying an array or list returned by {@link NBTTag#getValue()} directly.
+     */
+    public void markModified() {
+        revision = Revision.next();
+    }
+
+    /**
+     * Intern the keys and string values of all NBT tags in this class through a pool, and trim lists so that they have no spare capacity. This does not change the tags, so the {@link #getRevision() revision} is not changed either.
+     * <b>Warning:</b> This method is called automatically from {@link WrappedItem#compact(InternPool) compact} in the WrappedItem class!
+     * @param pool The pool through which values will be interned
+     */
+    public void compact(InternPool pool) {
+        List<NBTTag> tags = new ArrayList<>(nbtTags.values());
+        nbtTags.clear();
+        for (NBTTag tag : tags) {
+            tag.compact(pool);
+            nbtTags.put(tag.getKey(), tag);
+        }
+    }
+
+    /**
+     * Get a 64-bit hash of all NBT tags in this class. NBT data that is {@link #equals(Object) equal} always has the same content hash.
+     * The hash is cached and only computed again after the {@link #getRevision() revision} changes, so {@link #markModified()} must be called after modifying an array or list value of a tag directly.
+     * @return The content hash of this NBT data
+     */
+    public long contentHash() {
+        long revision = this.revision;
+        ContentHasher.Cached cached = this.contentHash;
+        boolean valid = ContentHasher.Cached.isValid(cached, revision);
+        Metrics.cacheAccess(CacheType.CONTENT_HASH, valid);
+        if (!valid) {
+            cached = new ContentHasher.Cached(revision, new ContentHasher().put(this).getHash());
+            this.contentHash = cached;
+        }
+        return cached.getHash();
+    }
+
+    @Override
+    public void hashContent(ContentHasher hasher) {
+        NBTTag.hashChildren(hasher, nbtTags.values());
+    }
+
+    /**
+     * Check if this NBT data contains the same tags as another object. The order in which the tags were added does not matter.
+     * @param o The object to compare to
+     * @return True if the object is NBTData containing the same tags, false if otherwise
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+
+        NBTData other = (NBTData) o;
+        return contentHash() == other.contentHash() && nbtTags.equals(other.nbtTags);
+    }
+
+    @Override
+    public int hashCode() {
+        return ContentHasher.toHashCode(contentHash());
     }
 
     /**
      * Apply all NBT data in this class to an ItemStack.
-     * <b>Warning:</b> This method is called automatically from {@link WrappedItem#getAsItemStack() getAsItemStack} in the WrappedItem class!
      * @param item The item to which the NBT data will be applied
      * @return The item, with NBT data applied to it
      */
     public ItemStack applyNbtTags(ItemStack item) {
-        return applyNbtTags(item, null, null);
+        if (nbtTags.isEmpty())
+            return item;
+        NBTItem nbtItem = new NBTItem(item);
+        applyNbtTags(nbtItem);
+        return nbtItem.getItem();
+    }
+
+    /**
+     * Apply all NBT data in this class to an NBT compound, such as an {@link NBTItem} that other NBT tags are also being written to.
+     * <b>Warning:</b> This method is called automatically from {@link WrappedItem#getAsItemStack() getAsItemStack} in the WrappedItem class!
+     * @param compound The compound to which the NBT data will be applied
+     */
+    public void applyNbtTags(NBTCompound compound) {
+        applyNbtTags(compound, nbtTags.values());
     }
 
     /**
@@ -207,77 +437,86 @@ public class NBTData implements Serializable {
      * @param section The configuration section to which the data will be serialized
      */
     public void saveNbtTags(WrappedConfigurationSection section) {
-        if (nbtTags == null || nbtTags.size() == 0)
+        if (nbtTags.isEmpty())
             return;
         WrappedConfigurationSection nbtSection = section.createConfigurationSection("nbt");
-        saveNbtTags(nbtSection, null);
-    }
-
-    private void saveNbtTags(WrappedConfigurationSection section, NBTTag innerTag) {
-        if (innerTag == null) {
-            int i = 0;
-            for (NBTTag tag : nbtTags) {
-                WrappedConfigurationSection tagSection = section.createConfigurationSection("" + i);
-                tagSection.set("type", tag.getType().name());
-                tagSection.set("key", tag.getKey());
-                if (tag.isCompoundTag()) {
-                    WrappedConfigurationSection innerSection = tagSection.createConfigurationSection("children");
-                    saveNbtTags(innerSection, tag);
-                } else {
-                    if (tag.isList())
-                        tagSection.set("list-type", tag.getListType().name());
-                    tagSection.set("value", tag.getValue());
-                }
-                i++;
-            }
-        } else {
-            int i = 0;
-            for (NBTTag tag : ((ArrayList<NBTTag>) innerTag.getValue())) {
-                WrappedConfigurationSection tagSection = section.createConfigurationSection("" + i);
-                tagSection.set("type", tag.getType().name());
-                tagSection.set("key", tag.getKey());
-                if (tag.isCompoundTag()) {
-                    WrappedConfigurationSection innerSection = tagSection.createConfigurationSection("children");
-                    saveNbtTags(innerSection, tag);
-                } else {
-                    if (tag.isList())
-                        tagSection.set("list-type", tag.getListType().name());
-                    tagSection.set("value", tag.getValue());
+        saveNbtTags(nbtSection, nbtTags.values());
+    }
+
+    /**
+     * Write all the NBT data contained within this class in ItemAPI's binary format.
+     * <b>Warning:</b> This method is called automatically from {@link WrappedItem#writeBinary(ItemDataOutput) writeBinary} in the WrappedItem class!
+     * @param out The output to which the data will be written
+     */
+    public void writeBinary(ItemDataOutput out) {
+        out.writeListField(1, getNbtTags(), NBTTag::writeBinary);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void saveNbtTags(WrappedConfigurationSection section, Collection<NBTTag> tags) {
+        int i = 0;
+        for (NBTTag tag : tags) {
+            WrappedConfigurationSection tagSection = section.createConfigurationSection("" + i);
+            tagSection.set("type", tag.getType().name());
+            tagSection.set("key", tag.getKey());
+            if (tag.isCompoundTag()) {
+                WrappedConfigurationSection innerSection = tagSection.createConfigurationSection("children");
+                saveNbtTags(innerSection, tag.children().values());
+            } else if (tag.isList() && tag.getListType() == NBTTagType.COMPOUND) {
+                tagSection.set("list-type", tag.getListType().name());
+                WrappedConfigurationSection elementsSection = tagSection.createConfigurationSection("value");
+                int j = 0;
+                for (NBTTag compound : (List<NBTTag>) tag.getValue()) {
+                    saveNbtTags(elementsSection.createConfigurationSection("" + j), compound.children().values());
+                    j++;
                 }
-                i++;
+            } else {
+                if (tag.isList())
+                    tagSection.set("list-type", tag.getListType().name());
+                tagSection.set("value", toConfigValue(tag.getValue()));
             }
+            i++;
         }
     }
 
-    private ItemStack applyNbtTags(ItemStack item, NBTTag compoundTag, NBTCompound compound) {
-        if (compoundTag == null) {
-            NBTItem nbtItem = new NBTItem(item);
-            for (NBTTag tag : nbtTags) {
-                if (tag.isCompoundTag()) {
-                    NBTCompound inner = nbtItem.addCompound(tag.getKey());
-                    applyNbtTags(item, tag, inner);
-                } else {
-                    applyTag(nbtItem, tag);
-                }
-            }
-            return nbtItem.getItem();
-        } else {
-            for (NBTTag tag : (ArrayList<NBTTag>) compoundTag.getValue()) {
-                if (tag.isCompoundTag()) {
-                    NBTCompound inner = compound.addCompound(tag.getKey());
-                    applyNbtTags(item, tag, inner);
-                } else {
-                    applyTag(compound, tag);
-                }
-            }
-            return null;
+    private void applyNbtTags(NBTCompound compound, Collection<NBTTag> tags) {
+        for (NBTTag tag : tags) {
+            if (tag.isCompoundTag())
+                applyNbtTags(compound.addCompound(tag.getKey()), tag.children().values());
+            else
+                applyTag(compound, tag);
         }
     }
 
+    private Object toConfigValue(Object value) {
+        //Primitive arrays are saved as lists, which is how they are written by hand in the config
+        if (value instanceof byte[]) {
+            byte[] array = (byte[]) value;
+            List<Integer> list = new ArrayList<>(array.length);
+            for (byte element : array)
+                list.add((int) element);
+            return list;
+        } else if (value instanceof int[])
+            return Arrays.stream((int[]) value).boxed().collect(Collectors.toList());
+        else if (value instanceof long[])
+            return Arrays.stream((long[]) value).boxed().collect(Collectors.toList());
+        else if (value instanceof float[]) {
+            //Configurate does not accept floats inside lists, so they are saved as doubles with the same decimal representation
+            float[] array = (float[]) value;
+            List<Double> list = new ArrayList<>(array.length);
+            for (float element : array)
+                list.add(Double.parseDouble(Float.toString(element)));
+            return list;
+        } else if (value instanceof double[])
+            return Arrays.stream((double[]) value).boxed().collect(Collectors.toList());
+        return value;
+    }
+
     private NBTTag extractNBT(NBTCompound nbtItem, String key, NBTTagType type) {
         return extractNBT(nbtItem, key, type, null);
     }
 
+    @SuppressWarnings("unchecked")
     private void applyTag(NBTCompound nbtItem, NBTTag tag) {
         switch (tag.getType()) {
             case BOOLEAN:
@@ -302,38 +541,42 @@ public class NBTData implements Serializable {
                 nbtItem.setDouble(tag.getKey(), (Double) tag.getValue());
                 break;
             case BYTE_ARRAY:
-                List<? extends Number> list = (List<? extends Number>) tag.getValue();
-                byte[] byteArray = new byte[list.size()];
-                for (int i = 0; i < byteArray.length; i++) {
-                    byteArray[i] = list.get(i).byteValue();
-                }
-                nbtItem.setByteArray(tag.getKey(), byteArray);
+                nbtItem.setByteArray(tag.getKey(), (byte[]) tag.getValue());
                 break;
             case STRING:
                 nbtItem.setString(tag.getKey(), (String) tag.getValue());
                 break;
             case INT_ARRAY:
-                List<Integer> list2 = (List<Integer>) tag.getValue();
-                int[] intArray = new int[list2.size()];
-                for (int i = 0; i < intArray.length; i++) {
-                    intArray[i] = list2.get(i);
-                }
-                nbtItem.setIntArray(tag.getKey(), intArray);
+                nbtItem.setIntArray(tag.getKey(), (int[]) tag.getValue());
+                break;
+            case LONG_ARRAY:
+                nbtItem.setLongArray(tag.getKey(), (long[]) tag.getValue());
                 break;
             case LIST:
-                ArrayList<String> list3 = (ArrayList<String>) tag.getValue();
                 NBTTagType listType = tag.getListType();
                 if (listType != null) {
                     if (listType == NBTTagType.INT) {
-                        nbtItem.getIntegerList(tag.getKey()).addAll(list3.stream().map(Integer::parseInt).collect(Collectors.toList()));
+                        NBTList<Integer> list = nbtItem.getIntegerList(tag.getKey());
+                        for (int element : (int[]) tag.getValue())
+                            list.add(element);
                     } else if (listType == NBTTagType.FLOAT) {
-                        nbtItem.getFloatList(tag.getKey()).addAll(list3.stream().map(Float::parseFloat).collect(Collectors.toList()));
+                        NBTList<Float> list = nbtItem.getFloatList(tag.getKey());
+                        for (float element : (float[]) tag.getValue())
+                            list.add(element);
                     } else if (listType == NBTTagType.DOUBLE) {
-                        nbtItem.getDoubleList(tag.getKey()).addAll(list3.stream().map(Double::parseDouble).collect(Collectors.toList()));
+                        NBTList<Double> list = nbtItem.getDoubleList(tag.getKey());
+                        for (double element : (double[]) tag.getValue())
+                            list.add(element);
                     } else if (listType == NBTTagType.LONG) {
-                        nbtItem.getLongList(tag.getKey()).addAll(list3.stream().map(Long::parseLong).collect(Collectors.toList()));
+                        NBTList<Long> list = nbtItem.getLongList(tag.getKey());
+                        for (long element : (long[]) tag.getValue())
+                            list.add(element);
+                    } else if (listType == NBTTagType.COMPOUND) {
+                        NBTCompoundList list = nbtItem.getCompoundList(tag.getKey());
+                        for (NBTTag element : (List<NBTTag>) tag.getValue())
+                            applyNbtTags(list.addCompound(), element.children().values());
                     } else {
-                        nbtItem.getStringList(tag.getKey()).addAll(list3);
+                        nbtItem.getStringList(tag.getKey()).addAll((List<String>) tag.getValue());
                     }
                 }
                 break;
@@ -355,34 +598,53 @@ public class NBTData implements Serializable {
             case DOUBLE:
                 return new NBTTag(type, key, nbtItem.getDouble(key));
             case BYTE_ARRAY:
-                byte[] array = nbtItem.getByteArray(key);
-                return new NBTTag(type, key, Arrays.asList(manualBox(new Byte[array.length], i -> Byte.valueOf(array[i]))));
+                return new NBTTag(type, key, nbtItem.getByteArray(key));
             case STRING:
                 return new NBTTag(type, key, nbtItem.getString(key));
             case INT_ARRAY:
-                int[] array2 = nbtItem.getIntArray(key);
-                return new NBTTag(type, key, Arrays.asList(manualBox(new Integer[array2.length], i -> Integer.valueOf(array2[i]))));
+                return new NBTTag(type, key, nbtItem.getIntArray(key));
+            case LONG_ARRAY:
+                return new NBTTag(type, key, nbtItem.getLongArray(key));
             case LIST:
                 if (listType != null) {
                     if (listType == NBTTagType.INT) {
-                        return new NBTTag(type, listType, key, nbtItem.getIntegerList(key));
+                        NBTList<Integer> list = nbtItem.getIntegerList(key);
+                        int[] array = new int[list.size()];
+                        for (int i = 0; i < array.length; i++)
+                            array[i] = list.get(i);
+                        return new NBTTag(type, listType, key, array);
                     } else if (listType == NBTTagType.FLOAT) {
-                        return new NBTTag(type, listType, key, nbtItem.getFloatList(key));
+                        NBTList<Float> list = nbtItem.getFloatList(key);
+                        float[] array = new float[list.size()];
+                        for (int i = 0; i < array.length; i++)
+                            array[i] = list.get(i);
+                        return new NBTTag(type, listType, key, array);
                     } else if (listType == NBTTagType.DOUBLE) {
-                        return new NBTTag(type, listType, key, nbtItem.getDoubleList(key));
+                        NBTList<Double> list = nbtItem.getDoubleList(key);
+                        double[] array = new double[list.size()];
+                        for (int i = 0; i < array.length; i++)
+                            array[i] = list.get(i);
+                        return new NBTTag(type, listType, key, array);
                     } else if (listType == NBTTagType.LONG) {
-                        return new NBTTag(type, listType, key, nbtItem.getLongList(key));
+                        NBTList<Long> list = nbtItem.getLongList(key);
+                        long[] array = new long[list.size()];
+                        for (int i = 0; i < array.length; i++)
+                            array[i] = list.get(i);
+                        return new NBTTag(type, listType, key, array);
+                    } else if (listType == NBTTagType.COMPOUND) {
+                        List<NBTTag> compounds = new ArrayList<>();
+                        for (NBTListCompound element : nbtItem.getCompoundList(key)) {
+                            NBTTag compound = new NBTTag(NBTTagType.COMPOUND, null, null);
+                            parseItemStack(element, compound.children());
+                            compounds.add(compound);
+                        }
+                        return new NBTTag(type, listType, key, compounds);
                     } else {
-                        return new NBTTag(type, listType, key, nbtItem.getStringList(key));
+                        return new NBTTag(type, listType, key, new ArrayList<>(nbtItem.getStringList(key)));
                     }
                 }
                 break;
         }
         throw new NBTException("Unable to parse NBT data for item! Type: " + type + " List Type: " + listType + " Key: " + key);
     }
-
-    private <T> T[] manualBox(T[] array, IntFunction<? extends T> supplier) {
-        Arrays.setAll(array, supplier);
-        return array;
-    }
 }
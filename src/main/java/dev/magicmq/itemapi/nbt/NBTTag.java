@@ -1,24 +1,58 @@
 package dev.magicmq.itemapi.nbt;
 
+import com.google.common.base.Preconditions;
+import dev.magicmq.itemapi.serialization.ItemDataInput;
+import dev.magicmq.itemapi.serialization.ItemDataOutput;
+import dev.magicmq.itemapi.serialization.WireType;
+import dev.magicmq.itemapi.utils.ContentHashable;
+import dev.magicmq.itemapi.utils.ContentHasher;
+import dev.magicmq.itemapi.utils.InternPool;
+import dev.magicmq.itemapi.utils.exception.ItemDataException;
+import dev.magicmq.itemapi.utils.exception.NBTException;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 /**
  * A class representing an individual NBT tag.
+ * The children of a compound tag are stored in an insertion-ordered map keyed by the key of each child, so that a child can be found without scanning its siblings.
+ * Arrays and lists of numbers are stored as primitive arrays, so that large tags do not need an object per element:
+ * <ul>
+ *     <li><code>BYTE_ARRAY</code>, <code>INT_ARRAY</code> and <code>LONG_ARRAY</code> tags hold a <code>byte[]</code>, <code>int[]</code> and <code>long[]</code> respectively</li>
+ *     <li><code>LIST</code> tags with a list type of <code>INT</code>, <code>LONG</code>, <code>FLOAT</code> or <code>DOUBLE</code> hold an <code>int[]</code>, <code>long[]</code>, <code>float[]</code> or <code>double[]</code> respectively</li>
+ *     <li><code>LIST</code> tags with a list type of <code>COMPOUND</code> hold a <code>List&lt;NBTTag&gt;</code>, where each element is a compound tag without a key</li>
+ *     <li>All other <code>LIST</code> tags hold a <code>List&lt;String&gt;</code></li>
+ * </ul>
+ * Values passed to the constructors and {@link #setValue(Object)} are converted to these types, so a list of numbers or numeric strings may be passed for any array or numeric list.
+ * A tag belongs to the {@link NBTData} it was last added to, which is notified whenever the value of the tag is set or a child is added to or removed from it, so cached data derived from the NBT data (such as content hashes) stays up to date.
+ * Tags are {@link #equals(Object) equal} if they have the same type, list type, key and value. The children of compound tags are compared regardless of their order, and other values are compared by their text, so a value of <code>5</code> is the same whether it was read as a number or as a string.
  */
-public class NBTTag implements Serializable {
+public class NBTTag implements Serializable, ContentHashable {
 
     private static final long serialVersionUID = -4827853524004316582L;
 
     private final NBTTagType type;
     private final NBTTagType listType;
-    private final String key;
+    private String key;
     private Object value;
 
+    private transient NBTData owner;
+
     /**
      * Create a new NBT tag with the specified type, key, and value
      * @param type The {@link NBTTagType} representing the type that the tag is
      * @param key The key of the tag
-     * @param value The value of the tag, should be another NBTTag if the tag is a compound tag
+     * @param value The value of the tag, should be a collection or map of child NBTTags if the tag is a compound tag
      */
     public NBTTag(NBTTagType type, String key, Object value) {
         this(type, null, key, value);
@@ -29,13 +63,13 @@ public class NBTTag implements Serializable {
      * @param type The {@link NBTTagType} representing the type that the tag is
      * @param listType If the <code>type</code> is a list, this should be the type representing values in the list; this should be null otherwise
      * @param key The key of the tag
-     * @param value The value of the tag, should be another NBTTag if the tag is a compound tag
+     * @param value The value of the tag, should be a collection or map of child NBTTags if the tag is a compound tag
      */
     public NBTTag(NBTTagType type, NBTTagType listType, String key, Object value) {
         this.type = type;
         this.listType = listType;
         this.key = key;
-        this.value = value;
+        this.value = convertValue(type, listType, value);
     }
 
     /**
@@ -72,6 +106,55 @@ public class NBTTag implements Serializable {
         return type == NBTTagType.LIST;
     }
 
+    /**
+     * Get the children of this tag. Children should be added and removed with {@link #putChild(NBTTag)} and {@link #removeChild(String)}.
+     * @return An unmodifiable, insertion-ordered map where each key is the key of a child tag and the value is the child tag, or null if this tag is not a compound tag
+     */
+    public Map<String, NBTTag> getChildren() {
+        return isCompoundTag() ? Collections.unmodifiableMap(children()) : null;
+    }
+
+    /**
+     * Get a child of this tag by its key.
+     * @param key The key of the child to get
+     * @return The child tag under the specified key, or null if nothing was found or this tag is not a compound tag
+     */
+    public NBTTag getChild(String key) {
+        return isCompoundTag() ? children().get(key) : null;
+    }
+
+    /**
+     * Add a child to this compound tag. If a child with the same key already exists, it is replaced.
+     * @param child The child to add
+     * @throws NBTException If this tag is not a compound tag
+     */
+    public void putChild(NBTTag child) {
+        Preconditions.checkArgument(child != null, "child cannot be null!");
+        if (!isCompoundTag())
+            throw new NBTException("Unable to add a child to NBT tag " + key + ", because it is not a compound tag!");
+
+        children().put(child.getKey(), child);
+        child.setOwner(owner);
+        markOwnerModified();
+    }
+
+    /**
+     * Remove a child from this compound tag.
+     * @param key The key of the child to remove
+     * @return The child that was removed, or null if nothing was found or this tag is not a compound tag
+     */
+    public NBTTag removeChild(String key) {
+        if (!isCompoundTag())
+            return null;
+
+        NBTTag removed = children().remove(key);
+        if (removed != null) {
+            removed.setOwner(null);
+            markOwnerModified();
+        }
+        return removed;
+    }
+
     /**
      * Get the key of the tag.
      * @return The key of the tag
@@ -82,18 +165,506 @@ public class NBTTag implements Serializable {
 
     /**
      * Get the value of the tag.
-     * <b>Note:</b> The type of the object returned from this method will depend on the type of this tag and casting will be required.
+     * <b>Note:</b> The type of the object returned from this method will depend on the type of this tag and casting will be required. For compound tags, this is the same unmodifiable map that is returned by {@link #getChildren()}. Arrays and lists are returned as they are, so {@link NBTData#markModified() markModified} should be called on the NBTData containing this tag after modifying them directly.
      * @return The value of this tag
      */
     public Object getValue() {
-        return value;
+        return isCompoundTag() ? getChildren() : value;
     }
 
     /**
-     * Set the value of the tag.
-     * @param value The value of the tag to set
+     * Set the value of the tag. The NBTData containing this tag is marked as modified.
+     * @param value The value of the tag to set, should be a collection or map of child NBTTags if the tag is a compound tag
      */
     public void setValue(Object value) {
-        this.value = value;
+        this.value = convertValue(type, listType, value);
+        setOwner(owner);
+        markOwnerModified();
+    }
+
+    @SuppressWarnings("unchecked")
+    Map<String, NBTTag> children() {
+        //The mutable children, which NBTData modifies directly while it builds and changes the tree
+        return isCompoundTag() ? (Map<String, NBTTag>) value : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    void setOwner(NBTData owner) {
+        this.owner = owner;
+        if (value instanceof Map) {
+            for (NBTTag child : ((Map<String, NBTTag>) value).values())
+                child.setOwner(owner);
+        } else if (value instanceof List) {
+            for (Object element : (List<Object>) value) {
+                if (element instanceof NBTTag)
+                    ((NBTTag) element).setOwner(owner);
+            }
+        }
+    }
+
+    private void markOwnerModified() {
+        if (owner != null)
+            owner.markModified();
+    }
+
+    /**
+     * Intern the key and all string values of this tag and its children through a pool, and trim lists so that they have no spare capacity. Arrays and lists of numbers are left as they are.
+     * <b>Warning:</b> This method is called automatically from {@link NBTData#compact(InternPool) compact} in the NBTData class!
+     * @param pool The pool through which values will be interned
+     */
+    @SuppressWarnings("unchecked")
+    public void compact(InternPool pool) {
+        this.key = pool.intern(this.key);
+        if (value instanceof Map) {
+            Map<String, NBTTag> children = (Map<String, NBTTag>) value;
+            LinkedHashMap<String, NBTTag> compacted = new LinkedHashMap<>(Math.max(2, (int) (children.size() / 0.75F) + 1));
+            for (NBTTag child : children.values()) {
+                child.compact(pool);
+                compacted.put(child.getKey(), child);
+            }
+            this.value = compacted;
+        } else if (value instanceof List) {
+            List<Object> list = (List<Object>) value;
+            List<Object> compacted = new ArrayList<>(list.size());
+            for (Object element : list) {
+                if (element instanceof NBTTag) {
+                    ((NBTTag) element).compact(pool);
+                    compacted.add(element);
+                } else
+                    compacted.add(pool.intern(element));
+            }
+            this.value = compacted;
+        } else if (value instanceof String)
+            this.value = pool.intern(value);
+    }
+
+    /**
+     * Get a 64-bit hash of the contents of this tag. Tags that are {@link #equals(Object) equal} always have the same content hash.
+     * <b>Note:</b> Unlike {@link NBTData#contentHash()}, this hash is not cached, because a tag does not keep its own revision.
+     * @return The content hash of this tag
+     */
+    public long contentHash() {
+        return new ContentHasher().put(this).getHash();
+    }
+
+    @Override
+    public void hashContent(ContentHasher hasher) {
+        hasher.putString(type == null ? null : type.name())
+                .putString(listType == null ? null : listType.name())
+                .putString(key);
+        hashValue(hasher, value);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+
+        NBTTag other = (NBTTag) o;
+        return type == other.type && listType == other.listType && Objects.equals(key, other.key) && valueEquals(value, other.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return ContentHasher.toHashCode(contentHash());
+    }
+
+    static void hashChildren(ContentHasher hasher, Collection<NBTTag> children) {
+        //Compounds are unordered in NBT, so the children are combined in a way that does not depend on their order
+        long sum = 0;
+        for (NBTTag child : children)
+            sum += child.contentHash();
+        hasher.putInt(children.size()).putLong(sum);
+    }
+
+    /**
+     * Write this tag in ItemAPI's binary format. The type and list type are stored by ordinal and numeric values are stored in their binary form.
+     * @param out The output to which the tag will be written
+     */
+    public void writeBinary(ItemDataOutput out) {
+        out.writeTag(1, WireType.VARINT);
+        out.writeVarInt(type.ordinal());
+        if (listType != null) {
+            out.writeTag(2, WireType.VARINT);
+            out.writeVarInt(listType.ordinal());
+        }
+        out.writeStringField(3, key);
+        if (value == null)
+            return;
+
+        switch (type) {
+            case BOOLEAN:
+                out.writeBooleanField(4, (Boolean) value);
+                break;
+            case BYTE:
+            case SHORT:
+            case INT:
+                out.writeIntField(4, ((Number) value).intValue());
+                break;
+            case LONG:
+                out.writeLongField(4, ((Number) value).longValue());
+                break;
+            case FLOAT:
+                out.writeTag(4, WireType.FIXED32);
+                out.writeFloat(((Number) value).floatValue());
+                break;
+            case DOUBLE:
+                out.writeTag(4, WireType.FIXED64);
+                out.writeDouble(((Number) value).doubleValue());
+                break;
+            case BYTE_ARRAY:
+                out.writeTag(4, WireType.LENGTH_DELIMITED);
+                out.writeBytes((byte[]) value);
+                break;
+            case STRING:
+                out.writeStringField(4, (String) value);
+                break;
+            case COMPOUND:
+                Collection<NBTTag> children = children().values();
+                out.writeNestedField(4, childrenOut -> {
+                    childrenOut.writeVarInt(children.size());
+                    for (NBTTag child : children)
+                        childrenOut.writeNested(child::writeBinary);
+                });
+                break;
+            case INT_ARRAY:
+                out.writeNestedField(4, intsOut -> writeInts(intsOut, (int[]) value));
+                break;
+            case LONG_ARRAY:
+                out.writeNestedField(4, longsOut -> writeLongs(longsOut, (long[]) value));
+                break;
+            case LIST:
+                out.writeNestedField(4, this::writeList);
+                break;
+        }
+    }
+
+    /**
+     * Read a tag that was written with {@link #writeBinary(ItemDataOutput)}.
+     * @param in The input from which the tag will be read
+     * @return The tag that was read
+     * @throws ItemDataException If the tag type is unknown
+     */
+    public static NBTTag readBinary(ItemDataInput in) {
+        NBTTagType type = null;
+        NBTTagType listType = null;
+        String key = null;
+        Object value = null;
+        for (int tag = in.readTag(); tag != 0; tag = in.readTag()) {
+            switch (ItemDataInput.getFieldNumber(tag)) {
+                case 1:
+                    type = readType(in);
+                    break;
+                case 2:
+                    listType = readType(in);
+                    break;
+                case 3:
+                    key = in.readString();
+                    break;
+                case 4:
+                    if (type == null)
+                        throw new ItemDataException("NBT tag value was read before its type! The data may be corrupted.");
+                    value = readValue(in, type, listType);
+                    break;
+                default:
+                    in.skipField(tag);
+            }
+        }
+        if (type == null)
+            throw new ItemDataException("NBT tag does not have a type! The data may be corrupted.");
+        return new NBTTag(type, listType, key, value);
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        //Older versions stored compound children in a list and arrays and numeric lists as lists of boxed values, which are converted just like values passed to the constructor
+        try {
+            this.value = convertValue(type, listType, value);
+        } catch (IllegalArgumentException e) {
+            InvalidObjectException exception = new InvalidObjectException("NBT tag " + key + " has an invalid value: " + e.getMessage());
+            exception.initCause(e);
+            throw exception;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void writeList(ItemDataOutput out) {
+        if (listType == NBTTagType.INT)
+            writeInts(out, (int[]) value);
+        else if (listType == NBTTagType.LONG)
+            writeLongs(out, (long[]) value);
+        else if (listType == NBTTagType.FLOAT) {
+            float[] floats = (float[]) value;
+            out.writeVarInt(floats.length);
+            for (float element : floats)
+                out.writeFloat(element);
+        } else if (listType == NBTTagType.DOUBLE) {
+            double[] doubles = (double[]) value;
+            out.writeVarInt(doubles.length);
+            for (double element : doubles)
+                out.writeDouble(element);
+        } else if (listType == NBTTagType.COMPOUND) {
+            List<NBTTag> compounds = (List<NBTTag>) value;
+            out.writeVarInt(compounds.size());
+            for (NBTTag element : compounds)
+                out.writeNested(element::writeBinary);
+        } else
+            out.writeStringList((List<String>) value);
+    }
+
+    private static void writeInts(ItemDataOutput out, int[] ints) {
+        out.writeVarInt(ints.length);
+        for (int element : ints)
+            out.writeSignedVarInt(element);
+    }
+
+    private static void writeLongs(ItemDataOutput out, long[] longs) {
+        out.writeVarInt(longs.length);
+        for (long element : longs)
+            out.writeSignedVarLong(element);
+    }
+
+    private static int[] readInts(ItemDataInput in) {
+        int[] ints = new int[in.readSize()];
+        for (int i = 0; i < ints.length; i++)
+            ints[i] = in.readSignedVarInt();
+        return ints;
+    }
+
+    private static long[] readLongs(ItemDataInput in) {
+        long[] longs = new long[in.readSize()];
+        for (int i = 0; i < longs.length; i++)
+            longs[i] = in.readSignedVarLong();
+        return longs;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void hashValue(ContentHasher hasher, Object value) {
+        if (value instanceof Map)
+            hashChildren(hasher, ((Map<String, NBTTag>) value).values());
+        else if (value instanceof byte[]) {
+            byte[] array = (byte[]) value;
+            hasher.putInt(array.length);
+            for (byte element : array)
+                hasher.putInt(element);
+        } else if (value instanceof int[]) {
+            int[] array = (int[]) value;
+            hasher.putInt(array.length);
+            for (int element : array)
+                hasher.putInt(element);
+        } else if (value instanceof long[]) {
+            long[] array = (long[]) value;
+            hasher.putInt(array.length);
+            for (long element : array)
+                hasher.putLong(element);
+        } else if (value instanceof float[]) {
+            float[] array = (float[]) value;
+            hasher.putInt(array.length);
+            for (float element : array)
+                hasher.putInt(Float.floatToIntBits(element));
+        } else if (value instanceof double[]) {
+            double[] array = (double[]) value;
+            hasher.putInt(array.length);
+            for (double element : array)
+                hasher.putDouble(element);
+        } else if (value instanceof List) {
+            List<?> list = (List<?>) value;
+            hasher.putInt(list.size());
+            for (Object element : list)
+                hashValue(hasher, element);
+        } else if (value instanceof NBTTag)
+            hasher.put((NBTTag) value);
+        else
+            hasher.putString(value == null ? null : value.toString());
+    }
+
+    private static boolean valueEquals(Object value, Object other) {
+        if (value == other)
+            return true;
+        if (value == null || other == null)
+            return false;
+        if (value instanceof Map || value instanceof List || value instanceof NBTTag)
+            return value.equals(other);
+        if (value.getClass().isArray() || other.getClass().isArray())
+            return Objects.deepEquals(value, other);
+        return value.toString().equals(other.toString());
+    }
+
+    private static Object convertValue(NBTTagType type, NBTTagType listType, Object value) {
+        if (type == NBTTagType.COMPOUND)
+            return toChildMap(value);
+        if (value == null)
+            return null;
+
+        switch (type) {
+            case BYTE_ARRAY:
+                if (value instanceof byte[])
+                    return value;
+                List<Number> bytes = toNumbers(type, value);
+                byte[] byteArray = new byte[bytes.size()];
+                for (int i = 0; i < byteArray.length; i++)
+                    byteArray[i] = bytes.get(i).byteValue();
+                return byteArray;
+            case INT_ARRAY:
+                return toIntArray(type, value);
+            case LONG_ARRAY:
+                return toLongArray(type, value);
+            case LIST:
+                if (listType == NBTTagType.INT)
+                    return toIntArray(type, value);
+                else if (listType == NBTTagType.LONG)
+                    return toLongArray(type, value);
+                else if (listType == NBTTagType.FLOAT) {
+                    if (value instanceof float[])
+                        return value;
+                    List<Number> floats = toNumbers(type, value);
+                    float[] floatArray = new float[floats.size()];
+                    for (int i = 0; i < floatArray.length; i++)
+                        floatArray[i] = floats.get(i).floatValue();
+                    return floatArray;
+                } else if (listType == NBTTagType.DOUBLE) {
+                    if (value instanceof double[])
+                        return value;
+                    List<Number> doubles = toNumbers(type, value);
+                    double[] doubleArray = new double[doubles.size()];
+                    for (int i = 0; i < doubleArray.length; i++)
+                        doubleArray[i] = doubles.get(i).doubleValue();
+                    return doubleArray;
+                } else if (listType == NBTTagType.COMPOUND) {
+                    List<NBTTag> compounds = new ArrayList<>();
+                    for (Object element : toCollection(type, value)) {
+                        if (element instanceof NBTTag && ((NBTTag) element).isCompoundTag())
+                            compounds.add((NBTTag) element);
+                        else
+                            compounds.add(new NBTTag(NBTTagType.COMPOUND, null, element));
+                    }
+                    return compounds;
+                } else {
+                    List<String> strings = new ArrayList<>();
+                    for (Object element : toCollection(type, value))
+                        strings.add(element == null ? null : element.toString());
+                    return strings;
+                }
+            default:
+                return value;
+        }
+    }
+
+    private static int[] toIntArray(NBTTagType type, Object value) {
+        if (value instanceof int[])
+            return (int[]) value;
+        List<Number> ints = toNumbers(type, value);
+        int[] intArray = new int[ints.size()];
+        for (int i = 0; i < intArray.length; i++)
+            intArray[i] = ints.get(i).intValue();
+        return intArray;
+    }
+
+    private static long[] toLongArray(NBTTagType type, Object value) {
+        if (value instanceof long[])
+            return (long[]) value;
+        List<Number> longs = toNumbers(type, value);
+        long[] longArray = new long[longs.size()];
+        for (int i = 0; i < longArray.length; i++)
+            longArray[i] = longs.get(i).longValue();
+        return longArray;
+    }
+
+    private static List<Number> toNumbers(NBTTagType type, Object value) {
+        Collection<?> collection = toCollection(type, value);
+        List<Number> numbers = new ArrayList<>(collection.size());
+        for (Object element : collection) {
+            //Values parsed from a configuration section may be numbers or numeric strings
+            if (element instanceof Number)
+                numbers.add((Number) element);
+            else if (element != null)
+                numbers.add(new BigDecimal(element.toString().trim()));
+            else
+                throw new IllegalArgumentException("The value of a " + type + " tag cannot contain null elements!");
+        }
+        return numbers;
+    }
+
+    private static Collection<?> toCollection(NBTTagType type, Object value) {
+        if (!(value instanceof Collection))
+            throw new IllegalArgumentException("The value of a " + type + " tag must be a collection or a primitive array!");
+        return (Collection<?>) value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static LinkedHashMap<String, NBTTag> toChildMap(Object value) {
+        LinkedHashMap<String, NBTTag> children = new LinkedHashMap<>();
+        if (value instanceof Map)
+            children.putAll((Map<String, NBTTag>) value);
+        else if (value instanceof Collection) {
+            for (NBTTag child : (Collection<NBTTag>) value)
+                children.put(child.getKey(), child);
+        } else if (value != null)
+            throw new IllegalArgumentException("The value of a compound tag must be a collection or map of NBTTags!");
+        return children;
+    }
+
+    private static NBTTagType readType(ItemDataInput in) {
+        int ordinal = in.readVarInt();
+        NBTTagType[] types = NBTTagType.values();
+        if (ordinal < 0 || ordinal >= types.length)
+            throw new ItemDataException("Unknown NBT tag type " + ordinal + "! The data may have been written by a newer version of ItemAPI.");
+        return types[ordinal];
+    }
+
+    private static Object readValue(ItemDataInput in, NBTTagType type, NBTTagType listType) {
+        switch (type) {
+            case BOOLEAN:
+                return in.readBoolean();
+            case BYTE:
+                return (byte) in.readSignedVarInt();
+            case SHORT:
+                return (short) in.readSignedVarInt();
+            case INT:
+                return in.readSignedVarInt();
+            case LONG:
+                return in.readSignedVarLong();
+            case FLOAT:
+                return in.readFloat();
+            case DOUBLE:
+                return in.readDouble();
+            case BYTE_ARRAY:
+                return in.readBytes();
+            case STRING:
+                return in.readString();
+            case COMPOUND:
+                return toChildMap(in.readListField(NBTTag::readBinary));
+            case INT_ARRAY:
+                return readInts(in.readNested());
+            case LONG_ARRAY:
+                return readLongs(in.readNested());
+            case LIST:
+                ItemDataInput listIn = in.readNested();
+                if (listType == NBTTagType.INT)
+                    return readInts(listIn);
+                else if (listType == NBTTagType.LONG)
+                    return readLongs(listIn);
+                else if (listType == NBTTagType.FLOAT) {
+                    float[] floats = new float[listIn.readSize()];
+                    for (int i = 0; i < floats.length; i++)
+                        floats[i] = listIn.readFloat();
+                    return floats;
+                } else if (listType == NBTTagType.DOUBLE) {
+                    double[] doubles = new double[listIn.readSize()];
+                    for (int i = 0; i < doubles.length; i++)
+                        doubles[i] = listIn.readDouble();
+                    return doubles;
+                } else if (listType == NBTTagType.COMPOUND) {
+                    int compoundCount = listIn.readSize();
+                    List<NBTTag> compounds = new ArrayList<>(compoundCount);
+                    for (int i = 0; i < compoundCount; i++)
+                        compounds.add(readBinary(listIn.readNested()));
+                    return compounds;
+                } else
+                    return listIn.readStringList();
+        }
+        return null;
     }
 }
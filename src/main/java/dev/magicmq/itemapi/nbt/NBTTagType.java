@@ -4,6 +4,7 @@ import de.tr7zw.changeme.nbtapi.NBTType;
 
 /**
  * An enum representing all possible NBT tag types accepted by Minecraft.
+ * <b>Note:</b> The ordinal of each type is stored in ItemAPI's binary format, so new types must always be added at the end.
  */
 public enum NBTTagType {
 
@@ -18,7 +19,8 @@ public enum NBTTagType {
     STRING("NBTTagString"),
     COMPOUND("NBTTagCompound"),
     INT_ARRAY("NBTTagIntArray"),
-    LIST("NBTTagList");
+    LIST("NBTTagList"),
+    LONG_ARRAY("NBTTagLongArray");
 
     private final String nbtAPIType;
 
@@ -0,0 +1,127 @@
+package dev.magicmq.itemapi.profile;
+
+import com.google.common.base.Preconditions;
+import dev.magicmq.itemapi.metrics.CacheType;
+import dev.magicmq.itemapi.metrics.Metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A {@link ProfileSource} that caches the lookups of another source in a bounded, least-recently-used cache.
+ * Lookups that are still in progress are cached as well, so many heads with the same owner that are built at the same time share a single lookup. Lookups that fail or find no profile are not cached, so they are tried again the next time.
+ * Player names are cached regardless of their case, since Minecraft names are not case-sensitive.
+ */
+public class CachingProfileSource implements ProfileSource {
+
+    private final ProfileSource source;
+    private final int maximumSize;
+    private final LinkedHashMap<String, CompletableFuture<SkullProfile>> cache;
+
+    /**
+     * Create a new CachingProfileSource class.
+     * @param source The source that will perform lookups that are not in the cache
+     * @param maximumSize The maximum number of owners to keep in the cache
+     */
+    public CachingProfileSource(ProfileSource source, int maximumSize) {
+        Preconditions.checkArgument(source != null, "source cannot be null!");
+        Preconditions.checkArgument(maximumSize > 0, "maximumSize must be greater than 0!");
+
+        this.source = source;
+        this.maximumSize = maximumSize;
+        this.cache = new LinkedHashMap<String, CompletableFuture<SkullProfile>>(16, 0.75F, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CompletableFuture<SkullProfile>> eldest) {
+                return size() > CachingProfileSource.this.maximumSize;
+            }
+        };
+    }
+
+    @Override
+    public CompletableFuture<SkullProfile> lookup(String owner) {
+        Preconditions.checkArgument(owner != null, "owner cannot be null!");
+
+        String key = owner.toLowerCase(Locale.ROOT);
+        CompletableFuture<SkullProfile> future;
+        synchronized (cache) {
+            future = cache.get(key);
+            Metrics.cacheAccess(CacheType.SKULL_PROFILE, future != null);
+            if (future != null)
+                return future;
+
+            future = new CompletableFuture<>();
+            cache.put(key, future);
+        }
+
+        //The lookup is started outside of the lock, since a source may complete it on the calling thread
+        CompletableFuture<SkullProfile> pending = future;
+        try {
+            source.lookup(owner).whenComplete((profile, throwable) -> {
+                if (throwable != null || profile == null)
+                    evict(key, pending);
+                if (throwable != null)
+                    pending.completeExceptionally(throwable);
+                else
+                    pending.complete(profile);
+            });
+        } catch (RuntimeException e) {
+            evict(key, pending);
+            pending.completeExceptionally(e);
+        }
+        return pending;
+    }
+
+    /**
+     * Get a profile from the cache without looking it up.
+     * @param owner The skull owner, either as a player name or as a UUID string
+     * @return The cached profile, or null if the owner is not in the cache or is still being looked up
+     */
+    public SkullProfile getIfPresent(String owner) {
+        Preconditions.checkArgument(owner != null, "owner cannot be null!");
+
+        CompletableFuture<SkullProfile> future;
+        synchronized (cache) {
+            future = cache.get(owner.toLowerCase(Locale.ROOT));
+        }
+        return future != null && future.isDone() && !future.isCompletedExceptionally() ? future.join() : null;
+    }
+
+    /**
+     * Remove an owner from the cache, so that it is looked up again the next time.
+     * @param owner The skull owner, either as a player name or as a UUID string
+     */
+    public void invalidate(String owner) {
+        Preconditions.checkArgument(owner != null, "owner cannot be null!");
+
+        synchronized (cache) {
+            cache.remove(owner.toLowerCase(Locale.ROOT));
+        }
+    }
+
+    /**
+     * Remove all owners from the cache.
+     */
+    public void invalidateAll() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * Get the number of owners in the cache, including owners that are still being looked up.
+     * @return The number of owners in the cache
+     */
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    private void evict(String key, CompletableFuture<SkullProfile> future) {
+        synchronized (cache) {
+            cache.remove(key, future);
+        }
+    }
+}
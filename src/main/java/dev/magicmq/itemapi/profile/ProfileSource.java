@@ -0,0 +1,72 @@
+package dev.magicmq.itemapi.profile;
+
+import com.google.common.base.Preconditions;
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Resolves the skull owner of a player head, given either as a player name or as a UUID string, into a {@link SkullProfile}.
+ * Lookups may be slow, for example if a player name has to be looked up with Mojang, so they are always performed asynchronously. Sources can be wrapped with {@link #cached(ProfileSource, int)} so that each owner is only looked up once.
+ * @see dev.magicmq.itemapi.metadata.PlayerHeadMetadata#resolveProfile(ProfileSource)
+ */
+@FunctionalInterface
+public interface ProfileSource {
+
+    /**
+     * Look up the profile of a skull owner.
+     * @param owner The skull owner, either as a player name or as a UUID string
+     * @return A future that completes with the profile, or with null if no profile could be found for the owner
+     */
+    CompletableFuture<SkullProfile> lookup(String owner);
+
+    /**
+     * Get a source that resolves owners through Bukkit's offline player lookup. Owners that are already UUIDs are resolved immediately without a lookup, while player names are looked up on the specified executor.
+     * <b>Note:</b> The executor should not be the server's main thread, because looking up a player by name may block.
+     * @param executor The executor on which player names will be looked up
+     * @return A source backed by Bukkit
+     */
+    static ProfileSource bukkit(Executor executor) {
+        Preconditions.checkArgument(executor != null, "executor cannot be null!");
+
+        return owner -> {
+            Preconditions.checkArgument(owner != null, "owner cannot be null!");
+
+            try {
+                return CompletableFuture.completedFuture(new SkullProfile(UUID.fromString(owner), null, null));
+            } catch (IllegalArgumentException ignored) {}
+
+            return CompletableFuture.supplyAsync(() -> {
+                @SuppressWarnings("deprecation")
+                OfflinePlayer player = Bukkit.getOfflinePlayer(owner);
+                return player.getUniqueId() == null ? null : new SkullProfile(player.getUniqueId(), player.getName(), null);
+            }, executor);
+        };
+    }
+
+    /**
+     * Get a source that resolves owners from a fixed map of profiles, without any lookups. This is useful for testing, or for servers that already know the profiles of their players.
+     * @param profiles The profiles, where each key is a skull owner exactly as it appears in configuration files
+     * @return A source backed by the map. The map is not copied, so later changes to it are visible to the source
+     */
+    static ProfileSource of(Map<String, SkullProfile> profiles) {
+        Preconditions.checkArgument(profiles != null, "profiles cannot be null!");
+
+        return owner -> CompletableFuture.completedFuture(profiles.get(owner));
+    }
+
+    /**
+     * Wrap a source so that the result of each lookup is cached. Only the most recently used owners are kept, up to the specified number.
+     * @param source The source that will perform lookups that are not in the cache
+     * @param maximumSize The maximum number of owners to keep in the cache
+     * @return A caching source
+     * @see CachingProfileSource
+     */
+    static CachingProfileSource cached(ProfileSource source, int maximumSize) {
+        return new CachingProfileSource(source, maximumSize);
+    }
+}
@@ -0,0 +1,108 @@
+package dev.magicmq.itemapi.profile;
+
+import com.google.common.base.Preconditions;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * An immutable player profile that can be applied to a player head. A profile always has a unique ID, and may also have a name and a Base64 skin texture.
+ * @see ProfileSource
+ */
+public final class SkullProfile {
+
+    private final UUID uniqueId;
+    private final String name;
+    private final String textures;
+
+    /**
+     * Create a new SkullProfile class.
+     * @param uniqueId The unique ID of the profile
+     * @param name The name of the profile, or null if it is not known
+     * @param textures The skin texture of the profile as a Base64 string, or null if it is not known
+     */
+    public SkullProfile(UUID uniqueId, String name, String textures) {
+        Preconditions.checkArgument(uniqueId != null, "uniqueId cannot be null!");
+
+        this.uniqueId = uniqueId;
+        this.name = name;
+        this.textures = textures;
+    }
+
+    /**
+     * Create a profile for a skin texture that does not belong to a real player. The unique ID is derived from the texture, so the same texture always produces the same profile, and heads with the same texture stack with each other.
+     * @param textures The skin texture as a Base64 string
+     * @param name The name of the profile, or null to leave it unset
+     * @return A new SkullProfile with a unique ID derived from the texture
+     */
+    public static SkullProfile ofTextures(String textures, String name) {
+        Preconditions.checkArgument(textures != null, "textures cannot be null!");
+
+        return new SkullProfile(textureId(textures), name, textures);
+    }
+
+    /**
+     * Get the unique ID that is used for a skin texture that does not belong to a real player. This is a name-based UUID of the texture, so it is the same every time it is computed for the same texture.
+     * @param textures The skin texture as a Base64 string
+     * @return The unique ID for the texture
+     */
+    public static UUID textureId(String textures) {
+        Preconditions.checkArgument(textures != null, "textures cannot be null!");
+
+        return UUID.nameUUIDFromBytes(("ItemAPI:" + textures).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Get the unique ID of this profile.
+     * @return The unique ID
+     */
+    public UUID getUniqueId() {
+        return uniqueId;
+    }
+
+    /**
+     * Get the name of this profile.
+     * @return The name, or null if it is not known
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the skin texture of this profile.
+     * @return The skin texture as a Base64 string, or null if it is not known
+     */
+    public String getTextures() {
+        return textures;
+    }
+
+    /**
+     * Check if this profile has a skin texture.
+     * @return True if the skin texture is known, false if otherwise
+     */
+    public boolean hasTextures() {
+        return textures != null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+
+        SkullProfile other = (SkullProfile) o;
+        return uniqueId.equals(other.uniqueId) && Objects.equals(name, other.name) && Objects.equals(textures, other.textures);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(uniqueId, name, textures);
+    }
+
+    @Override
+    public String toString() {
+        return "SkullProfile{uniqueId=" + uniqueId + ", name=" + name + ", textures=" + (textures == null ? "none" : textures.length() + " characters") + "}";
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Contains the lookup of player profiles for player heads, which allows skull owners to be resolved asynchronously and cached.
+ */
+package dev.magicmq.itemapi.profile;
\ No newline at end of file
@@ -0,0 +1,229 @@
+package dev.magicmq.itemapi.serialization;
+
+import com.google.common.base.Preconditions;
+import dev.magicmq.itemapi.WrappedItem;
+import dev.magicmq.itemapi.utils.exception.ItemDataException;
+import org.bukkit.Material;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Converts whole inventories to and from a compact binary format.
+ * Inventories usually contain many copies of the same item and many empty slots, so instead of encoding every slot separately, each distinct item is encoded once in a dictionary and the slots only refer to it by index. Runs of empty slots are stored as a single count. A player inventory full of the same block therefore takes little more space than a single item.
+ * Items are considered the same if they are {@link WrappedItem#equals(Object) equal}. The dictionary entries are ordinary items in {@link ItemCodec ItemCodec}'s binary format.
+ * <b>Note:</b> The slot encoding is also used for the contents of shulker boxes, bundles and crossbows, through {@link #writeSlots(ItemDataOutput, List)} and {@link #readSlots(ItemDataInput)}.
+ */
+public class InventoryCodec {
+
+    /**
+     * The first byte of all inventories written in the binary format.
+     */
+    public static final int MAGIC = 0x4A;
+
+    /**
+     * The version of the inventory format written by this version of ItemAPI.
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * The largest number of slots that can be decoded. This guards against corrupted data, since a run of empty slots can describe many slots in very few bytes.
+     */
+    public static final int MAX_SLOTS = 1 << 16;
+
+    /**
+     * Encode the contents of an inventory. Slots containing null or air are encoded as empty slots.
+     * @param contents The contents of the inventory, as returned by {@link Inventory#getContents()}
+     * @return The encoded inventory
+     * @throws ItemDataException If an item contains a type of metadata that is not supported by the binary format
+     */
+    public static byte[] encode(ItemStack[] contents) {
+        Preconditions.checkArgument(contents != null, "contents cannot be null!");
+
+        List<WrappedItem> slots = new ArrayList<>(contents.length);
+        for (ItemStack item : contents)
+            slots.add(isEmpty(item) ? null : new WrappedItem(item));
+        return encode(slots);
+    }
+
+    /**
+     * Encode the contents of an inventory.
+     * @param inventory The inventory to encode
+     * @return The encoded inventory
+     * @throws ItemDataException If an item contains a type of metadata that is not supported by the binary format
+     */
+    public static byte[] encode(Inventory inventory) {
+        Preconditions.checkArgument(inventory != null, "inventory cannot be null!");
+
+        return encode(inventory.getContents());
+    }
+
+    /**
+     * Encode a list of slots.
+     * @param slots The items in each slot, where null represents an empty slot
+     * @return The encoded inventory
+     * @throws ItemDataException If an item contains a type of metadata that is not supported by the binary format
+     */
+    public static byte[] encode(List<WrappedItem> slots) {
+        Preconditions.checkArgument(slots != null, "slots cannot be null!");
+
+        ItemDataOutput out = new ItemDataOutput(64 + slots.size());
+        out.writeByte(MAGIC);
+        out.writeByte(VERSION);
+        writeSlots(out, slots);
+        return out.toByteArray();
+    }
+
+    /**
+     * Decode the contents of an inventory. Every slot that contains the same item receives its own copy of the ItemStack, but each distinct item is only built once.
+     * @param data The encoded inventory
+     * @return The contents of the inventory, where empty slots are null, which can be passed to {@link Inventory#setContents(ItemStack[])}
+     * @throws ItemDataException If the data is corrupted or was written by a newer version of ItemAPI
+     */
+    public static ItemStack[] decode(byte[] data) {
+        ItemDataInput in = readHeader(data);
+        int size = readSlotCount(in);
+        ItemDataInput[] dictionary = readDictionary(in);
+        ItemStack[] built = new ItemStack[dictionary.length];
+
+        ItemStack[] contents = new ItemStack[size];
+        readRuns(in, size, dictionary.length, (slot, index) -> {
+            if (built[index] == null)
+                built[index] = new WrappedItem(dictionary[index].duplicate()).getAsItemStack();
+            contents[slot] = built[index].clone();
+        });
+        return contents;
+    }
+
+    /**
+     * Decode a list of slots.
+     * @param data The encoded inventory
+     * @return A new mutable list containing the items in each slot, where null represents an empty slot. Every slot receives its own WrappedItem, even if it contains the same item as another slot
+     * @throws ItemDataException If the data is corrupted or was written by a newer version of ItemAPI
+     */
+    public static List<WrappedItem> decodeItems(byte[] data) {
+        return readSlots(readHeader(data));
+    }
+
+    /**
+     * Write a list of slots as a dictionary of distinct items followed by the slots.
+     * <b>Warning:</b> This method is called automatically when an inventory is encoded, and is only needed by metadata that contains other items.
+     * @param out The output to which the slots will be written
+     * @param slots The items in each slot, where null represents an empty slot
+     * @throws ItemDataException If an item contains a type of metadata that is not supported by the binary format
+     */
+    public static void writeSlots(ItemDataOutput out, List<WrappedItem> slots) {
+        HashMap<WrappedItem, Integer> indexes = new HashMap<>();
+        List<WrappedItem> dictionary = new ArrayList<>();
+        int[] slotIndexes = new int[slots.size()];
+        for (int i = 0; i < slotIndexes.length; i++) {
+            WrappedItem item = slots.get(i);
+            if (item == null) {
+                slotIndexes[i] = -1;
+                continue;
+            }
+
+            Integer index = indexes.get(item);
+            if (index == null) {
+                index = dictionary.size();
+                indexes.put(item, index);
+                dictionary.add(item);
+            }
+            slotIndexes[i] = index;
+        }
+
+        out.writeVarInt(slotIndexes.length);
+        out.writeVarInt(dictionary.size());
+        for (WrappedItem item : dictionary)
+            out.writeNested(item::writeBinary);
+
+        //The lowest bit of every entry tells a run of empty slots apart from a reference to the dictionary
+        int emptyRun = 0;
+        for (int index : slotIndexes) {
+            if (index == -1) {
+                emptyRun++;
+                continue;
+            }
+
+            if (emptyRun > 0) {
+                out.writeVarInt(emptyRun << 1);
+                emptyRun = 0;
+            }
+            out.writeVarInt((index << 1) | 1);
+        }
+        if (emptyRun > 0)
+            out.writeVarInt(emptyRun << 1);
+    }
+
+    /**
+     * Read a list of slots that was written with {@link #writeSlots(ItemDataOutput, List)}.
+     * @param in The input from which the slots will be read
+     * @return A new mutable list containing the items in each slot, where null represents an empty slot. Every slot receives its own WrappedItem, even if it contains the same item as another slot
+     * @throws ItemDataException If the data is corrupted
+     */
+    public static List<WrappedItem> readSlots(ItemDataInput in) {
+        int size = readSlotCount(in);
+        ItemDataInput[] dictionary = readDictionary(in);
+
+        WrappedItem[] slots = new WrappedItem[size];
+        readRuns(in, size, dictionary.length, (slot, index) -> slots[slot] = new WrappedItem(dictionary[index].duplicate()));
+        return new ArrayList<>(Arrays.asList(slots));
+    }
+
+    private static ItemDataInput readHeader(byte[] data) {
+        Preconditions.checkArgument(data != null, "data cannot be null!");
+
+        if (data.length < 2 || (data[0] & 0xFF) != MAGIC)
+            throw new ItemDataException("Data is not an inventory encoded by ItemAPI!");
+        int version = data[1] & 0xFF;
+        if (version > VERSION)
+            throw new ItemDataException("Inventory data was written with format version " + version + ", but this version of ItemAPI only supports up to version " + VERSION + ". Please update ItemAPI.");
+
+        return new ItemDataInput(data, 2, data.length - 2);
+    }
+
+    private static int readSlotCount(ItemDataInput in) {
+        int size = in.readVarInt();
+        if (size < 0 || size > MAX_SLOTS)
+            throw new ItemDataException("Invalid number of slots " + size + "! The data may be corrupted.");
+        return size;
+    }
+
+    private static ItemDataInput[] readDictionary(ItemDataInput in) {
+        ItemDataInput[] dictionary = new ItemDataInput[in.readSize()];
+        for (int i = 0; i < dictionary.length; i++)
+            dictionary[i] = in.readNested();
+        return dictionary;
+    }
+
+    private static void readRuns(ItemDataInput in, int size, int dictionarySize, SlotConsumer consumer) {
+        int slot = 0;
+        while (slot < size) {
+            int entry = in.readVarInt();
+            int value = entry >>> 1;
+            if ((entry & 1) == 0) {
+                if (value == 0 || value > size - slot)
+                    throw new ItemDataException("Invalid run of " + value + " empty slots at slot " + slot + "! The data may be corrupted.");
+                slot += value;
+            } else {
+                if (value >= dictionarySize)
+                    throw new ItemDataException("Invalid item " + value + " at slot " + slot + "! The data may be corrupted.");
+                consumer.accept(slot, value);
+                slot++;
+            }
+        }
+    }
+
+    private static boolean isEmpty(ItemStack item) {
+        return item == null || item.getType() == Material.AIR || item.getAmount() <= 0;
+    }
+
+    @FunctionalInterface
+    private interface SlotConsumer {
+        void accept(int slot, int index);
+    }
+}
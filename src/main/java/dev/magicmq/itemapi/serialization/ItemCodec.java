@@ -0,0 +1,155 @@
+package dev.magicmq.itemapi.serialization;
+
+import com.google.common.base.Preconditions;
+import dev.magicmq.itemapi.WrappedItem;
+import dev.magicmq.itemapi.metadata.*;
+import dev.magicmq.itemapi.utils.exception.ItemDataException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Converts WrappedItems to and from ItemAPI's compact binary format.
+ * Encoded data begins with a magic byte and a format version, followed by the fields of the item. Metadata is identified by a numeric type ID, and every class in a metadata hierarchy writes its own fields followed by an end marker, so fields can be added in later versions without breaking existing data.
+ * <b>Note:</b> Data written by versions of ItemAPI before this format was introduced used Java serialization. Such data is detected automatically and can still be decoded.
+ */
+public class ItemCodec {
+
+    /**
+     * The first byte of all data written in the binary format.
+     */
+    public static final int MAGIC = 0x49;
+
+    /**
+     * The version of the binary format written by this version of ItemAPI. Version 2 writes the items nested within shulker boxes, bundles and crossbows with {@link InventoryCodec#writeSlots(ItemDataOutput, List)}, which older versions would silently drop.
+     */
+    public static final int VERSION = 2;
+
+    private static final Map<Class<? extends Metadata>, Integer> METADATA_IDS = new HashMap<>();
+    private static final List<Function<ItemDataInput, ? extends Metadata>> METADATA_FACTORIES = new ArrayList<>();
+
+    static {
+        //IDs are stored in encoded data, so new types must always be added at the end
+        registerMetadata(Metadata.class, Metadata::new);
+        registerMetadata(SpawnEggMetadata.class, SpawnEggMetadata::new);
+        registerMetadata(SpawnerMetadata.class, SpawnerMetadata::new);
+        registerMetadata(ShulkerBoxMetadata.class, ShulkerBoxMetadata::new);
+        registerMetadata(PotionMetadata.class, PotionMetadata::new);
+        registerMetadata(BannerMetadata.class, BannerMetadata::new);
+        registerMetadata(ShieldMetadata.class, ShieldMetadata::new);
+        registerMetadata(LeatherArmorMetadata.class, LeatherArmorMetadata::new);
+        registerMetadata(PlayerHeadMetadata.class, PlayerHeadMetadata::new);
+        registerMetadata(BookMetadata.class, BookMetadata::new);
+        registerMetadata(MapMetadata.class, MapMetadata::new);
+        registerMetadata(FireworkMetadata.class, FireworkMetadata::new);
+        registerMetadata(FireworkStarMetadata.class, FireworkStarMetadata::new);
+        registerMetadata(TropicalFishBucketMetadata.class, TropicalFishBucketMetadata::new);
+        registerMetadata(EnchantedBookMetadata.class, EnchantedBookMetadata::new);
+        registerMetadata(CompassMetadata.class, CompassMetadata::new);
+        registerMetadata(KnowledgeBookMetadata.class, KnowledgeBookMetadata::new);
+        registerMetadata(CrossbowMetadata.class, CrossbowMetadata::new);
+        registerMetadata(SuspiciousStewMetadata.class, SuspiciousStewMetadata::new);
+        registerMetadata(AxolotlBucketMetadata.class, AxolotlBucketMetadata::new);
+        registerMetadata(BundleMetadata.class, BundleMetadata::new);
+    }
+
+    /**
+     * Encode a WrappedItem to the binary format.
+     * @param item The item to encode
+     * @return The encoded item
+     * @throws ItemDataException If the item contains a type of metadata that is not supported by the binary format
+     */
+    public static byte[] encode(WrappedItem item) {
+        Preconditions.checkArgument(item != null, "item cannot be null!");
+
+        ItemDataOutput out = new ItemDataOutput(128);
+        out.writeByte(MAGIC);
+        out.writeByte(VERSION);
+        item.writeBinary(out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Decode a WrappedItem from bytes. Both the binary format and data written with Java serialization by older versions of ItemAPI are accepted.
+     * @param data The encoded item
+     * @return The WrappedItem that was decoded
+     * @throws ItemDataException If the data is in the binary format but is corrupted or was written by a newer version of ItemAPI
+     * @throws IOException If the data is in the legacy format and reading it failed
+     * @throws ClassNotFoundException If the data is in the legacy format and a WrappedItem could not be extracted from it
+     */
+    public static WrappedItem decode(byte[] data) throws IOException, ClassNotFoundException {
+        Preconditions.checkArgument(data != null, "data cannot be null!");
+
+        if (isLegacy(data))
+            return decodeLegacy(data);
+
+        if (data.length < 2 || (data[0] & 0xFF) != MAGIC)
+            throw new ItemDataException("Data is not a WrappedItem encoded by ItemAPI!");
+        int version = data[1] & 0xFF;
+        if (version > VERSION)
+            throw new ItemDataException("Item data was written with format version " + version + ", but this version of ItemAPI only supports up to version " + VERSION + ". Please update ItemAPI.");
+
+        return new WrappedItem(new ItemDataInput(data, 2, data.length - 2));
+    }
+
+    /**
+     * Check if data was written with Java serialization by an older version of ItemAPI.
+     * @param data The encoded item
+     * @return True if the data is in the legacy format, false if otherwise
+     */
+    public static boolean isLegacy(byte[] data) {
+        return data.length >= 2 && (data[0] & 0xFF) == 0xAC && (data[1] & 0xFF) == 0xED;
+    }
+
+    /**
+     * Write metadata as a numeric type ID followed by its fields.
+     * <b>Warning:</b> This method is called automatically when a WrappedItem is encoded, and is only needed by metadata that contains other items.
+     * @param out The output to which the metadata will be written
+     * @param metadata The metadata to write
+     * @throws ItemDataException If the type of metadata is not supported by the binary format
+     */
+    public static void writeMetadata(ItemDataOutput out, Metadata metadata) {
+        Integer id = METADATA_IDS.get(metadata.getClass());
+        if (id == null)
+            throw new ItemDataException("Metadata of type " + metadata.getClass().getName() + " is not supported by the binary format!");
+
+        out.writeVarInt(id);
+        metadata.writeBinary(out);
+    }
+
+    /**
+     * Read metadata that was written with {@link #writeMetadata(ItemDataOutput, Metadata)}.
+     * @param in The input from which the metadata will be read
+     * @return The metadata that was read
+     * @throws ItemDataException If the type ID is unknown
+     */
+    public static Metadata readMetadata(ItemDataInput in) {
+        int id = in.readVarInt();
+        if (id < 0 || id >= METADATA_FACTORIES.size())
+            throw new ItemDataException("Unknown metadata type " + id + "! The data may have been written by a newer version of ItemAPI.");
+
+        return METADATA_FACTORIES.get(id).apply(in);
+    }
+
+    private static <T extends Metadata> void registerMetadata(Class<T> type, Function<ItemDataInput, T> factory) {
+        METADATA_IDS.put(type, METADATA_FACTORIES.size());
+        METADATA_FACTORIES.add(factory);
+    }
+
+    private static WrappedItem decodeLegacy(byte[] data) throws IOException, ClassNotFoundException {
+        try (ByteArrayInputStream bais = new ByteArrayInputStream(data);
+             ObjectInputStream input = new LegacyObjectInputStream(bais)) {
+            Object object = input.readObject();
+            if (object instanceof WrappedItem)
+                return (WrappedItem) object;
+            else
+                throw new ClassNotFoundException("WrappedItem could not be parsed from the Base64 string!");
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package dev.magicmq.itemapi.serialization;
+
+import dev.magicmq.itemapi.utils.exception.ItemDataException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Reads values in ItemAPI's binary format from a byte array.
+ * Fields are usually read in a loop that calls {@link #readTag()} until it returns 0, handling known field numbers and passing all other tags to {@link #skipField(int)}.
+ * @see ItemDataOutput
+ */
+public class ItemDataInput {
+
+    private final byte[] buffer;
+    private final int limit;
+    private int position;
+
+    /**
+     * Create a new input that reads the entire byte array.
+     * @param buffer The bytes to read
+     */
+    public ItemDataInput(byte[] buffer) {
+        this(buffer, 0, buffer.length);
+    }
+
+    /**
+     * Create a new input that reads part of a byte array.
+     * @param buffer The array containing the bytes to read
+     * @param offset The index of the first byte to read
+     * @param length The number of bytes to read
+     */
+    public ItemDataInput(byte[] buffer, int offset, int length) {
+        this.buffer = buffer;
+        this.position = offset;
+        this.limit = offset + length;
+    }
+
+    /**
+     * Get the field number contained in a tag.
+     * @param tag The tag, as returned by {@link #readTag()}
+     * @return The field number of the tag
+     */
+    public static int getFieldNumber(int tag) {
+        return tag >>> 3;
+    }
+
+    /**
+     * Get the wire type contained in a tag.
+     * @param tag The tag, as returned by {@link #readTag()}
+     * @return The wire type of the tag
+     * @see WireType
+     */
+    public static int getWireType(int tag) {
+        return tag & 0x7;
+    }
+
+    /**
+     * Read the next field tag.
+     * @return The tag of the next field, or 0 if an end marker or the end of the data was reached
+     */
+    public int readTag() {
+        if (position >= limit)
+            return 0;
+        return readVarInt();
+    }
+
+    /**
+     * Skip the value of a field that is not recognized.
+     * @param tag The tag of the field to skip
+     * @throws ItemDataException If the wire type of the tag is unknown
+     */
+    public void skipField(int tag) {
+        switch (getWireType(tag)) {
+            case WireType.VARINT:
+                readVarLong();
+                break;
+            case WireType.FIXED64:
+                skip(8);
+                break;
+            case WireType.LENGTH_DELIMITED:
+                skip(readVarInt());
+                break;
+            case WireType.FIXED32:
+                skip(4);
+                break;
+            default:
+                throw new ItemDataException("Unknown wire type " + getWireType(tag) + " for field " + getFieldNumber(tag) + "!");
+        }
+    }
+
+    /**
+     * Read a length-delimited block as a separate input. This input is advanced past the block.
+     * @return An input that reads only the contents of the block
+     */
+    public ItemDataInput readNested() {
+        int length = readVarInt();
+        require(length);
+        ItemDataInput nested = new ItemDataInput(buffer, position, length);
+        position += length;
+        return nested;
+    }
+
+    /**
+     * Read a string that was written with {@link ItemDataOutput#writeString(String)}.
+     * @return The string that was read, which may be null
+     */
+    public String readString() {
+        int length = readVarInt();
+        if (length == 0)
+            return null;
+        length--;
+        require(length);
+        String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    /**
+     * Read a list of strings that was written with {@link ItemDataOutput#writeStringList(List)}.
+     * @return A new mutable list containing the strings that were read
+     */
+    public List<String> readStringList() {
+        int size = readSize();
+        List<String> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++)
+            list.add(readString());
+        return list;
+    }
+
+    /**
+     * Read a list of strings from a length-delimited field that was written with {@link ItemDataOutput#writeStringListField(int, List)}.
+     * @return A new mutable list containing the strings that were read
+     */
+    public List<String> readStringListField() {
+        return readNested().readStringList();
+    }
+
+    /**
+     * Read a list from a length-delimited field that was written with {@link ItemDataOutput#writeListField(int, List, java.util.function.BiConsumer)}.
+     * @param elementReader The reader that will read each element of the list from its own block
+     * @param <T> The type of the elements in the list
+     * @return A new mutable list containing the elements that were read
+     */
+    public <T> List<T> readListField(Function<ItemDataInput, T> elementReader) {
+        ItemDataInput in = readNested();
+        int size = in.readSize();
+        List<T> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++)
+            list.add(elementReader.apply(in.readNested()));
+        return list;
+    }
+
+    /**
+     * Read a byte array that was written with {@link ItemDataOutput#writeBytes(byte[])}.
+     * @return The bytes that were read
+     */
+    public byte[] readBytes() {
+        int length = readVarInt();
+        require(length);
+        byte[] value = Arrays.copyOfRange(buffer, position, position + length);
+        position += length;
+        return value;
+    }
+
+    /**
+     * Read a count, such as the size of a list. The count is checked against the remaining data so that corrupted data cannot cause huge allocations.
+     * @return The count that was read
+     */
+    public int readSize() {
+        int size = readVarInt();
+        if (size < 0 || size > limit - position)
+            throw new ItemDataException("Invalid size " + size + "! The data may be corrupted.");
+        return size;
+    }
+
+    /**
+     * Read a boolean.
+     * @return The boolean that was read
+     */
+    public boolean readBoolean() {
+        return readVarLong() != 0;
+    }
+
+    /**
+     * Read an unsigned int that was written with {@link ItemDataOutput#writeVarInt(int)}.
+     * @return The value that was read
+     */
+    public int readVarInt() {
+        return (int) readVarLong();
+    }
+
+    /**
+     * Read an unsigned long that was written with {@link ItemDataOutput#writeVarLong(long)}.
+     * @return The value that was read
+     */
+    public long readVarLong() {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            require(1);
+            byte b = buffer[position++];
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+                return value;
+        }
+        throw new ItemDataException("Malformed variable-length integer! The data may be corrupted.");
+    }
+
+    /**
+     * Read a signed int that was written with {@link ItemDataOutput#writeSignedVarInt(int)}.
+     * @return The value that was read
+     */
+    public int readSignedVarInt() {
+        int value = readVarInt();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Read a signed long that was written with {@link ItemDataOutput#writeSignedVarLong(long)}.
+     * @return The value that was read
+     */
+    public long readSignedVarLong() {
+        long value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Read a float that was written with {@link ItemDataOutput#writeFloat(float)}.
+     * @return The value that was read
+     */
+    public float readFloat() {
+        return Float.intBitsToFloat(readFixed32());
+    }
+
+    /**
+     * Read a double that was written with {@link ItemDataOutput#writeDouble(double)}.
+     * @return The value that was read
+     */
+    public double readDouble() {
+        return Double.longBitsToDouble(readFixed64());
+    }
+
+    /**
+     * Read four little-endian bytes as an int.
+     * @return The value that was read
+     */
+    public int readFixed32() {
+        require(4);
+        int value = (buffer[position] & 0xFF)
+                | (buffer[position + 1] & 0xFF) << 8
+                | (buffer[position + 2] & 0xFF) << 16
+                | (buffer[position + 3] & 0xFF) << 24;
+        position += 4;
+        return value;
+    }
+
+    /**
+     * Read eight little-endian bytes as a long.
+     * @return The value that was read
+     */
+    public long readFixed64() {
+        long low = readFixed32() & 0xFFFFFFFFL;
+        long high = readFixed32() & 0xFFFFFFFFL;
+        return low | high << 32;
+    }
+
+    /**
+     * Read a single byte.
+     * @return The byte that was read, as an unsigned value
+     */
+    public int readByte() {
+        require(1);
+        return buffer[position++] & 0xFF;
+    }
+
+    /**
+     * Check if all data has been read.
+     * @return True if there is no data left to read, false if otherwise
+     */
+    public boolean isAtEnd() {
+        return position >= limit;
+    }
+
+    /**
+     * Create a new input that reads the same remaining data as this input. The two inputs can then be read independently of each other, so the same data can be read more than once.
+     * @return A new input positioned where this input currently is
+     */
+    public ItemDataInput duplicate() {
+        return new ItemDataInput(buffer, position, limit - position);
+    }
+
+    private void skip(int length) {
+        require(length);
+        position += length;
+    }
+
+    private void require(int length) {
+        if (length < 0 || limit - position < length)
+            throw new ItemDataException("Unexpected end of item data! The data may be truncated or corrupted.");
+    }
+}
@@ -0,0 +1,317 @@
+package dev.magicmq.itemapi.serialization;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Writes values in ItemAPI's binary format to a growable byte buffer.
+ * Data is organized into fields, where each field is preceded by a tag containing its field number and {@link WireType wire type}. Readers skip fields they do not recognize, so new fields can be added without breaking older readers.
+ * <b>Note:</b> Field number 0 is reserved for the end marker written by {@link #writeEnd()}, which separates the fields of a class from the fields of its subclass.
+ * @see ItemDataInput
+ */
+public class ItemDataOutput {
+
+    private byte[] buffer;
+    private int position;
+
+    /**
+     * Create a new, empty output.
+     */
+    public ItemDataOutput() {
+        this(64);
+    }
+
+    /**
+     * Create a new, empty output with the specified initial capacity.
+     * @param capacity The number of bytes that can be written before the buffer needs to grow
+     */
+    public ItemDataOutput(int capacity) {
+        this.buffer = new byte[Math.max(capacity, 16)];
+        this.position = 0;
+    }
+
+    /**
+     * Write a field tag.
+     * @param field The field number, must be greater than zero
+     * @param wireType The wire type of the value that follows the tag
+     */
+    public void writeTag(int field, int wireType) {
+        writeVarInt((field << 3) | wireType);
+    }
+
+    /**
+     * Write the end marker, which terminates the fields written by one class in a hierarchy.
+     */
+    public void writeEnd() {
+        writeByte(0);
+    }
+
+    /**
+     * Write a signed int field.
+     * @param field The field number
+     * @param value The value to write
+     */
+    public void writeIntField(int field, int value) {
+        writeTag(field, WireType.VARINT);
+        writeSignedVarInt(value);
+    }
+
+    /**
+     * Write a signed long field.
+     * @param field The field number
+     * @param value The value to write
+     */
+    public void writeLongField(int field, long value) {
+        writeTag(field, WireType.VARINT);
+        writeSignedVarLong(value);
+    }
+
+    /**
+     * Write a boolean field.
+     * @param field The field number
+     * @param value The value to write
+     */
+    public void writeBooleanField(int field, boolean value) {
+        writeTag(field, WireType.VARINT);
+        writeVarInt(value ? 1 : 0);
+    }
+
+    /**
+     * Write a string field. Nothing is written if the value is null.
+     * @param field The field number
+     * @param value The value to write
+     */
+    public void writeStringField(int field, String value) {
+        if (value == null)
+            return;
+        writeTag(field, WireType.LENGTH_DELIMITED);
+        writeString(value);
+    }
+
+    /**
+     * Write a string list field. Nothing is written if the list is null.
+     * @param field The field number
+     * @param value The list to write
+     */
+    public void writeStringListField(int field, List<String> value) {
+        if (value == null)
+            return;
+        writeNestedField(field, out -> out.writeStringList(value));
+    }
+
+    /**
+     * Write a list field, where each element is written as a separate length-delimited block. Nothing is written if the list is null.
+     * @param field The field number
+     * @param value The list to write
+     * @param elementWriter The writer that will write each element of the list
+     * @param <T> The type of the elements in the list
+     */
+    public <T> void writeListField(int field, List<T> value, BiConsumer<T, ItemDataOutput> elementWriter) {
+        if (value == null)
+            return;
+        writeNestedField(field, out -> {
+            out.writeVarInt(value.size());
+            for (T element : value)
+                out.writeNested(elementOut -> elementWriter.accept(element, elementOut));
+        });
+    }
+
+    /**
+     * Write a length-delimited field whose contents are produced by the specified writer.
+     * @param field The field number
+     * @param writer The writer that will write the contents of the field
+     */
+    public void writeNestedField(int field, Consumer<ItemDataOutput> writer) {
+        writeTag(field, WireType.LENGTH_DELIMITED);
+        writeNested(writer);
+    }
+
+    /**
+     * Write a length-delimited block whose contents are produced by the specified writer, without a field tag.
+     * @param writer The writer that will write the contents of the block
+     */
+    public void writeNested(Consumer<ItemDataOutput> writer) {
+        // Reserve a single byte for the length, which covers blocks of up to 127 bytes, and shift the block if it turns out to be longer
+        int lengthPosition = position;
+        writeByte(0);
+        int start = position;
+        writer.accept(this);
+        int length = position - start;
+        int lengthSize = varIntSize(length);
+        if (lengthSize > 1) {
+            ensureCapacity(lengthSize - 1);
+            System.arraycopy(buffer, start, buffer, start + lengthSize - 1, length);
+            position += lengthSize - 1;
+        }
+        int end = position;
+        position = lengthPosition;
+        writeVarInt(length);
+        position = end;
+    }
+
+    /**
+     * Write a string, preceded by its length. Null strings are supported.
+     * @param value The string to write
+     */
+    public void writeString(String value) {
+        if (value == null) {
+            writeVarInt(0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(bytes.length + 1);
+        writeRaw(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Write a list of strings, preceded by the size of the list.
+     * @param value The list to write
+     */
+    public void writeStringList(List<String> value) {
+        writeVarInt(value.size());
+        for (String string : value)
+            writeString(string);
+    }
+
+    /**
+     * Write a byte array, preceded by its length.
+     * @param value The array to write
+     */
+    public void writeBytes(byte[] value) {
+        writeVarInt(value.length);
+        writeRaw(value, 0, value.length);
+    }
+
+    /**
+     * Write an unsigned int using a variable number of bytes. Small values use fewer bytes.
+     * @param value The value to write, treated as unsigned
+     */
+    public void writeVarInt(int value) {
+        ensureCapacity(5);
+        while ((value & ~0x7F) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    /**
+     * Write an unsigned long using a variable number of bytes. Small values use fewer bytes.
+     * @param value The value to write, treated as unsigned
+     */
+    public void writeVarLong(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    /**
+     * Write a signed int using a variable number of bytes. Values close to zero, including negative values, use fewer bytes.
+     * @param value The value to write
+     */
+    public void writeSignedVarInt(int value) {
+        writeVarInt((value << 1) ^ (value >> 31));
+    }
+
+    /**
+     * Write a signed long using a variable number of bytes. Values close to zero, including negative values, use fewer bytes.
+     * @param value The value to write
+     */
+    public void writeSignedVarLong(long value) {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    /**
+     * Write a float as four bytes.
+     * @param value The value to write
+     */
+    public void writeFloat(float value) {
+        writeFixed32(Float.floatToIntBits(value));
+    }
+
+    /**
+     * Write a double as eight bytes.
+     * @param value The value to write
+     */
+    public void writeDouble(double value) {
+        writeFixed64(Double.doubleToLongBits(value));
+    }
+
+    /**
+     * Write an int as four little-endian bytes.
+     * @param value The value to write
+     */
+    public void writeFixed32(int value) {
+        ensureCapacity(4);
+        buffer[position++] = (byte) value;
+        buffer[position++] = (byte) (value >> 8);
+        buffer[position++] = (byte) (value >> 16);
+        buffer[position++] = (byte) (value >> 24);
+    }
+
+    /**
+     * Write a long as eight little-endian bytes.
+     * @param value The value to write
+     */
+    public void writeFixed64(long value) {
+        writeFixed32((int) value);
+        writeFixed32((int) (value >> 32));
+    }
+
+    /**
+     * Write a single byte.
+     * @param value The byte to write
+     */
+    public void writeByte(int value) {
+        ensureCapacity(1);
+        buffer[position++] = (byte) value;
+    }
+
+    /**
+     * Write bytes as-is, without a length.
+     * @param bytes The array containing the bytes to write
+     * @param offset The index of the first byte to write
+     * @param length The number of bytes to write
+     */
+    public void writeRaw(byte[] bytes, int offset, int length) {
+        ensureCapacity(length);
+        System.arraycopy(bytes, offset, buffer, position, length);
+        position += length;
+    }
+
+    /**
+     * Get the number of bytes written so far.
+     * @return The number of bytes written
+     */
+    public int size() {
+        return position;
+    }
+
+    /**
+     * Get a copy of all bytes written so far.
+     * @return A new array containing the written bytes
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, position);
+    }
+
+    private void ensureCapacity(int extra) {
+        if (position + extra > buffer.length)
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length << 1, position + extra));
+    }
+
+    static int varIntSize(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+}
@@ -0,0 +1,127 @@
+package dev.magicmq.itemapi.serialization;
+
+import dev.magicmq.itemapi.WrappedItem;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidObjectException;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads data written with Java serialization by versions of ItemAPI before the binary format was introduced.
+ * A {@link HashMap} re-hashes its keys while it is deserialized, so the contents of a shulker box, which are keyed by items that are equal whenever their contents are the same, would lose identical items stored in different slots. This stream therefore reads maps entry by entry and only builds them once all entries are known, keeping maps keyed by items in an {@link IdentityHashMap}.
+ */
+class LegacyObjectInputStream extends ObjectInputStream {
+
+    private boolean readingSuperclass;
+
+    /**
+     * Create a new LegacyObjectInputStream class that reads from the specified stream.
+     * @param in The stream from which serialized data will be read
+     * @throws IOException If the stream header could not be read
+     */
+    LegacyObjectInputStream(InputStream in) throws IOException {
+        super(in);
+    }
+
+    @Override
+    protected ObjectStreamClass readClassDescriptor() throws IOException, ClassNotFoundException {
+        ObjectStreamClass descriptor = super.readClassDescriptor();
+        //The descriptor read directly after a subclass of HashMap (other than LinkedHashMap) is its superclass, which must be kept as is
+        boolean superclass = readingSuperclass;
+        readingSuperclass = false;
+        switch (descriptor.getName()) {
+            case "java.util.HashMap":
+                return superclass ? descriptor : ObjectStreamClass.lookup(HashMapEntries.class);
+            case "java.util.LinkedHashMap":
+                return ObjectStreamClass.lookup(LinkedHashMapEntries.class);
+            default:
+                Class<?> type = resolveDescriptor(descriptor);
+                readingSuperclass = type != null && HashMap.class.isAssignableFrom(type);
+                return descriptor;
+        }
+    }
+
+    //Resolves the class of a descriptor without failing on classes that do not exist, which are reported later by the stream itself
+    private Class<?> resolveDescriptor(ObjectStreamClass descriptor) throws IOException {
+        try {
+            return resolveClass(descriptor);
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Stand-in for {@link HashMap} with the same serialized form, which collects the entries of the map before building it.
+     */
+    private static class HashMapEntries implements Serializable {
+
+        private static final long serialVersionUID = 362498820763181265L;
+
+        //Serialized fields of HashMap, which are not needed to rebuild the map
+        private float loadFactor;
+        private int threshold;
+
+        private transient List<Object> keys;
+        private transient List<Object> values;
+
+        private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+            in.defaultReadObject();
+            //Number of buckets, which is irrelevant once the map is rebuilt
+            in.readInt();
+            int size = in.readInt();
+            if (size < 0)
+                throw new InvalidObjectException("Illegal map size: " + size);
+            keys = new ArrayList<>(Math.min(size, 1024));
+            values = new ArrayList<>(Math.min(size, 1024));
+            for (int i = 0; i < size; i++) {
+                keys.add(in.readObject());
+                values.add(in.readObject());
+            }
+        }
+
+        private void writeObject(ObjectOutputStream out) throws IOException {
+            throw new NotSerializableException(getClass().getName());
+        }
+
+        Object readResolve() {
+            Map<Object, Object> map = createMap();
+            for (int i = 0; i < keys.size(); i++)
+                map.put(keys.get(i), values.get(i));
+            return map;
+        }
+
+        Map<Object, Object> createMap() {
+            for (Object key : keys) {
+                if (key instanceof WrappedItem)
+                    return new IdentityHashMap<>();
+            }
+            return new HashMap<>();
+        }
+    }
+
+    /**
+     * Stand-in for {@link LinkedHashMap} with the same serialized form, which collects the entries of the map before building it.
+     */
+    private static class LinkedHashMapEntries extends HashMapEntries {
+
+        private static final long serialVersionUID = 3801124242820219131L;
+
+        private boolean accessOrder;
+
+        @Override
+        Map<Object, Object> createMap() {
+            return new LinkedHashMap<>(16, 0.75f, accessOrder);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package dev.magicmq.itemapi.serialization;
+
+/**
+ * Constants for the wire types used in field tags. The wire type tells a reader how to skip a field it does not recognize.
+ */
+public final class WireType {
+
+    /**
+     * A variable-length integer, used for ints, longs, booleans and enum ordinals.
+     */
+    public static final int VARINT = 0;
+
+    /**
+     * Eight fixed bytes, used for doubles.
+     */
+    public static final int FIXED64 = 1;
+
+    /**
+     * A length followed by that many bytes, used for strings, lists and nested data.
+     */
+    public static final int LENGTH_DELIMITED = 2;
+
+    /**
+     * Four fixed bytes, used for floats.
+     */
+    public static final int FIXED32 = 5;
+
+    private WireType() {}
+}
@@ -0,0 +1,4 @@
+/**
+ * Contains ItemAPI's compact binary format, which is used to store items as bytes or Base64 strings.
+ */
+package dev.magicmq.itemapi.serialization;
\ No newline at end of file
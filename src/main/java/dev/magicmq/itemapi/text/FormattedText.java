@@ -0,0 +1,236 @@
+package dev.magicmq.itemapi.text;
+
+import com.google.common.base.Preconditions;
+import dev.magicmq.itemapi.metrics.CacheType;
+import dev.magicmq.itemapi.metrics.Metrics;
+import dev.magicmq.itemapi.utils.MCVersion;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Text with color codes that has been compiled into the form used by Minecraft. Compiling text is much more expensive than looking it up, so compiled text is kept in a shared, bounded, least-recently-used cache keyed by the raw text, and items that are built over and over again (such as the items in a GUI) only compile each name and lore line once.
+ * The following formats are supported:
+ * <ul>
+ *     <li>Legacy color and format codes, such as <code>&amp;a</code> or <code>&amp;l</code>. Text that already contains codes with the section sign (<code>&sect;</code>) is left as it is.</li>
+ *     <li>Hex colors, such as <code>&amp;#FF8800</code>.</li>
+ *     <li>Gradients between two or more hex colors, such as <code>&lt;gradient:#FF0000:#0000FF&gt;Rainbow&lt;/gradient&gt;</code>. Format codes such as <code>&amp;l</code> can be used inside a gradient, while color codes inside a gradient are ignored.</li>
+ * </ul>
+ * Hex colors and gradients require 1.16 or newer. On older versions, each color is replaced by the closest legacy color.
+ */
+public final class FormattedText {
+
+    /**
+     * The default maximum number of compiled texts kept in the cache.
+     */
+    public static final int DEFAULT_CACHE_SIZE = 4096;
+
+    //Longer text, such as book pages, is rarely repeated and would push names and lore out of the cache
+    private static final int MAX_CACHED_LENGTH = 256;
+
+    private static final LinkedHashMap<String, FormattedText> CACHE = new LinkedHashMap<String, FormattedText>(256, 0.75F, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, FormattedText> eldest) {
+            return size() > cacheSize;
+        }
+    };
+    private static volatile int cacheSize = DEFAULT_CACHE_SIZE;
+
+    private final String raw;
+    private final String legacy;
+    private final String plain;
+    private final boolean hexColors;
+
+    FormattedText(String raw, String legacy, String plain, boolean hexColors) {
+        this.raw = raw;
+        this.legacy = legacy;
+        this.plain = plain;
+        this.hexColors = hexColors;
+    }
+
+    /**
+     * Compile text, or get it from the cache if it has been compiled before.
+     * @param raw The text to compile, using <code>&amp;</code> for color codes
+     * @return The compiled text
+     */
+    public static FormattedText compile(String raw) {
+        Preconditions.checkArgument(raw != null, "raw cannot be null!");
+
+        boolean hexColors = MCVersion.getCapabilities().hasHexColors();
+        if (raw.length() > MAX_CACHED_LENGTH) {
+            Metrics.cacheAccess(CacheType.FORMATTED_TEXT, false);
+            return TextCompiler.compile(raw, hexColors);
+        }
+
+        FormattedText text;
+        synchronized (CACHE) {
+            text = CACHE.get(raw);
+        }
+        boolean hit = text != null && text.hexColors == hexColors;
+        Metrics.cacheAccess(CacheType.FORMATTED_TEXT, hit);
+        if (hit)
+            return text;
+
+        //Text is compiled outside of the lock, so two threads may compile the same text at once, which is harmless
+        text = TextCompiler.compile(raw, hexColors);
+        synchronized (CACHE) {
+            CACHE.put(raw, text);
+        }
+        return text;
+    }
+
+    /**
+     * Translate the color codes in text into the form used by Minecraft. This is functionally the same as calling {@link #compile(String)} and then {@link #getLegacy()}, and replaces <code>ChatColor.translateAlternateColorCodes('&amp;', raw)</code>.
+     * @param raw The text to translate, using <code>&amp;</code> for color codes
+     * @return The translated text, using <code>&sect;</code> for color codes
+     */
+    public static String format(String raw) {
+        return compile(raw).getLegacy();
+    }
+
+    /**
+     * Translate the color codes in every line of a list, such as the lore of an item.
+     * @param raw The lines to translate, using <code>&amp;</code> for color codes
+     * @return A new list containing the translated lines
+     */
+    public static List<String> formatAll(List<String> raw) {
+        Preconditions.checkArgument(raw != null, "raw cannot be null!");
+
+        List<String> formatted = new ArrayList<>(raw.size());
+        for (String line : raw)
+            formatted.add(line == null ? null : format(line));
+        return formatted;
+    }
+
+    /**
+     * Get the form of text that is used to compare and hash it, so that text written with <code>&amp;</code> color codes, hex colors or gradients is treated the same as the text it compiles to, such as the name of an item read back from an ItemStack.
+     * Text is always normalized as if hex colors were supported, so that two different hex colors are never treated the same on older versions, and color codes are written in lower case.
+     * <b>Note:</b> On versions without hex colors, normalized text is not cached.
+     * @param text The text to normalize, using either <code>&amp;</code> or <code>&sect;</code> for color codes
+     * @return The normalized text
+     */
+    public static String normalize(String text) {
+        Preconditions.checkArgument(text != null, "text cannot be null!");
+
+        //Most text has no codes at all and does not need to be compiled
+        if (text.indexOf('&') == -1 && text.indexOf(TextCompiler.SECTION) == -1 && text.indexOf('<') == -1)
+            return text;
+
+        String legacy = MCVersion.getCapabilities().hasHexColors() ? format(text) : TextCompiler.compile(text, true).getLegacy();
+        return TextCompiler.lowerCaseCodes(legacy);
+    }
+
+    /**
+     * Translate text in the form used by Minecraft back into text that uses <code>&amp;</code> for color codes, such as for saving it to a configuration file. Hex colors are written as <code>&amp;#RRGGBB</code>, so they can be read back by {@link #compile(String)}.
+     * <b>Note:</b> Gradients cannot be recovered, so each character of a gradient keeps its own hex color.
+     * @param legacy The text to translate, using <code>&sect;</code> for color codes
+     * @return The translated text
+     */
+    public static String unformat(String legacy) {
+        Preconditions.checkArgument(legacy != null, "legacy cannot be null!");
+
+        int first = legacy.indexOf(TextCompiler.SECTION);
+        if (first == -1)
+            return legacy;
+
+        StringBuilder builder = new StringBuilder(legacy.length());
+        builder.append(legacy, 0, first);
+        for (int i = first; i < legacy.length(); i++) {
+            char c = legacy.charAt(i);
+            if (c != TextCompiler.SECTION) {
+                builder.append(c);
+            } else if (TextCompiler.isLegacyHex(legacy, i)) {
+                builder.append("&#");
+                for (int digit = 0; digit < 6; digit++)
+                    builder.append(legacy.charAt(i + 3 + digit * 2));
+                i += 13;
+            } else {
+                builder.append('&');
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Translate every line of a list back into text that uses <code>&amp;</code> for color codes, as described in {@link #unformat(String)}.
+     * @param legacy The lines to translate, using <code>&sect;</code> for color codes
+     * @return A new list containing the translated lines
+     */
+    public static List<String> unformatAll(List<String> legacy) {
+        Preconditions.checkArgument(legacy != null, "legacy cannot be null!");
+
+        List<String> unformatted = new ArrayList<>(legacy.size());
+        for (String line : legacy)
+            unformatted.add(line == null ? null : unformat(line));
+        return unformatted;
+    }
+
+    /**
+     * Set the maximum number of compiled texts kept in the cache. The least recently used texts are removed once the cache is full.
+     * @param size The maximum number of texts, or 0 to disable the cache
+     */
+    public static void setCacheSize(int size) {
+        Preconditions.checkArgument(size >= 0, "size cannot be negative!");
+
+        synchronized (CACHE) {
+            cacheSize = size;
+            if (CACHE.size() > size)
+                CACHE.clear();
+        }
+    }
+
+    /**
+     * Remove all compiled texts from the cache.
+     */
+    public static void clearCache() {
+        synchronized (CACHE) {
+            CACHE.clear();
+        }
+    }
+
+    /**
+     * Get the text as it was before it was compiled.
+     * @return The raw text
+     */
+    public String getRaw() {
+        return raw;
+    }
+
+    /**
+     * Get the compiled text in the form used by Minecraft, which can be passed to Bukkit methods such as {@link org.bukkit.inventory.meta.ItemMeta#setDisplayName(String) setDisplayName}.
+     * @return The compiled text, using <code>&sect;</code> for color codes
+     */
+    public String getLegacy() {
+        return legacy;
+    }
+
+    /**
+     * Get the text without any color or format codes.
+     * @return The plain text
+     */
+    public String getPlain() {
+        return plain;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (!(o instanceof FormattedText))
+            return false;
+        FormattedText other = (FormattedText) o;
+        return raw.equals(other.raw) && hexColors == other.hexColors;
+    }
+
+    @Override
+    public int hashCode() {
+        return raw.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return legacy;
+    }
+}
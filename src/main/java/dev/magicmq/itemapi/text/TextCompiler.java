@@ -0,0 +1,231 @@
+package dev.magicmq.itemapi.text;
+
+/**
+ * Compiles text with color codes, hex colors and gradients into the form used by Minecraft. Use {@link FormattedText#compile(String)}, which caches the result, rather than this class directly.
+ */
+final class TextCompiler {
+
+    static final char SECTION = '\u00A7';
+
+    //The codes accepted by ChatColor#translateAlternateColorCodes
+    private static final String CODES = "0123456789abcdefklmnorx";
+    private static final String FORMATS = "klmno";
+
+    private static final String GRADIENT_START = "<gradient:";
+    private static final String GRADIENT_END = "</gradient>";
+
+    //The RGB values of the legacy colors 0 to f, used to find the closest legacy color on versions without hex colors
+    private static final int[] LEGACY_COLORS = {
+            0x000000, 0x0000AA, 0x00AA00, 0x00AAAA, 0xAA0000, 0xAA00AA, 0xFFAA00, 0xAAAAAA,
+            0x555555, 0x5555FF, 0x55FF55, 0x55FFFF, 0xFF5555, 0xFF55FF, 0xFFFF55, 0xFFFFFF
+    };
+
+    private TextCompiler() {}
+
+    static FormattedText compile(String raw, boolean hexColors) {
+        StringBuilder legacy = new StringBuilder(raw.length() + 8);
+        StringBuilder plain = new StringBuilder(raw.length());
+
+        int length = raw.length();
+        int i = 0;
+        while (i < length) {
+            char c = raw.charAt(i);
+            if (c == '<' && raw.startsWith(GRADIENT_START, i)) {
+                int end = compileGradient(raw, i, hexColors, legacy, plain);
+                if (end != -1) {
+                    i = end;
+                    continue;
+                }
+            } else if (c == '&' && i + 1 < length) {
+                int rgb = parseHex(raw, i);
+                if (rgb != -1) {
+                    appendColor(legacy, rgb, hexColors);
+                    i += 8;
+                    continue;
+                }
+                char code = Character.toLowerCase(raw.charAt(i + 1));
+                if (CODES.indexOf(code) != -1) {
+                    legacy.append(SECTION).append(code);
+                    i += 2;
+                    continue;
+                }
+            } else if (c == SECTION && i + 1 < length) {
+                //Codes that are already translated are kept as they are
+                legacy.append(c).append(raw.charAt(i + 1));
+                i += 2;
+                continue;
+            }
+
+            legacy.append(c);
+            plain.append(c);
+            i++;
+        }
+        return new FormattedText(raw, legacy.toString(), plain.toString(), hexColors);
+    }
+
+    static String lowerCaseCodes(String legacy) {
+        //Bukkit and Spigot always write codes in lower case, while text written by hand may not
+        StringBuilder builder = null;
+        for (int i = 0; i + 1 < legacy.length(); i++) {
+            if (legacy.charAt(i) != SECTION)
+                continue;
+            char code = legacy.charAt(i + 1);
+            char lower = Character.toLowerCase(code);
+            if (code != lower && CODES.indexOf(lower) != -1) {
+                if (builder == null)
+                    builder = new StringBuilder(legacy);
+                builder.setCharAt(i + 1, lower);
+            }
+        }
+        return builder == null ? legacy : builder.toString();
+    }
+
+    static boolean isLegacyHex(String text, int start) {
+        //Hex colors are written by Spigot as the section sign, x, and then each of the six digits preceded by the section sign
+        if (start + 14 > text.length() || Character.toLowerCase(text.charAt(start + 1)) != 'x')
+            return false;
+        for (int i = 0; i < 6; i++) {
+            if (text.charAt(start + 2 + i * 2) != SECTION || Character.digit(text.charAt(start + 3 + i * 2), 16) == -1)
+                return false;
+        }
+        return true;
+    }
+
+    private static int compileGradient(String raw, int start, boolean hexColors, StringBuilder legacy, StringBuilder plain) {
+        int close = raw.indexOf('>', start);
+        if (close == -1)
+            return -1;
+        int end = raw.indexOf(GRADIENT_END, close);
+        if (end == -1)
+            return -1;
+        int[] stops = parseStops(raw, start + GRADIENT_START.length(), close);
+        if (stops == null)
+            return -1;
+
+        //Find the visible characters and the formats that apply to each of them first, since the color of each character depends on how many there are
+        String inner = raw.substring(close + 1, end);
+        int[] codePoints = new int[inner.length()];
+        String[] formats = new String[inner.length()];
+        int count = 0;
+        String activeFormats = "";
+        int i = 0;
+        while (i < inner.length()) {
+            char c = inner.charAt(i);
+            if ((c == '&' || c == SECTION) && i + 1 < inner.length()) {
+                if (c == '&' && parseHex(inner, i) != -1) {
+                    i += 8;
+                    continue;
+                }
+                char code = Character.toLowerCase(inner.charAt(i + 1));
+                if (CODES.indexOf(code) != -1) {
+                    if (FORMATS.indexOf(code) != -1) {
+                        if (activeFormats.indexOf(code) == -1)
+                            activeFormats = activeFormats + code;
+                    } else if (code == 'r') {
+                        activeFormats = "";
+                    }
+                    i += 2;
+                    continue;
+                }
+            }
+
+            int codePoint = inner.codePointAt(i);
+            codePoints[count] = codePoint;
+            formats[count] = activeFormats;
+            count++;
+            i += Character.charCount(codePoint);
+        }
+
+        int previousColor = -1;
+        String previousFormats = null;
+        for (int index = 0; index < count; index++) {
+            int color = interpolate(stops, count == 1 ? 0 : (double) index / (count - 1));
+            if (!hexColors)
+                color = LEGACY_COLORS[closestLegacyColor(color)];
+            //A color code resets the formats, so they are written again after every color change
+            if (color != previousColor || !formats[index].equals(previousFormats)) {
+                appendColor(legacy, color, hexColors);
+                for (int f = 0; f < formats[index].length(); f++)
+                    legacy.append(SECTION).append(formats[index].charAt(f));
+                previousColor = color;
+                previousFormats = formats[index];
+            }
+            legacy.appendCodePoint(codePoints[index]);
+            plain.appendCodePoint(codePoints[index]);
+        }
+        return end + GRADIENT_END.length();
+    }
+
+    private static int[] parseStops(String raw, int start, int end) {
+        String[] parts = raw.substring(start, end).split(":");
+        if (parts.length < 2)
+            return null;
+
+        int[] stops = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            String part = parts[i];
+            if (part.length() != 7 || part.charAt(0) != '#')
+                return null;
+            try {
+                stops[i] = Integer.parseInt(part.substring(1), 16);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return stops;
+    }
+
+    private static int parseHex(String raw, int start) {
+        if (start + 8 > raw.length() || raw.charAt(start + 1) != '#')
+            return -1;
+
+        int rgb = 0;
+        for (int i = start + 2; i < start + 8; i++) {
+            int digit = Character.digit(raw.charAt(i), 16);
+            if (digit == -1)
+                return -1;
+            rgb = (rgb << 4) | digit;
+        }
+        return rgb;
+    }
+
+    private static int interpolate(int[] stops, double position) {
+        double scaled = position * (stops.length - 1);
+        int index = Math.min((int) scaled, stops.length - 2);
+        double fraction = scaled - index;
+        int from = stops[index];
+        int to = stops[index + 1];
+
+        int red = (int) Math.round(((from >> 16) & 0xFF) + (((to >> 16) & 0xFF) - ((from >> 16) & 0xFF)) * fraction);
+        int green = (int) Math.round(((from >> 8) & 0xFF) + (((to >> 8) & 0xFF) - ((from >> 8) & 0xFF)) * fraction);
+        int blue = (int) Math.round((from & 0xFF) + ((to & 0xFF) - (from & 0xFF)) * fraction);
+        return (red << 16) | (green << 8) | blue;
+    }
+
+    private static void appendColor(StringBuilder legacy, int rgb, boolean hexColors) {
+        if (!hexColors) {
+            legacy.append(SECTION).append(Character.forDigit(closestLegacyColor(rgb), 16));
+            return;
+        }
+
+        legacy.append(SECTION).append('x');
+        for (int shift = 20; shift >= 0; shift -= 4)
+            legacy.append(SECTION).append(Character.forDigit((rgb >> shift) & 0xF, 16));
+    }
+
+    private static int closestLegacyColor(int rgb) {
+        int closest = 0;
+        int closestDistance = Integer.MAX_VALUE;
+        for (int i = 0; i < LEGACY_COLORS.length; i++) {
+            int red = ((rgb >> 16) & 0xFF) - ((LEGACY_COLORS[i] >> 16) & 0xFF);
+            int green = ((rgb >> 8) & 0xFF) - ((LEGACY_COLORS[i] >> 8) & 0xFF);
+            int blue = (rgb & 0xFF) - (LEGACY_COLORS[i] & 0xFF);
+            int distance = red * red + green * green + blue * blue;
+            if (distance < closestDistance) {
+                closest = i;
+                closestDistance = distance;
+            }
+        }
+        return closest;
+    }
+}
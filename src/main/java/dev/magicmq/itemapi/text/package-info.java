@@ -0,0 +1,4 @@
+/**
+ * Contains the formatting of names, lore and other text, which translates color codes into the form used by Minecraft and caches the result.
+ */
+package dev.magicmq.itemapi.text;
\ No newline at end of file
@@ -0,0 +1,137 @@
+package dev.magicmq.itemapi.utils;
+
+/**
+ * A precomputed table of the item features that are available in a specific Minecraft version. The capabilities of the running version can be obtained via {@link MCVersion#getCapabilities()}.
+ */
+public final class Capabilities {
+
+    private final MCVersion version;
+
+    private final boolean flattenedMaterials;
+    private final boolean damageableMeta;
+    private final boolean namespacedEnchantments;
+    private final boolean customModelData;
+    private final boolean crossbows;
+    private final boolean suspiciousStews;
+    private final boolean compassLodestones;
+    private final boolean hexColors;
+    private final boolean intArrayUuids;
+    private final boolean axolotlBuckets;
+    private final boolean bundles;
+
+    /**
+     * Create a new capability table for the specified Minecraft version.
+     * @param version The version for which capabilities should be computed
+     */
+    public Capabilities(MCVersion version) {
+        this.version = version;
+
+        this.flattenedMaterials = version.isAtLeast(MCVersion.v1_13_R1);
+        this.damageableMeta = version.isAtLeast(MCVersion.v1_13_R1);
+        this.namespacedEnchantments = version.isAtLeast(MCVersion.v1_13_R1);
+        this.customModelData = version.isAtLeast(MCVersion.v1_14_R1);
+        this.crossbows = version.isAtLeast(MCVersion.v1_14_R1);
+        this.suspiciousStews = version.isAtLeast(MCVersion.v1_14_R1);
+        this.compassLodestones = version.isAtLeast(MCVersion.v1_16_R1);
+        this.hexColors = version.isAtLeast(MCVersion.v1_16_R1);
+        this.intArrayUuids = version.isAtLeast(MCVersion.v1_16_R1);
+        this.axolotlBuckets = version.isAtLeast(MCVersion.v1_17_R1);
+        this.bundles = version.isAtLeast(MCVersion.v1_17_R1);
+    }
+
+    /**
+     * Get the version that these capabilities were computed for.
+     * @return The Minecraft version
+     */
+    public MCVersion getVersion() {
+        return version;
+    }
+
+    /**
+     * Check if the version uses flattened material names (1.13+), where spawn eggs and other items have a distinct material per variant.
+     * @return True if material names are flattened, false if otherwise
+     */
+    public boolean hasFlattenedMaterials() {
+        return flattenedMaterials;
+    }
+
+    /**
+     * Check if the version stores durability in {@link org.bukkit.inventory.meta.Damageable Damageable} meta (1.13+) rather than in the item's data value.
+     * @return True if Damageable meta is available, false if otherwise
+     */
+    public boolean hasDamageableMeta() {
+        return damageableMeta;
+    }
+
+    /**
+     * Check if enchantments are identified by namespaced keys (1.13+) rather than by their legacy Bukkit names.
+     * @return True if enchantments have namespaced keys, false if otherwise
+     */
+    public boolean hasNamespacedEnchantments() {
+        return namespacedEnchantments;
+    }
+
+    /**
+     * Check if items support custom model data (1.14+).
+     * @return True if custom model data is supported, false if otherwise
+     */
+    public boolean hasCustomModelData() {
+        return customModelData;
+    }
+
+    /**
+     * Check if crossbows are available (1.14+).
+     * @return True if crossbows are available, false if otherwise
+     */
+    public boolean hasCrossbows() {
+        return crossbows;
+    }
+
+    /**
+     * Check if suspicious stews are available (1.14+).
+     * @return True if suspicious stews are available, false if otherwise
+     */
+    public boolean hasSuspiciousStews() {
+        return suspiciousStews;
+    }
+
+    /**
+     * Check if compasses can point to lodestones (1.16+).
+     * @return True if compass lodestones are supported, false if otherwise
+     */
+    public boolean hasCompassLodestones() {
+        return compassLodestones;
+    }
+
+    /**
+     * Check if text may contain hex (RGB) colors (1.16+).
+     * @return True if hex colors are supported, false if otherwise
+     */
+    public boolean hasHexColors() {
+        return hexColors;
+    }
+
+    /**
+     * Check if UUIDs in NBT data, such as the ID of a skull owner, are stored as an array of four integers (1.16+) rather than as a string.
+     * @return True if UUIDs are stored as integer arrays, false if otherwise
+     */
+    public boolean hasIntArrayUuids() {
+        return intArrayUuids;
+    }
+
+    /**
+     * Check if axolotl buckets are available (1.17+).
+     * @return True if axolotl buckets are available, false if otherwise
+     */
+    public boolean hasAxolotlBuckets() {
+        return axolotlBuckets;
+    }
+
+    /**
+     * Check if bundles are available (1.17+).
+     * @return True if bundles are available, false if otherwise
+     */
+    public boolean hasBundles() {
+        return bundles;
+    }
+}
@@ -2,6 +2,9 @@ package dev.magicmq.itemapi.utils;
 
 import org.bukkit.Color;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * A wrapper class that wraps colors in {@link Color} into an enum format for easy parsing from config files.
  */
@@ -25,6 +28,13 @@ public enum Colors {
     PURPLE (Color.PURPLE),
     ORANGE (Color.ORANGE);
 
+    private static final Map<Integer, Colors> BY_RGB = new HashMap<>();
+
+    static {
+        for (Colors color : values())
+            BY_RGB.putIfAbsent(color.bukkitColor.asRGB(), color);
+    }
+
     private final org.bukkit.Color bukkitColor;
 
     Colors(Color bukkitColor) {
@@ -36,10 +46,6 @@ public enum Colors {
     }
 
     public static Colors getFromRGB(int rgb) {
-        for (Colors color : values()) {
-            if (color.getBukkitColor().asRGB() == rgb)
-                return color;
-        }
-        return null;
+        return BY_RGB.get(rgb);
     }
 }
@@ -0,0 +1,14 @@
+package dev.magicmq.itemapi.utils;
+
+/**
+ * Implemented by parts of an item that can contribute their contents to a 64-bit content hash.
+ * @see ContentHasher
+ */
+public interface ContentHashable {
+
+    /**
+     * Feed the contents of this object into a hasher. Objects that are equal must feed exactly the same values in the same order.
+     * @param hasher The hasher to which the contents will be added
+     */
+    void hashContent(ContentHasher hasher);
+}
@@ -0,0 +1,248 @@
+package dev.magicmq.itemapi.utils;
+
+import dev.magicmq.itemapi.text.FormattedText;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Utility class that builds 64-bit content hashes of items and their components with the FNV-1a algorithm.
+ * Text that is shown to players, such as display names and lore, is hashed with {@link #putText(String)}, which treats text the same as the text it compiles to with {@link FormattedText}, so <code>&amp;</code> color codes, hex colors and gradients hash the same as their <code>&sect;</code> forms and an item defined in a config file hashes the same as the ItemStack it produces. Equality checks on such text should use {@link #textEquals(String, String)} to stay consistent with the hash.
+ * Lists are hashed the same whether they are null or empty.
+ */
+public class ContentHasher {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private long hash;
+
+    /**
+     * Create a new, empty ContentHasher class.
+     */
+    public ContentHasher() {
+        this.hash = FNV_OFFSET_BASIS;
+    }
+
+    /**
+     * Add a long to the hash.
+     * @param value The value to add
+     * @return This hasher, for chaining
+     */
+    public ContentHasher putLong(long value) {
+        for (int i = 0; i < 64; i += 8)
+            hash = (hash ^ ((value >>> i) & 0xFF)) * FNV_PRIME;
+        return this;
+    }
+
+    /**
+     * Add an int to the hash.
+     * @param value The value to add
+     * @return This hasher, for chaining
+     */
+    public ContentHasher putInt(int value) {
+        return putLong(value);
+    }
+
+    /**
+     * Add a boolean to the hash.
+     * @param value The value to add
+     * @return This hasher, for chaining
+     */
+    public ContentHasher putBoolean(boolean value) {
+        return putLong(value ? 1 : 0);
+    }
+
+    /**
+     * Add a double to the hash.
+     * @param value The value to add
+     * @return This hasher, for chaining
+     */
+    public ContentHasher putDouble(double value) {
+        return putLong(Double.doubleToLongBits(value));
+    }
+
+    /**
+     * Add a string to the hash exactly as it is.
+     * @param value The string to add, which may be null
+     * @return This hasher, for chaining
+     */
+    public ContentHasher putString(String value) {
+        if (value == null)
+            return putLong(-1);
+
+        putLong(value.length());
+        for (int i = 0; i < value.length(); i++)
+            hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+        return this;
+    }
+
+    /**
+     * Add text that may contain color codes to the hash. The text is hashed in the form returned by {@link FormattedText#normalize(String)}.
+     * @param value The text to add, which may be null
+     * @return This hasher, for chaining
+     */
+    public ContentHasher putText(String value) {
+        return putString(value == null ? null : FormattedText.normalize(value));
+    }
+
+    /**
+     * Add a list of strings to the hash exactly as they are.
+     * @param values The strings to add, which may be null
+     * @return This hasher, for chaining
+     */
+    public ContentHasher putStrings(List<String> values) {
+        if (values == null)
+            return putLong(0);
+
+        putLong(values.size());
+        for (String value : values)
+            putString(value);
+        return this;
+    }
+
+    /**
+     * Add a list of text that may contain color codes to the hash, as described in {@link #putText(String)}.
+     * @param values The text to add, which may be null
+     * @return This hasher, for chaining
+     */
+    public ContentHasher putTexts(List<String> values) {
+        if (values == null)
+            return putLong(0);
+
+        putLong(values.size());
+        for (String value : values)
+            putText(value);
+        return this;
+    }
+
+    /**
+     * Add an object to the hash.
+     * @param value The object to add, which may be null
+     * @return This hasher, for chaining
+     */
+    public ContentHasher put(ContentHashable value) {
+        if (value == null)
+            return putLong(-1);
+
+        putLong(1);
+        value.hashContent(this);
+        return this;
+    }
+
+    /**
+     * Add a list of objects to the hash.
+     * @param values The objects to add, which may be null
+     * @return This hasher, for chaining
+     */
+    public ContentHasher putAll(List<? extends ContentHashable> values) {
+        if (values == null)
+            return putLong(0);
+
+        putLong(values.size());
+        for (ContentHashable value : values)
+            put(value);
+        return this;
+    }
+
+    /**
+     * Get the hash of everything that has been added so far.
+     * @return The 64-bit hash
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * Fold a 64-bit content hash into a 32-bit hash code, for use in {@link Object#hashCode()}.
+     * @param hash The 64-bit hash
+     * @return The 32-bit hash code
+     */
+    public static int toHashCode(long hash) {
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    /**
+     * Check if two pieces of text are the same once they are normalized with {@link FormattedText#normalize(String)}.
+     * @param first The first text, which may be null
+     * @param second The second text, which may be null
+     * @return True if the text is the same, false if otherwise
+     */
+    public static boolean textEquals(String first, String second) {
+        if (first == null || second == null)
+            return first == second;
+        return first.equals(second) || FormattedText.normalize(first).equals(FormattedText.normalize(second));
+    }
+
+    /**
+     * Check if two lists of text are the same, as described in {@link #textEquals(String, String)}. A null list is considered the same as an empty list.
+     * @param first The first list, which may be null
+     * @param second The second list, which may be null
+     * @return True if the lists contain the same text in the same order, false if otherwise
+     */
+    public static boolean textEquals(List<String> first, List<String> second) {
+        if (isEmpty(first) || isEmpty(second))
+            return isEmpty(first) && isEmpty(second);
+        if (first.size() != second.size())
+            return false;
+
+        for (int i = 0; i < first.size(); i++) {
+            if (!textEquals(first.get(i), second.get(i)))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Check if two lists are equal. A null list is considered the same as an empty list.
+     * @param first The first list, which may be null
+     * @param second The second list, which may be null
+     * @return True if the lists contain equal elements in the same order, false if otherwise
+     */
+    public static boolean listEquals(List<?> first, List<?> second) {
+        if (isEmpty(first) || isEmpty(second))
+            return isEmpty(first) && isEmpty(second);
+        return first.equals(second);
+    }
+
+    private static boolean isEmpty(Collection<?> collection) {
+        return collection == null || collection.isEmpty();
+    }
+
+    /**
+     * A content hash that was computed at a certain revision of an item or component. A cached hash is stored as a single immutable object so that it can be shared between threads safely.
+     */
+    public static final class Cached {
+
+        private final long revision;
+        private final long hash;
+
+        /**
+         * Create a new Cached class.
+         * @param revision The revision at which the hash was computed
+         * @param hash The hash
+         */
+        public Cached(long revision, long hash) {
+            this.revision = revision;
+            this.hash = hash;
+        }
+
+        /**
+         * Check if the cached hash is still valid.
+         * @param cached The cached hash, which may be null
+         * @param revision The current revision of the item or component
+         * @return True if the cached hash was computed at the current revision, false if otherwise
+         */
+        public static boolean isValid(Cached cached, long revision) {
+            return cached != null && cached.revision == revision;
+        }
+
+        /**
+         * Get the cached hash.
+         * @return The hash
+         */
+        public long getHash() {
+            return hash;
+        }
+    }
+}
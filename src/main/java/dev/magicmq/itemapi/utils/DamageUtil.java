@@ -14,14 +14,20 @@ public class DamageUtil {
     public static ItemStack applyDamage(ItemStack item, short damage) {
         if (damage > 0) {
             ItemMeta meta = item.getItemMeta();
-            if (meta instanceof Damageable) {
-                ((Damageable) meta).setDamage(damage);
+            if (applyDamage(meta, damage))
                 item.setItemMeta(meta);
-            }
         }
         return item;
     }
 
+    public static boolean applyDamage(ItemMeta meta, short damage) {
+        if (damage > 0 && meta instanceof Damageable) {
+            ((Damageable) meta).setDamage(damage);
+            return true;
+        }
+        return false;
+    }
+
     public static short extractDamage(ItemStack item) {
         ItemMeta meta = item.getItemMeta();
         if (meta instanceof Damageable) {
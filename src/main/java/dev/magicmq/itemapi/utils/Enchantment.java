@@ -1,10 +1,12 @@
 package dev.magicmq.itemapi.utils;
 
-import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
 
 /**
  * A wrapper class representing all available enchantments up to the current Minecraft version as well as common names for more easy parsing from config files.
- * <b>Note:</b> For forwards/backwards compatibility, Bukkit Enchantment is not referenced at all in this class, only the enum names.
+ * <b>Note:</b> For forwards/backwards compatibility, Bukkit Enchantment constants are not referenced at all in this class, only the enum names.
  */
 public enum Enchantment {
 
@@ -12,13 +14,13 @@ public enum Enchantment {
     POWER ("ARROW_DAMAGE", "POWER", new String[]{"arrowdamage", "arrow_damage"}),
     FLAME ("ARROW_FIRE", "FLAME", new String[]{"arrowfire", "firearrow", "arrow_fire"}),
     INFINITY ("ARROW_INFINITE", "INFINITY", new String[]{"arrowinfinite", "infinitearrow", "arrow_infinite"}),
-    PUNCH ("ARROW_KNOCKBACK", "PUNCH", new String[]{"arrowknockback, knockbackarrow", "arrow_knockback"}),
+    PUNCH ("ARROW_KNOCKBACK", "PUNCH", new String[]{"arrowknockback", "knockbackarrow", "arrow_knockback"}),
     SHARPNESS ("DAMAGE_ALL", "SHARPNESS", new String[]{"damageall", "alldamage", "dmg", "damage_all"}),
     BANE_OF_ARTHROPODS ("DAMAGE_ARTHROPODS", "BANE_OF_ARTHROPODS", new String[]{"baneofarthropods", "damagearthropods", "arthropodsdamage", "damage_arthropods"}),
     SMITE ("DAMAGE_UNDEAD", "SMITE", new String[]{"damageundead", "undeaddamage", "damage_undead"}),
     EFFICIENCY ("DIG_SPEED", "EFFICIENCY", new String[]{"digspeed", "dig_speed"}),
     UNBREAKING ("DURABILITY", "UNBREAKING", new String[]{"durability"}),
-    FIRE_ASPECT ("FIRE_ASPECT", "FIRE_ASPECT", new String[]{"fireaspect, fire", "fire_aspect"}),
+    FIRE_ASPECT ("FIRE_ASPECT", "FIRE_ASPECT", new String[]{"fireaspect", "fire", "fire_aspect"}),
     KNOCKBACK ("KNOCKBACK", "KNOCKBACK", new String[]{"knock", "knockback"}),
     FORTUNE ("LOOT_BONUS_BLOCKS", "FORTUNE", new String[]{"lootbonusblocks", "blockslootbonus", "lootbonusblock", "loot_bonus_blocks"}),
     LOOTING ("LOOT_BONUS_MOBS", "LOOTING", new String[]{"lootbonusmobs", "mobslootbonus", "lootbonusmob"}),
@@ -52,6 +54,18 @@ public enum Enchantment {
     //1.16
     SOUL_SPEED("SOUL_SPEED", "SOUL_SPEED", new String[]{"soulspeed", "soul_speed"});
 
+    private static final Map<String, Enchantment> BY_NAME = new HashMap<>();
+    private static final Map<String, Enchantment> BY_BUKKIT_NAME = new HashMap<>();
+
+    static {
+        for (Enchantment enchantment : values()) {
+            BY_NAME.putIfAbsent(enchantment.name.toLowerCase(Locale.ROOT), enchantment);
+            for (String alias : enchantment.aliases)
+                BY_NAME.putIfAbsent(alias.toLowerCase(Locale.ROOT), enchantment);
+            BY_BUKKIT_NAME.putIfAbsent(enchantment.bukkitEnchantment, enchantment);
+        }
+    }
+
     private final String bukkitEnchantment;
     private final String name;
     private final String[] aliases;
@@ -72,14 +86,15 @@ public enum Enchantment {
      * @return The enum representing the enchantment if one was found, null if nothing was found that matched the specified name.
      */
     public static Enchantment getByName(String name) {
-        for (Enchantment enchantment : values()) {
-            if (enchantment.name.equalsIgnoreCase(name))
-                return enchantment;
-
-            if ( Arrays.asList(enchantment.aliases).contains(name.toLowerCase()))
-                return enchantment;
-        }
-        return null;
+        return BY_NAME.get(name.toLowerCase(Locale.ROOT));
     }
 
+    /**
+     * Get the enchantment that corresponds to a Bukkit enchantment.
+     * @param enchantment The Bukkit enchantment
+     * @return The enum representing the enchantment if one was found, null if the Bukkit enchantment is not known to ItemAPI.
+     */
+    public static Enchantment getByBukkitEnchantment(org.bukkit.enchantments.Enchantment enchantment) {
+        return BY_BUKKIT_NAME.get(enchantment.getName());
+    }
 }
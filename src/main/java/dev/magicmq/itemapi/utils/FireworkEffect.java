@@ -1,12 +1,16 @@
 package dev.magicmq.itemapi.utils;
 
+import dev.magicmq.itemapi.serialization.ItemDataInput;
+import dev.magicmq.itemapi.serialization.ItemDataOutput;
+
 import java.io.Serializable;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * A class representing an individual firework effect that can be applied to a firework rocket or a firework star.
  */
-public class FireworkEffect implements Serializable {
+public class FireworkEffect implements Serializable, ContentHashable {
 
     private static final long serialVersionUID = -6270695902643928531L;
 
@@ -71,4 +75,81 @@ public class FireworkEffect implements Serializable {
     public boolean isTrail() {
         return trail;
     }
+
+    /**
+     * Write this effect in ItemAPI's binary format.
+     * @param out The output to which the effect will be written
+     */
+    public void writeBinary(ItemDataOutput out) {
+        out.writeStringField(1, type);
+        out.writeStringListField(2, colors);
+        out.writeStringListField(3, fadeColors);
+        out.writeBooleanField(4, flicker);
+        out.writeBooleanField(5, trail);
+    }
+
+    /**
+     * Read an effect that was written with {@link #writeBinary(ItemDataOutput)}.
+     * @param in The input from which the effect will be read
+     * @return The effect that was read
+     */
+    public static FireworkEffect readBinary(ItemDataInput in) {
+        String type = null;
+        List<String> colors = null;
+        List<String> fadeColors = null;
+        boolean flicker = false;
+        boolean trail = false;
+        for (int tag = in.readTag(); tag != 0; tag = in.readTag()) {
+            switch (ItemDataInput.getFieldNumber(tag)) {
+                case 1:
+                    type = in.readString();
+                    break;
+                case 2:
+                    colors = in.readStringListField();
+                    break;
+                case 3:
+                    fadeColors = in.readStringListField();
+                    break;
+                case 4:
+                    flicker = in.readBoolean();
+                    break;
+                case 5:
+                    trail = in.readBoolean();
+                    break;
+                default:
+                    in.skipField(tag);
+            }
+        }
+        return new FireworkEffect(type, colors, fadeColors, flicker, trail);
+    }
+
+    /**
+     * Get a copy of this effect where the type and colors are interned through a pool.
+     * @param pool The pool through which values will be interned
+     * @return A new FireworkEffect with the same values as this effect
+     */
+    public FireworkEffect compact(InternPool pool) {
+        return new FireworkEffect(pool.intern(type), pool.internAll(colors), pool.internAll(fadeColors), flicker, trail);
+    }
+
+    @Override
+    public void hashContent(ContentHasher hasher) {
+        hasher.putString(type).putStrings(colors).putStrings(fadeColors).putBoolean(flicker).putBoolean(trail);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+
+        FireworkEffect other = (FireworkEffect) o;
+        return flicker == other.flicker && trail == other.trail && Objects.equals(type, other.type) && ContentHasher.listEquals(colors, other.colors) && ContentHasher.listEquals(fadeColors, other.fadeColors);
+    }
+
+    @Override
+    public int hashCode() {
+        return ContentHasher.toHashCode(new ContentHasher().put(this).getHash());
+    }
 }
@@ -0,0 +1,69 @@
+package dev.magicmq.itemapi.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A pool of shared instances used to reduce the memory used by large numbers of items. Strings such as material names, lore lines and enchantment names are often repeated across thousands of items, and interning them through a pool means that each distinct value is only stored once.
+ * Besides strings, the pool can also share immutable value objects such as {@link Pattern} and {@link PotionEffect}, which are matched by their {@link Object#equals(Object) equals} method.
+ * <b>Note:</b> Only objects that are never modified may be added to a pool, because the same instance will be shared by every item that uses an equal value. A pool is safe to use from multiple threads at once.
+ * @see dev.magicmq.itemapi.WrappedItem#compact(InternPool)
+ */
+public class InternPool {
+
+    private final ConcurrentHashMap<Object, Object> values;
+
+    /**
+     * Create a new, empty InternPool class.
+     */
+    public InternPool() {
+        this.values = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Get the shared instance of a value.
+     * @param value The value, which may be null
+     * @param <T> The type of the value
+     * @return The shared instance that is equal to the value, which is the value itself if no equal value was in the pool yet, or null if the value is null
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T intern(T value) {
+        if (value == null)
+            return null;
+
+        Object existing = values.putIfAbsent(value, value);
+        return existing == null ? value : (T) existing;
+    }
+
+    /**
+     * Get a copy of a list in which every element is replaced by its shared instance. The copy is a mutable list with no spare capacity.
+     * @param values The list to copy, which may be null
+     * @param <T> The type of the elements in the list
+     * @return A new list containing the shared instances, or null if the list is null
+     */
+    public <T> List<T> internAll(List<T> values) {
+        if (values == null)
+            return null;
+
+        List<T> interned = new ArrayList<>(values.size());
+        for (T value : values)
+            interned.add(intern(value));
+        return interned;
+    }
+
+    /**
+     * Get the number of distinct values in this pool.
+     * @return The number of values
+     */
+    public int size() {
+        return values.size();
+    }
+
+    /**
+     * Remove all values from this pool. Values that are already shared by items are not affected.
+     */
+    public void clear() {
+        values.clear();
+    }
+}
@@ -1,9 +1,11 @@
 package dev.magicmq.itemapi.utils;
 
+import com.google.common.base.Preconditions;
 import org.bukkit.Bukkit;
 
 /**
  * Utility class designed to check for the running Minecraft version and if it is above/below other versions.
+ * <b>Note:</b> The running version is only resolved once, when this class is first loaded. Use {@link #getCapabilities()} for cheap checks of individual features.
  */
 public enum MCVersion {
 
@@ -28,26 +30,62 @@ public enum MCVersion {
     v1_19_R1(1191),
     v1_19_R2(1192);
 
+    private static volatile MCVersion current = resolveVersion();
+    private static volatile Capabilities capabilities = new Capabilities(current);
+
     private final int versionId;
 
     MCVersion(int versionId) {
         this.versionId = versionId;
     }
 
+    /**
+     * Check if this version is the same as or newer than another version.
+     * @param version The version to compare against
+     * @return True if this version is at least the specified version, false if otherwise
+     */
+    public boolean isAtLeast(MCVersion version) {
+        return versionId >= version.versionId;
+    }
+
+    /**
+     * Get the Minecraft version that the server is running.
+     * @return The running version, or {@link #UNKNOWN} if it could not be determined
+     */
     public static MCVersion getVersion() {
-        String versionString = Bukkit.getServer().getClass().getPackage().getName().split("\\.")[3];
+        return current;
+    }
 
-        MCVersion version;
-        try {
-            version = MCVersion.valueOf(versionString);
-        } catch (IllegalArgumentException e) {
-            version = MCVersion.UNKNOWN;
-        }
+    /**
+     * Get the features that are available in the Minecraft version that the server is running.
+     * @return The capabilities of the running version
+     * @see Capabilities
+     */
+    public static Capabilities getCapabilities() {
+        return capabilities;
+    }
+
+    /**
+     * Override the detected Minecraft version. This is intended for use in tests and benchmarks, where no real server is running.
+     * @param version The version that ItemAPI should behave as if it were running on
+     */
+    public static void setVersion(MCVersion version) {
+        Preconditions.checkArgument(version != null, "version cannot be null!");
 
-        return version;
+        current = version;
+        capabilities = new Capabilities(version);
     }
 
     public static boolean isCurrentVersionAtLeast(MCVersion version) {
-        return getVersion().versionId >= version.versionId;
+        return current.versionId >= version.versionId;
+    }
+
+    private static MCVersion resolveVersion() {
+        try {
+            String versionString = Bukkit.getServer().getClass().getPackage().getName().split("\\.")[3];
+            return MCVersion.valueOf(versionString);
+        } catch (RuntimeException e) {
+            return MCVersion.UNKNOWN;
+        }
     }
 }
@@ -1,11 +1,15 @@
 package dev.magicmq.itemapi.utils;
 
+import dev.magicmq.itemapi.serialization.ItemDataInput;
+import dev.magicmq.itemapi.serialization.ItemDataOutput;
+
 import java.io.Serializable;
+import java.util.Objects;
 
 /**
  * A class representing a pattern that can be applied to a banner or a shield.
  */
-public class Pattern implements Serializable {
+public class Pattern implements Serializable, ContentHashable {
 
     private static final long serialVersionUID = 8303166385745223879L;
 
@@ -37,4 +41,57 @@ public class Pattern implements Serializable {
     public String getPatternType() {
         return patternType;
     }
+
+    /**
+     * Write this pattern in ItemAPI's binary format.
+     * @param out The output to which the pattern will be written
+     */
+    public void writeBinary(ItemDataOutput out) {
+        out.writeStringField(1, color);
+        out.writeStringField(2, patternType);
+    }
+
+    /**
+     * Read a pattern that was written with {@link #writeBinary(ItemDataOutput)}.
+     * @param in The input from which the pattern will be read
+     * @return The pattern that was read
+     */
+    public static Pattern readBinary(ItemDataInput in) {
+        String color = null;
+        String patternType = null;
+        for (int tag = in.readTag(); tag != 0; tag = in.readTag()) {
+            switch (ItemDataInput.getFieldNumber(tag)) {
+                case 1:
+                    color = in.readString();
+                    break;
+                case 2:
+                    patternType = in.readString();
+                    break;
+                default:
+                    in.skipField(tag);
+            }
+        }
+        return new Pattern(color, patternType);
+    }
+
+    @Override
+    public void hashContent(ContentHasher hasher) {
+        hasher.putString(color).putString(patternType);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+
+        Pattern other = (Pattern) o;
+        return Objects.equals(color, other.color) && Objects.equals(patternType, other.patternType);
+    }
+
+    @Override
+    public int hashCode() {
+        return ContentHasher.toHashCode(new ContentHasher().put(this).getHash());
+    }
 }
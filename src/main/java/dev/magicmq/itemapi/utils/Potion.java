@@ -1,10 +1,14 @@
 package dev.magicmq.itemapi.utils;
 
-import java.util.Arrays;
+import org.bukkit.potion.PotionType;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
 
 /**
  * A wrapper class representing all available potions up to the current Minecraft version as well as common names for more easy parsing from config files.
- * <b>Note:</b> For forwards/backwards compatibility, Bukkit PotionType is not referenced at all in this class, only the enum names.
+ * <b>Note:</b> For forwards/backwards compatibility, Bukkit PotionType constants are not referenced at all in this class, only the enum names.
  */
 public enum Potion {
 
@@ -26,6 +30,18 @@ public enum Potion {
     TURTLE_MASTER ("TURTLE_MASTER", "TURTLE_MASTER", new String[]{"turtlemaster", "masterturtle", "turtle_master"}),
     SLOW_FALLING("SLOW_FALLING", "SLOW_FALLING", new String[]{"slowfalling", "fallingslow", "slowfall", "fallslow", "slow_falling"});
 
+    private static final Map<String, Potion> BY_NAME = new HashMap<>();
+    private static final Map<String, Potion> BY_BUKKIT_NAME = new HashMap<>();
+
+    static {
+        for (Potion potion : values()) {
+            BY_NAME.putIfAbsent(potion.name.toLowerCase(Locale.ROOT), potion);
+            for (String alias : potion.aliases)
+                BY_NAME.putIfAbsent(alias.toLowerCase(Locale.ROOT), potion);
+            BY_BUKKIT_NAME.putIfAbsent(potion.bukkitPotionType, potion);
+        }
+    }
+
     private final String bukkitPotionType;
     private final String name;
     private final String[] aliases;
@@ -46,13 +62,15 @@ public enum Potion {
      * @return The enum representing the potion if one was found, null if nothing was found that matched the specified name.
      */
     public static Potion getByName(String name) {
-        for (Potion potion : values()) {
-            if (potion.name.equalsIgnoreCase(name))
-                return potion;
+        return BY_NAME.get(name.toLowerCase(Locale.ROOT));
+    }
 
-            if (Arrays.asList(potion.aliases).contains(name.toLowerCase()))
-                return potion;
-        }
-        return null;
+    /**
+     * Get the potion that corresponds to a Bukkit potion type.
+     * @param potionType The Bukkit potion type
+     * @return The enum representing the potion if one was found, null if the potion type is not known to ItemAPI.
+     */
+    public static Potion getByBukkitPotionType(PotionType potionType) {
+        return BY_BUKKIT_NAME.get(potionType.name());
     }
 }
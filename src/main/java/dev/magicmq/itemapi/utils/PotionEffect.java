@@ -1,11 +1,15 @@
 package dev.magicmq.itemapi.utils;
 
+import dev.magicmq.itemapi.serialization.ItemDataInput;
+import dev.magicmq.itemapi.serialization.ItemDataOutput;
+
 import java.io.Serializable;
+import java.util.Objects;
 
 /**
  * A class representing a potion effect that can be applied to a suspicious stew.
  */
-public class PotionEffect implements Serializable {
+public class PotionEffect implements Serializable, ContentHashable {
 
     private static final long serialVersionUID = -1769423775962675617L;
 
@@ -81,4 +85,77 @@ public class PotionEffect implements Serializable {
     public boolean hasIcon() {
         return icon;
     }
+
+    /**
+     * Write this potion effect in ItemAPI's binary format.
+     * @param out The output to which the potion effect will be written
+     */
+    public void writeBinary(ItemDataOutput out) {
+        out.writeStringField(1, potion);
+        out.writeStringField(2, duration);
+        out.writeIntField(3, amplifier);
+        out.writeBooleanField(4, ambient);
+        out.writeBooleanField(5, particles);
+        out.writeBooleanField(6, icon);
+    }
+
+    /**
+     * Read a potion effect that was written with {@link #writeBinary(ItemDataOutput)}.
+     * @param in The input from which the potion effect will be read
+     * @return The potion effect that was read
+     */
+    public static PotionEffect readBinary(ItemDataInput in) {
+        String potion = null;
+        String duration = null;
+        int amplifier = 0;
+        boolean ambient = false;
+        boolean particles = false;
+        boolean icon = false;
+        for (int tag = in.readTag(); tag != 0; tag = in.readTag()) {
+            switch (ItemDataInput.getFieldNumber(tag)) {
+                case 1:
+                    potion = in.readString();
+                    break;
+                case 2:
+                    duration = in.readString();
+                    break;
+                case 3:
+                    amplifier = in.readSignedVarInt();
+                    break;
+                case 4:
+                    ambient = in.readBoolean();
+                    break;
+                case 5:
+                    particles = in.readBoolean();
+                    break;
+                case 6:
+                    icon = in.readBoolean();
+                    break;
+                default:
+                    in.skipField(tag);
+            }
+        }
+        return new PotionEffect(potion, duration, amplifier, ambient, particles, icon);
+    }
+
+    @Override
+    public void hashContent(ContentHasher hasher) {
+        hasher.putString(potion).putString(duration).putInt(amplifier).putBoolean(ambient).putBoolean(particles).putBoolean(icon);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+
+        PotionEffect other = (PotionEffect) o;
+        return amplifier == other.amplifier && ambient == other.ambient && particles == other.particles && icon == other.icon && Objects.equals(potion, other.potion) && Objects.equals(duration, other.duration);
+    }
+
+    @Override
+    public int hashCode() {
+        return ContentHasher.toHashCode(new ContentHasher().put(this).getHash());
+    }
 }
@@ -0,0 +1,120 @@
+package dev.magicmq.itemapi.utils;
+
+import dev.magicmq.itemapi.WrappedItem;
+import dev.magicmq.itemapi.utils.exception.ItemValidationException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Resolves the names stored in an item (such as materials, item flags, dye colors and entity types) into the values they refer to, and collects every name that cannot be resolved instead of stopping at the first one.
+ * Resolvers are used by {@link WrappedItem#resolve()} and {@link dev.magicmq.itemapi.metadata.Metadata#resolve()}. Subclasses of Metadata use the resolver passed to {@link dev.magicmq.itemapi.metadata.Metadata#resolveValues(Resolver) resolveValues} to resolve their own fields.
+ */
+public final class Resolver {
+
+    //Most items have no problems, so the list is only created once the first problem is reported
+    private List<String> problems;
+    private String prefix;
+
+    /**
+     * Create a new Resolver class with no problems.
+     */
+    public Resolver() {
+        this.prefix = "";
+    }
+
+    /**
+     * Resolve the name of an enum constant. Names must match exactly, as with {@link Enum#valueOf(Class, String)}.
+     * @param key The key of the value in the item's configuration section, which is used to describe the problem if the name cannot be resolved
+     * @param type The enum class
+     * @param name The name to resolve
+     * @param <E> The type of the enum
+     * @return The enum constant, or null if the name is null or cannot be resolved
+     */
+    public <E extends Enum<E>> E resolveEnum(String key, Class<E> type, String name) {
+        if (name == null)
+            return null;
+
+        try {
+            return Enum.valueOf(type, name);
+        } catch (IllegalArgumentException ignored) {
+            report(key, "Unknown " + type.getSimpleName() + " " + name + "!");
+            return null;
+        }
+    }
+
+    /**
+     * Resolve a value with a function. The value cannot be resolved if the function returns null or throws an exception, in which case the message of the exception is used to describe the problem.
+     * @param key The key of the value in the item's configuration section, which is used to describe the problem if the value cannot be resolved
+     * @param value The value to resolve
+     * @param function The function that resolves the value
+     * @param <T> The type of the resolved value
+     * @return The resolved value, or null if the value is null or cannot be resolved
+     */
+    public <T> T resolve(String key, String value, Function<String, T> function) {
+        if (value == null)
+            return null;
+
+        try {
+            T resolved = function.apply(value);
+            if (resolved == null)
+                report(key, "Invalid value " + value + "!");
+            return resolved;
+        } catch (RuntimeException e) {
+            report(key, e.getMessage() != null ? e.getMessage() : "Invalid value " + value + "!");
+            return null;
+        }
+    }
+
+    /**
+     * Resolve an item nested within the item being resolved, such as an item inside a shulker box. Problems found in the nested item are added to this resolver, with the key of the nested item in front of them.
+     * @param key The key of the nested item
+     * @param item The nested item
+     */
+    public void resolveItem(String key, WrappedItem item) {
+        String prefix = this.prefix;
+        this.prefix = prefix + key + ".";
+        try {
+            item.resolve(this);
+        } finally {
+            this.prefix = prefix;
+        }
+    }
+
+    /**
+     * Report a problem with a value that could not be resolved.
+     * @param key The key of the value in the item's configuration section
+     * @param problem A description of the problem
+     */
+    public void report(String key, String problem) {
+        if (problems == null)
+            problems = new ArrayList<>();
+        problems.add(prefix + key + ": " + problem);
+    }
+
+    /**
+     * Get the number of problems that were found so far.
+     * @return The number of problems
+     */
+    public int getProblemCount() {
+        return problems == null ? 0 : problems.size();
+    }
+
+    /**
+     * Get all problems that were found so far.
+     * @return A new list containing the problems, in the order they were found
+     */
+    public List<String> getProblems() {
+        return problems == null ? new ArrayList<>() : new ArrayList<>(problems);
+    }
+
+    /**
+     * Throw an exception listing all problems, if any were found.
+     * @throws ItemValidationException If at least one value could not be resolved
+     */
+    public void throwIfInvalid() {
+        if (problems != null)
+            throw new ItemValidationException(getProblems());
+    }
+}
@@ -0,0 +1,20 @@
+package dev.magicmq.itemapi.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Utility class that hands out revision stamps used to detect changes to WrappedItems and their components.
+ * <b>Note:</b> Stamps are taken from a single global counter, so a newer change always has a higher stamp than an older one, even across different objects.
+ */
+public class Revision {
+
+    private static final AtomicLong COUNTER = new AtomicLong();
+
+    /**
+     * Get a new revision stamp.
+     * @return A revision stamp that is higher than every stamp handed out before it
+     */
+    public static long next() {
+        return COUNTER.incrementAndGet();
+    }
+}
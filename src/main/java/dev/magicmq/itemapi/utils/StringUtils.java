@@ -4,7 +4,7 @@ import java.util.regex.Matcher;
 
 public class StringUtils {
 
-    private static final java.util.regex.Pattern timePattern = java.util.regex.Pattern.compile("\\G([0-9]+)(seconds|minutes|hours|days|sec|min|hour|day|s|m|h|d)");
+    private static final java.util.regex.Pattern timePattern = java.util.regex.Pattern.compile("\\G([0-9]+)(seconds|minutes|hours|days|ticks|tick|sec|min|hour|day|s|m|h|d|t)");
 
     public static int parseTime(String input) {
         input = input.toLowerCase();
@@ -14,7 +14,9 @@ public class StringUtils {
         while (matcher.find()) {
             int num = Integer.parseInt(matcher.group(1));
             String dur = matcher.group(2);
-            if (dur.equals("seconds") || dur.equals("sec") || dur.equals("s")) {
+            if (dur.equals("ticks") || dur.equals("tick") || dur.equals("t")) {
+                ticks += num;
+            } else if (dur.equals("seconds") || dur.equals("sec") || dur.equals("s")) {
                 ticks += num * 20;
             } else if (dur.equals("minutes") || dur.equals("min") || dur.equals("m")) {
                 ticks += num * (20 * 60);
@@ -28,7 +30,25 @@ public class StringUtils {
         return ticks;
     }
 
+    public static int parseTimeStrictly(String input) {
+        //Unlike parseTime, anything that is not part of a duration is an error instead of being ignored
+        String trimmed = input.toLowerCase().replace(" ", "");
+        Matcher matcher = timePattern.matcher(trimmed);
+        int end = 0;
+        while (matcher.find())
+            end = matcher.end();
+        if (trimmed.isEmpty() || end != trimmed.length())
+            throw new IllegalArgumentException("Invalid duration " + input + "! Use a duration such as 5m30s.");
+
+        return parseTime(trimmed);
+    }
+
     public static String formatTicks(int ticks) {
-        return (ticks * 20L) + "s";
+        //Durations that are not a whole number of seconds keep the remaining ticks, so that parsing the result gives back the same number of ticks
+        int seconds = ticks / 20;
+        int remainder = ticks % 20;
+        if (remainder == 0)
+            return seconds + "s";
+        return seconds == 0 ? remainder + "t" : seconds + "s" + remainder + "t";
     }
 }
@@ -0,0 +1,13 @@
+package dev.magicmq.itemapi.utils.exception;
+
+/**
+ * Thrown if binary item data cannot be read or written, for example because the data is truncated, corrupted, or was written by a newer version of ItemAPI.
+ */
+public class ItemDataException extends RuntimeException {
+
+    private static final long serialVersionUID = -3861294208867705384L;
+
+    public ItemDataException(String message) {
+        super(message);
+    }
+}
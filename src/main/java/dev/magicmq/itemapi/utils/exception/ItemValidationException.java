@@ -0,0 +1,35 @@
+package dev.magicmq.itemapi.utils.exception;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Thrown if an item refers to values that do not exist in the running Minecraft version, such as a misspelled material, enchantment, item flag or dye color. Every problem found in the item, including problems in items nested within it, is listed in a single exception.
+ * @see dev.magicmq.itemapi.WrappedItem#resolve()
+ */
+public class ItemValidationException extends RuntimeException {
+
+    private static final long serialVersionUID = 5712004473360275931L;
+
+    private final List<String> problems;
+
+    public ItemValidationException(List<String> problems) {
+        super(buildMessage(problems));
+        this.problems = Collections.unmodifiableList(problems);
+    }
+
+    /**
+     * Get every problem that was found in the item.
+     * @return An unmodifiable list of problems, each starting with the key of the value that could not be resolved
+     */
+    public List<String> getProblems() {
+        return problems;
+    }
+
+    private static String buildMessage(List<String> problems) {
+        StringBuilder message = new StringBuilder("The item could not be resolved because of ").append(problems.size()).append(problems.size() == 1 ? " problem:" : " problems:");
+        for (String problem : problems)
+            message.append("\n - ").append(problem);
+        return message.toString();
+    }
+}
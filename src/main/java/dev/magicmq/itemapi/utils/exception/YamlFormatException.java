@@ -0,0 +1,17 @@
+package dev.magicmq.itemapi.utils.exception;
+
+/**
+ * Thrown if a YAML file that is read one item at a time is not valid YAML, or if it uses a feature that cannot be read without loading the whole file, such as aliases.
+ */
+public class YamlFormatException extends RuntimeException {
+
+    private static final long serialVersionUID = 2218840913508672714L;
+
+    public YamlFormatException(String message) {
+        super(message);
+    }
+
+    public YamlFormatException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
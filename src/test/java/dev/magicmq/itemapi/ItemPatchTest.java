@@ -0,0 +1,105 @@
+package dev.magicmq.itemapi;
+
+import dev.magicmq.itemapi.nbt.NBTTag;
+import dev.magicmq.itemapi.nbt.NBTTagType;
+import dev.magicmq.itemapi.serialization.ItemDataOutput;
+import dev.magicmq.itemapi.serialization.WireType;
+import dev.magicmq.itemapi.utils.exception.ItemDataException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Creates patches between items and applies them, both directly and after encoding them.
+ */
+public class ItemPatchTest {
+
+    @Test
+    public void appliedPatchProducesTarget() {
+        WrappedItem base = createItem();
+        WrappedItem target = createItem();
+        target.setAmount(5);
+        target.getNbtData().getNbtTag("kills").setValue(11);
+        target.getNbtData().putNbtTagAtPath(NBTTagType.STRING, "data.owner", "notch");
+        target.getNbtData().removeNBTTag("level");
+
+        ItemPatch patch = ItemPatch.diff(base, target);
+        assertFalse(patch.isEmpty());
+
+        assertEquals(target, patch.applyTo(createItem()));
+        assertEquals(target, ItemPatch.decode(patch.encode()).applyTo(createItem()));
+        assertTrue(ItemPatch.diff(target, target).isEmpty());
+    }
+
+    @Test
+    public void patchDoesNotShareTagsWithTarget() {
+        WrappedItem base = createItem();
+        WrappedItem target = createItem();
+        target.getNbtData().getNbtTag("kills").setValue(11);
+        target.getNbtData().putNbtTagAtPath(NBTTagType.STRING, "data.owner", "notch");
+
+        ItemPatch patch = ItemPatch.diff(base, target);
+        target.getNbtData().getNbtTag("kills").setValue(12);
+        target.getNbtData().getNbtTagAtPath("data.owner").setValue("jeb");
+
+        WrappedItem patched = patch.applyTo(createItem());
+        assertEquals(11, patched.getNbtData().getNbtTag("kills").getValue());
+        assertEquals("notch", patched.getNbtData().getNbtTagAtPath("data.owner").getValue());
+    }
+
+    @Test
+    public void patchedItemsDoNotShareTags() {
+        WrappedItem base = createItem();
+        WrappedItem target = createItem();
+        target.getNbtData().putNbtTagAtPath(NBTTagType.STRING, "data.owner", "notch");
+        ItemPatch patch = ItemPatch.diff(base, target);
+
+        WrappedItem first = patch.applyTo(createItem());
+        WrappedItem second = patch.applyTo(createItem());
+        NBTTag owner = first.getNbtData().getNbtTagAtPath("data.owner");
+        assertNotSame(owner, second.getNbtData().getNbtTagAtPath("data.owner"));
+
+        owner.setValue("jeb");
+        assertEquals("notch", second.getNbtData().getNbtTagAtPath("data.owner").getValue());
+    }
+
+    @Test
+    public void corruptedPatchLeavesItemUntouched() {
+        WrappedItem item = createItem();
+        WrappedItem original = createItem();
+        NBTTag tag = new NBTTag(NBTTagType.INT, "x", 1);
+
+        //Changes the amount and puts a tag inside a compound tag that does not exist
+        ItemDataOutput out = new ItemDataOutput();
+        out.writeByte(ItemPatch.MAGIC);
+        out.writeByte(ItemPatch.VERSION);
+        out.writeTag(1, WireType.FIXED64);
+        out.writeFixed64(item.contentHash());
+        out.writeIntField(3, 5);
+        out.writeNestedField(7, changeOut -> {
+            changeOut.writeStringListField(1, Arrays.asList("missing", "x"));
+            changeOut.writeNestedField(2, tag::writeBinary);
+        });
+        ItemPatch patch = ItemPatch.decode(out.toByteArray());
+
+        assertThrows(ItemDataException.class, () -> patch.applyTo(item));
+        assertEquals(original, item);
+        assertEquals(1, item.getAmount());
+        assertNull(item.getNbtData().getNbtTag("missing"));
+    }
+
+    private static WrappedItem createItem() {
+        WrappedItem item = new WrappedItem("DIAMOND_SWORD");
+        item.getNbtData().addNbtTag(NBTTagType.INT, "kills", 10);
+        item.getNbtData().addNbtTag(NBTTagType.INT, "level", 3);
+        item.getNbtData().putNbtTagAtPath(NBTTagType.INT, "data.depth", 2);
+        return item;
+    }
+}
@@ -0,0 +1,54 @@
+package dev.magicmq.itemapi.nbt;
+
+import dev.magicmq.itemapi.utils.ContentHasher;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Changes tags of NBT data directly and checks that the NBT data notices the changes.
+ */
+public class NBTDataTest {
+
+    @Test
+    public void settingNestedValueMarksDataModified() {
+        NBTData nbtData = createData();
+        long revision = nbtData.getRevision();
+        long hash = nbtData.contentHash();
+
+        nbtData.getNbtTagAtPath("data.depth").setValue(3);
+        assertNotEquals(revision, nbtData.getRevision());
+        assertNotEquals(hash, nbtData.contentHash());
+        assertEquals(new ContentHasher().put(nbtData).getHash(), nbtData.contentHash());
+    }
+
+    @Test
+    public void childrenAreChangedThroughTheirParent() {
+        NBTData nbtData = createData();
+        NBTTag compound = nbtData.getNbtTag("data");
+        assertThrows(UnsupportedOperationException.class, () -> compound.getChildren().remove("depth"));
+
+        long revision = nbtData.getRevision();
+        compound.putChild(new NBTTag(NBTTagType.STRING, "owner", "notch"));
+        assertNotEquals(revision, nbtData.getRevision());
+        assertEquals("notch", nbtData.getNbtTagAtPath("data.owner").getValue());
+
+        revision = nbtData.getRevision();
+        NBTTag removed = compound.removeChild("owner");
+        assertNotEquals(revision, nbtData.getRevision());
+
+        //A removed tag no longer belongs to the NBT data
+        revision = nbtData.getRevision();
+        removed.setValue("jeb");
+        assertEquals(revision, nbtData.getRevision());
+    }
+
+    private static NBTData createData() {
+        NBTData nbtData = new NBTData();
+        nbtData.addNbtTag(NBTTagType.INT, "kills", 10);
+        nbtData.putNbtTagAtPath(NBTTagType.INT, "data.depth", 2);
+        return nbtData;
+    }
+}
@@ -0,0 +1,128 @@
+package dev.magicmq.itemapi.serialization;
+
+import dev.magicmq.itemapi.WrappedItem;
+import dev.magicmq.itemapi.metadata.ShulkerBoxMetadata;
+import dev.magicmq.itemapi.nbt.NBTData;
+import dev.magicmq.itemapi.nbt.NBTTag;
+import dev.magicmq.itemapi.nbt.NBTTagType;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Decodes Base64 strings that were written with Java serialization by the last version of ItemAPI before the binary format was introduced.
+ */
+public class LegacyDecodeTest {
+
+    //A DIAMOND_SWORD with the tags owner (STRING), level (INT), data (COMPOUND containing name and a nested compound with depth), bytes (BYTE_ARRAY), ints (INT_ARRAY) and scores (LIST of INT)
+    private static final String NBT_ITEM = "rO0ABXNyAB9kZXYubWFnaWNtcS5pdGVtYXBpLldyYXBwZWRJdGVt2lO+KrHxHNwCAAVJAAZhbW91bnRTAAZkYW1hZ2VMAAhtYXRl" +
+            "cmlhbHQAEkxqYXZhL2xhbmcvU3RyaW5nO0wACG1ldGFkYXRhdAAnTGRldi9tYWdpY21xL2l0ZW1hcGkvbWV0YWRhdGEvTWV0YWRh" +
+            "dGE7TAAHbmJ0RGF0YXQAIUxkZXYvbWFnaWNtcS9pdGVtYXBpL25idC9OQlREYXRhO3hwAAAAAgAAdAANRElBTU9ORF9TV09SRHNy" +
+            "ACVkZXYubWFnaWNtcS5pdGVtYXBpLm1ldGFkYXRhLk1ldGFkYXRhP8EoFqRhW3cCAAZaAAt1bmJyZWFrYWJsZUwADGVuY2hhbnRt" +
+            "ZW50c3QAEExqYXZhL3V0aWwvTGlzdDtMAAVmbGFnc3EAfgAHTAAEbG9yZXEAfgAHTAAFbW9kZWx0ABNMamF2YS9sYW5nL0ludGVn" +
+            "ZXI7TAAEbmFtZXEAfgABeHAAcHBwcHBzcgAfZGV2Lm1hZ2ljbXEuaXRlbWFwaS5uYnQuTkJURGF0YSzIQ0mCcW0lAgABTAAHbmJ0" +
+            "VGFnc3EAfgAHeHBzcgATamF2YS51dGlsLkFycmF5TGlzdHiB0h2Zx2GdAwABSQAEc2l6ZXhwAAAABncEAAAABnNyAB5kZXYubWFn" +
+            "aWNtcS5pdGVtYXBpLm5idC5OQlRUYWe9AATMihraWgIABEwAA2tleXEAfgABTAAIbGlzdFR5cGV0ACRMZGV2L21hZ2ljbXEvaXRl" +
+            "bWFwaS9uYnQvTkJUVGFnVHlwZTtMAAR0eXBlcQB+AA9MAAV2YWx1ZXQAEkxqYXZhL2xhbmcvT2JqZWN0O3hwdAAFb3duZXJwfnIA" +
+            "ImRldi5tYWdpY21xLml0ZW1hcGkubmJ0Lk5CVFRhZ1R5cGUAAAAAAAAAABIAAHhyAA5qYXZhLmxhbmcuRW51bQAAAAAAAAAAEgAA" +
+            "eHB0AAZTVFJJTkd0AAdtYWdpY21xc3EAfgAOdAAFbGV2ZWxwfnEAfgATdAADSU5Uc3IAEWphdmEubGFuZy5JbnRlZ2VyEuKgpPeB" +
+            "hzgCAAFJAAV2YWx1ZXhyABBqYXZhLmxhbmcuTnVtYmVyhqyVHQuU4IsCAAB4cAAAAAdzcQB+AA50AARkYXRhcH5xAH4AE3QACENP" +
+            "TVBPVU5Ec3EAfgAMAAAAAncEAAAAAnNxAH4ADnQABG5hbWVwcQB+ABV0AAVpbm5lcnNxAH4ADnQABm5lc3RlZHBxAH4AIXNxAH4A" +
+            "DAAAAAF3BAAAAAFzcQB+AA50AAVkZXB0aHBxAH4AGnNxAH4AHAAAAAJ4eHNxAH4ADnQABWJ5dGVzcH5xAH4AE3QACkJZVEVfQVJS" +
+            "QVlzcgAaamF2YS51dGlsLkFycmF5cyRBcnJheUxpc3TZpDy+zYgG0gIAAVsAAWF0ABNbTGphdmEvbGFuZy9PYmplY3Q7eHB1cgAR" +
+            "W0xqYXZhLmxhbmcuQnl0ZTuUEGwvhGiLbgIAAHhwAAAAA3NyAA5qYXZhLmxhbmcuQnl0ZZxOYITuUPUcAgABQgAFdmFsdWV4cQB+" +
+            "AB0Bc3EAfgA2/nNxAH4ANgNzcQB+AA50AARpbnRzcH5xAH4AE3QACUlOVF9BUlJBWXNxAH4AMXVyABRbTGphdmEubGFuZy5JbnRl" +
+            "Z2VyO/6XraABg+IbAgAAeHAAAAADc3EAfgAcAAAACnNxAH4AHP///+xzcQB+ABwAAAAec3EAfgAOdAAGc2NvcmVzcQB+ABp+cQB+" +
+            "ABN0AARMSVNUc3EAfgAMAAAAA3cEAAAAA3QAATR0AAE1dAABNnh4";
+
+    //A SHULKER_BOX containing three identical DIAMONDs in slots 0, 5 and 9
+    private static final String SHULKER_ITEM = "rO0ABXNyAB9kZXYubWFnaWNtcS5pdGVtYXBpLldyYXBwZWRJdGVt2lO+KrHxHNwCAAVJAAZhbW91bnRTAAZkYW1hZ2VMAAhtYXRl" +
+            "cmlhbHQAEkxqYXZhL2xhbmcvU3RyaW5nO0wACG1ldGFkYXRhdAAnTGRldi9tYWdpY21xL2l0ZW1hcGkvbWV0YWRhdGEvTWV0YWRh" +
+            "dGE7TAAHbmJ0RGF0YXQAIUxkZXYvbWFnaWNtcS9pdGVtYXBpL25idC9OQlREYXRhO3hwAAAAAQAAdAALU0hVTEtFUl9CT1hzcgAv" +
+            "ZGV2Lm1hZ2ljbXEuaXRlbWFwaS5tZXRhZGF0YS5TaHVsa2VyQm94TWV0YWRhdGFDk5s+lO8hKwIAAUwACGNvbnRlbnRzdAATTGph" +
+            "dmEvdXRpbC9IYXNoTWFwO3hyACVkZXYubWFnaWNtcS5pdGVtYXBpLm1ldGFkYXRhLk1ldGFkYXRhP8EoFqRhW3cCAAZaAAt1bmJy" +
+            "ZWFrYWJsZUwADGVuY2hhbnRtZW50c3QAEExqYXZhL3V0aWwvTGlzdDtMAAVmbGFnc3EAfgAJTAAEbG9yZXEAfgAJTAAFbW9kZWx0" +
+            "ABNMamF2YS9sYW5nL0ludGVnZXI7TAAEbmFtZXEAfgABeHAAcHBwcHBzcgARamF2YS51dGlsLkhhc2hNYXAFB9rBwxZg0QMAAkYA" +
+            "CmxvYWRGYWN0b3JJAAl0aHJlc2hvbGR4cD9AAAAAAAAMdwgAAAAQAAAAA3NxAH4AAAAAAAEAAHQAB0RJQU1PTkRzcQB+AAgAcHBw" +
+            "cHBzcgAfZGV2Lm1hZ2ljbXEuaXRlbWFwaS5uYnQuTkJURGF0YSzIQ0mCcW0lAgABTAAHbmJ0VGFnc3EAfgAJeHBzcgATamF2YS51" +
+            "dGlsLkFycmF5TGlzdHiB0h2Zx2GdAwABSQAEc2l6ZXhwAAAAAHcEAAAAAHhzcgARamF2YS5sYW5nLkludGVnZXIS4qCk94GHOAIA" +
+            "AUkABXZhbHVleHIAEGphdmEubGFuZy5OdW1iZXKGrJUdC5TgiwIAAHhwAAAABXNxAH4AAAAAAAEAAHEAfgAPc3EAfgAIAHBwcHBw" +
+            "c3EAfgARc3EAfgATAAAAAHcEAAAAAHhzcQB+ABUAAAAJc3EAfgAAAAAAAQAAcQB+AA9zcQB+AAgAcHBwcHBzcQB+ABFzcQB+ABMA" +
+            "AAAAdwQAAAAAeHNxAH4AFQAAAAB4c3EAfgARc3EAfgATAAAAAHcEAAAAAHg=";
+
+    @Test
+    public void decodesNbtTagsWrittenAsLists() throws Exception {
+        WrappedItem item = decode(NBT_ITEM);
+        NBTData nbt = item.getNbtData();
+
+        assertEquals("DIAMOND_SWORD", item.getMaterial());
+        assertEquals(2, item.getAmount());
+        assertEquals(6, nbt.getNbtTags().size());
+        assertEquals("magicmq", nbt.getNbtTag("owner").getValue());
+        assertEquals(7, nbt.getNbtTag("level").getValue());
+
+        NBTTag data = nbt.getNbtTag("data");
+        assertTrue(data.isCompoundTag());
+        assertEquals("inner", data.getChild("name").getValue());
+        NBTTag depth = nbt.getNbtTagAtPath("data.nested.depth");
+        assertNotNull(depth);
+        assertEquals(NBTTagType.INT, depth.getType());
+        assertEquals(2, depth.getValue());
+    }
+
+    @Test
+    public void convertsBoxedArraysAndNumericLists() throws Exception {
+        NBTData nbt = decode(NBT_ITEM).getNbtData();
+
+        assertArrayEquals(new byte[] {1, -2, 3}, (byte[]) nbt.getNbtTag("bytes").getValue());
+        assertArrayEquals(new int[] {10, -20, 30}, (int[]) nbt.getNbtTag("ints").getValue());
+        assertArrayEquals(new int[] {4, 5, 6}, (int[]) nbt.getNbtTag("scores").getValue());
+    }
+
+    @Test
+    public void legacyItemsCanBeHashedAndReencoded() throws Exception {
+        WrappedItem item = decode(NBT_ITEM);
+
+        WrappedItem reencoded = ItemCodec.decode(ItemCodec.encode(item));
+        assertFalse(ItemCodec.isLegacy(ItemCodec.encode(item)));
+        assertEquals(item, reencoded);
+        assertEquals(item.contentHash(), reencoded.contentHash());
+    }
+
+    @Test
+    public void keepsIdenticalShulkerItemsInEverySlot() throws Exception {
+        WrappedItem item = decode(SHULKER_ITEM);
+        Map<WrappedItem, Integer> contents = ((ShulkerBoxMetadata) item.getMetadata()).getContentMap();
+
+        assertEquals("SHULKER_BOX", item.getMaterial());
+        assertTrue(contents instanceof IdentityHashMap);
+        assertEquals(3, contents.size());
+        Set<Integer> slots = new HashSet<>();
+        for (Map.Entry<WrappedItem, Integer> entry : contents.entrySet()) {
+            assertEquals("DIAMOND", entry.getKey().getMaterial());
+            slots.add(entry.getValue());
+        }
+        assertEquals(new HashSet<>(Arrays.asList(0, 5, 9)), slots);
+
+        WrappedItem reencoded = ItemCodec.decode(ItemCodec.encode(item));
+        assertEquals(3, ((ShulkerBoxMetadata) reencoded.getMetadata()).getContentMap().size());
+        assertEquals(item, reencoded);
+    }
+
+    private static WrappedItem decode(String base64) throws Exception {
+        byte[] data = Base64.getDecoder().decode(base64);
+        assertTrue(ItemCodec.isLegacy(data));
+        return ItemCodec.decode(data);
+    }
+}
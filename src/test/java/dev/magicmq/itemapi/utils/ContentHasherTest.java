@@ -0,0 +1,52 @@
+package dev.magicmq.itemapi.utils;
+
+import dev.magicmq.itemapi.text.FormattedText;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Hashes and compares text written in the different formats supported by FormattedText, as is done when an item from a config file is compared with an item read from an ItemStack.
+ */
+public class ContentHasherTest {
+
+    @Test
+    public void hexColorsMatchTheirLegacyForm() {
+        MCVersion.setVersion(MCVersion.v1_19_R2);
+        String legacy = "\u00A7x\u00A7f\u00A7f\u00A78\u00A78\u00A70\u00A70Name";
+
+        assertSameText("&#FF8800Name", legacy);
+        assertSameText("&#ff8800Name", "\u00A7X\u00A7F\u00A7F\u00A78\u00A78\u00A70\u00A70Name");
+        assertSameText(FormattedText.unformat(legacy), legacy);
+        assertSameText("&#FF8800Name", FormattedText.unformat(legacy));
+        assertFalse(ContentHasher.textEquals("&#FF8800Name", "&#FF8801Name"));
+    }
+
+    @Test
+    public void hexColorsStayDistinctOnOlderVersions() {
+        MCVersion.setVersion(MCVersion.v1_12_R1);
+        try {
+            assertSameText("&#FF8800Name", "\u00A7x\u00A7f\u00A7f\u00A78\u00A78\u00A70\u00A70Name");
+            assertFalse(ContentHasher.textEquals("&#FF8800Name", "&#FF8801Name"));
+        } finally {
+            MCVersion.setVersion(MCVersion.v1_19_R2);
+        }
+    }
+
+    @Test
+    public void legacyCodesMatchRegardlessOfCase() {
+        MCVersion.setVersion(MCVersion.v1_19_R2);
+
+        assertSameText("&cName", "\u00A7cName");
+        assertSameText("&CName", "\u00A7CName");
+        assertSameText("A & B", "A & B");
+        assertFalse(ContentHasher.textEquals("&cName", "&dName"));
+    }
+
+    private static void assertSameText(String first, String second) {
+        assertTrue(ContentHasher.textEquals(first, second));
+        assertEquals(new ContentHasher().putText(first).getHash(), new ContentHasher().putText(second).getHash());
+    }
+}
@@ -0,0 +1,33 @@
+package dev.magicmq.itemapi.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Formats durations in ticks and parses them back, as is done for the potion effects of suspicious stews read from an ItemStack.
+ */
+public class StringUtilsTest {
+
+    @Test
+    public void formattedTicksParseToTheSameTicks() {
+        for (int ticks : new int[] {0, 7, 20, 140, 150, 6600, 20 * 3600 + 13})
+            assertEquals(ticks, StringUtils.parseTimeStrictly(StringUtils.formatTicks(ticks)));
+    }
+
+    @Test
+    public void formatsWholeSecondsWithoutTicks() {
+        assertEquals("7s", StringUtils.formatTicks(140));
+        assertEquals("7s10t", StringUtils.formatTicks(150));
+        assertEquals("7t", StringUtils.formatTicks(7));
+    }
+
+    @Test
+    public void parsesTicksAlongsideOtherUnits() {
+        assertEquals(20 * 60 + 20 * 5 + 3, StringUtils.parseTimeStrictly("1m5s3t"));
+        assertEquals(25, StringUtils.parseTimeStrictly("25ticks"));
+        assertEquals(20 * 330, StringUtils.parseTimeStrictly("5m30s"));
+        assertThrows(IllegalArgumentException.class, () -> StringUtils.parseTimeStrictly("5x"));
+    }
+}